@@ -0,0 +1,451 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.gateway.common.api.matcher;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.regex.Pattern;
+
+import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiDefinition;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiPathPredicateItem;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiPredicateItem;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * <p>Matcher of all gateway API definitions compiled into one index, so that the cost of matching a request
+ * does not grow linearly with the amount of API definitions:</p>
+ * <ul>
+ *     <li>exact path items are looked up in a hash map;</li>
+ *     <li>prefix items in the form of {@code /some/path/**} are kept in a character trie, so all of them are
+ *     matched in one walk of the request path;</li>
+ *     <li>regex items are attached to the trie node of their literal prefix (e.g. {@code /order/} for
+ *     {@code /order/\d+}), so only the regex items whose literal prefix matches the path are evaluated.</li>
+ * </ul>
+ *
+ * <p>The other prefix items (i.e. Ant-style patterns with wildcards in the middle) can't be compiled.
+ * The API definitions having such items are tested with their own {@link AbstractApiMatcher} instead,
+ * as well as all API definitions when the path contains consecutive slashes, which are ignored by Ant-style
+ * matching.</p>
+ *
+ * <p>The matcher is immutable and should be rebuilt when the API definitions change.</p>
+ *
+ * @param <T> type of the request
+ * @since 1.8.6
+ */
+public final class CompiledApiMatcher<T> {
+
+    private static final int[] EMPTY_IDS = new int[0];
+    private static final String ANT_MATCH_ALL_SUFFIX = "/**";
+
+    private static final ThreadLocal<MatchResult> RESULT_HOLDER = new ThreadLocal<MatchResult>() {
+        @Override
+        protected MatchResult initialValue() {
+            return new MatchResult();
+        }
+    };
+
+    private final String[] apiNames;
+    private final Map<String, int[]> exactPaths;
+    private final TrieNode root;
+    /**
+     * Matchers of the API definitions that have items which can't be compiled.
+     */
+    private final List<AbstractApiMatcher<T>> fallbackMatchers;
+    private final int[] fallbackIds;
+    private final List<AbstractApiMatcher<T>> allMatchers;
+
+    public CompiledApiMatcher(Collection<? extends AbstractApiMatcher<T>> matchers) {
+        List<AbstractApiMatcher<T>> sorted = new ArrayList<AbstractApiMatcher<T>>(
+            matchers == null ? new ArrayList<AbstractApiMatcher<T>>() : matchers);
+        Collections.sort(sorted, new Comparator<AbstractApiMatcher<T>>() {
+            @Override
+            public int compare(AbstractApiMatcher<T> o1, AbstractApiMatcher<T> o2) {
+                return o1.getApiName().compareTo(o2.getApiName());
+            }
+        });
+        this.allMatchers = sorted;
+        this.apiNames = new String[sorted.size()];
+
+        Map<String, List<Integer>> exact = new HashMap<>();
+        TrieBuilder trie = new TrieBuilder();
+        List<AbstractApiMatcher<T>> fallbacks = new ArrayList<>();
+        List<Integer> fallbackIdList = new ArrayList<>();
+        for (int id = 0; id < sorted.size(); id++) {
+            AbstractApiMatcher<T> matcher = sorted.get(id);
+            apiNames[id] = matcher.getApiName();
+            if (!compileItems(id, matcher.getApiDefinition(), exact, trie)) {
+                fallbacks.add(matcher);
+                fallbackIdList.add(id);
+            }
+        }
+        this.exactPaths = new HashMap<>(exact.size());
+        for (Map.Entry<String, List<Integer>> e : exact.entrySet()) {
+            exactPaths.put(e.getKey(), toIntArray(e.getValue()));
+        }
+        this.root = trie.build();
+        this.fallbackMatchers = fallbacks;
+        this.fallbackIds = toIntArray(fallbackIdList);
+    }
+
+    /**
+     * @return false if the definition has items that can't be compiled
+     */
+    private static boolean compileItems(int id, ApiDefinition definition, Map<String, List<Integer>> exact,
+                                        TrieBuilder trie) {
+        if (definition == null || definition.getPredicateItems() == null) {
+            return true;
+        }
+        boolean compiled = true;
+        for (ApiPredicateItem item : definition.getPredicateItems()) {
+            if (!(item instanceof ApiPathPredicateItem)) {
+                continue;
+            }
+            String pattern = ((ApiPathPredicateItem)item).getPattern();
+            if (StringUtil.isBlank(pattern)) {
+                continue;
+            }
+            switch (((ApiPathPredicateItem)item).getMatchStrategy()) {
+                case SentinelGatewayConstants.URL_MATCH_STRATEGY_REGEX:
+                    Pattern regex;
+                    try {
+                        regex = Pattern.compile(pattern);
+                    } catch (Exception ex) {
+                        RecordLog.warn("[CompiledApiMatcher] Invalid regex pattern of API <{}>: {}",
+                            definition.getApiName(), pattern);
+                        compiled = false;
+                        continue;
+                    }
+                    trie.addRegex(literalPrefixOf(pattern), regex, id);
+                    break;
+                case SentinelGatewayConstants.URL_MATCH_STRATEGY_PREFIX:
+                    String prefix = antPrefixOf(pattern);
+                    if (prefix == null) {
+                        compiled = false;
+                    } else {
+                        trie.addPrefix(prefix, id);
+                    }
+                    break;
+                default:
+                    List<Integer> ids = exact.get(pattern);
+                    if (ids == null) {
+                        ids = new ArrayList<>(1);
+                        exact.put(pattern, ids);
+                    }
+                    ids.add(id);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Get the literal part of an Ant-style pattern like {@code /some/path/**}.
+     *
+     * @return the literal part, or null if the pattern is in other forms
+     */
+    static String antPrefixOf(String pattern) {
+        if (!pattern.endsWith(ANT_MATCH_ALL_SUFFIX)) {
+            return null;
+        }
+        String prefix = pattern.substring(0, pattern.length() - ANT_MATCH_ALL_SUFFIX.length());
+        if (prefix.endsWith("/") || (!prefix.isEmpty() && prefix.charAt(0) != '/')) {
+            return null;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                return null;
+            }
+        }
+        return prefix;
+    }
+
+    /**
+     * Get the literal prefix that every path matching the regex starts with.
+     */
+    static String literalPrefixOf(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            // Be conservative with alternations.
+            return "";
+        }
+        int start = regex.startsWith("^") ? 1 : 0;
+        int i = start;
+        for (; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '*' || c == '+' || c == '?' || c == '{') {
+                // The last literal character is quantified.
+                return regex.substring(start, Math.max(start, i - 1));
+            }
+            if ("\\[]().^$".indexOf(c) >= 0) {
+                break;
+            }
+        }
+        return regex.substring(start, i);
+    }
+
+    /**
+     * Match the request against all API definitions with the same path for all kinds of items.
+     *
+     * @see #match(Object, String, String, String)
+     */
+    public List<String> match(T request, String path) {
+        return match(request, path, path, path);
+    }
+
+    /**
+     * <p>Match the request against all API definitions.</p>
+     *
+     * <p>The returned list is reused by the next match in the same thread, so it should be consumed
+     * before that, or copied.</p>
+     *
+     * @param request    the request, for the API definitions that can't be compiled
+     * @param exactPath  the path to match exact items
+     * @param prefixPath the path to match prefix items
+     * @param regexPath  the path to match regex items
+     * @return names of matched APIs, without duplicates
+     */
+    public List<String> match(T request, String exactPath, String prefixPath, String regexPath) {
+        MatchResult result = RESULT_HOLDER.get();
+        result.reset(apiNames);
+        if (apiNames.length == 0) {
+            return result;
+        }
+        if (hasConsecutiveSlashes(prefixPath)) {
+            for (int id = 0; id < apiNames.length; id++) {
+                if (allMatchers.get(id).test(request)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        if (exactPath != null) {
+            int[] ids = exactPaths.get(exactPath);
+            if (ids != null) {
+                result.addAll(ids);
+            }
+        }
+        if (prefixPath != null) {
+            matchPrefixes(prefixPath, result);
+        }
+        if (regexPath != null) {
+            matchRegexes(regexPath, result);
+        }
+        for (int i = 0; i < fallbackIds.length; i++) {
+            int id = fallbackIds[i];
+            if (!result.contains(id) && fallbackMatchers.get(i).test(request)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private void matchPrefixes(String path, MatchResult result) {
+        TrieNode node = root;
+        int length = path.length();
+        // The root is for "/**", which matches all absolute paths.
+        if (node.prefixIds.length > 0 && length > 0 && path.charAt(0) == '/') {
+            result.addAll(node.prefixIds);
+        }
+        for (int i = 0; i < length; i++) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return;
+            }
+            // "/a/**" matches "/a" and "/a/..." but not "/ab".
+            if (node.prefixIds.length > 0 && (i + 1 == length || path.charAt(i + 1) == '/')) {
+                result.addAll(node.prefixIds);
+            }
+        }
+    }
+
+    private void matchRegexes(String path, MatchResult result) {
+        TrieNode node = root;
+        int length = path.length();
+        for (int i = 0; ; i++) {
+            for (int j = 0; j < node.regexIds.length; j++) {
+                int id = node.regexIds[j];
+                if (!result.contains(id) && node.regexes[j].matcher(path).matches()) {
+                    result.add(id);
+                }
+            }
+            if (i == length || (node = node.child(path.charAt(i))) == null) {
+                return;
+            }
+        }
+    }
+
+    private static boolean hasConsecutiveSlashes(String path) {
+        return path != null && path.contains("//");
+    }
+
+    public int getApiCount() {
+        return apiNames.length;
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        if (list.isEmpty()) {
+            return EMPTY_IDS;
+        }
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * The reusable result of a match, deduplicating API ids with a per-match stamp rather than a set.
+     */
+    private static final class MatchResult extends AbstractList<String> implements RandomAccess {
+
+        private String[] apiNames;
+        private int[] ids = new int[16];
+        private int size;
+        private int[] stamps = new int[16];
+        private int stamp;
+
+        void reset(String[] apiNames) {
+            this.apiNames = apiNames;
+            this.size = 0;
+            if (stamps.length < apiNames.length) {
+                stamps = new int[Math.max(apiNames.length, stamps.length * 2)];
+                stamp = 0;
+            }
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+        }
+
+        boolean contains(int id) {
+            return stamps[id] == stamp;
+        }
+
+        void add(int id) {
+            if (stamps[id] == stamp) {
+                return;
+            }
+            stamps[id] = stamp;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void addAll(int[] toAdd) {
+            for (int id : toAdd) {
+                add(id);
+            }
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            return apiNames[ids[index]];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final class TrieNode {
+        private static final char[] NO_KEYS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+        private static final Pattern[] NO_REGEXES = new Pattern[0];
+
+        /**
+         * Sorted keys of the children.
+         */
+        char[] keys = NO_KEYS;
+        TrieNode[] children = NO_CHILDREN;
+        int[] prefixIds = EMPTY_IDS;
+        Pattern[] regexes = NO_REGEXES;
+        int[] regexIds = EMPTY_IDS;
+
+        TrieNode child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    /**
+     * Builder of the trie, with mutable nodes kept in maps.
+     */
+    private static final class TrieBuilder {
+
+        private final Map<Character, TrieBuilder> children = new HashMap<>();
+        private final List<Integer> prefixIds = new ArrayList<>();
+        private final List<Pattern> regexes = new ArrayList<>();
+        private final List<Integer> regexIds = new ArrayList<>();
+
+        private TrieBuilder nodeOf(String literal) {
+            TrieBuilder node = this;
+            for (int i = 0; i < literal.length(); i++) {
+                TrieBuilder child = node.children.get(literal.charAt(i));
+                if (child == null) {
+                    child = new TrieBuilder();
+                    node.children.put(literal.charAt(i), child);
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        void addPrefix(String prefix, int id) {
+            nodeOf(prefix).prefixIds.add(id);
+        }
+
+        void addRegex(String literalPrefix, Pattern regex, int id) {
+            TrieBuilder node = nodeOf(literalPrefix);
+            node.regexes.add(regex);
+            node.regexIds.add(id);
+        }
+
+        TrieNode build() {
+            TrieNode node = new TrieNode();
+            if (!children.isEmpty()) {
+                List<Character> keys = new ArrayList<>(children.keySet());
+                Collections.sort(keys);
+                node.keys = new char[keys.size()];
+                node.children = new TrieNode[keys.size()];
+                for (int i = 0; i < keys.size(); i++) {
+                    node.keys[i] = keys.get(i);
+                    node.children[i] = children.get(keys.get(i)).build();
+                }
+            }
+            node.prefixIds = toIntArray(prefixIds);
+            if (!regexes.isEmpty()) {
+                node.regexes = regexes.toArray(new Pattern[0]);
+                node.regexIds = toIntArray(regexIds);
+            }
+            return node;
+        }
+    }
+}
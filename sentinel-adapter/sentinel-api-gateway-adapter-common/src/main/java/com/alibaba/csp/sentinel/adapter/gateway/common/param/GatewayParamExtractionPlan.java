@@ -0,0 +1,284 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.gateway.common.param;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayFlowRule;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayParamFlowItem;
+import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.util.function.Predicate;
+
+/**
+ * <p>Parameter extraction plan of the gateway rules for a resource, compiled when the rules are loaded.</p>
+ *
+ * <p>Each distinct request attribute (client IP, a header, a URL parameter or a cookie) is read only once
+ * per request, however many rules refer to it, and the match strategies are evaluated with precompiled
+ * matchers. Items are grouped by the attribute they read, so no intermediate array is needed.</p>
+ *
+ * @since 1.8.6
+ */
+public final class GatewayParamExtractionPlan {
+
+    static final Object[] EMPTY_PARAMS = new Object[0];
+
+    private static final int ATTR_CLIENT_IP = 0;
+    private static final int ATTR_HEADER = 1;
+    private static final int ATTR_URL_PARAM = 2;
+    private static final int ATTR_COOKIE = 3;
+    private static final int ATTR_UNKNOWN = 4;
+
+    private static final String HOST_HEADER = "Host";
+
+    private final GatewayFlowRule[] paramRules;
+    private final boolean hasNonParamRule;
+    private final int paramCount;
+
+    /**
+     * Items sorted by the attribute they read.
+     */
+    private final ItemPlan[] items;
+
+    private GatewayParamExtractionPlan(GatewayFlowRule[] paramRules, boolean hasNonParamRule, ItemPlan[] items) {
+        this.paramRules = paramRules;
+        this.hasNonParamRule = hasNonParamRule;
+        this.paramCount = hasNonParamRule ? paramRules.length + 1 : paramRules.length;
+        this.items = items;
+    }
+
+    /**
+     * Compile the extraction plan for the (valid) gateway rules of a resource. The parameter index of the
+     * items should have been assigned.
+     *
+     * @param rules valid gateway rules of the same resource
+     * @return the extraction plan
+     */
+    public static GatewayParamExtractionPlan compile(Collection<GatewayFlowRule> rules) {
+        List<GatewayFlowRule> paramRules = new ArrayList<>();
+        List<ItemPlan> items = new ArrayList<>();
+        Map<String, Integer> attrIds = new HashMap<>();
+        boolean hasNonParamRule = false;
+        if (rules != null) {
+            for (GatewayFlowRule rule : rules) {
+                GatewayParamFlowItem item = rule.getParamItem();
+                if (item == null) {
+                    hasNonParamRule = true;
+                    continue;
+                }
+                paramRules.add(rule);
+                int kind = attributeKindOf(item);
+                String name = attributeNameOf(kind, item);
+                String attrKey = kind + ":" + name;
+                Integer attrId = attrIds.get(attrKey);
+                if (attrId == null) {
+                    attrId = attrIds.size();
+                    attrIds.put(attrKey, attrId);
+                }
+                items.add(new ItemPlan(item.getIndex(), attrId, kind, name, compileMatcher(item)));
+            }
+        }
+        ItemPlan[] itemArr = items.toArray(new ItemPlan[0]);
+        Arrays.sort(itemArr, new Comparator<ItemPlan>() {
+            @Override
+            public int compare(ItemPlan o1, ItemPlan o2) {
+                return o1.attrId - o2.attrId;
+            }
+        });
+        return new GatewayParamExtractionPlan(paramRules.toArray(new GatewayFlowRule[0]), hasNonParamRule, itemArr);
+    }
+
+    private static int attributeKindOf(GatewayParamFlowItem item) {
+        switch (item.getParseStrategy()) {
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_CLIENT_IP:
+                return ATTR_CLIENT_IP;
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HOST:
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER:
+                return ATTR_HEADER;
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_URL_PARAM:
+                return ATTR_URL_PARAM;
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_COOKIE:
+                return ATTR_COOKIE;
+            default:
+                return ATTR_UNKNOWN;
+        }
+    }
+
+    private static String attributeNameOf(int kind, GatewayParamFlowItem item) {
+        if (item.getParseStrategy() == SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HOST) {
+            return HOST_HEADER;
+        }
+        if (kind == ATTR_CLIENT_IP || kind == ATTR_UNKNOWN) {
+            return null;
+        }
+        return item.getFieldName();
+    }
+
+    private static ValueMatcher compileMatcher(GatewayParamFlowItem item) {
+        final String pattern = item.getPattern();
+        if (StringUtil.isEmpty(pattern)) {
+            return null;
+        }
+        switch (item.getMatchStrategy()) {
+            case SentinelGatewayConstants.PARAM_MATCH_STRATEGY_EXACT:
+                return new ValueMatcher() {
+                    @Override
+                    public boolean matches(String value) {
+                        return value.equals(pattern);
+                    }
+                };
+            case SentinelGatewayConstants.PARAM_MATCH_STRATEGY_CONTAINS:
+                return new ValueMatcher() {
+                    @Override
+                    public boolean matches(String value) {
+                        return value.contains(pattern);
+                    }
+                };
+            case SentinelGatewayConstants.PARAM_MATCH_STRATEGY_REGEX:
+                Pattern regex = GatewayRegexCache.getRegexPattern(pattern);
+                if (regex == null) {
+                    // Invalid regex, the value is used as it is.
+                    return null;
+                }
+                return new RegexValueMatcher(regex);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Extract the parameters from the request.
+     *
+     * @param itemParser    valid request item parser
+     * @param request       valid request
+     * @param rulePredicate rule predicate indicating the rules to refer
+     * @return the parameter array
+     */
+    <T> Object[] extract(RequestItemParser<T> itemParser, T request, Predicate<GatewayFlowRule> rulePredicate) {
+        if (paramCount == 0) {
+            return EMPTY_PARAMS;
+        }
+        for (GatewayFlowRule rule : paramRules) {
+            if (!rulePredicate.test(rule)) {
+                return EMPTY_PARAMS;
+            }
+        }
+        Object[] arr = new Object[paramCount];
+        int curAttrId = -1;
+        String value = null;
+        for (ItemPlan item : items) {
+            if (item.attrId != curAttrId) {
+                curAttrId = item.attrId;
+                value = readAttribute(itemParser, request, item.attrKind, item.attrName);
+            }
+            arr[item.paramIdx] = item.apply(value);
+        }
+        if (hasNonParamRule) {
+            arr[paramCount - 1] = SentinelGatewayConstants.GATEWAY_DEFAULT_PARAM;
+        }
+        return arr;
+    }
+
+    private static <T> String readAttribute(RequestItemParser<T> itemParser, T request, int kind, String name) {
+        switch (kind) {
+            case ATTR_CLIENT_IP:
+                return itemParser.getRemoteAddress(request);
+            case ATTR_HEADER:
+                // TODO: what if the header has multiple values?
+                return itemParser.getHeader(request, name);
+            case ATTR_URL_PARAM:
+                return itemParser.getUrlParam(request, name);
+            case ATTR_COOKIE:
+                return itemParser.getCookieValue(request, name);
+            default:
+                return null;
+        }
+    }
+
+    int getAttributeCount() {
+        int count = 0;
+        int curAttrId = -1;
+        for (ItemPlan item : items) {
+            if (item.attrId != curAttrId) {
+                curAttrId = item.attrId;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static final class ItemPlan {
+        private final int paramIdx;
+        private final int attrId;
+        private final int attrKind;
+        private final String attrName;
+        /**
+         * Null if the value should be used as it is.
+         */
+        private final ValueMatcher matcher;
+
+        ItemPlan(int paramIdx, int attrId, int attrKind, String attrName, ValueMatcher matcher) {
+            this.paramIdx = paramIdx;
+            this.attrId = attrId;
+            this.attrKind = attrKind;
+            this.attrName = attrName;
+            this.matcher = matcher;
+        }
+
+        String apply(String value) {
+            if (value == null || matcher == null) {
+                return value;
+            }
+            return matcher.matches(value) ? value : SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM;
+        }
+    }
+
+    private interface ValueMatcher {
+        boolean matches(String value);
+    }
+
+    private static final class RegexValueMatcher implements ValueMatcher {
+
+        private final Pattern regex;
+        /**
+         * The matcher is reset and reused by the same thread.
+         */
+        private final ThreadLocal<Matcher> matcherHolder = new ThreadLocal<>();
+
+        RegexValueMatcher(Pattern regex) {
+            this.regex = regex;
+        }
+
+        @Override
+        public boolean matches(String value) {
+            Matcher matcher = matcherHolder.get();
+            if (matcher == null) {
+                matcher = regex.matcher(value);
+                matcherHolder.set(matcher);
+                return matcher.matches();
+            }
+            return matcher.reset(value).matches();
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.adapter.gateway.common.rule;
 
 import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.param.GatewayParamExtractionPlan;
 import com.alibaba.csp.sentinel.adapter.gateway.common.param.GatewayRegexCache;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
@@ -45,6 +46,11 @@ public final class GatewayRuleManager {
 
     private static final Map<String, List<ParamFlowRule>> CONVERTED_PARAM_RULE_MAP = new ConcurrentHashMap<>();
 
+    /**
+     * Parameter extraction plan map: (resource, plan)
+     */
+    private static final Map<String, GatewayParamExtractionPlan> PARAM_EXTRACTION_PLAN_MAP = new ConcurrentHashMap<>();
+
     private static final GatewayRulePropertyListener LISTENER = new GatewayRulePropertyListener();
     private static final Set<Integer> FIELD_REQUIRED_SET = new HashSet<>(
             Arrays.asList(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_URL_PARAM,
@@ -114,6 +120,20 @@ public final class GatewayRuleManager {
         return CONVERTED_PARAM_RULE_MAP.get(resourceName);
     }
 
+    /**
+     * Get the parameter extraction plan compiled from the gateway rules of the resource.
+     *
+     * @param resourceName valid resource name
+     * @return the extraction plan, or null if there are no gateway rules for the resource
+     * @since 1.8.6
+     */
+    public static GatewayParamExtractionPlan getParamExtractionPlan(String resourceName) {
+        if (StringUtil.isBlank(resourceName)) {
+            return null;
+        }
+        return PARAM_EXTRACTION_PLAN_MAP.get(resourceName);
+    }
+
     public static boolean isValidRule(GatewayFlowRule rule) {
         if (rule == null || StringUtil.isBlank(rule.getResource()) || rule.getResourceMode() < 0
                 || rule.getGrade() < 0 || rule.getCount() < 0 || rule.getBurst() < 0 || rule.getControlBehavior() < 0) {
@@ -180,6 +200,7 @@ public final class GatewayRuleManager {
             if (conf == null || conf.isEmpty()) {
                 applyToConvertedParamMap(new HashSet<ParamFlowRule>());
                 GATEWAY_RULE_MAP.clear();
+                PARAM_EXTRACTION_PLAN_MAP.clear();
                 return;
             }
             Map<String, Set<GatewayFlowRule>> gatewayRuleMap = new ConcurrentHashMap<>();
@@ -234,6 +255,14 @@ public final class GatewayRuleManager {
 
             GATEWAY_RULE_MAP.clear();
             GATEWAY_RULE_MAP.putAll(gatewayRuleMap);
+
+            // Compile the parameter extraction plans after the parameter index has been assigned.
+            Map<String, GatewayParamExtractionPlan> planMap = new HashMap<>();
+            for (Map.Entry<String, Set<GatewayFlowRule>> e : gatewayRuleMap.entrySet()) {
+                planMap.put(e.getKey(), GatewayParamExtractionPlan.compile(e.getValue()));
+            }
+            PARAM_EXTRACTION_PLAN_MAP.clear();
+            PARAM_EXTRACTION_PLAN_MAP.putAll(planMap);
         }
 
         private void applyToConvertedParamMap(Set<ParamFlowRule> paramFlowRules) {
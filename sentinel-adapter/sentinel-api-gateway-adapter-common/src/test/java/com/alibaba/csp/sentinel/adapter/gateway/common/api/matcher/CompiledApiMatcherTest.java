@@ -0,0 +1,153 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.adapter.gateway.common.api.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiDefinition;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiPathPredicateItem;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiPredicateItem;
+import com.alibaba.csp.sentinel.util.function.Predicate;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link CompiledApiMatcher}.
+ */
+public class CompiledApiMatcherTest {
+
+    /**
+     * Matches the path itself, with Ant-style prefix patterns translated to regex.
+     */
+    private static class PathApiMatcher extends AbstractApiMatcher<String> {
+
+        PathApiMatcher(ApiDefinition apiDefinition) {
+            super(apiDefinition);
+        }
+
+        @Override
+        protected void initializeMatchers() {
+            for (ApiPredicateItem item : apiDefinition.getPredicateItems()) {
+                final ApiPathPredicateItem pathItem = (ApiPathPredicateItem)item;
+                final Pattern regex;
+                switch (pathItem.getMatchStrategy()) {
+                    case SentinelGatewayConstants.URL_MATCH_STRATEGY_REGEX:
+                        regex = Pattern.compile(pathItem.getPattern());
+                        break;
+                    case SentinelGatewayConstants.URL_MATCH_STRATEGY_PREFIX:
+                        regex = Pattern.compile("/**".equals(pathItem.getPattern()) ? "/.*" : pathItem.getPattern()
+                            .replace("/**", "(/.*)?").replace("/*/", "/[^/]+/"));
+                        break;
+                    default:
+                        regex = Pattern.compile(Pattern.quote(pathItem.getPattern()));
+                }
+                matchers.add(new Predicate<String>() {
+                    @Override
+                    public boolean test(String path) {
+                        return regex.matcher(path).matches();
+                    }
+                });
+            }
+        }
+    }
+
+    private static PathApiMatcher api(String name, ApiPathPredicateItem... items) {
+        return new PathApiMatcher(new ApiDefinition(name)
+            .setPredicateItems(new HashSet<ApiPredicateItem>(Arrays.asList(items))));
+    }
+
+    private static ApiPathPredicateItem item(String pattern, int strategy) {
+        return new ApiPathPredicateItem().setPattern(pattern).setMatchStrategy(strategy);
+    }
+
+    private static Set<String> linearMatch(List<PathApiMatcher> matchers, String path) {
+        Set<String> names = new HashSet<>();
+        for (PathApiMatcher matcher : matchers) {
+            if (matcher.test(path)) {
+                names.add(matcher.getApiName());
+            }
+        }
+        return names;
+    }
+
+    @Test
+    public void testLiteralPrefixes() {
+        assertEquals("/product", CompiledApiMatcher.antPrefixOf("/product/**"));
+        assertEquals("", CompiledApiMatcher.antPrefixOf("/**"));
+        assertNull(CompiledApiMatcher.antPrefixOf("/product/*/detail"));
+        assertNull(CompiledApiMatcher.antPrefixOf("/pro*/**"));
+        assertNull(CompiledApiMatcher.antPrefixOf("**"));
+
+        assertEquals("/order/", CompiledApiMatcher.literalPrefixOf("/order/\\d+"));
+        assertEquals("/order/", CompiledApiMatcher.literalPrefixOf("^/order/.*"));
+        assertEquals("/order", CompiledApiMatcher.literalPrefixOf("/orders?/.*"));
+        assertEquals("/order", CompiledApiMatcher.literalPrefixOf("/order"));
+        assertEquals("", CompiledApiMatcher.literalPrefixOf("/a/.*|/b/.*"));
+        assertEquals("", CompiledApiMatcher.literalPrefixOf("(?i)/order/.*"));
+    }
+
+    @Test
+    public void testMatchConsistentWithApiMatchers() {
+        List<PathApiMatcher> matchers = new ArrayList<>();
+        matchers.add(api("exact", item("/product/list", SentinelGatewayConstants.URL_MATCH_STRATEGY_EXACT),
+            item("/order", SentinelGatewayConstants.URL_MATCH_STRATEGY_EXACT)));
+        matchers.add(api("product", item("/product/**", SentinelGatewayConstants.URL_MATCH_STRATEGY_PREFIX)));
+        matchers.add(api("all", item("/**", SentinelGatewayConstants.URL_MATCH_STRATEGY_PREFIX)));
+        matchers.add(api("order-id", item("/order/\\d+", SentinelGatewayConstants.URL_MATCH_STRATEGY_REGEX)));
+        matchers.add(api("orders", item("/orders?(/.*)?", SentinelGatewayConstants.URL_MATCH_STRATEGY_REGEX),
+            item("/order", SentinelGatewayConstants.URL_MATCH_STRATEGY_EXACT)));
+        matchers.add(api("any-json", item(".*\\.json", SentinelGatewayConstants.URL_MATCH_STRATEGY_REGEX)));
+        matchers.add(api("detail", item("/product/*/detail", SentinelGatewayConstants.URL_MATCH_STRATEGY_PREFIX),
+            item("/detail", SentinelGatewayConstants.URL_MATCH_STRATEGY_EXACT)));
+        for (int i = 0; i < 100; i++) {
+            matchers.add(api("api-" + i, item("/api/" + i + "/**", SentinelGatewayConstants.URL_MATCH_STRATEGY_PREFIX),
+                item("/api/" + i, SentinelGatewayConstants.URL_MATCH_STRATEGY_EXACT)));
+        }
+        CompiledApiMatcher<String> compiled = new CompiledApiMatcher<String>(matchers);
+        assertEquals(matchers.size(), compiled.getApiCount());
+
+        String[] paths = {"/product/list", "/product", "/product/", "/products", "/product/1/detail",
+            "/product/1/2/detail", "/order", "/order/123", "/order/abc", "/orders/1", "/a.json", "/detail",
+            "/api/1", "/api/10/x", "/api/100", "/api/99/", "", "relative", "/product//list"};
+        for (String path : paths) {
+            List<String> result = compiled.match(path, path);
+            assertEquals(path, result.size(), new HashSet<>(result).size());
+            assertEquals(path, linearMatch(matchers, path), new HashSet<>(result));
+        }
+        assertEquals(new HashSet<>(Arrays.asList("all", "order-id", "orders")),
+            new HashSet<>(compiled.match("/order/123", "/order/123")));
+    }
+
+    @Test
+    public void testResultReusedAndEmpty() {
+        CompiledApiMatcher<String> compiled = new CompiledApiMatcher<String>(Arrays.asList(
+            api("a", item("/a/**", SentinelGatewayConstants.URL_MATCH_STRATEGY_PREFIX))));
+        List<String> first = compiled.match("/a/b", "/a/b");
+        assertEquals(Arrays.asList("a"), first);
+        assertSame(first, compiled.match("/b", "/b"));
+        assertTrue(first.isEmpty());
+
+        assertTrue(new CompiledApiMatcher<String>(new ArrayList<PathApiMatcher>()).match("/a", "/a").isEmpty());
+    }
+}
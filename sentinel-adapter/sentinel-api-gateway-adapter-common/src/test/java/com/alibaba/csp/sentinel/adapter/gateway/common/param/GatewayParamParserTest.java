@@ -36,6 +36,8 @@ import org.junit.Test;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -305,6 +307,59 @@ public class GatewayParamParserTest {
             .isEqualTo(SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM);
     }
 
+    @Test
+    public void testParseParametersReadSharedItemOnce() {
+        RequestItemParser<Object> itemParser = mock(RequestItemParser.class);
+        GatewayParamParser<Object> paramParser = new GatewayParamParser<>(itemParser);
+        Object request = new Object();
+
+        Set<GatewayFlowRule> rules = new HashSet<>();
+        final String routeId = "my_test_route_G";
+        final String headerName = "X-Sentinel-Flag";
+        GatewayFlowRule routeRule1 = new GatewayFlowRule(routeId)
+            .setCount(10)
+            .setIntervalSec(1)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER)
+                .setFieldName(headerName)
+            );
+        GatewayFlowRule routeRule2 = new GatewayFlowRule(routeId)
+            .setCount(20)
+            .setIntervalSec(1)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER)
+                .setFieldName(headerName)
+                .setPattern("\\d+")
+                .setMatchStrategy(SentinelGatewayConstants.PARAM_MATCH_STRATEGY_REGEX)
+            );
+        GatewayFlowRule routeRule3 = new GatewayFlowRule(routeId)
+            .setCount(30)
+            .setIntervalSec(1)
+            .setParamItem(new GatewayParamFlowItem()
+                .setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HOST)
+            );
+        rules.add(routeRule1);
+        rules.add(routeRule2);
+        rules.add(routeRule3);
+        GatewayRuleManager.loadRules(rules);
+        assertThat(GatewayRuleManager.getParamExtractionPlan(routeId).getAttributeCount()).isEqualTo(2);
+
+        mockSingleHeader(itemParser, headerName, "233");
+        mockSingleHeader(itemParser, "Host", "hello.test.sentinel");
+        Object[] params = paramParser.parseParameterFor(routeId, request, routeIdPredicate);
+        assertThat(params.length).isEqualTo(3);
+        assertThat(params[routeRule1.getParamItem().getIndex()]).isEqualTo("233");
+        assertThat(params[routeRule2.getParamItem().getIndex()]).isEqualTo("233");
+        assertThat(params[routeRule3.getParamItem().getIndex()]).isEqualTo("hello.test.sentinel");
+        verify(itemParser, times(1)).getHeader(request, headerName);
+
+        mockSingleHeader(itemParser, headerName, "foo");
+        params = paramParser.parseParameterFor(routeId, request, routeIdPredicate);
+        assertThat(params[routeRule1.getParamItem().getIndex()]).isEqualTo("foo");
+        assertThat(params[routeRule2.getParamItem().getIndex()])
+            .isEqualTo(SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM);
+    }
+
     private void mockClientHostAddress(/*@Mock*/ RequestItemParser parser, String address) {
         when(parser.getRemoteAddress(any())).thenReturn(address);
     }
@@ -37,6 +37,6 @@ public class MonoSentinelOperator<T> extends MonoOperator<T, T> {
 
     @Override
     public void subscribe(CoreSubscriber<? super T> actual) {
-        source.subscribe(new SentinelReactorSubscriber<>(entryConfig, actual, true));
+        new SentinelReactorSubscriber<T>(entryConfig, actual, true).subscribeTo(source);
     }
 }
@@ -16,6 +16,8 @@
 package com.alibaba.csp.sentinel.adapter.reactor;
 
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.alibaba.csp.sentinel.AsyncEntry;
@@ -26,8 +28,11 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.function.Supplier;
 
+import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.context.Context;
 
 /**
@@ -43,6 +48,10 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
 
     private volatile AsyncEntry currentEntry;
     private final AtomicBoolean entryExited = new AtomicBoolean(false);
+    /**
+     * Whether the resource has been entered before subscribing to the source (via {@link #subscribeTo(Publisher)}).
+     */
+    private volatile boolean enteredBeforeSubscribe;
 
     public SentinelReactorSubscriber(EntryConfig entryConfig,
                                      CoreSubscriber<? super T> actual,
@@ -82,17 +91,53 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
         }
     }
 
-    private void entryWhenSubscribed() {
+    /**
+     * Enter the resource, and subscribe to the source once passed. If the entry is queued by traffic shaping
+     * (e.g. rate limiter), the source will be subscribed after the time to wait via a scheduled task,
+     * rather than blocking current thread (which is usually an event loop).
+     *
+     * @param source the source to subscribe
+     * @since 1.8.6
+     */
+    void subscribeTo(Publisher<? extends T> source) {
+        this.enteredBeforeSubscribe = true;
+        doWithContextOrCurrent(() -> currentContext().getOrEmpty(SentinelReactorConstants.SENTINEL_CONTEXT_KEY),
+            () -> entryWhenSubscribed(false));
+        AsyncEntry entry = this.currentEntry;
+        // When blocked, the source will be cancelled as soon as it's subscribed.
+        long waitInMs = entry == null ? 0 : entry.getWaitInMs();
+        if (waitInMs <= 0) {
+            source.subscribe(this);
+            return;
+        }
+        try {
+            Schedulers.parallel().schedule(() -> source.subscribe(this), waitInMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            tryCompleteEntry();
+            Operators.error(actual, ex);
+        }
+    }
+
+    /**
+     * @param blocking whether to wait in current thread when queued by traffic shaping, and signal
+     *                 {@code onSubscribe} to the actual subscriber once passed
+     */
+    private void entryWhenSubscribed(boolean blocking) {
         ContextConfig sentinelContextConfig = entryConfig.getContextConfig();
         if (sentinelContextConfig != null) {
             // If current we're already in a context, the context config won't work.
             ContextUtil.enter(sentinelContextConfig.getContextName(), sentinelContextConfig.getOrigin());
         }
         try {
-            AsyncEntry entry = SphU.asyncEntry(entryConfig.getResourceName(), entryConfig.getResourceType(),
-                entryConfig.getEntryType(), entryConfig.getAcquireCount(), entryConfig.getArgs());
-            this.currentEntry = entry;
-            actual.onSubscribe(this);
+            if (blocking) {
+                this.currentEntry = SphU.asyncEntry(entryConfig.getResourceName(), entryConfig.getResourceType(),
+                    entryConfig.getEntryType(), entryConfig.getAcquireCount(), entryConfig.getArgs());
+                actual.onSubscribe(this);
+            } else {
+                this.currentEntry = SphU.asyncEntryNonBlocking(entryConfig.getResourceName(),
+                    entryConfig.getResourceType(), entryConfig.getEntryType(), entryConfig.getAcquireCount(),
+                    entryConfig.getArgs());
+            }
         } catch (BlockException ex) {
             // Mark as completed (exited) explicitly.
             entryExited.set(true);
@@ -109,8 +154,13 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
 
     @Override
     protected void hookOnSubscribe(Subscription subscription) {
+        if (enteredBeforeSubscribe) {
+            actual.onSubscribe(this);
+            return;
+        }
+        // Subscribed to the source directly rather than via the Sentinel operators, so enter the resource here.
         doWithContextOrCurrent(() -> currentContext().getOrEmpty(SentinelReactorConstants.SENTINEL_CONTEXT_KEY),
-            this::entryWhenSubscribed);
+            () -> entryWhenSubscribed(true));
     }
 
     @Override
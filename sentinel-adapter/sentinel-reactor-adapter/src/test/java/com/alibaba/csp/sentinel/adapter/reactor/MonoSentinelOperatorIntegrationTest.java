@@ -3,12 +3,15 @@ package com.alibaba.csp.sentinel.adapter.reactor;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
@@ -16,6 +19,7 @@ import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
 import org.junit.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
 import reactor.test.StepVerifier;
 
 import static org.junit.Assert.*;
@@ -184,6 +188,51 @@ public class MonoSentinelOperatorIntegrationTest {
         FlowRuleManager.loadRules(new ArrayList<>());
     }
 
+    @Test
+    public void testRateLimiterQueueingWithoutBlocking() throws Exception {
+        String resourceName = createResourceName("testRateLimiterQueueingWithoutBlocking");
+        FlowRuleManager.loadRules(Collections.singletonList(new FlowRule(resourceName).setCount(5)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER).setMaxQueueingTimeMs(1000)));
+        Mono<Integer> mono = Mono.just(2).transform(new SentinelReactorTransformer<>(resourceName));
+        StepVerifier.create(mono)
+            .expectNext(2)
+            .verifyComplete();
+
+        long start = System.currentTimeMillis();
+        CountDownLatch latch = new CountDownLatch(1);
+        mono.subscribe(e -> latch.countDown());
+        // The queued request is subscribed later via a scheduled task, rather than blocking current thread.
+        assertTrue(System.currentTimeMillis() - start < 100);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 100);
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(0, cn.blockRequest());
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
+    @Test
+    public void testSubscribeSentinelSubscriberDirectly() {
+        String resourceName = createResourceName("testSubscribeSentinelSubscriberDirectly");
+        EntryConfig entryConfig = new EntryConfig(resourceName);
+        Mono<Integer> mono = Mono.from(actual -> Mono.just(1)
+            .subscribe(new SentinelReactorSubscriber<>(entryConfig, Operators.toCoreSubscriber(actual), true)));
+        StepVerifier.create(mono)
+            .expectNext(1)
+            .verifyComplete();
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(1, cn.passQps(), 0.01);
+
+        FlowRuleManager.loadRules(Collections.singletonList(new FlowRule(resourceName).setCount(0)));
+        StepVerifier.create(mono)
+            .expectError(BlockException.class)
+            .verify();
+        assertEquals(1, cn.blockRequest());
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
     private String createResourceName(String resourceName) {
         return "reactor_test_mono_" + resourceName;
     }
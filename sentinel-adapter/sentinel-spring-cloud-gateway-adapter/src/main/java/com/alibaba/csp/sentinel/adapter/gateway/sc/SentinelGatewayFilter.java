@@ -21,7 +21,6 @@ import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
 import com.alibaba.csp.sentinel.adapter.gateway.common.param.GatewayParamParser;
 import com.alibaba.csp.sentinel.adapter.gateway.common.param.RequestItemParser;
 import com.alibaba.csp.sentinel.adapter.gateway.sc.api.GatewayApiMatcherManager;
-import com.alibaba.csp.sentinel.adapter.gateway.sc.api.matcher.WebExchangeApiMatcher;
 import com.alibaba.csp.sentinel.adapter.gateway.sc.callback.GatewayCallbackManager;
 import com.alibaba.csp.sentinel.adapter.reactor.ContextConfig;
 import com.alibaba.csp.sentinel.adapter.reactor.EntryConfig;
@@ -36,9 +35,10 @@ import org.springframework.core.Ordered;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * @author Eric Zhao
@@ -86,7 +86,7 @@ public class SentinelGatewayFilter implements GatewayFilter, GlobalFilter, Order
             );
         }
 
-        Set<String> matchingApis = pickMatchingApiDefinitions(exchange);
+        List<String> matchingApis = matchApiDefinitions(exchange);
         for (String apiName : matchingApis) {
             Object[] params = paramParser.parseParameterFor(apiName, exchange,
                 r -> r.getResourceMode() == SentinelGatewayConstants.RESOURCE_MODE_CUSTOM_API_NAME);
@@ -104,11 +104,15 @@ public class SentinelGatewayFilter implements GatewayFilter, GlobalFilter, Order
     }
 
     Set<String> pickMatchingApiDefinitions(ServerWebExchange exchange) {
-        return GatewayApiMatcherManager.getApiMatcherMap().values()
-            .stream()
-            .filter(m -> m.test(exchange))
-            .map(WebExchangeApiMatcher::getApiName)
-            .collect(Collectors.toSet());
+        return new HashSet<>(matchApiDefinitions(exchange));
+    }
+
+    /**
+     * @return names of matched APIs, reused by the next match in the same thread
+     */
+    private List<String> matchApiDefinitions(ServerWebExchange exchange) {
+        return GatewayApiMatcherManager.getCompiledMatcher()
+            .match(exchange, exchange.getRequest().getPath().value());
     }
 
     @Override
@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.adapter.gateway.sc.api;
 
 import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiDefinition;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.matcher.CompiledApiMatcher;
 import com.alibaba.csp.sentinel.adapter.gateway.sc.api.matcher.WebExchangeApiMatcher;
 
 import java.util.Collections;
@@ -25,6 +26,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.web.server.ServerWebExchange;
+
 /**
  * @author Eric Zhao
  * @since 1.6.0
@@ -32,11 +35,21 @@ import java.util.stream.Collectors;
 public final class GatewayApiMatcherManager {
 
     private static volatile Map<String, WebExchangeApiMatcher> API_MATCHER_MAP = new HashMap<>();
+    private static volatile CompiledApiMatcher<ServerWebExchange> COMPILED_MATCHER
+        = new CompiledApiMatcher<>(Collections.<WebExchangeApiMatcher>emptyList());
 
     public static Map<String, WebExchangeApiMatcher> getApiMatcherMap() {
         return Collections.unmodifiableMap(API_MATCHER_MAP);
     }
 
+    /**
+     * @return the matcher of all API definitions, rebuilt when API definitions are updated
+     * @since 1.8.6
+     */
+    public static CompiledApiMatcher<ServerWebExchange> getCompiledMatcher() {
+        return COMPILED_MATCHER;
+    }
+
     public static Optional<WebExchangeApiMatcher> getMatcher(final String apiName) {
         return Optional.ofNullable(apiName)
             .map(e -> API_MATCHER_MAP.get(apiName));
@@ -56,6 +69,7 @@ public final class GatewayApiMatcherManager {
         }
 
         API_MATCHER_MAP = apiMatcherMap;
+        COMPILED_MATCHER = new CompiledApiMatcher<>(apiMatcherMap.values());
     }
 
     private GatewayApiMatcherManager() {}
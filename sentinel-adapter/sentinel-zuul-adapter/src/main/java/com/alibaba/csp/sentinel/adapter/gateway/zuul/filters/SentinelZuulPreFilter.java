@@ -18,8 +18,7 @@ package com.alibaba.csp.sentinel.adapter.gateway.zuul.filters;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 import com.alibaba.csp.sentinel.AsyncEntry;
 import com.alibaba.csp.sentinel.EntryType;
@@ -30,7 +29,6 @@ import com.alibaba.csp.sentinel.adapter.gateway.common.param.RequestItemParser;
 import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayFlowRule;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul.RequestContextItemParser;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul.api.ZuulGatewayApiMatcherManager;
-import com.alibaba.csp.sentinel.adapter.gateway.zuul.api.matcher.RequestContextApiMatcher;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul.callback.ZuulGatewayCallbackManager;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul.constants.ZuulConstant;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul.fallback.BlockResponse;
@@ -124,7 +122,7 @@ public class SentinelZuulPreFilter extends ZuulFilter {
                 doSentinelEntry(routeId, RESOURCE_MODE_ROUTE_ID, ctx, holders);
             }
 
-            Set<String> matchingApis = pickMatchingApiDefinitions(ctx);
+            List<String> matchingApis = pickMatchingApiDefinitions(ctx);
             if (!matchingApis.isEmpty() && ContextUtil.getContext() == null) {
                 ContextUtil.enter(ZuulConstant.ZUUL_DEFAULT_CONTEXT, origin);
             }
@@ -159,13 +157,10 @@ public class SentinelZuulPreFilter extends ZuulFilter {
         return ZuulGatewayCallbackManager.getOriginParser().parseOrigin(request);
     }
 
-    private Set<String> pickMatchingApiDefinitions(RequestContext requestContext) {
-        Set<String> apis = new HashSet<>();
-        for (RequestContextApiMatcher matcher : ZuulGatewayApiMatcherManager.getApiMatcherMap().values()) {
-            if (matcher.test(requestContext)) {
-                apis.add(matcher.getApiName());
-            }
-        }
-        return apis;
+    private List<String> pickMatchingApiDefinitions(RequestContext requestContext) {
+        HttpServletRequest request = requestContext.getRequest();
+        // Exact items match the servlet path, while the others match the request URI.
+        return ZuulGatewayApiMatcherManager.getCompiledMatcher().match(requestContext,
+            request.getServletPath(), request.getRequestURI(), request.getRequestURI());
     }
 }
@@ -22,8 +22,11 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.adapter.gateway.common.api.ApiDefinition;
+import com.alibaba.csp.sentinel.adapter.gateway.common.api.matcher.CompiledApiMatcher;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul2.api.matcher.HttpRequestMessageApiMatcher;
 
+import com.netflix.zuul.message.http.HttpRequestMessage;
+
 /**
  * @author wavesZh
  * @since 1.7.2
@@ -31,11 +34,21 @@ import com.alibaba.csp.sentinel.adapter.gateway.zuul2.api.matcher.HttpRequestMes
 public final class ZuulGatewayApiMatcherManager {
 
     private static final Map<String, HttpRequestMessageApiMatcher> API_MATCHER_MAP = new ConcurrentHashMap<>();
+    private static volatile CompiledApiMatcher<HttpRequestMessage> compiledMatcher
+        = new CompiledApiMatcher<HttpRequestMessage>(Collections.<HttpRequestMessageApiMatcher>emptyList());
 
     public static Map<String, HttpRequestMessageApiMatcher> getApiMatcherMap() {
         return Collections.unmodifiableMap(API_MATCHER_MAP);
     }
 
+    /**
+     * @return the matcher of all API definitions, rebuilt when API definitions are updated
+     * @since 1.8.6
+     */
+    public static CompiledApiMatcher<HttpRequestMessage> getCompiledMatcher() {
+        return compiledMatcher;
+    }
+
     public static HttpRequestMessageApiMatcher getMatcher(final String apiName) {
         if (apiName == null) {
             return null;
@@ -54,15 +67,17 @@ public final class ZuulGatewayApiMatcherManager {
     static synchronized void loadApiDefinitions(/*@Valid*/ Set<ApiDefinition> definitions) {
         if (definitions == null || definitions.isEmpty()) {
             API_MATCHER_MAP.clear();
-            return;
-        }
-        for (ApiDefinition definition : definitions) {
-            addApiDefinition(definition);
+        } else {
+            for (ApiDefinition definition : definitions) {
+                API_MATCHER_MAP.put(definition.getApiName(), new HttpRequestMessageApiMatcher(definition));
+            }
         }
+        compiledMatcher = new CompiledApiMatcher<HttpRequestMessage>(API_MATCHER_MAP.values());
     }
 
-    static void addApiDefinition(ApiDefinition definition) {
+    static synchronized void addApiDefinition(ApiDefinition definition) {
         API_MATCHER_MAP.put(definition.getApiName(), new HttpRequestMessageApiMatcher(definition));
+        compiledMatcher = new CompiledApiMatcher<HttpRequestMessage>(API_MATCHER_MAP.values());
     }
 
     private ZuulGatewayApiMatcherManager() {}
@@ -17,8 +17,7 @@ package com.alibaba.csp.sentinel.adapter.gateway.zuul2.filters.inbound;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
 
@@ -30,7 +29,6 @@ import com.alibaba.csp.sentinel.adapter.gateway.common.param.GatewayParamParser;
 import com.alibaba.csp.sentinel.adapter.gateway.common.param.RequestItemParser;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul2.HttpRequestMessageItemParser;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul2.api.ZuulGatewayApiMatcherManager;
-import com.alibaba.csp.sentinel.adapter.gateway.zuul2.api.matcher.HttpRequestMessageApiMatcher;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul2.constants.SentinelZuul2Constants;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul2.filters.EntryHolder;
 import com.alibaba.csp.sentinel.adapter.gateway.zuul2.filters.endpoint.SentinelZuulEndpoint;
@@ -138,7 +136,7 @@ public class SentinelZuulInboundFilter extends HttpInboundFilter {
                 ContextUtil.enter(GATEWAY_CONTEXT_ROUTE_PREFIX + routeId);
                 doSentinelEntry(routeId, RESOURCE_MODE_ROUTE_ID, request, holders);
             }
-            Set<String> matchingApis = pickMatchingApiDefinitions(request);
+            List<String> matchingApis = pickMatchingApiDefinitions(request);
             if (!matchingApis.isEmpty() && ContextUtil.getContext() == null) {
                 ContextUtil.enter(SentinelZuul2Constants.ZUUL_DEFAULT_CONTEXT);
             }
@@ -172,14 +170,10 @@ public class SentinelZuulInboundFilter extends HttpInboundFilter {
         holders.push(new EntryHolder(entry, params));
     }
 
-    private Set<String> pickMatchingApiDefinitions(HttpRequestMessage message) {
-        Set<String> apis = new HashSet<>();
-        for (HttpRequestMessageApiMatcher matcher : ZuulGatewayApiMatcherManager.getApiMatcherMap().values()) {
-            if (matcher.test(message)) {
-                apis.add(matcher.getApiName());
-            }
-        }
-        return apis;
+    private List<String> pickMatchingApiDefinitions(HttpRequestMessage message) {
+        // Regex items match the path of the inbound request, while the others match the current path.
+        return ZuulGatewayApiMatcherManager.getCompiledMatcher().match(message,
+            message.getPath(), message.getPath(), message.getInboundRequest().getPath());
     }
 
     @Override
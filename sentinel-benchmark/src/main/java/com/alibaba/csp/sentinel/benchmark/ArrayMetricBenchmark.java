@@ -0,0 +1,112 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
+import com.alibaba.csp.sentinel.slots.statistic.metric.BucketLeapArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the aggregation of {@link ArrayMetric}, comparing the single-pass, allocation-free
+ * aggregation with the former list-based aggregation (one {@code LeapArray#values()} list per query).</p>
+ *
+ * <p>Run with {@code -prof gc} to compare the allocation as well.</p>
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ArrayMetricBenchmark {
+
+    /**
+     * 2 for the default second-level metric, 60 for the minute-level metric.
+     */
+    @Param({"2", "60"})
+    private int sampleCount;
+
+    private BucketLeapArray leapArray;
+    private ArrayMetric metric;
+
+    @Setup
+    public void prepare() {
+        leapArray = new BucketLeapArray(sampleCount, sampleCount * 1000);
+        metric = new ArrayMetric(leapArray);
+        for (int i = 0; i < 100; i++) {
+            metric.addPass(1);
+            metric.addBlock(1);
+            metric.addSuccess(1);
+            metric.addRT(10);
+        }
+    }
+
+    private long listBasedSum(MetricEvent event) {
+        leapArray.currentWindow();
+        long sum = 0;
+        for (MetricBucket bucket : leapArray.values()) {
+            sum += bucket.get(event);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long testListBasedPass() {
+        return listBasedSum(MetricEvent.PASS);
+    }
+
+    @Benchmark
+    public long testPass() {
+        return metric.pass();
+    }
+
+    @Benchmark
+    public long testListBasedTotal() {
+        return listBasedSum(MetricEvent.PASS) + listBasedSum(MetricEvent.BLOCK);
+    }
+
+    @Benchmark
+    public long testTotal() {
+        return metric.sum(MetricEvent.PASS, MetricEvent.BLOCK);
+    }
+
+    @Benchmark
+    public double testListBasedAvgRt() {
+        long success = listBasedSum(MetricEvent.SUCCESS);
+        if (success == 0) {
+            return 0;
+        }
+        return listBasedSum(MetricEvent.RT) * 1.0 / success;
+    }
+
+    @Benchmark
+    public double testAvgRt() {
+        return metric.avgRt();
+    }
+}
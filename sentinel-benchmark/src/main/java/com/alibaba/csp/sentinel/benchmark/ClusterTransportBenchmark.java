@@ -0,0 +1,133 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.client.ClientConstants;
+import com.alibaba.csp.sentinel.cluster.client.NettyTransportClient;
+import com.alibaba.csp.sentinel.cluster.client.PooledNettyTransportClient;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfig;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.client.init.DefaultClusterClientInitFunc;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.NettyTransportServer;
+import com.alibaba.csp.sentinel.cluster.server.init.DefaultClusterServerInitFunc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Loopback benchmark of the token client and {@link NettyTransportServer}: throughput and latency
+ * percentiles ({@code Mode.SampleTime} reports p50/p90/p99/p999) of flow token requests from 16 threads,
+ * with the single-connection {@link NettyTransportClient} (1 connection) and the pooled
+ * {@link PooledNettyTransportClient} (4 and 8 connections), over the NIO and the epoll transport.</p>
+ *
+ * <p>The epoll transport requires the native library, i.e. packaging with {@code -Pepoll} on Linux; otherwise
+ * it falls back to NIO. Narrow the matrix with e.g. {@code -p connectionCount=1 -p transportType=nio,epoll}.</p>
+ *
+ * <p>No rule is loaded in the token server, so the round trip rather than the flow checking dominates.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(16)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ClusterTransportBenchmark {
+
+    private static final long FLOW_ID = 1001L;
+    private static final int REQUEST_TIMEOUT_MS = 1000;
+
+    @Param({"1", "4", "8"})
+    private int connectionCount;
+
+    @Param({ClientConstants.CONNECTION_SELECT_LEAST_PENDING, ClientConstants.CONNECTION_SELECT_ROUND_ROBIN})
+    private String selectStrategy;
+
+    @Param({ClusterConstants.TRANSPORT_TYPE_NIO, ClusterConstants.TRANSPORT_TYPE_EPOLL})
+    private String transportType;
+
+    private NettyTransportServer server;
+    private ClusterTransportClient client;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        new DefaultClusterServerInitFunc().init();
+        new DefaultClusterClientInitFunc().init();
+        // Measure the latency rather than failing fast when the machine is saturated.
+        ClusterClientConfigManager.applyNewConfig(new ClusterClientConfig().setRequestTimeout(REQUEST_TIMEOUT_MS)
+            .setTransportType(transportType));
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = new NettyTransportServer(port, transportType);
+        server.start();
+
+        if (connectionCount == 1) {
+            client = new NettyTransportClient("127.0.0.1", port);
+        } else {
+            client = new PooledNettyTransportClient("127.0.0.1", port, connectionCount, selectStrategy);
+        }
+        client.start();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!isFullyConnected()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Token client not ready");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private boolean isFullyConnected() {
+        if (client instanceof PooledNettyTransportClient) {
+            return ((PooledNettyTransportClient) client).readyConnectionCount() == connectionCount;
+        }
+        return client.isReady();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        client.stop();
+        server.stop();
+    }
+
+    @Benchmark
+    public ClusterResponse testRequestToken() throws Exception {
+        FlowRequestData data = new FlowRequestData().setFlowId(FLOW_ID).setCount(1);
+        return client.sendRequest(new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.ConcurrentClusterFlowChecker;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Server-side benchmark of concurrent-token throughput: acquire and release of cluster concurrency
+ * tokens ({@link ConcurrentClusterFlowChecker}) of a single rule, from 1, 4 and 16 threads.</p>
+ *
+ * <p>The threshold is large enough that no request is blocked, so the contention on the rule's
+ * current concurrency and on the token cache dominates.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ConcurrentTokenBenchmark {
+
+    private static final String NAMESPACE = "benchmark-concurrent-token";
+    private static final long FLOW_ID = 2001L;
+    private static final String CLIENT_ADDRESS = "127.0.0.1";
+
+    private FlowRule rule;
+
+    @Setup
+    public void prepare() {
+        ClusterFlowConfig config = new ClusterFlowConfig();
+        config.setFlowId(FLOW_ID);
+        config.setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL);
+        config.setResourceTimeout(2000);
+        config.setClientOfflineTime(2000);
+        FlowRule flowRule = new FlowRule("benchmark-concurrent-token")
+            .setGrade(RuleConstant.FLOW_GRADE_THREAD)
+            .setCount(1000000);
+        flowRule.setClusterMode(true);
+        flowRule.setClusterConfig(config);
+        ClusterFlowRuleManager.registerPropertyIfAbsent(NAMESPACE);
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.singletonList(flowRule));
+        rule = ClusterFlowRuleManager.getFlowRuleById(FLOW_ID);
+    }
+
+    private int acquireAndRelease() {
+        TokenResult result = ConcurrentClusterFlowChecker.acquireConcurrentToken(CLIENT_ADDRESS, rule, 1);
+        if (result.getStatus() == TokenResultStatus.OK) {
+            return ConcurrentClusterFlowChecker.releaseConcurrentToken(result.getTokenId()).getStatus();
+        }
+        return result.getStatus();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int testAcquireRelease() {
+        return acquireAndRelease();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int test4ThreadsAcquireRelease() {
+        return acquireAndRelease();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int test16ThreadsAcquireRelease() {
+        return acquireAndRelease();
+    }
+}
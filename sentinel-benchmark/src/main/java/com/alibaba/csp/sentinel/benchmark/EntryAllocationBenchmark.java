@@ -0,0 +1,125 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <p>Benchmark for the allocation of entry/exit, with and without entry recycle mode
+ * ({@code csp.sentinel.entry.recycle.enabled}).</p>
+ *
+ * <p>Run with the GC profiler to get the bytes allocated per entry/exit ({@code gc.alloc.rate.norm}):</p>
+ * <pre>
+ * java -jar benchmarks.jar EntryAllocationBenchmark -prof gc
+ * </pre>
+ *
+ * <p>The {@code Escaped} variants hand the entry to a {@link Blackhole}, as a caller keeping the entry would.
+ * The JIT then cannot scalar-replace the entry (or the per-entry handle in recycle mode).</p>
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class EntryAllocationBenchmark {
+
+    private static final String RESOURCE_NAME = "benchmark-allocation";
+
+    private void doEntry() {
+        Entry e = null;
+        try {
+            e = SphU.entry(RESOURCE_NAME);
+        } catch (BlockException ex) {
+            // Should not happen as no rules are loaded.
+        } finally {
+            if (e != null) {
+                e.exit();
+            }
+        }
+    }
+
+    private void doEntry(Blackhole blackhole) {
+        Entry e = null;
+        try {
+            e = SphU.entry(RESOURCE_NAME);
+            blackhole.consume(e);
+        } catch (BlockException ex) {
+            // Should not happen as no rules are loaded.
+        } finally {
+            if (e != null) {
+                e.exit();
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Fork(value = 1, jvmArgsAppend = "-Dcsp.sentinel.entry.recycle.enabled=false")
+    public void testEntryExit() {
+        doEntry();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Fork(value = 1, jvmArgsAppend = "-Dcsp.sentinel.entry.recycle.enabled=true")
+    public void testEntryExitWithRecycle() {
+        doEntry();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Fork(value = 1, jvmArgsAppend = "-Dcsp.sentinel.entry.recycle.enabled=false")
+    public void testEntryExitEscaped(Blackhole blackhole) {
+        doEntry(blackhole);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Fork(value = 1, jvmArgsAppend = "-Dcsp.sentinel.entry.recycle.enabled=true")
+    public void testEntryExitEscapedWithRecycle(Blackhole blackhole) {
+        doEntry(blackhole);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @Fork(value = 1, jvmArgsAppend = "-Dcsp.sentinel.entry.recycle.enabled=false")
+    public void test4ThreadsEntryExit() {
+        doEntry();
+    }
+
+    @Benchmark
+    @Threads(4)
+    @Fork(value = 1, jvmArgsAppend = "-Dcsp.sentinel.entry.recycle.enabled=true")
+    public void test4ThreadsEntryExitWithRecycle() {
+        doEntry();
+    }
+}
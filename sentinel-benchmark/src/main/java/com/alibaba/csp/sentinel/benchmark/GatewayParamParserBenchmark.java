@@ -0,0 +1,247 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import com.alibaba.csp.sentinel.adapter.gateway.common.SentinelGatewayConstants;
+import com.alibaba.csp.sentinel.adapter.gateway.common.param.GatewayParamParser;
+import com.alibaba.csp.sentinel.adapter.gateway.common.param.GatewayRegexCache;
+import com.alibaba.csp.sentinel.adapter.gateway.common.param.RequestItemParser;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayFlowRule;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayParamFlowItem;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayRuleManager;
+import com.alibaba.csp.sentinel.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the gateway parameter parsing with 1, 10 and 50 gateway parameter rules of the same route,
+ * comparing the compiled extraction plan of {@link GatewayParamParser} with the former per-rule parsing
+ * (each rule reads its request item and resolves its regex on every request).</p>
+ *
+ * <p>The rules read client IP, three distinct headers, URL parameters and cookies with exact, contains
+ * and regex match strategies, so that several rules share the same request item.</p>
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GatewayParamParserBenchmark {
+
+    private static final String ROUTE_ID = "benchmark-route";
+
+    @Param({"1", "10", "50"})
+    private int ruleCount;
+
+    private final RequestItemParser<FakeRequest> itemParser = new FakeRequestItemParser();
+    private final GatewayParamParser<FakeRequest> paramParser = new GatewayParamParser<>(itemParser);
+    private final Predicate<GatewayFlowRule> routeIdPredicate = new Predicate<GatewayFlowRule>() {
+        @Override
+        public boolean test(GatewayFlowRule e) {
+            return e.getResourceMode() == SentinelGatewayConstants.RESOURCE_MODE_ROUTE_ID;
+        }
+    };
+
+    private FakeRequest request;
+
+    @Setup
+    public void prepare() {
+        Set<GatewayFlowRule> rules = new HashSet<>();
+        for (int i = 0; i < ruleCount; i++) {
+            GatewayParamFlowItem item = new GatewayParamFlowItem();
+            switch (i % 5) {
+                case 0:
+                    item.setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_CLIENT_IP);
+                    break;
+                case 1:
+                    item.setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER)
+                        .setFieldName("X-Header-" + (i % 3));
+                    break;
+                case 2:
+                    item.setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_URL_PARAM)
+                        .setFieldName("p" + (i % 2))
+                        .setPattern("\\d+")
+                        .setMatchStrategy(SentinelGatewayConstants.PARAM_MATCH_STRATEGY_REGEX);
+                    break;
+                case 3:
+                    item.setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_COOKIE)
+                        .setFieldName("c")
+                        .setPattern("sentinel")
+                        .setMatchStrategy(SentinelGatewayConstants.PARAM_MATCH_STRATEGY_CONTAINS);
+                    break;
+                default:
+                    item.setParseStrategy(SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER)
+                        .setFieldName("X-Header-" + (i % 3))
+                        .setPattern("v" + i)
+                        .setMatchStrategy(SentinelGatewayConstants.PARAM_MATCH_STRATEGY_EXACT);
+                    break;
+            }
+            rules.add(new GatewayFlowRule(ROUTE_ID)
+                .setCount(1000 + i)
+                .setIntervalSec(1)
+                .setParamItem(item));
+        }
+        GatewayRuleManager.loadRules(rules);
+
+        request = new FakeRequest();
+        request.remoteAddress = "66.77.88.99";
+        for (int i = 0; i < 3; i++) {
+            request.headers.put("X-Header-" + i, "v" + i);
+        }
+        request.params.put("p0", "233");
+        request.params.put("p1", "abc");
+        request.cookies.put("c", "hello-sentinel");
+    }
+
+    @TearDown
+    public void tearDown() {
+        GatewayRuleManager.loadRules(new HashSet<GatewayFlowRule>());
+        GatewayRegexCache.clear();
+    }
+
+    @Benchmark
+    public Object[] testPerRuleParsing() {
+        return perRuleParse(ROUTE_ID, request, routeIdPredicate);
+    }
+
+    @Benchmark
+    public Object[] testExtractionPlan() {
+        return paramParser.parseParameterFor(ROUTE_ID, request, routeIdPredicate);
+    }
+
+    /**
+     * The former implementation of {@code GatewayParamParser#parseParameterFor}.
+     */
+    private Object[] perRuleParse(String resource, FakeRequest request, Predicate<GatewayFlowRule> rulePredicate) {
+        Set<GatewayFlowRule> gatewayRules = new HashSet<>();
+        Set<Boolean> predSet = new HashSet<>();
+        boolean hasNonParamRule = false;
+        for (GatewayFlowRule rule : GatewayRuleManager.getRulesForResource(resource)) {
+            if (rule.getParamItem() != null) {
+                gatewayRules.add(rule);
+                predSet.add(rulePredicate.test(rule));
+            } else {
+                hasNonParamRule = true;
+            }
+        }
+        if (!hasNonParamRule && gatewayRules.isEmpty()) {
+            return new Object[0];
+        }
+        if (predSet.size() > 1 || predSet.contains(false)) {
+            return new Object[0];
+        }
+        int size = hasNonParamRule ? gatewayRules.size() + 1 : gatewayRules.size();
+        Object[] arr = new Object[size];
+        for (GatewayFlowRule rule : gatewayRules) {
+            GatewayParamFlowItem paramItem = rule.getParamItem();
+            arr[paramItem.getIndex()] = perRuleParseItem(paramItem, request);
+        }
+        if (hasNonParamRule) {
+            arr[size - 1] = SentinelGatewayConstants.GATEWAY_DEFAULT_PARAM;
+        }
+        return arr;
+    }
+
+    private String perRuleParseItem(GatewayParamFlowItem item, FakeRequest request) {
+        String value;
+        switch (item.getParseStrategy()) {
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_CLIENT_IP:
+                value = itemParser.getRemoteAddress(request);
+                break;
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_HEADER:
+                value = itemParser.getHeader(request, item.getFieldName());
+                break;
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_URL_PARAM:
+                value = itemParser.getUrlParam(request, item.getFieldName());
+                break;
+            case SentinelGatewayConstants.PARAM_PARSE_STRATEGY_COOKIE:
+                value = itemParser.getCookieValue(request, item.getFieldName());
+                break;
+            default:
+                return null;
+        }
+        String pattern = item.getPattern();
+        if (pattern == null || pattern.isEmpty() || value == null) {
+            return value;
+        }
+        switch (item.getMatchStrategy()) {
+            case SentinelGatewayConstants.PARAM_MATCH_STRATEGY_EXACT:
+                return value.equals(pattern) ? value : SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM;
+            case SentinelGatewayConstants.PARAM_MATCH_STRATEGY_CONTAINS:
+                return value.contains(pattern) ? value : SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM;
+            case SentinelGatewayConstants.PARAM_MATCH_STRATEGY_REGEX:
+                Pattern regex = GatewayRegexCache.getRegexPattern(pattern);
+                if (regex == null) {
+                    return value;
+                }
+                return regex.matcher(value).matches() ? value : SentinelGatewayConstants.GATEWAY_NOT_MATCH_PARAM;
+            default:
+                return value;
+        }
+    }
+
+    static class FakeRequest {
+        String remoteAddress;
+        final Map<String, String> headers = new HashMap<>();
+        final Map<String, String> params = new HashMap<>();
+        final Map<String, String> cookies = new HashMap<>();
+    }
+
+    static class FakeRequestItemParser implements RequestItemParser<FakeRequest> {
+
+        @Override
+        public String getPath(FakeRequest request) {
+            return "/";
+        }
+
+        @Override
+        public String getRemoteAddress(FakeRequest request) {
+            return request.remoteAddress;
+        }
+
+        @Override
+        public String getHeader(FakeRequest request, String key) {
+            return request.headers.get(key);
+        }
+
+        @Override
+        public String getUrlParam(FakeRequest request, String paramName) {
+            return request.params.get(paramName);
+        }
+
+        @Override
+        public String getCookieValue(FakeRequest request, String cookieName) {
+            return request.cookies.get(cookieName);
+        }
+    }
+}
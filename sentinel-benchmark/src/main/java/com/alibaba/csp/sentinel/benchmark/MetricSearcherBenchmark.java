@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.LogBase;
+import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.node.metric.MetricSearcher;
+import com.alibaba.csp.sentinel.node.metric.MetricWriter;
+import com.alibaba.csp.sentinel.util.PidUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for concurrent queries of {@link MetricSearcher} on the metric files written by
+ * {@link MetricWriter}, e.g. the dashboard and a metric scraper pulling metrics at the same time.
+ * The serialized variant holds a global lock for every query, like the former synchronized searcher.</p>
+ *
+ * <p>Metric files are written to a temporary log directory. Override the number of threads with {@code -t}.</p>
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MetricSearcherBenchmark {
+
+    private static final int SECONDS = 600;
+    private static final int RESOURCES = 200;
+    private static final int QUERY_SECONDS = 60;
+
+    private final Object lock = new Object();
+
+    private File logDir;
+    private MetricSearcher searcher;
+    private long baseTime;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        // Should be set before the log base directory is resolved.
+        logDir = File.createTempFile("sentinel-metric-benchmark", "");
+        logDir.delete();
+        logDir.mkdirs();
+        System.setProperty(LogBase.LOG_DIR, logDir.getAbsolutePath());
+
+        MetricWriter writer = new MetricWriter(SentinelConfig.singleMetricFileSize(),
+            SentinelConfig.totalMetricFileCount());
+        baseTime = (System.currentTimeMillis() / 1000 + 1) * 1000;
+        for (int s = 0; s < SECONDS; s++) {
+            List<MetricNode> nodes = new ArrayList<>(RESOURCES);
+            for (int r = 0; r < RESOURCES; r++) {
+                MetricNode node = new MetricNode();
+                node.setResource("/api/resource/" + r);
+                node.setPassQps(r);
+                node.setSuccessQps(r);
+                node.setRt(10);
+                nodes.add(node);
+            }
+            writer.write(baseTime + s * 1000L, nodes);
+        }
+        writer.close();
+        searcher = new MetricSearcher(MetricWriter.METRIC_BASE_DIR,
+            MetricWriter.formMetricFileName(SentinelConfig.getAppName(), PidUtil.getPid()));
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        File[] files = logDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        logDir.delete();
+    }
+
+    private List<MetricNode> query() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long begin = baseTime + random.nextInt(SECONDS - QUERY_SECONDS) * 1000L;
+        return searcher.findByTimeAndResource(begin, begin + QUERY_SECONDS * 1000L,
+            "/api/resource/" + random.nextInt(RESOURCES));
+    }
+
+    @Benchmark
+    public List<MetricNode> testConcurrentFind() throws Exception {
+        return query();
+    }
+
+    @Benchmark
+    public List<MetricNode> testSerializedFind() throws Exception {
+        synchronized (lock) {
+            return query();
+        }
+    }
+}
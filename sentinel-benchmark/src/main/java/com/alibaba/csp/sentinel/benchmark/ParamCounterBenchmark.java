@@ -0,0 +1,96 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowChecker;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetric;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetricStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the local QPS check of hot parameters, comparing the default counters
+ * ({@code CacheMap} of {@code AtomicLong}) with the primitive counters
+ * ({@code csp.sentinel.param.counter.primitive.enabled}), over {@code keySpace} distinct string parameters.</p>
+ *
+ * <p>Run with the GC profiler to compare the allocation per check ({@code gc.alloc.rate.norm}):</p>
+ * <pre>
+ * java -jar benchmarks.jar ParamCounterBenchmark -prof gc
+ * </pre>
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ParamCounterBenchmark {
+
+    private static final String RESOURCE_NAME = "benchmark-param-counter";
+
+    @Param({"1000", "1000000"})
+    private int keySpace;
+
+    private ResourceWrapper resourceWrapper;
+    private ParamFlowRule rule;
+    private String[] params;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        resourceWrapper = new StringResourceWrapper(RESOURCE_NAME, EntryType.IN);
+        rule = new ParamFlowRule(RESOURCE_NAME).setParamIdx(0).setCount(10);
+        ParameterMetricStorage.clearParamMetricForResource(RESOURCE_NAME);
+        ParameterMetricStorage.initParamMetricsFor(resourceWrapper, rule);
+        params = new String[keySpace];
+        for (int i = 0; i < keySpace; i++) {
+            params[i] = "user-" + i;
+        }
+    }
+
+    private boolean doCheck() {
+        String param = params[ThreadLocalRandom.current().nextInt(keySpace)];
+        return ParamFlowChecker.passCheck(resourceWrapper, rule, 1, param);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + ParameterMetric.PRIMITIVE_COUNTER_ENABLED + "=false")
+    public boolean testMapCounter() {
+        return doCheck();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + ParameterMetric.PRIMITIVE_COUNTER_ENABLED + "=true")
+    public boolean testPrimitiveCounter() {
+        return doCheck();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowChecker;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetricStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Contention benchmark of the local QPS check of hot parameters: 64 threads hit one parameter value.</p>
+ *
+ * <p>The {@code packed} bucket keeps the time and tokens in a single counter. The threshold of the
+ * {@code legacy} bucket is beyond the capacity of a packed bucket, so it falls back to the former
+ * separate time and token counters with unbounded CAS retries.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(64)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ParamTokenBucketBenchmark {
+
+    private static final String RESOURCE_NAME = "benchmark-param-token-bucket";
+    private static final String HOT_VALUE = "hot-user";
+
+    @Param({"packed", "legacy"})
+    private String bucket;
+
+    private ResourceWrapper resourceWrapper;
+    private ParamFlowRule rule;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        // 2^24 - 1 is the max token count of packed buckets.
+        double threshold = "packed".equals(bucket) ? 16000000 : 17000000;
+        resourceWrapper = new StringResourceWrapper(RESOURCE_NAME, EntryType.IN);
+        rule = new ParamFlowRule(RESOURCE_NAME).setParamIdx(0).setCount(threshold);
+        ParameterMetricStorage.clearParamMetricForResource(RESOURCE_NAME);
+        ParameterMetricStorage.initParamMetricsFor(resourceWrapper, rule);
+    }
+
+    @Benchmark
+    public boolean testHotValueCheck() {
+        return ParamFlowChecker.passCheck(resourceWrapper, rule, 1, HOT_VALUE);
+    }
+}
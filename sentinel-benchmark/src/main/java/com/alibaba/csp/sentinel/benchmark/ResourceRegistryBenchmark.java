@@ -0,0 +1,120 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceRegistry;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark for the first-hit latency of resources, i.e. registering {@code resourceCount} distinct
+ * resources from scratch, comparing the concurrent {@link ResourceRegistry} with the former
+ * copy-on-write {@code HashMap} guarded by a global lock.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class ResourceRegistryBenchmark {
+
+    private static final Function<ResourceWrapper, Object> FACTORY = new Function<ResourceWrapper, Object>() {
+        @Override
+        public Object apply(ResourceWrapper resourceWrapper) {
+            return new Object();
+        }
+    };
+
+    @Param({"1000", "5000", "20000"})
+    private int resourceCount;
+
+    private ResourceWrapper[] resources;
+
+    private ResourceRegistry<ResourceWrapper, Object> registry;
+    private CopyOnWriteRegistry copyOnWriteRegistry;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        resources = new ResourceWrapper[resourceCount];
+        for (int i = 0; i < resourceCount; i++) {
+            resources[i] = new StringResourceWrapper("/api/resource/" + i, EntryType.IN);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        registry = new ResourceRegistry<>();
+        copyOnWriteRegistry = new CopyOnWriteRegistry();
+    }
+
+    @Benchmark
+    public void testResourceRegistry(Blackhole blackhole) {
+        for (ResourceWrapper resource : resources) {
+            blackhole.consume(registry.getOrCreate(resource, FACTORY));
+        }
+    }
+
+    @Benchmark
+    public void testCopyOnWriteHashMap(Blackhole blackhole) {
+        for (ResourceWrapper resource : resources) {
+            blackhole.consume(copyOnWriteRegistry.getOrCreate(resource));
+        }
+    }
+
+    /**
+     * The former implementation of {@code CtSph#lookProcessChain}.
+     */
+    private static class CopyOnWriteRegistry {
+        private volatile Map<ResourceWrapper, Object> map = new HashMap<>();
+        private final Object lock = new Object();
+
+        Object getOrCreate(ResourceWrapper resourceWrapper) {
+            Object value = map.get(resourceWrapper);
+            if (value == null) {
+                synchronized (lock) {
+                    value = map.get(resourceWrapper);
+                    if (value == null) {
+                        value = FACTORY.apply(resourceWrapper);
+                        Map<ResourceWrapper, Object> newMap = new HashMap<>(map.size() + 1);
+                        newMap.putAll(map);
+                        newMap.put(resourceWrapper, value);
+                        map = newMap;
+                    }
+                }
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRule;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRuleManager;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the rule dispatch of {@code FlowSlot}, {@code DegradeSlot} and {@code AuthoritySlot},
+ * with {@code rulesPerResource} flow rules (one limit app per rule, the last one for {@code other}),
+ * the same amount of degrade rules and an authority rule of {@code rulesPerResource} limit apps.
+ * None of the rules is triggered, so the cost is dominated by finding and matching the rules.</p>
+ *
+ * <p>Requests rotate among {@code resourceCount} resources with the same rules. Each resource has its own
+ * slot chain, whose rule checking slots keep the rules of the resource.</p>
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleDispatchBenchmark {
+
+    private static final String RESOURCE_PREFIX = "benchmark-rule-dispatch-";
+    private static final String ORIGIN = "caller";
+
+    @Param({"1", "10", "100"})
+    private int rulesPerResource;
+
+    @Param({"1", "100"})
+    private int resourceCount;
+
+    private String[] resources;
+    private int next;
+
+    @Setup
+    public void prepare() {
+        resources = new String[resourceCount];
+        List<FlowRule> flowRules = new ArrayList<>(rulesPerResource * resourceCount);
+        List<DegradeRule> degradeRules = new ArrayList<>(rulesPerResource * resourceCount);
+        List<AuthorityRule> authorityRules = new ArrayList<>(resourceCount);
+        for (int r = 0; r < resourceCount; r++) {
+            String resource = RESOURCE_PREFIX + r;
+            resources[r] = resource;
+            StringBuilder authorityApps = new StringBuilder();
+            for (int i = 0; i < rulesPerResource; i++) {
+                FlowRule flowRule = new FlowRule(resource).setCount(Integer.MAX_VALUE);
+                flowRule.setLimitApp(i == rulesPerResource - 1 ? RuleConstant.LIMIT_APP_OTHER : "app-" + i);
+                flowRules.add(flowRule);
+                degradeRules.add(new DegradeRule(resource)
+                    .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+                    .setCount(Integer.MAX_VALUE - i)
+                    .setTimeWindow(10));
+                authorityApps.append("app-").append(i).append(',');
+            }
+            authorityApps.append(ORIGIN);
+            AuthorityRule authorityRule = new AuthorityRule()
+                .setStrategy(RuleConstant.AUTHORITY_WHITE);
+            authorityRule.setResource(resource);
+            authorityRule.setLimitApp(authorityApps.toString());
+            authorityRules.add(authorityRule);
+        }
+
+        FlowRuleManager.loadRules(flowRules);
+        DegradeRuleManager.loadRules(degradeRules);
+        AuthorityRuleManager.loadRules(authorityRules);
+        ContextUtil.enter("benchmark-rule-dispatch-context", ORIGIN);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ContextUtil.exit();
+        FlowRuleManager.loadRules(null);
+        DegradeRuleManager.loadRules(null);
+        AuthorityRuleManager.loadRules(null);
+    }
+
+    @Benchmark
+    public void testEntryExit() throws BlockException {
+        String resource = resources[next];
+        next = next + 1 == resources.length ? 0 : next + 1;
+        Entry e = SphU.entry(resource);
+        e.exit();
+    }
+}
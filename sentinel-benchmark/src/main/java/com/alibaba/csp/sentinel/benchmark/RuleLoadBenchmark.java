@@ -0,0 +1,128 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowItem;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.zhao.sentinel.extension.file.pull.RuleRecordCodecs;
+import com.zhao.sentinel.extension.file.pull.RuleSnapshot;
+import com.zhao.sentinel.extension.file.pull.StreamingJsonRuleConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for loading parameter flow rules from the local rule files, comparing the current converter
+ * (the whole file as a {@link String}, then parsed by fastjson), the streaming JSON converter and the binary
+ * rule snapshot loaded with memory-mapped I/O.</p>
+ *
+ * <p>Run with {@code -prof gc} to compare the allocation as well.</p>
+ */
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class RuleLoadBenchmark {
+
+    private static final Charset UTF_8 = Charset.forName("utf-8");
+
+    @Param({"1000", "50000"})
+    private int ruleCount;
+
+    private final StreamingJsonRuleConverter<ParamFlowRule> streamingConverter
+        = new StreamingJsonRuleConverter<>(ParamFlowRule.class);
+
+    private File jsonFile;
+    private File snapshotFile;
+
+    @Setup
+    public void prepare() throws IOException {
+        List<ParamFlowRule> rules = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            List<ParamFlowItem> items = new ArrayList<>();
+            items.add(new ParamFlowItem().setObject("hot-" + i).setCount(5).setClassType(String.class.getName()));
+            items.add(new ParamFlowItem().setObject(String.valueOf(i)).setCount(10)
+                .setClassType(int.class.getName()));
+            rules.add(new ParamFlowRule("benchmark-resource-" + i)
+                .setParamIdx(i % 3)
+                .setCount(100 + i)
+                .setDurationInSec(1)
+                .setParamFlowItemList(items));
+        }
+        jsonFile = File.createTempFile("sentinel-param-rules", ".json");
+        snapshotFile = File.createTempFile("sentinel-param-rules", ".snapshot");
+        FileOutputStream out = new FileOutputStream(jsonFile);
+        try {
+            out.write(JSON.toJSONString(rules).getBytes(UTF_8));
+        } finally {
+            out.close();
+        }
+        RuleSnapshot.write(snapshotFile, rules, RuleRecordCodecs.PARAM_FLOW_RULE);
+
+        // All the three ways should load the same rules.
+        if (!rules.equals(testStringConverter()) || !rules.equals(testStreamingConverter())
+            || !rules.equals(testMappedSnapshot())) {
+            throw new IllegalStateException("Loaded rules mismatch");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonFile.delete();
+        snapshotFile.delete();
+    }
+
+    @Benchmark
+    public List<ParamFlowRule> testStringConverter() throws IOException {
+        String source = new String(Files.readAllBytes(jsonFile.toPath()), UTF_8);
+        return JSON.parseObject(source, new TypeReference<List<ParamFlowRule>>() {});
+    }
+
+    @Benchmark
+    public List<ParamFlowRule> testStreamingConverter() throws IOException {
+        return streamingConverter.convert(new BufferedInputStream(new FileInputStream(jsonFile)));
+    }
+
+    @Benchmark
+    public List<ParamFlowRule> testMappedSnapshot() throws IOException {
+        return RuleSnapshot.read(snapshotFile, RuleRecordCodecs.PARAM_FLOW_RULE);
+    }
+}
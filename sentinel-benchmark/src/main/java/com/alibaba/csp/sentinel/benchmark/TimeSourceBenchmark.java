@@ -0,0 +1,90 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.time.ManualTimeSource;
+import com.alibaba.csp.sentinel.util.time.MonotonicTimeSource;
+import com.alibaba.csp.sentinel.util.time.SystemTimeSource;
+import com.alibaba.csp.sentinel.util.time.TickerTimeSource;
+import com.alibaba.csp.sentinel.util.time.TimeSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the cost of reading time from each {@link TimeSource} under contention
+ * (shared sources, 8 threads by default, override with {@code -t}).</p>
+ *
+ * <p>Note that the ticker only switches to the cached mode after a few seconds of load,
+ * so the warmup should last more than 3 seconds.</p>
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+@State(Scope.Benchmark)
+public class TimeSourceBenchmark {
+
+    private TimeSource ticker;
+    private TimeSource system;
+    private TimeSource monotonic;
+    private TimeSource manual;
+
+    @Setup
+    public void prepare() {
+        ticker = new TickerTimeSource();
+        system = new SystemTimeSource();
+        monotonic = new MonotonicTimeSource();
+        manual = new ManualTimeSource(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public long testTicker() {
+        return ticker.currentTimeMillis();
+    }
+
+    @Benchmark
+    public long testSystem() {
+        return system.currentTimeMillis();
+    }
+
+    @Benchmark
+    public long testMonotonic() {
+        return monotonic.currentTimeMillis();
+    }
+
+    @Benchmark
+    public long testManual() {
+        return manual.currentTimeMillis();
+    }
+
+    @Benchmark
+    public long testTimeUtil() {
+        return TimeUtil.currentTimeMillis();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark that runs {@code taskCount} tasks (100k by default) through {@code SphU.entry} of a resource
+ * with a rate limiter rule, so that the queued requests wait in {@code RateLimiterController}. Each task runs
+ * on its own virtual thread, compared with a fixed pool of platform threads.</p>
+ *
+ * <p>Sentinel is built for JDK 8, so virtual threads are created reflectively and the {@code virtual}
+ * executor fails on JVMs older than 21. For example:</p>
+ * <pre>
+ * java -jar benchmarks.jar VirtualThreadEntryBenchmark -p executorType=virtual
+ * </pre>
+ */
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-D" + SentinelConfig.VIRTUAL_THREAD_MODE_ENABLED + "=true")
+@State(Scope.Benchmark)
+public class VirtualThreadEntryBenchmark {
+
+    private static final String RESOURCE_NAME = "benchmark-virtual-thread";
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"virtual", "platform"})
+    private String executorType;
+
+    @Param({"100000"})
+    private int taskCount;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        FlowRule rule = new FlowRule(RESOURCE_NAME).setCount(1000)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+            .setMaxQueueingTimeMs(50);
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+        executor = "virtual".equals(executorType) ? newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+    }
+
+    @Benchmark
+    public int testEntryWithRateLimiter() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(taskCount);
+        final AtomicInteger passed = new AtomicInteger();
+        for (int i = 0; i < taskCount; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Entry e = null;
+                    try {
+                        e = SphU.entry(RESOURCE_NAME);
+                        passed.incrementAndGet();
+                    } catch (BlockException ex) {
+                        // Rejected by the rate limiter.
+                    } finally {
+                        if (e != null) {
+                            e.exit();
+                        }
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        latch.await();
+        return passed.get();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService)method.invoke(null);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException("Virtual threads require JDK 21 or later");
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to create virtual thread executor", ex);
+        }
+    }
+}
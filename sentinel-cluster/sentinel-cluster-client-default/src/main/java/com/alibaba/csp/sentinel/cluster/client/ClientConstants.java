@@ -24,6 +24,27 @@ public final class ClientConstants {
     public static final int TYPE_PING = 0;
     public static final int TYPE_FLOW = 1;
     public static final int TYPE_PARAM_FLOW = 2;
+    /**
+     * @since 1.8.6
+     */
+    public static final int TYPE_BATCH_FLOW = 5;
+    /**
+     * @since 1.8.6
+     */
+    public static final int TYPE_LEASE_FLOW = 6;
+
+    /**
+     * Select the connection of the fewest in-flight requests.
+     *
+     * @since 1.8.6
+     */
+    public static final String CONNECTION_SELECT_LEAST_PENDING = "least-pending";
+    /**
+     * Select the connection in round-robin.
+     *
+     * @since 1.8.6
+     */
+    public static final String CONNECTION_SELECT_ROUND_ROBIN = "round-robin";
 
     public static final int CLIENT_STATUS_OFF = 0;
     public static final int CLIENT_STATUS_PENDING = 1;
@@ -15,26 +15,33 @@
  */
 package com.alibaba.csp.sentinel.cluster.client;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
 import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.TokenRequest;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientAssignConfig;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientStartUpConfig;
 import com.alibaba.csp.sentinel.cluster.client.config.ServerChangeObserver;
 import com.alibaba.csp.sentinel.cluster.log.ClusterClientStatLogUtil;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
 import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
 import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * Default implementation of {@link ClusterTokenClient}.
@@ -49,7 +56,22 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
 
     private final AtomicBoolean shouldStart = new AtomicBoolean(false);
 
+    /**
+     * Coalescer of concurrent flow token requests, absent if batching is disabled.
+     *
+     * @since 1.8.6
+     */
+    private final TokenRequestCoalescer coalescer;
+    /**
+     * Token leases of flow rules, absent if leasing is disabled.
+     *
+     * @since 1.8.6
+     */
+    private final TokenLeaseManager leaseManager;
+
     public DefaultClusterTokenClient() {
+        this.coalescer = createCoalescer();
+        this.leaseManager = createLeaseManager();
         ClusterClientConfigManager.addServerChangeObserver(new ServerChangeObserver() {
             @Override
             public void onRemoteServerChange(ClusterClientAssignConfig assignConfig) {
@@ -59,6 +81,44 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         initNewConnection();
     }
 
+    private TokenRequestCoalescer createCoalescer() {
+        long batchWindowMicros = ClusterClientStartUpConfig.getBatchWindowMicros();
+        if (batchWindowMicros <= 0) {
+            return null;
+        }
+        RecordLog.info("[DefaultClusterTokenClient] Flow token requests will be coalesced within {} us",
+            batchWindowMicros);
+        return new TokenRequestCoalescer(batchWindowMicros, ClusterConstants.MAX_BATCH_FLOW_SIZE,
+            new Function<List<TokenRequest>, List<TokenResult>>() {
+                @Override
+                public List<TokenResult> apply(List<TokenRequest> requests) {
+                    if (requests.size() == 1) {
+                        TokenRequest request = requests.get(0);
+                        List<TokenResult> results = new ArrayList<>(1);
+                        results.add(doRequestToken(request.getRuleId(), request.getAcquireCount(),
+                            request.isPrioritized()));
+                        return results;
+                    }
+                    return requestTokens(requests);
+                }
+            });
+    }
+
+    private TokenLeaseManager createLeaseManager() {
+        final int leaseCount = ClusterClientStartUpConfig.getLeaseCount();
+        if (leaseCount <= 0) {
+            return null;
+        }
+        RecordLog.info("[DefaultClusterTokenClient] Flow tokens will be leased from token server, leaseCount={}",
+            leaseCount);
+        return new TokenLeaseManager(new Function<Long, TokenResult>() {
+            @Override
+            public TokenResult apply(Long flowId) {
+                return requestTokenLease(flowId, leaseCount);
+            }
+        });
+    }
+
     private boolean serverEqual(TokenServerDescriptor descriptor, ClusterClientAssignConfig config) {
         if (descriptor == null || config == null) {
             return false;
@@ -77,7 +137,7 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
 
         try {
-            this.transportClient = new NettyTransportClient(host, port);
+            this.transportClient = newTransportClient(host, port);
             this.serverDescriptor = new TokenServerDescriptor(host, port);
             RecordLog.info("[DefaultClusterTokenClient] New client created: {}", serverDescriptor);
         } catch (Exception ex) {
@@ -85,6 +145,15 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
+    private ClusterTransportClient newTransportClient(String host, int port) {
+        int connectionCount = ClusterClientStartUpConfig.getConnectionCount();
+        if (connectionCount > 1) {
+            return new PooledNettyTransportClient(host, port, connectionCount,
+                ClusterClientStartUpConfig.getConnectionSelectStrategy());
+        }
+        return new NettyTransportClient(host, port);
+    }
+
     private void changeServer(/*@Valid*/ ClusterClientAssignConfig config) {
         if (serverEqual(serverDescriptor, config)) {
             return;
@@ -94,7 +163,11 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
                 transportClient.stop();
             }
             // Replace with new, even if the new client is not ready.
-            this.transportClient = new NettyTransportClient(config.getServerHost(), config.getServerPort());
+            this.transportClient = newTransportClient(config.getServerHost(), config.getServerPort());
+            if (leaseManager != null) {
+                // Leases are granted by the former token server. Renewals in flight are discarded as well.
+                leaseManager.clear();
+            }
             this.serverDescriptor = new TokenServerDescriptor(config.getServerHost(), config.getServerPort());
             startClientIfScheduled();
             RecordLog.info("[DefaultClusterTokenClient] New client created: {}", serverDescriptor);
@@ -151,6 +224,19 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         if (notValidRequest(flowId, acquireCount)) {
             return badRequest();
         }
+        if (leaseManager != null && !prioritized) {
+            TokenResult result = leaseManager.tryAcquire(flowId, acquireCount);
+            if (result != null) {
+                return result;
+            }
+        }
+        if (coalescer != null) {
+            return coalescer.requestToken(flowId, acquireCount, prioritized);
+        }
+        return doRequestToken(flowId, acquireCount, prioritized);
+    }
+
+    private TokenResult doRequestToken(Long flowId, int acquireCount, boolean prioritized) {
         FlowRequestData data = new FlowRequestData().setCount(acquireCount)
             .setFlowId(flowId).setPriority(prioritized);
         ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data);
@@ -164,6 +250,23 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
+    @Override
+    public TokenResult requestTokenLease(Long flowId, int maxCount) {
+        if (notValidRequest(flowId, maxCount)) {
+            return badRequest();
+        }
+        FlowRequestData data = new FlowRequestData().setCount(maxCount).setFlowId(flowId);
+        ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_LEASE_FLOW, data);
+        try {
+            TokenResult result = sendTokenRequest(request);
+            logForResult(result);
+            return result;
+        } catch (Exception ex) {
+            ClusterClientStatLogUtil.log(ex.getMessage());
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+    }
+
     @Override
     public TokenResult requestParamToken(Long flowId, int acquireCount, Collection<Object> params) {
         if (notValidRequest(flowId, acquireCount) || params == null || params.isEmpty()) {
@@ -182,6 +285,69 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
+    @Override
+    public List<TokenResult> requestTokens(List<TokenRequest> requests) {
+        if (requests == null) {
+            return new ArrayList<>(0);
+        }
+        List<TokenResult> results = new ArrayList<>(requests.size());
+        BatchFlowRequestData data = new BatchFlowRequestData();
+        List<Integer> positions = new ArrayList<>(ClusterConstants.MAX_BATCH_FLOW_SIZE);
+        for (int i = 0; i < requests.size(); i++) {
+            TokenRequest request = requests.get(i);
+            if (request == null || notValidRequest(request.getRuleId(), request.getAcquireCount())) {
+                results.add(badRequest());
+                continue;
+            }
+            results.add(null);
+            positions.add(i);
+            data.addRequest(new FlowRequestData().setFlowId(request.getRuleId())
+                .setCount(request.getAcquireCount()).setPriority(request.isPrioritized()));
+            if (positions.size() == ClusterConstants.MAX_BATCH_FLOW_SIZE) {
+                sendBatchTokenRequest(data, positions, results);
+                data = new BatchFlowRequestData();
+                positions.clear();
+            }
+        }
+        if (!positions.isEmpty()) {
+            sendBatchTokenRequest(data, positions, results);
+        }
+        return results;
+    }
+
+    private void sendBatchTokenRequest(BatchFlowRequestData data, List<Integer> positions,
+                                       List<TokenResult> results) {
+        ClusterRequest<BatchFlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_BATCH_FLOW,
+            data);
+        List<TokenResult> batchResults = null;
+        int status = TokenResultStatus.FAIL;
+        try {
+            if (transportClient == null) {
+                RecordLog.warn(
+                    "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
+            } else {
+                ClusterResponse response = transportClient.sendRequest(request);
+                status = response.getStatus();
+                if (response.getData() != null) {
+                    batchResults = ((BatchFlowTokenResponseData)response.getData()).getResults();
+                }
+            }
+        } catch (Exception ex) {
+            ClusterClientStatLogUtil.log(ex.getMessage());
+        }
+        for (int i = 0; i < positions.size(); i++) {
+            TokenResult result;
+            if (status == TokenResultStatus.OK && batchResults != null && i < batchResults.size()) {
+                result = batchResults.get(i);
+            } else {
+                // The whole batch is rejected (e.g. bad request or too many requests) or failed.
+                result = new TokenResult(status == TokenResultStatus.OK ? TokenResultStatus.FAIL : status);
+            }
+            logForResult(result);
+            results.set(positions.get(i), result);
+        }
+    }
+
     @Override
     public TokenResult requestConcurrentToken(String clientAddress, Long ruleId, int acquireCount) {
         return null;
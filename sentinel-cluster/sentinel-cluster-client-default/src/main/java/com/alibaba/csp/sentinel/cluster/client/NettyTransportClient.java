@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
 import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.NettyTransportUtil;
 import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyRequestEncoder;
 import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyResponseDecoder;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
@@ -45,11 +46,9 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.ChannelPromise;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.util.concurrent.GenericFutureListener;
 
 /**
@@ -70,7 +69,7 @@ public class NettyTransportClient implements ClusterTransportClient {
     private final int port;
 
     private Channel channel;
-    private NioEventLoopGroup eventLoopGroup;
+    private EventLoopGroup eventLoopGroup;
     private TokenClientHandler clientHandler;
 
     private final AtomicInteger idGenerator = new AtomicInteger(0);
@@ -88,9 +87,10 @@ public class NettyTransportClient implements ClusterTransportClient {
 
     private Bootstrap initClientBootstrap() {
         Bootstrap b = new Bootstrap();
-        eventLoopGroup = new NioEventLoopGroup();
+        eventLoopGroup = NettyTransportUtil.newEventLoopGroup(
+            NettyTransportUtil.resolveTransportType(ClusterClientConfigManager.getTransportType()), 0);
         b.group(eventLoopGroup)
-            .channel(NioSocketChannel.class)
+            .channel(NettyTransportUtil.socketChannelClass(eventLoopGroup))
             .option(ChannelOption.TCP_NODELAY, true)
             .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ClusterClientConfigManager.getConnectTimeout())
@@ -102,8 +102,7 @@ public class NettyTransportClient implements ClusterTransportClient {
                     ChannelPipeline pipeline = ch.pipeline();
                     pipeline.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
                     pipeline.addLast(new NettyResponseDecoder());
-                    pipeline.addLast(new LengthFieldPrepender(2));
-                    pipeline.addLast(new NettyRequestEncoder());
+                    pipeline.addLast(new NettyRequestEncoder(true));
                     pipeline.addLast(clientHandler);
                 }
             });
@@ -216,11 +215,12 @@ public class NettyTransportClient implements ClusterTransportClient {
         try {
             request.setId(xid);
 
-            channel.writeAndFlush(request);
-
+            // Register the promise before writing, as the response may arrive before the write returns.
             ChannelPromise promise = channel.newPromise();
             TokenClientPromiseHolder.putPromise(xid, promise);
 
+            channel.writeAndFlush(request);
+
             if (!promise.await(ClusterClientConfigManager.getRequestTimeout())) {
                 throw new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
             }
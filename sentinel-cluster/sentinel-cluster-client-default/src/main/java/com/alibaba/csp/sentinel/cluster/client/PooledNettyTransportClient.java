@@ -0,0 +1,345 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
+import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
+import com.alibaba.csp.sentinel.cluster.NettyTransportUtil;
+import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyRequestEncoder;
+import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyResponseDecoder;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.client.handler.ConnectionPromiseHolder;
+import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientHandler;
+import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.util.concurrent.GenericFutureListener;
+
+/**
+ * <p>Netty transport client that pipelines requests over a pool of connections to the same token server.</p>
+ *
+ * <p>Every connection holds its own in-flight promises and request IDs, so the connections share no
+ * mutable state on the request path. Requests go to the ready connection with the fewest in-flight
+ * requests ({@link ClientConstants#CONNECTION_SELECT_LEAST_PENDING}) or round-robin
+ * ({@link ClientConstants#CONNECTION_SELECT_ROUND_ROBIN}). Only the first connection registers the namespace
+ * of the client to the token server, so that the pool is still regarded as a single client.</p>
+ *
+ * @since 1.8.6
+ */
+public class PooledNettyTransportClient implements ClusterTransportClient {
+
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(1,
+        new NamedThreadFactory("sentinel-cluster-pooled-transport-client-scheduler", true));
+
+    private final String host;
+    private final int port;
+    private final boolean roundRobin;
+
+    private final PooledConnection[] connections;
+    private final AtomicInteger nextIndex = new AtomicInteger(0);
+
+    private final AtomicBoolean shouldRetry = new AtomicBoolean(true);
+
+    private volatile EventLoopGroup eventLoopGroup;
+    private volatile Bootstrap bootstrap;
+
+    public PooledNettyTransportClient(String host, int port, int connectionCount) {
+        this(host, port, connectionCount, ClientConstants.CONNECTION_SELECT_LEAST_PENDING);
+    }
+
+    public PooledNettyTransportClient(String host, int port, int connectionCount, String selectStrategy) {
+        AssertUtil.assertNotBlank(host, "remote host cannot be blank");
+        AssertUtil.isTrue(port > 0, "port should be positive");
+        AssertUtil.isTrue(connectionCount > 0, "connectionCount should be positive");
+        this.host = host;
+        this.port = port;
+        this.roundRobin = ClientConstants.CONNECTION_SELECT_ROUND_ROBIN.equals(selectStrategy);
+        this.connections = new PooledConnection[connectionCount];
+        for (int i = 0; i < connectionCount; i++) {
+            connections[i] = new PooledConnection(i);
+        }
+    }
+
+    private Bootstrap initClientBootstrap() {
+        eventLoopGroup = NettyTransportUtil.newEventLoopGroup(
+            NettyTransportUtil.resolveTransportType(ClusterClientConfigManager.getTransportType()),
+            Math.min(connections.length, Runtime.getRuntime().availableProcessors() * 2));
+        return new Bootstrap()
+            .group(eventLoopGroup)
+            .channel(NettyTransportUtil.socketChannelClass(eventLoopGroup))
+            .option(ChannelOption.TCP_NODELAY, true)
+            .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ClusterClientConfigManager.getConnectTimeout());
+    }
+
+    @Override
+    public synchronized void start() throws Exception {
+        shouldRetry.set(true);
+        if (bootstrap == null) {
+            bootstrap = initClientBootstrap();
+        }
+        for (PooledConnection connection : connections) {
+            connection.connect();
+        }
+    }
+
+    @Override
+    public synchronized void stop() throws Exception {
+        // Stop retrying for connection.
+        shouldRetry.set(false);
+
+        for (PooledConnection connection : connections) {
+            while (connection.currentState.get() == ClientConstants.CLIENT_STATUS_PENDING) {
+                try {
+                    Thread.sleep(200);
+                } catch (Exception ex) {
+                    // Ignore.
+                }
+            }
+            connection.cleanUp();
+            connection.failConnectedTime.set(0);
+        }
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdownGracefully();
+            eventLoopGroup = null;
+        }
+        bootstrap = null;
+
+        RecordLog.info("[PooledNettyTransportClient] Cluster transport client stopped");
+    }
+
+    @Override
+    public boolean isReady() {
+        for (PooledConnection connection : connections) {
+            if (connection.isReady()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return amount of ready connections
+     */
+    public int readyConnectionCount() {
+        int count = 0;
+        for (PooledConnection connection : connections) {
+            if (connection.isReady()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private PooledConnection selectConnection() {
+        int length = connections.length;
+        int start = nextIndex.getAndIncrement() & Integer.MAX_VALUE;
+        if (roundRobin) {
+            for (int i = 0; i < length; i++) {
+                PooledConnection connection = connections[(start + i) % length];
+                if (connection.isReady()) {
+                    return connection;
+                }
+            }
+            return null;
+        }
+        // Start from a rotating index so that the ties are spread over the connections.
+        PooledConnection selected = null;
+        for (int i = 0; i < length; i++) {
+            PooledConnection connection = connections[(start + i) % length];
+            if (connection.isReady() && (selected == null
+                || connection.pendingCount.get() < selected.pendingCount.get())) {
+                selected = connection;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public ClusterResponse sendRequest(ClusterRequest request) throws Exception {
+        if (request == null || request.getType() < 0) {
+            throw new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST);
+        }
+        PooledConnection connection = selectConnection();
+        if (connection == null) {
+            throw new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY);
+        }
+        return connection.sendRequest(request);
+    }
+
+    private final class PooledConnection {
+
+        private final int index;
+        private final ConnectionPromiseHolder promiseHolder = new ConnectionPromiseHolder();
+
+        private final AtomicInteger idGenerator = new AtomicInteger(0);
+        private final AtomicInteger pendingCount = new AtomicInteger(0);
+        private final AtomicInteger currentState = new AtomicInteger(ClientConstants.CLIENT_STATUS_OFF);
+        private final AtomicInteger failConnectedTime = new AtomicInteger(0);
+
+        private volatile Channel channel;
+        private volatile TokenClientHandler clientHandler;
+
+        private final Runnable disconnectCallback = new Runnable() {
+            @Override
+            public void run() {
+                cleanUp();
+                if (!shouldRetry.get()) {
+                    return;
+                }
+                SCHEDULER.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (shouldRetry.get()) {
+                            RecordLog.info("[PooledNettyTransportClient] Reconnecting connection #{} to server <{}:{}>",
+                                index, host, port);
+                            connect();
+                        }
+                    }
+                }, NettyTransportClient.RECONNECT_DELAY_MS * (failConnectedTime.get() + 1), TimeUnit.MILLISECONDS);
+            }
+        };
+
+        PooledConnection(int index) {
+            this.index = index;
+        }
+
+        void connect() {
+            Bootstrap b = bootstrap;
+            if (b == null || !currentState.compareAndSet(ClientConstants.CLIENT_STATUS_OFF,
+                ClientConstants.CLIENT_STATUS_PENDING)) {
+                return;
+            }
+            b.clone()
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    public void initChannel(SocketChannel ch) throws Exception {
+                        clientHandler = new TokenClientHandler(currentState, disconnectCallback, promiseHolder,
+                            index == 0);
+
+                        ChannelPipeline pipeline = ch.pipeline();
+                        pipeline.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
+                        pipeline.addLast(new NettyResponseDecoder());
+                        pipeline.addLast(new NettyRequestEncoder(true));
+                        pipeline.addLast(clientHandler);
+                    }
+                })
+                .connect(host, port)
+                .addListener(new GenericFutureListener<ChannelFuture>() {
+                    @Override
+                    public void operationComplete(ChannelFuture future) {
+                        if (future.cause() != null) {
+                            RecordLog.warn(String.format(
+                                "[PooledNettyTransportClient] Connection #%d could not connect to <%s:%d> after %d times",
+                                index, host, port, failConnectedTime.get()), future.cause());
+                            failConnectedTime.incrementAndGet();
+                            channel = null;
+                        } else {
+                            failConnectedTime.set(0);
+                            channel = future.channel();
+                            RecordLog.info("[PooledNettyTransportClient] Connection #{} connected to server <{}:{}>",
+                                index, host, port);
+                        }
+                    }
+                });
+        }
+
+        void cleanUp() {
+            Channel ch = channel;
+            if (ch != null) {
+                ch.close();
+                channel = null;
+            }
+            promiseHolder.failAll(new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
+        }
+
+        boolean isReady() {
+            TokenClientHandler handler = clientHandler;
+            return channel != null && handler != null && handler.hasStarted();
+        }
+
+        ClusterResponse sendRequest(ClusterRequest request) throws Exception {
+            Channel ch = channel;
+            if (ch == null) {
+                throw new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY);
+            }
+            int xid = nextId();
+            pendingCount.incrementAndGet();
+            try {
+                request.setId(xid);
+
+                // Register the promise before writing, as the response may arrive before the write returns.
+                ChannelPromise promise = ch.newPromise();
+                promiseHolder.putPromise(xid, promise);
+
+                ch.writeAndFlush(request);
+
+                if (!promise.await(ClusterClientConfigManager.getRequestTimeout())) {
+                    throw new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
+                }
+
+                SimpleEntry<ChannelPromise, ClusterResponse> entry = promiseHolder.getEntry(xid);
+                if (entry == null || entry.getValue() == null) {
+                    if (promise.cause() != null) {
+                        // The connection is closed.
+                        throw new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY);
+                    }
+                    // Should not go through here.
+                    throw new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS);
+                }
+                return entry.getValue();
+            } finally {
+                promiseHolder.remove(xid);
+                pendingCount.decrementAndGet();
+            }
+        }
+
+        private int nextId() {
+            int pre, next;
+            do {
+                pre = idGenerator.get();
+                next = pre >= MAX_ID ? MIN_ID : pre + 1;
+            } while (!idGenerator.compareAndSet(pre, next));
+            return next;
+        }
+    }
+
+    private static final int MIN_ID = 1;
+    private static final int MAX_ID = 999_999_999;
+}
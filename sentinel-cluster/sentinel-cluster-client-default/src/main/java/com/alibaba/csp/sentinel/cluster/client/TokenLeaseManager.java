@@ -0,0 +1,202 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+/**
+ * <p>Holds the token leases granted by the token server, so that flow token requests could be served
+ * locally without a round trip to the token server.</p>
+ *
+ * <p>A lease is renewed asynchronously when it is about to run out (less than a quarter of the granted tokens
+ * left) or expire (less than a quarter of the lease duration left). Requests that cannot be served by the current
+ * lease are left to the caller to request from the token server directly, which keeps the per-request semantics
+ * when the threshold is reached.</p>
+ *
+ * @since 1.8.6
+ */
+final class TokenLeaseManager {
+
+    private final Function<Long, TokenResult> leaseRequester;
+
+    private final Map<Long, TokenLease> leaseMap = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> renewingMap = new ConcurrentHashMap<>();
+    /**
+     * Bumped on {@link #clear()}, so that the renewals in flight (e.g. granted by the former token server)
+     * are discarded.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ExecutorService renewExecutor;
+
+    /**
+     * @param leaseRequester requests a token lease for given flow ID from the token server
+     */
+    TokenLeaseManager(Function<Long, TokenResult> leaseRequester) {
+        this(leaseRequester, new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(1024), new NamedThreadFactory("sentinel-cluster-lease-renew-task", true),
+            new ThreadPoolExecutor.DiscardPolicy()));
+    }
+
+    TokenLeaseManager(Function<Long, TokenResult> leaseRequester, ExecutorService renewExecutor) {
+        AssertUtil.notNull(leaseRequester, "leaseRequester cannot be null");
+        AssertUtil.notNull(renewExecutor, "renewExecutor cannot be null");
+        this.leaseRequester = leaseRequester;
+        this.renewExecutor = renewExecutor;
+    }
+
+    /**
+     * Try to acquire tokens from the current lease of the flow rule.
+     *
+     * @param flowId       flow ID of the cluster rule
+     * @param acquireCount token count to acquire
+     * @return the passed result if acquired from the lease, or null if the request should go to the token server
+     */
+    TokenResult tryAcquire(Long flowId, int acquireCount) {
+        long currentTime = TimeUtil.currentTimeMillis();
+        TokenLease lease = leaseMap.get(flowId);
+        if (lease == null || lease.isExpired(currentTime)) {
+            renewAsync(flowId);
+            return null;
+        }
+        int remaining = lease.tryAcquire(acquireCount);
+        if (lease.shouldRenew(currentTime)) {
+            renewAsync(flowId);
+        }
+        if (remaining < 0) {
+            return null;
+        }
+        return new TokenResult(TokenResultStatus.OK)
+            .setRemaining(remaining)
+            .setWaitInMs(0);
+    }
+
+    private void renewAsync(final Long flowId) {
+        if (renewingMap.putIfAbsent(flowId, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            renewExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        renew(flowId);
+                    } finally {
+                        renewingMap.remove(flowId);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            renewingMap.remove(flowId);
+        }
+    }
+
+    void renew(Long flowId) {
+        // The lease starts before the request is sent, so that the lease never outlives the one in server.
+        long startTime = TimeUtil.currentTimeMillis();
+        long currentGeneration = generation.get();
+        TokenResult result;
+        try {
+            result = leaseRequester.apply(flowId);
+        } catch (Throwable ex) {
+            RecordLog.warn("[TokenLeaseManager] Failed to renew token lease for flowId=" + flowId, ex);
+            return;
+        }
+        if (result != null && result.getStatus() == TokenResultStatus.OK && result.getRemaining() > 0
+            && result.getWaitInMs() > 0) {
+            if (generation.get() != currentGeneration) {
+                return;
+            }
+            // Tokens left in the former lease are dropped, as they have been counted by the server anyway.
+            TokenLease lease = new TokenLease(result.getRemaining(), startTime, result.getWaitInMs());
+            leaseMap.put(flowId, lease);
+            if (generation.get() != currentGeneration) {
+                // Cleared while putting the lease.
+                leaseMap.remove(flowId, lease);
+            }
+        } else {
+            // Requests will go to the token server until a new lease is granted.
+            leaseMap.remove(flowId);
+        }
+    }
+
+    TokenLease getLease(Long flowId) {
+        return leaseMap.get(flowId);
+    }
+
+    void clear() {
+        generation.incrementAndGet();
+        leaseMap.clear();
+    }
+
+    static final class TokenLease {
+        private final int grantedCount;
+        private final AtomicInteger remaining;
+        private final long renewTime;
+        private final long expireTime;
+
+        TokenLease(int grantedCount, long startTime, int ttlMs) {
+            this.grantedCount = grantedCount;
+            this.remaining = new AtomicInteger(grantedCount);
+            this.expireTime = startTime + ttlMs;
+            this.renewTime = expireTime - ttlMs / 4;
+        }
+
+        /**
+         * @return remaining token count after acquiring, or -1 if not enough tokens
+         */
+        int tryAcquire(int count) {
+            while (true) {
+                int current = remaining.get();
+                int next = current - count;
+                if (next < 0) {
+                    return -1;
+                }
+                if (remaining.compareAndSet(current, next)) {
+                    return next;
+                }
+            }
+        }
+
+        boolean isExpired(long currentTime) {
+            return currentTime >= expireTime;
+        }
+
+        boolean shouldRenew(long currentTime) {
+            return currentTime >= renewTime || remaining.get() * 4 < grantedCount;
+        }
+
+        int getRemaining() {
+            return remaining.get();
+        }
+    }
+}
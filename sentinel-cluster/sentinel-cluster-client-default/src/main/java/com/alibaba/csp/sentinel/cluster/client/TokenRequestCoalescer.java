@@ -0,0 +1,172 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import com.alibaba.csp.sentinel.cluster.TokenRequest;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+/**
+ * <p>Coalesces concurrent flow token requests within a short window into batch requests,
+ * so that a burst of requests costs one round trip to the token server instead of one per request.</p>
+ *
+ * <p>The first caller that finds no batch collecting becomes the leader: it waits for the window,
+ * drains the pending requests (up to the max batch size) and sends them as one batch,
+ * then completes every drained request with its own result. Other callers just wait for their
+ * results, and take over as the leader if their request was left out of the previous batch.
+ * Requests for the same rule are kept as separate entries of the batch, so each caller
+ * gets exactly the result the token server decided for its own request.</p>
+ *
+ * @since 1.8.6
+ */
+final class TokenRequestCoalescer {
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Function<List<TokenRequest>, List<TokenResult>> batchSender;
+
+    private final Queue<PendingRequest> pendingQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean collecting = new AtomicBoolean(false);
+
+    /**
+     * @param windowMicros the coalescing window in microseconds
+     * @param maxBatchSize max amount of requests in one batch
+     * @param batchSender  sends a batch and returns the results in the same order
+     */
+    TokenRequestCoalescer(long windowMicros, int maxBatchSize,
+                          Function<List<TokenRequest>, List<TokenResult>> batchSender) {
+        AssertUtil.isTrue(windowMicros > 0, "windowMicros should be positive");
+        AssertUtil.isTrue(maxBatchSize > 0, "maxBatchSize should be positive");
+        AssertUtil.notNull(batchSender, "batchSender cannot be null");
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        this.batchSender = batchSender;
+    }
+
+    TokenResult requestToken(Long flowId, int acquireCount, boolean prioritized) {
+        PendingRequest pending = new PendingRequest(new TokenRequest(flowId, acquireCount, prioritized));
+        pendingQueue.offer(pending);
+        try {
+            while (!pending.isClaimed()) {
+                if (collecting.compareAndSet(false, true)) {
+                    collectAndSend();
+                } else {
+                    pending.await(windowNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            // Claimed requests are always completed by the leader that sent them,
+            // the request timeout here is only a safety net.
+            long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(ClusterClientConfigManager.getRequestTimeout());
+            if (pending.await(timeoutNanos + windowNanos, TimeUnit.NANOSECONDS)) {
+                return pending.result;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            // Withdraw if not yet sent, otherwise the result is simply discarded.
+            pending.claim();
+        }
+        return new TokenResult(TokenResultStatus.FAIL);
+    }
+
+    private void collectAndSend() {
+        List<PendingRequest> batch;
+        try {
+            long deadline = System.nanoTime() + windowNanos;
+            long left;
+            // Wait for the window to let concurrent requests join the batch.
+            while ((left = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(left);
+            }
+            batch = drain();
+        } finally {
+            collecting.set(false);
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private List<PendingRequest> drain() {
+        List<PendingRequest> batch = new ArrayList<>(Math.min(maxBatchSize, pendingQueue.size()));
+        PendingRequest pending;
+        while (batch.size() < maxBatchSize && (pending = pendingQueue.poll()) != null) {
+            // Skip the requests withdrawn by interrupted callers.
+            if (pending.claim()) {
+                batch.add(pending);
+            }
+        }
+        return batch;
+    }
+
+    private void send(List<PendingRequest> batch) {
+        List<TokenResult> results = null;
+        try {
+            List<TokenRequest> requests = new ArrayList<>(batch.size());
+            for (PendingRequest pending : batch) {
+                requests.add(pending.request);
+            }
+            results = batchSender.apply(requests);
+        } catch (Throwable ex) {
+            RecordLog.warn("[TokenRequestCoalescer] Failed to send batch token request", ex);
+        } finally {
+            for (int i = 0; i < batch.size(); i++) {
+                TokenResult result = results != null && i < results.size() ? results.get(i) : null;
+                batch.get(i).complete(result == null ? new TokenResult(TokenResultStatus.FAIL) : result);
+            }
+        }
+    }
+
+    private static final class PendingRequest {
+        private final TokenRequest request;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile TokenResult result;
+
+        PendingRequest(TokenRequest request) {
+            this.request = request;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        boolean isClaimed() {
+            return claimed.get();
+        }
+
+        void complete(TokenResult result) {
+            this.result = result;
+            latch.countDown();
+        }
+
+        boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            return latch.await(timeout, unit);
+        }
+    }
+}
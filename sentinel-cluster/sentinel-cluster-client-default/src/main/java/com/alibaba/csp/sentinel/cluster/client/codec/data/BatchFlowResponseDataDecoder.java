@@ -0,0 +1,50 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>Decoder for {@link BatchFlowTokenResponseData}. The layout:</p>
+ * <pre>
+ * | size (2) | status (1) | remaining (4) | waitInMs (4) | ... |
+ * </pre>
+ *
+ * @since 1.8.6
+ */
+public class BatchFlowResponseDataDecoder implements EntityDecoder<ByteBuf, BatchFlowTokenResponseData> {
+
+    private static final int ENTRY_SIZE = 9;
+
+    @Override
+    public BatchFlowTokenResponseData decode(ByteBuf source) {
+        BatchFlowTokenResponseData data = new BatchFlowTokenResponseData();
+        if (source.readableBytes() < 2) {
+            return data;
+        }
+        int size = source.readUnsignedShort();
+        for (int i = 0; i < size && source.readableBytes() >= ENTRY_SIZE; i++) {
+            data.addResult(new TokenResult((int) source.readByte())
+                .setRemaining(source.readInt())
+                .setWaitInMs(source.readInt()));
+        }
+        return data;
+    }
+}
@@ -31,6 +31,33 @@ import io.netty.handler.codec.MessageToByteEncoder;
  */
 public class NettyRequestEncoder extends MessageToByteEncoder<ClusterRequest> {
 
+    private static final int LENGTH_FIELD_SIZE = 2;
+    private static final int INITIAL_BUFFER_SIZE = 64;
+
+    private final boolean prependLength;
+
+    public NettyRequestEncoder() {
+        this(false);
+    }
+
+    /**
+     * @param prependLength whether to write the 2-byte length field of the frame as well, so that the request is
+     *                      written into a single pooled buffer without a separate {@code LengthFieldPrepender}
+     * @since 1.8.6
+     */
+    public NettyRequestEncoder(boolean prependLength) {
+        this.prependLength = prependLength;
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ClusterRequest msg, boolean preferDirect)
+        throws Exception {
+        if (!prependLength) {
+            return super.allocateBuffer(ctx, msg, preferDirect);
+        }
+        return preferDirect ? ctx.alloc().ioBuffer(INITIAL_BUFFER_SIZE) : ctx.alloc().heapBuffer(INITIAL_BUFFER_SIZE);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, ClusterRequest request, ByteBuf out) throws Exception {
         RequestEntityWriter<Request, ByteBuf> requestEntityWriter = ClientEntityCodecProvider.getRequestEntityWriter();
@@ -39,6 +66,19 @@ public class NettyRequestEncoder extends MessageToByteEncoder<ClusterRequest> {
             return;
         }
 
+        if (!prependLength) {
+            requestEntityWriter.writeTo(request, out);
+            return;
+        }
+        int lengthIndex = out.writerIndex();
+        out.writerIndex(lengthIndex + LENGTH_FIELD_SIZE);
         requestEntityWriter.writeTo(request, out);
+        int length = out.writerIndex() - lengthIndex - LENGTH_FIELD_SIZE;
+        if (length == 0) {
+            // Dropped by the entity writer.
+            out.writerIndex(lengthIndex);
+            return;
+        }
+        out.setShort(lengthIndex, length);
     }
 }
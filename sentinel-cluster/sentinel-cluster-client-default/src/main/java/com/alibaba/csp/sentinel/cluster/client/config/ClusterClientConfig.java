@@ -22,6 +22,13 @@ package com.alibaba.csp.sentinel.cluster.client.config;
 public class ClusterClientConfig {
 
     private Integer requestTimeout;
+    /**
+     * Netty transport of the token client: {@code auto}, {@code nio} or {@code epoll}.
+     * The current transport will be kept if absent.
+     *
+     * @since 1.8.6
+     */
+    private String transportType;
 
     public Integer getRequestTimeout() {
         return requestTimeout;
@@ -32,10 +39,20 @@ public class ClusterClientConfig {
         return this;
     }
 
+    public String getTransportType() {
+        return transportType;
+    }
+
+    public ClusterClientConfig setTransportType(String transportType) {
+        this.transportType = transportType;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ClusterClientConfig{" +
             "requestTimeout=" + requestTimeout +
+            ", transportType='" + transportType + '\'' +
             '}';
     }
 }
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.NettyTransportUtil;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
@@ -40,6 +41,7 @@ public final class ClusterClientConfigManager {
 
     private static volatile int requestTimeout = ClusterConstants.DEFAULT_REQUEST_TIMEOUT;
     private static volatile int connectTimeout = ClusterConstants.DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private static volatile String transportType = ClusterConstants.TRANSPORT_TYPE_AUTO;
 
     private static final PropertyListener<ClusterClientConfig> CONFIG_PROPERTY_LISTENER
         = new ClientConfigPropertyListener();
@@ -170,6 +172,10 @@ public final class ClusterClientConfigManager {
         if (config.getRequestTimeout() != requestTimeout) {
             requestTimeout = config.getRequestTimeout();
         }
+        // The new transport takes effect on the next (re)connection.
+        if (config.getTransportType() != null) {
+            transportType = config.getTransportType();
+        }
     }
 
     private static void updateServerAssignment(/*@Valid*/ ClusterClientAssignConfig config) {
@@ -191,7 +197,8 @@ public final class ClusterClientConfigManager {
     }
 
     public static boolean isValidClientConfig(ClusterClientConfig config) {
-        return config != null && config.getRequestTimeout() > 0;
+        return config != null && config.getRequestTimeout() > 0
+            && NettyTransportUtil.isValidTransportType(config.getTransportType());
     }
 
     public static String getServerHost() {
@@ -210,5 +217,13 @@ public final class ClusterClientConfigManager {
         return connectTimeout;
     }
 
+    /**
+     * @return configured Netty transport of the token client
+     * @since 1.8.6
+     */
+    public static String getTransportType() {
+        return transportType;
+    }
+
     private ClusterClientConfigManager() {}
 }
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.cluster.client.config;
 
+import com.alibaba.csp.sentinel.cluster.client.ClientConstants;
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 
@@ -29,6 +30,22 @@ import com.alibaba.csp.sentinel.log.RecordLog;
 public class ClusterClientStartUpConfig {
 
     private static final String MAX_PARAM_BYTE_SIZE = "csp.sentinel.cluster.max.param.byte.size";
+    /**
+     * @since 1.8.6
+     */
+    private static final String BATCH_WINDOW_MICROS = "csp.sentinel.cluster.client.batch.window.micros";
+    /**
+     * @since 1.8.6
+     */
+    private static final String LEASE_COUNT = "csp.sentinel.cluster.client.lease.count";
+    /**
+     * @since 1.8.6
+     */
+    private static final String CONNECTION_COUNT = "csp.sentinel.cluster.client.connection.count";
+    /**
+     * @since 1.8.6
+     */
+    private static final String CONNECTION_SELECT = "csp.sentinel.cluster.client.connection.select";
 
     /**
      * Get the max bytes params can be serialized
@@ -45,5 +62,68 @@ public class ClusterClientStartUpConfig {
         }
     }
 
+    /**
+     * Get the window (in microseconds) to coalesce concurrent flow token requests into a batch request.
+     * Requests are not coalesced if absent or not positive (by default).
+     *
+     * @return the batch window in microseconds
+     * @since 1.8.6
+     */
+    public static long getBatchWindowMicros() {
+        String batchWindow = SentinelConfig.getConfig(BATCH_WINDOW_MICROS);
+        try {
+            return batchWindow == null ? 0 : Long.parseLong(batchWindow);
+        } catch (Exception ex) {
+            RecordLog.warn("[ClusterClientStartUpConfig] Failed to parse batchWindowMicros: " + batchWindow);
+            return 0;
+        }
+    }
+
+    /**
+     * Get the max token count to request per token lease. Flow tokens are not leased if absent
+     * or not positive (by default).
+     *
+     * @return the max token count per lease
+     * @since 1.8.6
+     */
+    public static int getLeaseCount() {
+        String leaseCount = SentinelConfig.getConfig(LEASE_COUNT);
+        try {
+            return leaseCount == null ? 0 : Integer.parseInt(leaseCount);
+        } catch (Exception ex) {
+            RecordLog.warn("[ClusterClientStartUpConfig] Failed to parse leaseCount: " + leaseCount);
+            return 0;
+        }
+    }
+
+    /**
+     * Get the amount of connections to the token server. A single connection is used if absent or invalid.
+     *
+     * @return the amount of connections
+     * @since 1.8.6
+     */
+    public static int getConnectionCount() {
+        String connectionCount = SentinelConfig.getConfig(CONNECTION_COUNT);
+        try {
+            return connectionCount == null ? 1 : Math.max(1, Integer.parseInt(connectionCount));
+        } catch (Exception ex) {
+            RecordLog.warn("[ClusterClientStartUpConfig] Failed to parse connectionCount: " + connectionCount);
+            return 1;
+        }
+    }
 
+    /**
+     * Get the strategy to select the connection for requests, when there are multiple connections.
+     *
+     * @return {@link ClientConstants#CONNECTION_SELECT_ROUND_ROBIN} or
+     * {@link ClientConstants#CONNECTION_SELECT_LEAST_PENDING} (by default)
+     * @since 1.8.6
+     */
+    public static String getConnectionSelectStrategy() {
+        String strategy = SentinelConfig.getConfig(CONNECTION_SELECT);
+        if (ClientConstants.CONNECTION_SELECT_ROUND_ROBIN.equals(strategy)) {
+            return ClientConstants.CONNECTION_SELECT_ROUND_ROBIN;
+        }
+        return ClientConstants.CONNECTION_SELECT_LEAST_PENDING;
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Holder of the promises of in-flight requests. Every connection of the token client could hold its own promises,
+ * so that the connections do not contend on a single map.
+ *
+ * @since 1.8.6
+ */
+public class ConnectionPromiseHolder {
+
+    private final Map<Integer, SimpleEntry<ChannelPromise, ClusterResponse>> promiseMap = new ConcurrentHashMap<>();
+
+    public void putPromise(int xid, ChannelPromise promise) {
+        promiseMap.put(xid, new SimpleEntry<ChannelPromise, ClusterResponse>(promise, null));
+    }
+
+    public SimpleEntry<ChannelPromise, ClusterResponse> getEntry(int xid) {
+        return promiseMap.get(xid);
+    }
+
+    public void remove(int xid) {
+        promiseMap.remove(xid);
+    }
+
+    public <T> boolean completePromise(int xid, ClusterResponse<T> response) {
+        SimpleEntry<ChannelPromise, ClusterResponse> entry = promiseMap.get(xid);
+        if (entry != null) {
+            ChannelPromise promise = entry.getKey();
+            if (promise.isDone() || promise.isCancelled()) {
+                return false;
+            }
+            entry.setValue(response);
+            promise.setSuccess();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fail all in-flight requests (e.g. when the connection is closed), so that the callers do not wait until timeout.
+     *
+     * @param cause the cause of failure
+     */
+    public void failAll(Throwable cause) {
+        for (SimpleEntry<ChannelPromise, ClusterResponse> entry : promiseMap.values()) {
+            entry.getKey().tryFailure(cause);
+        }
+    }
+}
@@ -38,16 +38,37 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
 
     private final AtomicInteger currentState;
     private final Runnable disconnectCallback;
+    private final ConnectionPromiseHolder promiseHolder;
+    private final boolean pingOnActive;
 
     public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback) {
+        this(currentState, disconnectCallback, null, true);
+    }
+
+    /**
+     * @param currentState       state of the connection
+     * @param disconnectCallback callback when the connection is closed
+     * @param promiseHolder      holder of the promises of the connection, or null to use
+     *                           the global {@link TokenClientPromiseHolder}
+     * @param pingOnActive       whether to register the namespace of the client via ping when the connection is active.
+     *                           Only one connection of a client should do so, otherwise the server regards every
+     *                           connection as a separate client
+     * @since 1.8.6
+     */
+    public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback,
+                              ConnectionPromiseHolder promiseHolder, boolean pingOnActive) {
         this.currentState = currentState;
         this.disconnectCallback = disconnectCallback;
+        this.promiseHolder = promiseHolder;
+        this.pingOnActive = pingOnActive;
     }
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
         currentState.set(ClientConstants.CLIENT_STATUS_STARTED);
-        fireClientPing(ctx);
+        if (pingOnActive) {
+            fireClientPing(ctx);
+        }
         RecordLog.info("[TokenClientHandler] Client handler active, remote address: {}", getRemoteAddress(ctx));
     }
 
@@ -61,7 +82,11 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
                 return;
             }
 
-            TokenClientPromiseHolder.completePromise(response.getId(), response);
+            if (promiseHolder != null) {
+                promiseHolder.completePromise(response.getId(), response);
+            } else {
+                TokenClientPromiseHolder.completePromise(response.getId(), response);
+            }
         }
     }
 
@@ -16,8 +16,6 @@
 package com.alibaba.csp.sentinel.cluster.client.handler;
 
 import java.util.AbstractMap.SimpleEntry;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
 
@@ -29,35 +27,22 @@ import io.netty.channel.ChannelPromise;
  */
 public final class TokenClientPromiseHolder {
 
-    private static final Map<Integer, SimpleEntry<ChannelPromise, ClusterResponse>> PROMISE_MAP = new ConcurrentHashMap<>();
+    private static final ConnectionPromiseHolder HOLDER = new ConnectionPromiseHolder();
 
     public static void putPromise(int xid, ChannelPromise promise) {
-        PROMISE_MAP.put(xid, new SimpleEntry<ChannelPromise, ClusterResponse>(promise, null));
+        HOLDER.putPromise(xid, promise);
     }
 
     public static SimpleEntry<ChannelPromise, ClusterResponse> getEntry(int xid) {
-        return PROMISE_MAP.get(xid);
+        return HOLDER.getEntry(xid);
     }
 
     public static void remove(int xid) {
-        PROMISE_MAP.remove(xid);
+        HOLDER.remove(xid);
     }
 
     public static <T> boolean completePromise(int xid, ClusterResponse<T> response) {
-        if (!PROMISE_MAP.containsKey(xid)) {
-            return false;
-        }
-        SimpleEntry<ChannelPromise, ClusterResponse> entry = PROMISE_MAP.get(xid);
-        if (entry != null) {
-            ChannelPromise promise = entry.getKey();
-            if (promise.isDone() || promise.isCancelled()) {
-                return false;
-            }
-            entry.setValue(response);
-            promise.setSuccess();
-            return true;
-        }
-        return false;
+        return HOLDER.completePromise(xid, response);
     }
 
     private TokenClientPromiseHolder() {}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.function.Function;
+import com.alibaba.csp.sentinel.util.time.ManualTimeSource;
+import com.alibaba.csp.sentinel.util.time.TimeSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TokenLeaseManagerTest {
+
+    private final ManualTimeSource timeSource = new ManualTimeSource(1000);
+    private TimeSource originalTimeSource;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        originalTimeSource = TimeUtil.getTimeSource();
+        TimeUtil.setTimeSource(timeSource);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        TimeUtil.setTimeSource(originalTimeSource);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAcquireFromLease() throws Exception {
+        final AtomicInteger leaseRequests = new AtomicInteger();
+        final CountDownLatch firstLease = new CountDownLatch(1);
+        TokenLeaseManager manager = new TokenLeaseManager(new Function<Long, TokenResult>() {
+            @Override
+            public TokenResult apply(Long flowId) {
+                leaseRequests.incrementAndGet();
+                firstLease.countDown();
+                return new TokenResult(TokenResultStatus.OK).setRemaining(8).setWaitInMs(200);
+            }
+        }, executor);
+
+        // No lease yet, the request should go to the token server while the lease is requested.
+        assertNull(manager.tryAcquire(1L, 1));
+        assertTrue(firstLease.await(1, TimeUnit.SECONDS));
+        waitForRenewal(executor);
+        assertNotNull(manager.getLease(1L));
+
+        TokenResult result = manager.tryAcquire(1L, 3);
+        assertNotNull(result);
+        assertEquals(TokenResultStatus.OK, (int) result.getStatus());
+        assertEquals(5, result.getRemaining());
+        assertEquals(3, manager.tryAcquire(1L, 2).getRemaining());
+        // Not enough tokens left in the lease.
+        assertNull(manager.tryAcquire(1L, 4));
+        assertEquals(3, manager.getLease(1L).getRemaining());
+    }
+
+    @Test
+    public void testLeaseExpired() {
+        TokenLeaseManager manager = new TokenLeaseManager(new Function<Long, TokenResult>() {
+            @Override
+            public TokenResult apply(Long flowId) {
+                return new TokenResult(TokenResultStatus.OK).setRemaining(100).setWaitInMs(200);
+            }
+        }, executor);
+        manager.renew(1L);
+        assertNotNull(manager.tryAcquire(1L, 1));
+
+        timeSource.advance(200);
+        assertNull(manager.tryAcquire(1L, 1));
+    }
+
+    @Test
+    public void testLeaseNotGranted() {
+        final AtomicInteger status = new AtomicInteger(TokenResultStatus.OK);
+        TokenLeaseManager manager = new TokenLeaseManager(new Function<Long, TokenResult>() {
+            @Override
+            public TokenResult apply(Long flowId) {
+                return new TokenResult(status.get()).setRemaining(10).setWaitInMs(200);
+            }
+        }, executor);
+        manager.renew(1L);
+        assertNotNull(manager.getLease(1L));
+
+        status.set(TokenResultStatus.BLOCKED);
+        manager.renew(1L);
+        assertNull(manager.getLease(1L));
+        assertNull(manager.tryAcquire(1L, 1));
+    }
+
+    @Test
+    public void testRenewBeforeRunningOut() throws Exception {
+        final AtomicInteger leaseRequests = new AtomicInteger();
+        TokenLeaseManager manager = new TokenLeaseManager(new Function<Long, TokenResult>() {
+            @Override
+            public TokenResult apply(Long flowId) {
+                leaseRequests.incrementAndGet();
+                return new TokenResult(TokenResultStatus.OK).setRemaining(8).setWaitInMs(200);
+            }
+        }, executor);
+        manager.renew(1L);
+        assertEquals(1, leaseRequests.get());
+
+        assertEquals(1, manager.tryAcquire(1L, 7).getRemaining());
+        waitForRenewal(executor);
+        assertEquals(2, leaseRequests.get());
+        assertEquals(8, manager.getLease(1L).getRemaining());
+    }
+
+    @Test
+    public void testRenewalInFlightDiscardedAfterClear() throws Exception {
+        final CountDownLatch requested = new CountDownLatch(1);
+        final CountDownLatch serverSwitched = new CountDownLatch(1);
+        final TokenLeaseManager manager = new TokenLeaseManager(new Function<Long, TokenResult>() {
+            @Override
+            public TokenResult apply(Long flowId) {
+                requested.countDown();
+                try {
+                    serverSwitched.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return new TokenResult(TokenResultStatus.OK).setRemaining(10).setWaitInMs(200);
+            }
+        }, executor);
+        assertNull(manager.tryAcquire(1L, 1));
+        assertTrue(requested.await(1, TimeUnit.SECONDS));
+
+        // The token server is changed while the renewal is in flight.
+        manager.clear();
+        serverSwitched.countDown();
+        waitForRenewal(executor);
+        assertNull(manager.getLease(1L));
+        assertNull(manager.tryAcquire(1L, 1));
+    }
+
+    private static void waitForRenewal(ExecutorService executor) throws Exception {
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).get(1, TimeUnit.SECONDS);
+    }
+}
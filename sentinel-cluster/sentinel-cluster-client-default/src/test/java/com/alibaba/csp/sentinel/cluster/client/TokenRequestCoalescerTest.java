@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.TokenRequest;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TokenRequestCoalescerTest {
+
+    @Test
+    public void testConcurrentRequestsCoalesced() throws Exception {
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final TokenRequestCoalescer coalescer = new TokenRequestCoalescer(50 * 1000, 4,
+            new Function<List<TokenRequest>, List<TokenResult>>() {
+                @Override
+                public List<TokenResult> apply(List<TokenRequest> requests) {
+                    batchSizes.add(requests.size());
+                    List<TokenResult> results = new ArrayList<>(requests.size());
+                    for (TokenRequest request : requests) {
+                        // Echo the acquire count as remaining so that results can be told apart.
+                        results.add(new TokenResult(TokenResultStatus.OK).setRemaining(request.getAcquireCount()));
+                    }
+                    return results;
+                }
+            });
+        final int threadCount = 10;
+        final AtomicInteger mismatch = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            final int count = i + 1;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        TokenResult result = coalescer.requestToken(1L, count, false);
+                        if (result.getStatus() != TokenResultStatus.OK || result.getRemaining() != count) {
+                            mismatch.incrementAndGet();
+                        }
+                    } catch (InterruptedException ignore) {
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        assertEquals(0, mismatch.get());
+        int total = 0;
+        for (int size : batchSizes) {
+            assertTrue(size <= 4);
+            total += size;
+        }
+        assertEquals(threadCount, total);
+        assertTrue(batchSizes.size() < threadCount);
+    }
+
+    @Test
+    public void testSenderFailure() {
+        TokenRequestCoalescer coalescer = new TokenRequestCoalescer(10, 4,
+            new Function<List<TokenRequest>, List<TokenResult>>() {
+                @Override
+                public List<TokenResult> apply(List<TokenRequest> requests) {
+                    throw new IllegalStateException("fail");
+                }
+            });
+        assertEquals(TokenResultStatus.FAIL, (int) coalescer.requestToken(1L, 1, false).getStatus());
+    }
+}
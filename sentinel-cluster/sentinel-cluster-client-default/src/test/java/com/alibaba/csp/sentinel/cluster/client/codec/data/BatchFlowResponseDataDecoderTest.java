@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BatchFlowResponseDataDecoderTest {
+
+    @Test
+    public void testDecode() {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeShort(2);
+        buf.writeByte(TokenResultStatus.OK);
+        buf.writeInt(12);
+        buf.writeInt(0);
+        buf.writeByte(TokenResultStatus.SHOULD_WAIT);
+        buf.writeInt(0);
+        buf.writeInt(20);
+
+        List<TokenResult> results = new BatchFlowResponseDataDecoder().decode(buf).getResults();
+        assertEquals(2, results.size());
+        assertEquals(TokenResultStatus.OK, (int) results.get(0).getStatus());
+        assertEquals(12, results.get(0).getRemaining());
+        assertEquals(TokenResultStatus.SHOULD_WAIT, (int) results.get(1).getStatus());
+        assertEquals(20, results.get(1).getWaitInMs());
+    }
+
+    @Test
+    public void testDecodeTruncated() {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeShort(2);
+        buf.writeByte(TokenResultStatus.BLOCKED);
+        buf.writeInt(0);
+        buf.writeInt(0);
+
+        List<TokenResult> results = new BatchFlowResponseDataDecoder().decode(buf).getResults();
+        assertEquals(1, results.size());
+        assertEquals(TokenResultStatus.BLOCKED, (int) results.get(0).getStatus());
+    }
+
+    @Test
+    public void testWriteBatchRequest() {
+        ByteBuf buf = Unpooled.buffer();
+        BatchFlowRequestData data = new BatchFlowRequestData()
+            .addRequest(new FlowRequestData().setFlowId(1L).setCount(2).setPriority(true))
+            .addRequest(new FlowRequestData().setFlowId(3L).setCount(4));
+        new BatchFlowRequestDataWriter().writeTo(data, buf);
+
+        assertEquals(2 + 2 * (8 + 4 + 1), buf.readableBytes());
+        assertEquals(2, buf.readUnsignedShort());
+        assertEquals(1L, buf.readLong());
+        assertEquals(2, buf.readInt());
+        assertTrue(buf.readBoolean());
+        assertEquals(3L, buf.readLong());
+        assertEquals(4, buf.readInt());
+        assertFalse(buf.readBoolean());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.netty;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.client.init.DefaultClusterClientInitFunc;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.LengthFieldPrepender;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NettyRequestEncoderTest {
+
+    @BeforeClass
+    public static void initCodecs() throws Exception {
+        new DefaultClusterClientInitFunc().init();
+    }
+
+    private static ClusterRequest<FlowRequestData> flowRequest() {
+        return new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW,
+            new FlowRequestData().setFlowId(123L).setCount(2).setPriority(true)).setId(7);
+    }
+
+    @Test
+    public void testPrependLength() {
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyRequestEncoder(true));
+        assertTrue(channel.writeOutbound(flowRequest()));
+        ByteBuf buf = channel.readOutbound();
+        try {
+            assertEquals(2 + 4 + 1 + 8 + 4 + 1, buf.readableBytes());
+            assertEquals(buf.readableBytes() - 2, buf.readUnsignedShort());
+            assertEquals(7, buf.readInt());
+            assertEquals(ClusterConstants.MSG_TYPE_FLOW, buf.readByte());
+            assertEquals(123L, buf.readLong());
+            assertEquals(2, buf.readInt());
+            assertTrue(buf.readBoolean());
+        } finally {
+            buf.release();
+        }
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    public void testSameFrameAsLengthFieldPrepender() {
+        EmbeddedChannel prepended = new EmbeddedChannel(new LengthFieldPrepender(2), new NettyRequestEncoder());
+        EmbeddedChannel inline = new EmbeddedChannel(new NettyRequestEncoder(true));
+        prepended.writeOutbound(flowRequest());
+        inline.writeOutbound(flowRequest());
+
+        ByteBuf header = prepended.readOutbound();
+        ByteBuf body = prepended.readOutbound();
+        ByteBuf frame = inline.readOutbound();
+        try {
+            assertEquals(header.readableBytes() + body.readableBytes(), frame.readableBytes());
+            assertEquals(header, frame.slice(0, 2));
+            assertEquals(body, frame.slice(2, frame.readableBytes() - 2));
+        } finally {
+            header.release();
+            body.release();
+            frame.release();
+        }
+    }
+}
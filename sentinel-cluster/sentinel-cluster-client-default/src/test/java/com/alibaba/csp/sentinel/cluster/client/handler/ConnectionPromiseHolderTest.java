@@ -0,0 +1,64 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConnectionPromiseHolderTest {
+
+    @Test
+    public void testCompletePromise() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ConnectionPromiseHolder holder = new ConnectionPromiseHolder();
+        ChannelPromise promise = channel.newPromise();
+        holder.putPromise(1, promise);
+
+        ClusterResponse<Integer> response = new ClusterResponse<>(1, ClusterConstants.MSG_TYPE_FLOW,
+            ClusterConstants.RESPONSE_STATUS_OK, 0);
+        assertFalse(holder.completePromise(2, response));
+        assertTrue(holder.completePromise(1, response));
+        assertTrue(promise.isSuccess());
+        assertSame(response, holder.getEntry(1).getValue());
+        // Completed only once.
+        assertFalse(holder.completePromise(1, response));
+
+        holder.remove(1);
+        assertNull(holder.getEntry(1));
+    }
+
+    @Test
+    public void testFailAll() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ConnectionPromiseHolder holder = new ConnectionPromiseHolder();
+        ChannelPromise p1 = channel.newPromise();
+        ChannelPromise p2 = channel.newPromise();
+        holder.putPromise(1, p1);
+        holder.putPromise(2, p2);
+
+        IllegalStateException cause = new IllegalStateException("closed");
+        holder.failAll(cause);
+        assertSame(cause, p1.cause());
+        assertSame(cause, p2.cause());
+        assertNull(holder.getEntry(1).getValue());
+    }
+}
@@ -26,8 +26,34 @@ public final class ClusterConstants {
     public static final int MSG_TYPE_PARAM_FLOW = 2;
     public static final int MSG_TYPE_CONCURRENT_FLOW_ACQUIRE = 3;
     public static final int MSG_TYPE_CONCURRENT_FLOW_RELEASE = 4;
+    /**
+     * @since 1.8.6
+     */
+    public static final int MSG_TYPE_BATCH_FLOW = 5;
+    /**
+     * @since 1.8.6
+     */
+    public static final int MSG_TYPE_LEASE_FLOW = 6;
 
 
+    /**
+     * Use the native epoll transport if available, otherwise the NIO transport.
+     *
+     * @since 1.8.6
+     */
+    public static final String TRANSPORT_TYPE_AUTO = "auto";
+    /**
+     * @since 1.8.6
+     */
+    public static final String TRANSPORT_TYPE_NIO = "nio";
+    /**
+     * Native epoll transport (Linux only), which requires {@code netty-transport-native-epoll} in the classpath.
+     * Falls back to the NIO transport if not available.
+     *
+     * @since 1.8.6
+     */
+    public static final String TRANSPORT_TYPE_EPOLL = "epoll";
+
     public static final int RESPONSE_STATUS_BAD = -1;
     public static final int RESPONSE_STATUS_OK = 0;
 
@@ -43,6 +69,13 @@ public final class ClusterConstants {
     public static final int DEFAULT_CLUSTER_SERVER_PORT = 18730;
     public static final int DEFAULT_REQUEST_TIMEOUT = 20;
     public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10 * 1000;
+    /**
+     * Max count of token requests in a batch, so that the batch request and response
+     * could be fit in a single frame (1024 bytes).
+     *
+     * @since 1.8.6
+     */
+    public static final int MAX_BATCH_FLOW_SIZE = 64;
 
     private ClusterConstants() {}
 }
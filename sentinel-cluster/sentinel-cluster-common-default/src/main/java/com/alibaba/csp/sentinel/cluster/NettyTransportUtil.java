@@ -0,0 +1,137 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+import java.lang.reflect.Constructor;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * <p>Util class to select the Netty transport (NIO or native epoll) of the cluster token client and server.</p>
+ *
+ * <p>The native epoll transport is resolved via reflection, so it is only used when
+ * {@code netty-transport-native-epoll} is in the classpath and the native library could be loaded.
+ * Otherwise the NIO transport is used.</p>
+ *
+ * @since 1.8.6
+ */
+public final class NettyTransportUtil {
+
+    private static final String EPOLL_CLASS = "io.netty.channel.epoll.Epoll";
+    private static final String EPOLL_EVENT_LOOP_GROUP_CLASS = "io.netty.channel.epoll.EpollEventLoopGroup";
+    private static final String EPOLL_SOCKET_CHANNEL_CLASS = "io.netty.channel.epoll.EpollSocketChannel";
+    private static final String EPOLL_SERVER_SOCKET_CHANNEL_CLASS = "io.netty.channel.epoll.EpollServerSocketChannel";
+
+    private static final boolean EPOLL_AVAILABLE = checkEpollAvailable();
+
+    private static boolean checkEpollAvailable() {
+        try {
+            Class<?> epollClass = Class.forName(EPOLL_CLASS);
+            return (Boolean) epollClass.getMethod("isAvailable").invoke(null);
+        } catch (Throwable ex) {
+            return false;
+        }
+    }
+
+    public static boolean isEpollAvailable() {
+        return EPOLL_AVAILABLE;
+    }
+
+    public static boolean isValidTransportType(String transportType) {
+        return transportType == null || ClusterConstants.TRANSPORT_TYPE_AUTO.equals(transportType)
+            || ClusterConstants.TRANSPORT_TYPE_NIO.equals(transportType)
+            || ClusterConstants.TRANSPORT_TYPE_EPOLL.equals(transportType);
+    }
+
+    /**
+     * Resolve the transport to use from the configured transport type.
+     *
+     * @param transportType configured transport type; {@code null} is regarded as {@code auto}
+     * @return {@link ClusterConstants#TRANSPORT_TYPE_EPOLL} or {@link ClusterConstants#TRANSPORT_TYPE_NIO}
+     */
+    public static String resolveTransportType(String transportType) {
+        if (ClusterConstants.TRANSPORT_TYPE_NIO.equals(transportType)) {
+            return ClusterConstants.TRANSPORT_TYPE_NIO;
+        }
+        if (EPOLL_AVAILABLE) {
+            return ClusterConstants.TRANSPORT_TYPE_EPOLL;
+        }
+        if (ClusterConstants.TRANSPORT_TYPE_EPOLL.equals(transportType)) {
+            RecordLog.warn("[NettyTransportUtil] Native epoll transport is not available, falling back to NIO");
+        }
+        return ClusterConstants.TRANSPORT_TYPE_NIO;
+    }
+
+    /**
+     * Create a new event loop group of the resolved transport.
+     *
+     * @param transportType resolved transport type
+     * @param threads       amount of threads, or 0 for the Netty default
+     * @return new event loop group
+     */
+    public static EventLoopGroup newEventLoopGroup(String transportType, int threads) {
+        if (ClusterConstants.TRANSPORT_TYPE_EPOLL.equals(transportType)) {
+            try {
+                Constructor<?> constructor = Class.forName(EPOLL_EVENT_LOOP_GROUP_CLASS).getConstructor(int.class);
+                return (EventLoopGroup) constructor.newInstance(threads);
+            } catch (Throwable ex) {
+                RecordLog.warn("[NettyTransportUtil] Failed to create epoll event loop group, falling back to NIO", ex);
+            }
+        }
+        return new NioEventLoopGroup(threads);
+    }
+
+    /**
+     * @param group event loop group created by {@link #newEventLoopGroup(String, int)}
+     * @return client socket channel class matching the event loop group
+     */
+    @SuppressWarnings("unchecked")
+    public static Class<? extends SocketChannel> socketChannelClass(EventLoopGroup group) {
+        if (!(group instanceof NioEventLoopGroup)) {
+            try {
+                return (Class<? extends SocketChannel>) Class.forName(EPOLL_SOCKET_CHANNEL_CLASS);
+            } catch (ClassNotFoundException ex) {
+                // Should not go through here, as the epoll group has been created.
+            }
+        }
+        return NioSocketChannel.class;
+    }
+
+    /**
+     * @param group event loop group created by {@link #newEventLoopGroup(String, int)}
+     * @return server socket channel class matching the event loop group
+     */
+    @SuppressWarnings("unchecked")
+    public static Class<? extends ServerSocketChannel> serverSocketChannelClass(EventLoopGroup group) {
+        if (!(group instanceof NioEventLoopGroup)) {
+            try {
+                return (Class<? extends ServerSocketChannel>) Class.forName(EPOLL_SERVER_SOCKET_CHANNEL_CLASS);
+            } catch (ClassNotFoundException ex) {
+                // Should not go through here, as the epoll group has been created.
+            }
+        }
+        return NioServerSocketChannel.class;
+    }
+
+    private NettyTransportUtil() {}
+}
@@ -111,6 +111,46 @@ final class ClusterFlowChecker {
         }
     }
 
+    /**
+     * Grant a lease of at most {@code maxCount} tokens. The granted tokens are counted as passed at once,
+     * so leased-but-unused tokens still take up the global threshold and the threshold holds in the window
+     * the lease is granted in. As leased tokens could be used later within the lease duration, the usage
+     * may drift into the following window by at most the lease duration. A single lease is capped by
+     * {@code maxLeaseRatio} of the global threshold, so that one client cannot take up the whole threshold.
+     */
+    static TokenResult acquireLeaseToken(/*@Valid*/ FlowRule rule, int maxCount) {
+        Long id = rule.getClusterConfig().getFlowId();
+
+        double maxLeaseRatio = ClusterServerConfigManager.getMaxLeaseRatio();
+        int leaseTtlMs = ClusterServerConfigManager.getLeaseTtlMs();
+        if (maxLeaseRatio <= 0 || leaseTtlMs <= 0) {
+            return new TokenResult(TokenResultStatus.NOT_AVAILABLE);
+        }
+        if (!allowProceed(id)) {
+            return new TokenResult(TokenResultStatus.TOO_MANY_REQUEST);
+        }
+
+        ClusterMetric metric = ClusterMetricStatistics.getMetric(id);
+        if (metric == null) {
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+
+        double globalThreshold = calcGlobalThreshold(rule) * ClusterServerConfigManager.getExceedCount();
+        double available = globalThreshold - metric.getAvg(ClusterFlowEvent.PASS);
+        int maxLease = Math.max(1, (int) (globalThreshold * maxLeaseRatio));
+        int granted = (int) Math.min(Math.min(maxCount, maxLease), available);
+        if (granted <= 0) {
+            // Not recorded as blocked, as no request is actually blocked here.
+            return blockedResult();
+        }
+        metric.add(ClusterFlowEvent.PASS, granted);
+        metric.add(ClusterFlowEvent.PASS_REQUEST, 1);
+        ClusterServerStatLogUtil.log("flow|lease|" + id, granted);
+        return new TokenResult(TokenResultStatus.OK)
+            .setRemaining(granted)
+            .setWaitInMs(leaseTtlMs);
+    }
+
     private static TokenResult blockedResult() {
         return new TokenResult(TokenResultStatus.BLOCKED)
             .setRemaining(0)
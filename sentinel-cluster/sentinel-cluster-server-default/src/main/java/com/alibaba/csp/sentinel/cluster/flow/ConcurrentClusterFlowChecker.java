@@ -53,21 +53,17 @@ final public class ConcurrentClusterFlowChecker {
             return new TokenResult(TokenResultStatus.FAIL);
         }
 
-        // check before enter the lock to improve the efficiency
-        if (nowCalls.get() + acquireCount > calcGlobalThreshold(rule)) {
-            ClusterServerStatLogUtil.log("concurrent|block|" + flowId, acquireCount);
-            return new TokenResult(TokenResultStatus.BLOCKED);
-        }
-
-        // ensure the atomicity of operations
-        // lock different nowCalls to improve the efficiency
-        synchronized (nowCalls) {
-            // check again whether the request can pass.
-            if (nowCalls.get() + acquireCount > calcGlobalThreshold(rule)) {
+        // Reserve the tokens with a CAS loop rather than a monitor, so that clients
+        // acquiring the same rule do not serialize on nowCalls.
+        double threshold = calcGlobalThreshold(rule);
+        while (true) {
+            int current = nowCalls.get();
+            if (current + acquireCount > threshold) {
                 ClusterServerStatLogUtil.log("concurrent|block|" + flowId, acquireCount);
                 return new TokenResult(TokenResultStatus.BLOCKED);
-            } else {
-                nowCalls.getAndAdd(acquireCount);
+            }
+            if (nowCalls.compareAndSet(current, current + acquireCount)) {
+                break;
             }
         }
         ClusterServerStatLogUtil.log("concurrent|pass|" + flowId, acquireCount);
@@ -17,7 +17,7 @@ package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent;
 
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * We use TokenCacheNodeManager to store the tokenId, whose the underlying storage structure
@@ -53,14 +53,23 @@ public class TokenCacheNode {
      */
     private String clientAddress;
 
+    /**
+     * the bucket of the expire timing wheel the token is scheduled in, -1 if not scheduled.
+     */
+    private volatile int expireSlot = -1;
+
     public TokenCacheNode() {
     }
 
     public static TokenCacheNode generateTokenCacheNode(FlowRule rule, int acquireCount, String clientAddress) {
         TokenCacheNode node = new TokenCacheNode();
-        // getMostSignificantBits() returns the most significant 64 bits of this UUID's 128 bit value.
-        // The probability of collision is extremely low.
-        node.setTokenId(UUID.randomUUID().getMostSignificantBits());
+        // A random 64-bit id, the probability of collision is extremely low. ThreadLocalRandom is used
+        // rather than UUID.randomUUID(), whose shared SecureRandom serializes concurrent acquirers.
+        long tokenId;
+        do {
+            tokenId = ThreadLocalRandom.current().nextLong();
+        } while (tokenId == 0);
+        node.setTokenId(tokenId);
         node.setFlowId(rule.getClusterConfig().getFlowId());
         node.setClientTimeout(rule.getClusterConfig().getClientOfflineTime());
         node.setResourceTimeout(rule.getClusterConfig().getResourceTimeout());
@@ -117,6 +126,14 @@ public class TokenCacheNode {
         this.clientAddress = clientAddress;
     }
 
+    public int getExpireSlot() {
+        return expireSlot;
+    }
+
+    public void setExpireSlot(int expireSlot) {
+        this.expireSlot = expireSlot;
+    }
+
     @Override
     public String toString() {
         return "TokenCacheNode{" +
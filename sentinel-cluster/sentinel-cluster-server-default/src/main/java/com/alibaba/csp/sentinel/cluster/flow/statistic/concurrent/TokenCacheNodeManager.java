@@ -15,7 +15,7 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent;
 
-import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire.RegularExpireStrategy;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire.TimingWheelExpireStrategy;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import com.googlecode.concurrentlinkedhashmap.Weighers;
@@ -27,6 +27,7 @@ import java.util.Set;
  */
 public class TokenCacheNodeManager {
     private static ConcurrentLinkedHashMap<Long, TokenCacheNode> TOKEN_CACHE_NODE_MAP;
+    private static TimingWheelExpireStrategy expireStrategy;
 
 
     private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
@@ -45,9 +46,10 @@ public class TokenCacheNodeManager {
                 .maximumWeightedCapacity(maximumWeightedCapacity)
                 .weigher(Weighers.singleton())
                 .build();
-        // Start the task of regularly clearing expired keys
-        RegularExpireStrategy strategy = new RegularExpireStrategy(TOKEN_CACHE_NODE_MAP);
+        // Start the task of clearing expired keys, tokens are scheduled into the timing wheel when put
+        TimingWheelExpireStrategy strategy = new TimingWheelExpireStrategy(TOKEN_CACHE_NODE_MAP);
         strategy.startClearTaskRegularly();
+        expireStrategy = strategy;
     }
 
 
@@ -58,6 +60,7 @@ public class TokenCacheNodeManager {
 
     public static void putTokenCacheNode(long tokenId, TokenCacheNode cacheNode) {
         TOKEN_CACHE_NODE_MAP.put(tokenId, cacheNode);
+        expireStrategy.schedule(cacheNode);
     }
 
     public static boolean isContainsTokenId(long tokenId) {
@@ -65,7 +68,11 @@ public class TokenCacheNodeManager {
     }
 
     public static TokenCacheNode removeTokenCacheNode(long tokenId) {
-        return TOKEN_CACHE_NODE_MAP.remove(tokenId);
+        TokenCacheNode node = TOKEN_CACHE_NODE_MAP.remove(tokenId);
+        if (node != null) {
+            expireStrategy.cancel(node);
+        }
+        return node;
     }
 
     public static int getSize() {
@@ -0,0 +1,199 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire;
+
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.CurrentConcurrencyManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.TokenCacheNode;
+import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionManager;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Expire strategy based on a hashed timing wheel. Each token is scheduled into the bucket of its next
+ * check time when it's created, so a tick only visits the tokens that are due, instead of scanning
+ * the whole token cache as {@link RegularExpireStrategy} does.</p>
+ *
+ * <p>The expiry conditions are the same as {@link RegularExpireStrategy}: a token expires when its client
+ * is offline for more than the client offline time, or when it's held for more than 2 times of
+ * the resource timeout. Released tokens are removed from their bucket at once, so that the wheel only
+ * holds the tokens in use.</p>
+ *
+ * @since 1.8.6
+ */
+public class TimingWheelExpireStrategy implements ExpireStrategy {
+
+    private static final long DEFAULT_TICK_MS = 100;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    private static ScheduledExecutorService executor = Executors.newScheduledThreadPool(1,
+            new NamedThreadFactory("sentinel-cluster-token-expire-task", true));
+
+    private final ConcurrentLinkedHashMap<Long, TokenCacheNode> localCache;
+    private final long tickMs;
+    private final int mask;
+    private final ConcurrentHashMap<Long, TokenCacheNode>[] buckets;
+
+    /**
+     * The last tick that has been processed, only updated by the expire task.
+     */
+    private volatile long lastTick;
+
+    public TimingWheelExpireStrategy(ConcurrentLinkedHashMap<Long, TokenCacheNode> localCache) {
+        this(localCache, DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    TimingWheelExpireStrategy(ConcurrentLinkedHashMap<Long, TokenCacheNode> localCache, long tickMs, int wheelSize) {
+        AssertUtil.isTrue(localCache != null, " local cache can't be null");
+        AssertUtil.isTrue(tickMs > 0, "tickMs must be positive");
+        AssertUtil.isTrue(wheelSize > 0 && (wheelSize & (wheelSize - 1)) == 0, "wheelSize must be a power of 2");
+        this.localCache = localCache;
+        this.tickMs = tickMs;
+        this.mask = wheelSize - 1;
+        this.buckets = new ConcurrentHashMap[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ConcurrentHashMap<>();
+        }
+        this.lastTick = System.currentTimeMillis() / tickMs;
+    }
+
+    @Override
+    public void startClearTaskRegularly() {
+        executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    advance(System.currentTimeMillis());
+                } catch (Throwable e) {
+                    RecordLog.warn("[TimingWheelExpireStrategy] undefined throwable during clear token: ", e);
+                }
+            }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedule the expiry check of a newly created token.
+     *
+     * @param node a valid token
+     */
+    public void schedule(TokenCacheNode node) {
+        long firstCheck = node.getClientTimeout();
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(node.getFlowId());
+        if (rule != null) {
+            firstCheck = Math.min(firstCheck, node.getResourceTimeout() + rule.getClusterConfig().getResourceTimeout());
+        }
+        scheduleAt(node, firstCheck);
+    }
+
+    /**
+     * Remove a released token from the wheel.
+     *
+     * @param node the released token
+     */
+    public void cancel(TokenCacheNode node) {
+        int slot = node.getExpireSlot();
+        if (slot >= 0) {
+            buckets[slot].remove(node.getTokenId(), node);
+        }
+    }
+
+    private void scheduleAt(TokenCacheNode node, long time) {
+        // A time that is already due goes to the next tick. The check time is re-verified when
+        // the bucket is visited, so a token in the bucket of a later round just waits there.
+        long tick = Math.max(time / tickMs + 1, lastTick + 1);
+        int slot = (int)(tick & mask);
+        node.setExpireSlot(slot);
+        buckets[slot].put(node.getTokenId(), node);
+    }
+
+    /**
+     * Process the buckets of all ticks passed till now.
+     */
+    void advance(long now) {
+        long nowTick = now / tickMs;
+        long from = lastTick + 1;
+        // Every bucket is visited at most once in a call.
+        from = Math.max(from, nowTick - mask);
+        List<TokenCacheNode> due = new ArrayList<>();
+        for (long tick = from; tick <= nowTick; tick++) {
+            Iterator<TokenCacheNode> it = buckets[(int)(tick & mask)].values().iterator();
+            while (it.hasNext()) {
+                due.add(it.next());
+                it.remove();
+            }
+        }
+        lastTick = Math.max(lastTick, nowTick);
+        for (TokenCacheNode node : due) {
+            check(node, now);
+        }
+    }
+
+    private void check(TokenCacheNode node, long now) {
+        if (localCache.getQuietly(node.getTokenId()) != node) {
+            // Already released.
+            return;
+        }
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(node.getFlowId());
+        if (rule == null) {
+            removeToken(node);
+            RecordLog.info("[TimingWheelExpireStrategy] Delete the token<{}> because ruleId<{}> is removed", node.getTokenId(), node.getFlowId());
+            return;
+        }
+
+        // If we find that token's save time is more than 2 times of the client's call resource timeout time,
+        // the token will be determined to timeout.
+        long resourceDeadline = node.getResourceTimeout() + rule.getClusterConfig().getResourceTimeout();
+        if (now > resourceDeadline) {
+            removeToken(node);
+            RecordLog.info("[TimingWheelExpireStrategy] Delete the expired token<{}> because of resource timeout for ruleId<{}>", node.getTokenId(), node.getFlowId());
+            return;
+        }
+        // remove the token whose client is offline and saved for more than clientTimeout
+        if (now > node.getClientTimeout() && !ConnectionManager.isClientOnline(node.getClientAddress())) {
+            removeToken(node);
+            RecordLog.info("[TimingWheelExpireStrategy] Delete the expired token<{}> because of client offline for ruleId<{}>", node.getTokenId(), node.getFlowId());
+            return;
+        }
+        long next = now <= node.getClientTimeout() ? Math.min(node.getClientTimeout(), resourceDeadline) : resourceDeadline;
+        scheduleAt(node, next);
+    }
+
+    private void removeToken(TokenCacheNode node) {
+        if (!localCache.remove(node.getTokenId(), node)) {
+            RecordLog.info("[TimingWheelExpireStrategy] Token<{}> is already released for ruleId<{}>", node.getTokenId(), node.getFlowId());
+            return;
+        }
+        AtomicInteger nowCalls = CurrentConcurrencyManager.get(node.getFlowId());
+        if (nowCalls == null) {
+            return;
+        }
+        nowCalls.getAndAdd(node.getAcquireCount() * -1);
+    }
+}
@@ -15,8 +15,11 @@
  */
 package com.alibaba.csp.sentinel.cluster.server;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
+import com.alibaba.csp.sentinel.cluster.TokenRequest;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenService;
@@ -51,6 +54,26 @@ public class DefaultEmbeddedTokenServer implements EmbeddedClusterTokenServer {
         return new TokenResult(TokenResultStatus.FAIL);
     }
 
+    @Override
+    public List<TokenResult> requestTokens(List<TokenRequest> requests) {
+        if (tokenService != null) {
+            return tokenService.requestTokens(requests);
+        }
+        List<TokenResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(new TokenResult(TokenResultStatus.FAIL));
+        }
+        return results;
+    }
+
+    @Override
+    public TokenResult requestTokenLease(Long ruleId, int maxCount) {
+        if (tokenService != null) {
+            return tokenService.requestTokenLease(ruleId, maxCount);
+        }
+        return new TokenResult(TokenResultStatus.FAIL);
+    }
+
     @Override
     public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
         if (tokenService != null) {
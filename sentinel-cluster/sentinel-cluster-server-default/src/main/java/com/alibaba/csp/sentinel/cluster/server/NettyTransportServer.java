@@ -19,9 +19,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.alibaba.csp.sentinel.cluster.NettyTransportUtil;
 import com.alibaba.csp.sentinel.cluster.server.codec.netty.NettyRequestDecoder;
 import com.alibaba.csp.sentinel.cluster.server.codec.netty.NettyResponseEncoder;
 import com.alibaba.csp.sentinel.cluster.server.connection.Connection;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionPool;
 import com.alibaba.csp.sentinel.cluster.server.handler.TokenServerHandler;
 import com.alibaba.csp.sentinel.log.RecordLog;
@@ -32,11 +34,9 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.util.concurrent.GenericFutureListener;
@@ -56,9 +56,10 @@ public class NettyTransportServer implements ClusterTokenServer {
     private static final int RETRY_SLEEP_MS = 2000;
 
     private final int port;
+    private final String transportType;
 
-    private NioEventLoopGroup bossGroup;
-    private NioEventLoopGroup workerGroup;
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
 
     private final ConnectionPool connectionPool = new ConnectionPool();
 
@@ -66,7 +67,18 @@ public class NettyTransportServer implements ClusterTokenServer {
     private final AtomicInteger failedTimes = new AtomicInteger(0);
 
     public NettyTransportServer(int port) {
+        this(port, ClusterServerConfigManager.getTransportType());
+    }
+
+    /**
+     * @param port          port of the token server
+     * @param transportType Netty transport ({@code auto}, {@code nio} or {@code epoll}); {@code epoll} falls back
+     *                      to NIO if the native transport is unavailable
+     * @since 1.8.6
+     */
+    public NettyTransportServer(int port, String transportType) {
         this.port = port;
+        this.transportType = transportType;
     }
 
     @Override
@@ -76,10 +88,11 @@ public class NettyTransportServer implements ClusterTokenServer {
         }
 
         ServerBootstrap b = new ServerBootstrap();
-        this.bossGroup = new NioEventLoopGroup(1);
-        this.workerGroup = new NioEventLoopGroup(DEFAULT_EVENT_LOOP_THREADS);
+        String resolvedType = NettyTransportUtil.resolveTransportType(transportType);
+        this.bossGroup = NettyTransportUtil.newEventLoopGroup(resolvedType, 1);
+        this.workerGroup = NettyTransportUtil.newEventLoopGroup(resolvedType, DEFAULT_EVENT_LOOP_THREADS);
         b.group(bossGroup, workerGroup)
-            .channel(NioServerSocketChannel.class)
+            .channel(NettyTransportUtil.serverSocketChannelClass(workerGroup))
             .option(ChannelOption.SO_BACKLOG, 128)
             .handler(new LoggingHandler(LogLevel.INFO))
             .childHandler(new ChannelInitializer<SocketChannel>() {
@@ -88,8 +101,7 @@ public class NettyTransportServer implements ClusterTokenServer {
                     ChannelPipeline p = ch.pipeline();
                     p.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
                     p.addLast(new NettyRequestDecoder());
-                    p.addLast(new LengthFieldPrepender(2));
-                    p.addLast(new NettyResponseEncoder());
+                    p.addLast(new NettyResponseEncoder(true));
                     p.addLast(new TokenServerHandler(connectionPool));
                 }
             })
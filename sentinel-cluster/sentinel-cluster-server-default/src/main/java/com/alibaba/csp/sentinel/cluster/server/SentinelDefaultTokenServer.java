@@ -40,6 +40,7 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
 
     private ClusterTokenServer server;
     private int port;
+    private String transportType;
     private final AtomicBoolean shouldStart = new AtomicBoolean(false);
 
     static {
@@ -67,8 +68,10 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
         }
         int port = ClusterServerConfigManager.getPort();
         if (port > 0) {
-            this.server = new NettyTransportServer(port);
+            String transportType = ClusterServerConfigManager.getTransportType();
+            this.server = new NettyTransportServer(port, transportType);
             this.port = port;
+            this.transportType = transportType;
         }
     }
 
@@ -77,15 +80,17 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
             return;
         }
         int newPort = config.getPort();
-        if (newPort == port) {
+        String newTransportType = ClusterServerConfigManager.getTransportType();
+        if (newPort == port && StringUtil.equals(newTransportType, transportType)) {
             return;
         }
         try {
             if (server != null) {
                 stopServer();
             }
-            this.server = new NettyTransportServer(newPort);
+            this.server = new NettyTransportServer(newPort, newTransportType);
             this.port = newPort;
+            this.transportType = newTransportType;
             startServerIfScheduled();
         } catch (Exception ex) {
             RecordLog.warn("[SentinelDefaultTokenServer] Failed to apply modification to token server", ex);
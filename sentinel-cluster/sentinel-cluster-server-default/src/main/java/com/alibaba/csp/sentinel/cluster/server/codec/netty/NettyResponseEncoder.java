@@ -34,16 +34,49 @@ import io.netty.handler.codec.MessageToByteEncoder;
  */
 public class NettyResponseEncoder extends MessageToByteEncoder<ClusterResponse> {
 
+    private static final int LENGTH_FIELD_SIZE = 2;
+    private static final int INITIAL_BUFFER_SIZE = 64;
+
+    private final boolean prependLength;
+
+    public NettyResponseEncoder() {
+        this(false);
+    }
+
+    /**
+     * @param prependLength whether to write the 2-byte length field of the frame as well, so that the response is
+     *                      written into a single pooled buffer without a separate {@code LengthFieldPrepender}
+     * @since 1.8.6
+     */
+    public NettyResponseEncoder(boolean prependLength) {
+        this.prependLength = prependLength;
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ClusterResponse msg, boolean preferDirect)
+        throws Exception {
+        if (!prependLength) {
+            return super.allocateBuffer(ctx, msg, preferDirect);
+        }
+        return preferDirect ? ctx.alloc().ioBuffer(INITIAL_BUFFER_SIZE) : ctx.alloc().heapBuffer(INITIAL_BUFFER_SIZE);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, ClusterResponse response, ByteBuf out) throws Exception {
+        int lengthIndex = out.writerIndex();
+        if (prependLength) {
+            out.writerIndex(lengthIndex + LENGTH_FIELD_SIZE);
+        }
         ResponseEntityWriter<ClusterResponse, ByteBuf> responseEntityWriter = ServerEntityCodecProvider.getResponseEntityWriter();
         if (responseEntityWriter == null) {
             RecordLog.warn("[NettyResponseEncoder] Cannot resolve the global response entity writer, reply bad status");
             writeBadStatusHead(response, out);
-            return;
+        } else {
+            responseEntityWriter.writeTo(response, out);
+        }
+        if (prependLength) {
+            out.setShort(lengthIndex, out.writerIndex() - lengthIndex - LENGTH_FIELD_SIZE);
         }
-
-        responseEntityWriter.writeTo(response, out);
     }
 
 
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.cluster.server.command.handler;
 
+import com.alibaba.csp.sentinel.cluster.NettyTransportUtil;
 import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
 import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
 import com.alibaba.csp.sentinel.command.CommandHandler;
@@ -44,8 +45,15 @@ public class ModifyClusterServerTransportConfigHandler implements CommandHandler
             int port = Integer.valueOf(portValue);
             int idleSeconds = Integer.valueOf(idleSecondsValue);
 
+            String transportType = request.getParam("transportType");
+            if (StringUtil.isBlank(transportType)) {
+                transportType = ClusterServerConfigManager.getTransportType();
+            } else if (!NettyTransportUtil.isValidTransportType(transportType)) {
+                return CommandResponse.ofFailure(new IllegalArgumentException("invalid transportType"));
+            }
+
             ClusterServerConfigManager.loadGlobalTransportConfig(new ServerTransportConfig()
-                .setPort(port).setIdleSeconds(idleSeconds));
+                .setPort(port).setIdleSeconds(idleSeconds).setTransportType(transportType));
             return CommandResponse.ofSuccess("success");
         } catch (NumberFormatException e) {
             return CommandResponse.ofFailure(new IllegalArgumentException("invalid parameter"));
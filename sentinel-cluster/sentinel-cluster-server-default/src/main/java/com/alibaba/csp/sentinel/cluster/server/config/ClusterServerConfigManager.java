@@ -24,6 +24,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.NettyTransportUtil;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterParamFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
@@ -51,6 +52,7 @@ public final class ClusterServerConfigManager {
      */
     private static volatile int port = ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT;
     private static volatile int idleSeconds = ServerTransportConfig.DEFAULT_IDLE_SECONDS;
+    private static volatile String transportType = ClusterConstants.TRANSPORT_TYPE_AUTO;
     private static volatile Set<String> namespaceSet = Collections.singleton(ServerConstants.DEFAULT_NAMESPACE);
 
     /**
@@ -61,6 +63,8 @@ public final class ClusterServerConfigManager {
     private static volatile int intervalMs = ServerFlowConfig.DEFAULT_INTERVAL_MS;
     private static volatile int sampleCount = ServerFlowConfig.DEFAULT_SAMPLE_COUNT;
     private static volatile double maxAllowedQps = ServerFlowConfig.DEFAULT_MAX_ALLOWED_QPS;
+    private static volatile double maxLeaseRatio = ServerFlowConfig.DEFAULT_MAX_LEASE_RATIO;
+    private static volatile int leaseTtlMs = ServerFlowConfig.DEFAULT_LEASE_TTL_MS;
 
     /**
      * Namespace-specific flow config for token server.
@@ -290,10 +294,13 @@ public final class ClusterServerConfigManager {
     private static void updateTokenServer(ServerTransportConfig config) {
         int newPort = config.getPort();
         AssertUtil.isTrue(newPort > 0, "token server port should be valid (positive)");
-        if (newPort == port) {
+        String newTransportType = config.getTransportType() == null
+            ? ClusterConstants.TRANSPORT_TYPE_AUTO : config.getTransportType();
+        if (newPort == port && newTransportType.equals(transportType)) {
             return;
         }
         ClusterServerConfigManager.port = newPort;
+        ClusterServerConfigManager.transportType = newTransportType;
 
         for (ServerTransportConfigObserver observer : TRANSPORT_CONFIG_OBSERVERS) {
             observer.onTransportConfigChange(config);
@@ -329,6 +336,8 @@ public final class ClusterServerConfigManager {
                 maxAllowedQps = config.getMaxAllowedQps();
                 GlobalRequestLimiter.applyMaxQpsChange(maxAllowedQps);
             }
+            maxLeaseRatio = config.getMaxLeaseRatio();
+            leaseTtlMs = config.getLeaseTtlMs();
             int newIntervalMs = config.getIntervalMs();
             int newSampleCount = config.getSampleCount();
             if (newIntervalMs != intervalMs || newSampleCount != sampleCount) {
@@ -346,12 +355,14 @@ public final class ClusterServerConfigManager {
     }
 
     public static boolean isValidTransportConfig(ServerTransportConfig config) {
-        return config != null && config.getPort() > 0 && config.getPort() <= 65535;
+        return config != null && config.getPort() > 0 && config.getPort() <= 65535
+            && NettyTransportUtil.isValidTransportType(config.getTransportType());
     }
 
     public static boolean isValidFlowConfig(ServerFlowConfig config) {
         return config != null && config.getMaxOccupyRatio() >= 0 && config.getExceedCount() >= 0
             && config.getMaxAllowedQps() >= 0
+            && config.getMaxLeaseRatio() >= 0 && config.getMaxLeaseRatio() <= 1 && config.getLeaseTtlMs() >= 0
             && FlowRuleUtil.isWindowConfigValid(config.getSampleCount(), config.getIntervalMs());
     }
 
@@ -418,6 +429,20 @@ public final class ClusterServerConfigManager {
         return maxOccupyRatio;
     }
 
+    /**
+     * @since 1.8.6
+     */
+    public static double getMaxLeaseRatio() {
+        return maxLeaseRatio;
+    }
+
+    /**
+     * @since 1.8.6
+     */
+    public static int getLeaseTtlMs() {
+        return leaseTtlMs;
+    }
+
     public static Set<String> getNamespaceSet() {
         return namespaceSet;
     }
@@ -430,6 +455,14 @@ public final class ClusterServerConfigManager {
         return idleSeconds;
     }
 
+    /**
+     * @return configured Netty transport of the token server
+     * @since 1.8.6
+     */
+    public static String getTransportType() {
+        return transportType;
+    }
+
     public static int getIntervalMs() {
         return intervalMs;
     }
@@ -29,6 +29,14 @@ public class ServerFlowConfig {
     public static final int DEFAULT_INTERVAL_MS = 1000;
     public static final int DEFAULT_SAMPLE_COUNT= 10;
     public static final double DEFAULT_MAX_ALLOWED_QPS= 30000;
+    /**
+     * @since 1.8.6
+     */
+    public static final double DEFAULT_MAX_LEASE_RATIO = 0.1d;
+    /**
+     * @since 1.8.6
+     */
+    public static final int DEFAULT_LEASE_TTL_MS = 200;
 
     private final String namespace;
 
@@ -39,6 +47,21 @@ public class ServerFlowConfig {
 
     private double maxAllowedQps = DEFAULT_MAX_ALLOWED_QPS;
 
+    /**
+     * Max ratio of the global threshold that a single token lease could take.
+     * Leasing is disabled if the ratio is 0.
+     *
+     * @since 1.8.6
+     */
+    private double maxLeaseRatio = DEFAULT_MAX_LEASE_RATIO;
+    /**
+     * Duration of token leases. Leased tokens could only be used within this duration,
+     * which also bounds how far the usage of leased tokens could drift from the bucket they are counted in.
+     *
+     * @since 1.8.6
+     */
+    private int leaseTtlMs = DEFAULT_LEASE_TTL_MS;
+
     public ServerFlowConfig() {
         this(ServerConstants.DEFAULT_NAMESPACE);
     }
@@ -96,6 +119,24 @@ public class ServerFlowConfig {
         return this;
     }
 
+    public double getMaxLeaseRatio() {
+        return maxLeaseRatio;
+    }
+
+    public ServerFlowConfig setMaxLeaseRatio(double maxLeaseRatio) {
+        this.maxLeaseRatio = maxLeaseRatio;
+        return this;
+    }
+
+    public int getLeaseTtlMs() {
+        return leaseTtlMs;
+    }
+
+    public ServerFlowConfig setLeaseTtlMs(int leaseTtlMs) {
+        this.leaseTtlMs = leaseTtlMs;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ServerFlowConfig{" +
@@ -105,6 +146,8 @@ public class ServerFlowConfig {
             ", intervalMs=" + intervalMs +
             ", sampleCount=" + sampleCount +
             ", maxAllowedQps=" + maxAllowedQps +
+            ", maxLeaseRatio=" + maxLeaseRatio +
+            ", leaseTtlMs=" + leaseTtlMs +
             '}';
     }
 }
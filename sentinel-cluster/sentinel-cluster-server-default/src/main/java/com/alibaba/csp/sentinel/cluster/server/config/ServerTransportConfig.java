@@ -27,6 +27,12 @@ public class ServerTransportConfig {
 
     private int port;
     private int idleSeconds;
+    /**
+     * Netty transport of the token server: {@code auto} (by default), {@code nio} or {@code epoll}.
+     *
+     * @since 1.8.6
+     */
+    private String transportType = ClusterConstants.TRANSPORT_TYPE_AUTO;
 
     public ServerTransportConfig() {
         this(ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT, DEFAULT_IDLE_SECONDS);
@@ -55,11 +61,21 @@ public class ServerTransportConfig {
         return this;
     }
 
+    public String getTransportType() {
+        return transportType;
+    }
+
+    public ServerTransportConfig setTransportType(String transportType) {
+        this.transportType = transportType;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ServerTransportConfig{" +
             "port=" + port +
             ", idleSeconds=" + idleSeconds +
+            ", transportType='" + transportType + '\'' +
             '}';
     }
 }
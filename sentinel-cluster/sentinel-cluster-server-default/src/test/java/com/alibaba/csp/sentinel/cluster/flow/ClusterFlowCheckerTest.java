@@ -15,9 +15,15 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow;
 
+import java.util.Collections;
+
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerFlowConfig;
 import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
@@ -72,6 +78,40 @@ public class ClusterFlowCheckerTest {
         ClusterMetricStatistics.removeMetric(flowId);
     }
 
+    @Test
+    public void testAcquireLeaseToken() {
+        String namespace = "testAcquireLeaseToken";
+        long flowId = 98766L;
+        FlowRule clusterRule = new FlowRule("testAcquireLeaseToken")
+            .setCount(100)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig()
+                .setFlowId(flowId)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+        ClusterFlowRuleManager.registerPropertyIfAbsent(namespace);
+        ClusterFlowRuleManager.loadRules(namespace, Collections.singletonList(clusterRule));
+        try {
+            FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(flowId);
+            // A single lease is capped by the max lease ratio of the threshold.
+            int maxLease = (int) (100 * ServerFlowConfig.DEFAULT_MAX_LEASE_RATIO);
+            int leased = 0;
+            TokenResult result;
+            while ((result = ClusterFlowChecker.acquireLeaseToken(rule, 50)).getStatus() == TokenResultStatus.OK) {
+                assertTrue(result.getRemaining() > 0 && result.getRemaining() <= maxLease);
+                assertEquals(ServerFlowConfig.DEFAULT_LEASE_TTL_MS, result.getWaitInMs());
+                leased += result.getRemaining();
+            }
+            assertEquals(TokenResultStatus.BLOCKED, (int) result.getStatus());
+            // Leased tokens are counted as passed at once, so the global threshold holds.
+            ClusterMetric metric = ClusterMetricStatistics.getMetric(flowId);
+            assertEquals(leased, metric.getSum(ClusterFlowEvent.PASS));
+            assertTrue(leased <= 100);
+            assertEquals(TokenResultStatus.BLOCKED, (int) tryAcquire(rule, false).getStatus());
+        } finally {
+            ClusterFlowRuleManager.loadRules(namespace, Collections.<FlowRule>emptyList());
+        }
+    }
+
     private TokenResult tryAcquire(FlowRule clusterRule, boolean occupy) {
         return ClusterFlowChecker.acquireClusterToken(clusterRule, 1, occupy);
     }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire;
+
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.CurrentConcurrencyManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.TokenCacheNode;
+import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionManager;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link TimingWheelExpireStrategy}.
+ */
+public class TimingWheelExpireStrategyTest {
+
+    private static final String NAMESPACE = "timing-wheel-test";
+    private static final long FLOW_ID = 222L;
+
+    private ConcurrentLinkedHashMap<Long, TokenCacheNode> cache;
+    private TimingWheelExpireStrategy strategy;
+    private FlowRule rule;
+
+    @Before
+    public void setUp() {
+        rule = new FlowRule();
+        ClusterFlowConfig config = new ClusterFlowConfig();
+        config.setResourceTimeout(2000);
+        config.setClientOfflineTime(1000);
+        config.setFlowId(FLOW_ID);
+        config.setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL);
+        rule.setClusterConfig(config);
+        rule.setClusterMode(true);
+        rule.setCount(10);
+        rule.setResource("testTimingWheel");
+        rule.setGrade(RuleConstant.FLOW_GRADE_THREAD);
+        ClusterFlowRuleManager.registerPropertyIfAbsent(NAMESPACE);
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.singletonList(rule));
+
+        cache = new ConcurrentLinkedHashMap.Builder<Long, TokenCacheNode>()
+            .maximumWeightedCapacity(1000)
+            .build();
+        strategy = new TimingWheelExpireStrategy(cache, 100, 16);
+    }
+
+    @After
+    public void tearDown() {
+        ConnectionManager.removeConnection(NAMESPACE, "127.0.0.1");
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.<FlowRule>emptyList());
+    }
+
+    private TokenCacheNode acquire(String address) {
+        CurrentConcurrencyManager.addConcurrency(FLOW_ID, 1);
+        TokenCacheNode node = TokenCacheNode.generateTokenCacheNode(rule, 1, address);
+        cache.put(node.getTokenId(), node);
+        strategy.schedule(node);
+        return node;
+    }
+
+    @Test
+    public void testExpireOfflineClientToken() {
+        long start = System.currentTimeMillis();
+        TokenCacheNode node = acquire("127.0.0.2");
+        assertEquals(1, CurrentConcurrencyManager.get(FLOW_ID).get());
+
+        strategy.advance(start + 500);
+        assertTrue(cache.containsKey(node.getTokenId()));
+
+        strategy.advance(start + 1200);
+        assertFalse(cache.containsKey(node.getTokenId()));
+        assertEquals(0, CurrentConcurrencyManager.get(FLOW_ID).get());
+    }
+
+    @Test
+    public void testExpireResourceTimeoutToken() {
+        ConnectionManager.addConnection(NAMESPACE, "127.0.0.1");
+        long start = System.currentTimeMillis();
+        TokenCacheNode node = acquire("127.0.0.1");
+
+        // The client is online, so the token is checked again at 2 times of the resource timeout.
+        strategy.advance(start + 1200);
+        assertTrue(cache.containsKey(node.getTokenId()));
+        strategy.advance(start + 3000);
+        assertTrue(cache.containsKey(node.getTokenId()));
+
+        strategy.advance(start + 4200);
+        assertFalse(cache.containsKey(node.getTokenId()));
+        assertEquals(0, CurrentConcurrencyManager.get(FLOW_ID).get());
+    }
+
+    @Test
+    public void testReleasedTokenNotExpiredAgain() {
+        long start = System.currentTimeMillis();
+        TokenCacheNode node = acquire("127.0.0.2");
+        // Released by the client.
+        cache.remove(node.getTokenId());
+        strategy.cancel(node);
+        CurrentConcurrencyManager.addConcurrency(FLOW_ID, -1);
+
+        strategy.advance(start + 1200);
+        assertEquals(0, CurrentConcurrencyManager.get(FLOW_ID).get());
+    }
+}
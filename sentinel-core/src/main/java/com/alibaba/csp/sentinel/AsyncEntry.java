@@ -31,8 +31,63 @@ public class AsyncEntry extends CtEntry {
 
     private Context asyncContext;
 
+    /**
+     * Whether the queueing of traffic shaping should be left to the caller instead of blocking current thread.
+     */
+    private final boolean nonBlocking;
+    private volatile long waitInMs;
+
     AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        this(resourceWrapper, chain, context, false);
+    }
+
+    AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context, boolean nonBlocking) {
         super(resourceWrapper, chain, context);
+        this.nonBlocking = nonBlocking;
+        markAncestorsWithAsyncChild();
+    }
+
+    /**
+     * Keep the ancestors of this entry out of the entry pool, as they are still referred by the async context.
+     */
+    private void markAncestorsWithAsyncChild() {
+        Entry e = this.parent;
+        while (e instanceof CtEntry && !((CtEntry)e).hasAsyncChild) {
+            ((CtEntry)e).hasAsyncChild = true;
+            e = ((CtEntry)e).parent;
+        }
+    }
+
+    /**
+     * @return whether the entry is non-blocking, see {@link SphU#asyncEntryNonBlocking(String, int, EntryType, int, Object[])}
+     * @since 1.8.6
+     */
+    public boolean isNonBlocking() {
+        return nonBlocking;
+    }
+
+    /**
+     * Get the time the caller should wait before the invocation of a non-blocking entry,
+     * as the queueing of traffic shaping (e.g. rate limiter) has been reserved for it.
+     *
+     * @return the time to wait in milliseconds, 0 if the invocation could be started immediately
+     * @since 1.8.6
+     */
+    public long getWaitInMs() {
+        return waitInMs;
+    }
+
+    /**
+     * Record the time to wait of a non-blocking entry. The caller should wait till all the
+     * reserved time is reached, so the max one of the recorded time is kept.
+     *
+     * @param waitInMs the time to wait in milliseconds
+     * @since 1.8.6
+     */
+    public void recordWaitInMs(long waitInMs) {
+        if (waitInMs > this.waitInMs) {
+            this.waitInMs = waitInMs;
+        }
     }
 
     /**
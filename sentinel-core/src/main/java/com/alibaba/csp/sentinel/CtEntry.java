@@ -51,6 +51,21 @@ class CtEntry extends Entry {
     protected Context context;
     protected LinkedList<BiConsumer<Context, Entry>> exitHandlers;
 
+    /**
+     * Whether the entry is obtained from {@link CtEntryPool} and should be given back after exit.
+     */
+    boolean pooled = false;
+    /**
+     * Incremented each time the entry is reused, so that a {@link PooledEntryHandle} of a previous invocation
+     * could be told apart.
+     */
+    int generation = 0;
+    /**
+     * Whether an {@link AsyncEntry} has been created under this entry. The async context may still refer to
+     * this entry as an ancestor after it has exited, so such entry should never be given back to the pool.
+     */
+    boolean hasAsyncChild = false;
+
     CtEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
         super(resourceWrapper);
         this.chain = chain;
@@ -59,6 +74,22 @@ class CtEntry extends Entry {
         setUpEntryFor(context);
     }
 
+    /**
+     * Re-initialize a recycled entry for a new invocation.
+     */
+    void reuse(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        reset(resourceWrapper);
+        this.generation++;
+        this.hasAsyncChild = false;
+        this.parent = null;
+        this.child = null;
+        this.exitHandlers = null;
+        this.chain = chain;
+        this.context = context;
+
+        setUpEntryFor(context);
+    }
+
     private void setUpEntryFor(Context context) {
         // The entry should not be associated to NullContext.
         if (context instanceof NullContext) {
@@ -148,6 +179,9 @@ class CtEntry extends Entry {
                 }
                 // Clean the reference of context in current entry to avoid duplicate exit.
                 clearEntryContext();
+                if (pooled && !hasAsyncChild) {
+                    CtEntryPool.release(this);
+                }
             }
         }
     }
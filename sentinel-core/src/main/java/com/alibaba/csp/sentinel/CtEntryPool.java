@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+
+/**
+ * <p>Thread-local pool of {@link CtEntry}, used when entry recycling is enabled
+ * (see {@link ContextUtil#isRecycleEnabled()}).</p>
+ *
+ * <p>An entry will be given back to the pool of the exiting thread as soon as it has exited normally.
+ * The caller only gets a {@link PooledEntryHandle} of the entry, which turns stale once the entry is reused,
+ * so exiting an entry again after {@link Entry#exit()} is still a no-op. {@link AsyncEntry} is never pooled,
+ * nor are the entries an {@link AsyncEntry} has been created under.</p>
+ *
+ * @since 1.8.6
+ */
+final class CtEntryPool {
+
+    /**
+     * Max amount of idle entries kept by each thread, which is enough for common nested invocations.
+     */
+    private static final int MAX_IDLE_PER_THREAD = 8;
+
+    private static final ThreadLocal<CtEntry[]> IDLE_ENTRIES = new ThreadLocal<CtEntry[]>() {
+        @Override
+        protected CtEntry[] initialValue() {
+            return new CtEntry[MAX_IDLE_PER_THREAD];
+        }
+    };
+
+    static CtEntry obtain(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        CtEntry[] idle = IDLE_ENTRIES.get();
+        for (int i = idle.length - 1; i >= 0; i--) {
+            CtEntry entry = idle[i];
+            if (entry != null) {
+                idle[i] = null;
+                entry.reuse(resourceWrapper, chain, context);
+                return entry;
+            }
+        }
+        CtEntry entry = new CtEntry(resourceWrapper, chain, context);
+        entry.pooled = true;
+        return entry;
+    }
+
+    static void release(CtEntry entry) {
+        CtEntry[] idle = IDLE_ENTRIES.get();
+        for (int i = 0; i < idle.length; i++) {
+            if (idle[i] == null) {
+                idle[i] = entry;
+                return;
+            }
+            if (idle[i] == entry) {
+                // Already released.
+                return;
+            }
+        }
+        // The pool is full, just leave it to GC.
+    }
+
+    private CtEntryPool() {}
+}
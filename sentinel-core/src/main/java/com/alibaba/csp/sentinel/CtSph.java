@@ -16,7 +16,6 @@
 package com.alibaba.csp.sentinel;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
@@ -35,6 +34,7 @@ import com.alibaba.csp.sentinel.slots.logger.LogSlot;
 import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
 import com.alibaba.csp.sentinel.slots.statistic.StatisticSlot;
 import com.alibaba.csp.sentinel.slots.system.SystemSlot;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * {@inheritDoc}
@@ -53,10 +53,37 @@ public class CtSph implements Sph {
      * Same resource({@link ResourceWrapper#equals(Object)}) will share the same
      * {@link ProcessorSlotChain}, no matter in which {@link Context}.
      */
-    private static volatile Map<ResourceWrapper, ProcessorSlotChain> chainMap
-        = new HashMap<ResourceWrapper, ProcessorSlotChain>();
+    private static final ResourceRegistry<ResourceWrapper, ProcessorSlotChain> chainMap
+        = new ResourceRegistry<ResourceWrapper, ProcessorSlotChain>(Constants.MAX_SLOT_CHAIN_SIZE);
+
+    private static final Function<ResourceWrapper, ProcessorSlotChain> CHAIN_FACTORY
+        = new Function<ResourceWrapper, ProcessorSlotChain>() {
+            @Override
+            public ProcessorSlotChain apply(ResourceWrapper resourceWrapper) {
+                // 创建一个新的插槽链
+                return SlotChainProvider.newSlotChain();
+            }
+        };
 
-    private static final Object LOCK = new Object();
+    /**
+     * Cached {@link StringResourceWrapper}s of common resources (indexed by {@link EntryType#ordinal()}),
+     * only used in recycle mode.
+     */
+    private static final ResourceRegistry<String, StringResourceWrapper[]> resourceWrapperCache
+        = new ResourceRegistry<String, StringResourceWrapper[]>(Constants.MAX_SLOT_CHAIN_SIZE);
+
+    private static final Function<String, StringResourceWrapper[]> RESOURCE_WRAPPERS_FACTORY
+        = new Function<String, StringResourceWrapper[]>() {
+            @Override
+            public StringResourceWrapper[] apply(String name) {
+                EntryType[] types = EntryType.values();
+                StringResourceWrapper[] wrappers = new StringResourceWrapper[types.length];
+                for (EntryType type : types) {
+                    wrappers[type.ordinal()] = new StringResourceWrapper(name, type);
+                }
+                return wrappers;
+            }
+        };
 
     private AsyncEntry asyncEntryWithNoChain(ResourceWrapper resourceWrapper, Context context) {
         AsyncEntry entry = new AsyncEntry(resourceWrapper, null, context);
@@ -68,6 +95,11 @@ public class CtSph implements Sph {
 
     private AsyncEntry asyncEntryWithPriorityInternal(ResourceWrapper resourceWrapper, int count, boolean prioritized,
                                                       Object... args) throws BlockException {
+        return asyncEntryWithPriorityInternal(resourceWrapper, count, prioritized, false, args);
+    }
+
+    private AsyncEntry asyncEntryWithPriorityInternal(ResourceWrapper resourceWrapper, int count, boolean prioritized,
+                                                      boolean nonBlocking, Object... args) throws BlockException {
         Context context = ContextUtil.getContext();
         if (context instanceof NullContext) {
             // The {@link NullContext} indicates that the amount of context has exceeded the threshold,
@@ -91,7 +123,7 @@ public class CtSph implements Sph {
             return asyncEntryWithNoChain(resourceWrapper, context);
         }
 
-        AsyncEntry asyncEntry = new AsyncEntry(resourceWrapper, chain, context);
+        AsyncEntry asyncEntry = new AsyncEntry(resourceWrapper, chain, context, nonBlocking);
         try {
             chain.entry(context, resourceWrapper, null, count, prioritized, args);
             // Initiate the async context only when the entry successfully passed the slot chain.
@@ -161,7 +193,9 @@ public class CtSph implements Sph {
             return new CtEntry(resourceWrapper, null, context);
         }
 
-        Entry e = new CtEntry(resourceWrapper, chain, context);
+        Entry e = ContextUtil.isRecycleEnabled()
+            ? new PooledEntryHandle(CtEntryPool.obtain(resourceWrapper, chain, context))
+            : new CtEntry(resourceWrapper, chain, context);
         try {
             /**
              * 进入链, 执行ProcessorSlot的entry方法
@@ -225,29 +259,8 @@ public class CtSph implements Sph {
      * @return {@link ProcessorSlotChain} of the resource
      */
     ProcessorSlot<Object> lookProcessChain(ResourceWrapper resourceWrapper) {
-        ProcessorSlotChain chain = chainMap.get(resourceWrapper);
-        /**
-         * 双重检验锁DCL
-         */
-        if (chain == null) {
-            synchronized (LOCK) {
-                chain = chainMap.get(resourceWrapper);
-                if (chain == null) {
-                    // Entry size limit.
-                    if (chainMap.size() >= Constants.MAX_SLOT_CHAIN_SIZE) {
-                        return null;
-                    }
-                    // 创建一个新的插槽链
-                    chain = SlotChainProvider.newSlotChain();
-                    Map<ResourceWrapper, ProcessorSlotChain> newMap = new HashMap<ResourceWrapper, ProcessorSlotChain>(
-                        chainMap.size() + 1);
-                    newMap.putAll(chainMap);
-                    newMap.put(resourceWrapper, chain);
-                    chainMap = newMap;
-                }
-            }
-        }
-        return chain;
+        // Entry size limit is checked by the registry, null will be returned when exceeded.
+        return chainMap.getOrCreate(resourceWrapper, CHAIN_FACTORY);
     }
 
     /**
@@ -275,7 +288,28 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     static Map<ResourceWrapper, ProcessorSlotChain> getChainMap() {
-        return chainMap;
+        return chainMap.asMap();
+    }
+
+    /**
+     * Get the resource wrapper of given name and type. In recycle mode, {@link StringResourceWrapper}s of
+     * common resources are cached, so that no wrapper will be allocated per entry.
+     */
+    private static StringResourceWrapper stringResource(String name, EntryType type) {
+        return stringResource(name, type, ResourceTypeConstants.COMMON);
+    }
+
+    private static StringResourceWrapper stringResource(String name, EntryType type, int resourceType) {
+        if (!ContextUtil.isRecycleEnabled() || resourceType != ResourceTypeConstants.COMMON
+            || name == null || type == null) {
+            return new StringResourceWrapper(name, type, resourceType);
+        }
+        StringResourceWrapper[] wrappers = resourceWrapperCache.getOrCreate(name, RESOURCE_WRAPPERS_FACTORY);
+        if (wrappers == null) {
+            // Cache is full.
+            return new StringResourceWrapper(name, type, resourceType);
+        }
+        return wrappers[type.ordinal()];
     }
 
     /**
@@ -293,7 +327,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, EntryType.OUT);
+        StringResourceWrapper resource = stringResource(name, EntryType.OUT);
         return entry(resource, 1, OBJECTS0);
     }
 
@@ -311,7 +345,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, EntryType type) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return entry(resource, 1, OBJECTS0);
     }
 
@@ -323,7 +357,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, EntryType type, int count) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return entry(resource, count, OBJECTS0);
     }
 
@@ -335,7 +369,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, int count) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, EntryType.OUT);
+        StringResourceWrapper resource = stringResource(name, EntryType.OUT);
         return entry(resource, count, OBJECTS0);
     }
 
@@ -347,26 +381,26 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, EntryType type, int count, Object... args) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return entry(resource, count, args);
     }
 
     @Override
     public AsyncEntry asyncEntry(String name, EntryType type, int count, Object... args) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return asyncEntryInternal(resource, count, args);
     }
 
     @Override
     public Entry entryWithPriority(String name, EntryType type, int count, boolean prioritized) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return entryWithPriority(resource, count, prioritized);
     }
 
     @Override
     public Entry entryWithPriority(String name, EntryType type, int count, boolean prioritized, Object... args)
         throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = stringResource(name, type);
         return entryWithPriority(resource, count, prioritized, args);
     }
 
@@ -379,14 +413,21 @@ public class CtSph implements Sph {
     @Override
     public Entry entryWithType(String name, int resourceType, EntryType entryType, int count, boolean prioritized,
                                Object[] args) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
+        StringResourceWrapper resource = stringResource(name, entryType, resourceType);
         return entryWithPriority(resource, count, prioritized, args);
     }
 
     @Override
     public AsyncEntry asyncEntryWithType(String name, int resourceType, EntryType entryType, int count,
                                          boolean prioritized, Object[] args) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
+        StringResourceWrapper resource = stringResource(name, entryType, resourceType);
         return asyncEntryWithPriorityInternal(resource, count, prioritized, args);
     }
+
+    @Override
+    public AsyncEntry nonBlockingAsyncEntryWithType(String name, int resourceType, EntryType entryType, int count,
+                                                    boolean prioritized, Object[] args) throws BlockException {
+        StringResourceWrapper resource = stringResource(name, entryType, resourceType);
+        return asyncEntryWithPriorityInternal(resource, count, prioritized, true, args);
+    }
 }
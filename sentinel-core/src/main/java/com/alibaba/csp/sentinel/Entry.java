@@ -55,7 +55,7 @@ public abstract class Entry implements AutoCloseable {
 
     private static final Object[] OBJECTS0 = new Object[0];
 
-    private final long createTimestamp;
+    private long createTimestamp;
     private long completeTimestamp;
 
     private Node curNode;
@@ -67,13 +67,39 @@ public abstract class Entry implements AutoCloseable {
     private Throwable error;
     private BlockException blockError;
 
-    protected final ResourceWrapper resourceWrapper;
+    protected ResourceWrapper resourceWrapper;
 
     public Entry(ResourceWrapper resourceWrapper) {
         this.resourceWrapper = resourceWrapper;
         this.createTimestamp = TimeUtil.currentTimeMillis();
     }
 
+    /**
+     * Create the entry with a known create time, so that the clock is not read again.
+     *
+     * @since 1.8.6
+     */
+    Entry(ResourceWrapper resourceWrapper, long createTimestamp) {
+        this.resourceWrapper = resourceWrapper;
+        this.createTimestamp = createTimestamp;
+    }
+
+    /**
+     * Reset the state of a recycled entry so that it could represent a new invocation.
+     *
+     * @param resourceWrapper the resource of the new invocation
+     * @since 1.8.6
+     */
+    void reset(ResourceWrapper resourceWrapper) {
+        this.resourceWrapper = resourceWrapper;
+        this.createTimestamp = TimeUtil.currentTimeMillis();
+        this.completeTimestamp = 0;
+        this.curNode = null;
+        this.originNode = null;
+        this.error = null;
+        this.blockError = null;
+    }
+
     public ResourceWrapper getResourceWrapper() {
         return resourceWrapper;
     }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.util.function.BiConsumer;
+
+/**
+ * <p>The {@link Entry} given to the caller when the invocation uses a pooled {@link CtEntry}.</p>
+ *
+ * <p>The handle is bound to the generation of the pooled entry at the time of the invocation.
+ * Once the entry has been reused by another invocation, the handle is stale: exiting it again is
+ * a no-op (like exiting a common entry twice), and its getters return nothing of the new invocation.</p>
+ *
+ * <p>The handle is allocated for each invocation and is never pooled, as a pooled handle could not turn
+ * stale. It is much smaller than the {@link CtEntry} and {@link com.alibaba.csp.sentinel.context.Context}
+ * it saves.</p>
+ *
+ * @since 1.8.6
+ */
+final class PooledEntryHandle extends Entry {
+
+    private final CtEntry entry;
+    private final int generation;
+
+    PooledEntryHandle(CtEntry entry) {
+        super(entry.getResourceWrapper(), entry.getCreateTimestamp());
+        this.entry = entry;
+        this.generation = entry.generation;
+    }
+
+    /**
+     * @return the pooled entry if it still belongs to the invocation of this handle, otherwise null
+     */
+    CtEntry getEntry() {
+        return entry.generation == generation ? entry : null;
+    }
+
+    @Override
+    public void exit(int count, Object... args) throws ErrorEntryFreeException {
+        CtEntry e = getEntry();
+        if (e != null) {
+            e.exit(count, args);
+        }
+    }
+
+    @Override
+    protected Entry trueExit(int count, Object... args) throws ErrorEntryFreeException {
+        CtEntry e = getEntry();
+        return e == null ? null : e.trueExit(count, args);
+    }
+
+    @Override
+    public Node getLastNode() {
+        CtEntry e = getEntry();
+        return e == null ? null : e.getLastNode();
+    }
+
+    @Override
+    public void whenTerminate(BiConsumer<Context, Entry> handler) {
+        CtEntry e = getEntry();
+        if (e != null) {
+            e.whenTerminate(handler);
+        }
+    }
+
+    @Override
+    public ResourceWrapper getResourceWrapper() {
+        return resourceWrapper;
+    }
+
+    @Override
+    public long getCreateTimestamp() {
+        CtEntry e = getEntry();
+        return e == null ? 0 : e.getCreateTimestamp();
+    }
+
+    @Override
+    public long getCompleteTimestamp() {
+        CtEntry e = getEntry();
+        return e == null ? 0 : e.getCompleteTimestamp();
+    }
+
+    @Override
+    public Entry setCompleteTimestamp(long completeTimestamp) {
+        CtEntry e = getEntry();
+        if (e != null) {
+            e.setCompleteTimestamp(completeTimestamp);
+        }
+        return this;
+    }
+
+    @Override
+    public Node getCurNode() {
+        CtEntry e = getEntry();
+        return e == null ? null : e.getCurNode();
+    }
+
+    @Override
+    public void setCurNode(Node node) {
+        CtEntry e = getEntry();
+        if (e != null) {
+            e.setCurNode(node);
+        }
+    }
+
+    @Override
+    public BlockException getBlockError() {
+        CtEntry e = getEntry();
+        return e == null ? null : e.getBlockError();
+    }
+
+    @Override
+    public Entry setBlockError(BlockException blockError) {
+        CtEntry e = getEntry();
+        if (e != null) {
+            e.setBlockError(blockError);
+        }
+        return this;
+    }
+
+    @Override
+    public Throwable getError() {
+        CtEntry e = getEntry();
+        return e == null ? null : e.getError();
+    }
+
+    @Override
+    public void setError(Throwable error) {
+        CtEntry e = getEntry();
+        if (e != null) {
+            e.setError(error);
+        }
+    }
+
+    @Override
+    public Node getOriginNode() {
+        CtEntry e = getEntry();
+        return e == null ? null : e.getOriginNode();
+    }
+
+    @Override
+    public void setOriginNode(Node originNode) {
+        CtEntry e = getEntry();
+        if (e != null) {
+            e.setOriginNode(originNode);
+        }
+    }
+}
@@ -74,4 +74,31 @@ public interface SphResourceTypeSupport {
     AsyncEntry asyncEntryWithType(String name, int resourceType, EntryType trafficType, int batchCount,
                                   boolean prioritized,
                                   Object[] args) throws BlockException;
+
+    /**
+     * Record statistics and perform rule checking for the given resource that indicates an async invocation,
+     * without blocking current thread for queueing traffic shaping (e.g. rate limiter). The time to wait
+     * is recorded in {@link AsyncEntry#getWaitInMs()} instead, and the caller should start the invocation
+     * after waiting for it (e.g. with a scheduled task).
+     *
+     * <p>The default implementation falls back to {@link #asyncEntryWithType}, which waits in current thread,
+     * so the time to wait of the returned entry is always 0.</p>
+     *
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param trafficType  the traffic type (inbound, outbound or internal). This is used
+     *                     to mark whether it can be blocked when the system is unstable,
+     *                     only inbound traffic could be blocked by {@link SystemRule}
+     * @param batchCount   the amount of calls within the invocation (e.g. batchCount=2 means request for 2 tokens)
+     * @param prioritized  whether the entry is prioritized
+     * @param args         args for parameter flow control or customized slots
+     * @return the {@link AsyncEntry} of this invocation
+     * @throws BlockException if the block criteria is met
+     * @since 1.8.6
+     */
+    default AsyncEntry nonBlockingAsyncEntryWithType(String name, int resourceType, EntryType trafficType,
+                                                     int batchCount, boolean prioritized, Object[] args)
+        throws BlockException {
+        return asyncEntryWithType(name, resourceType, trafficType, batchCount, prioritized, args);
+    }
 }
@@ -368,4 +368,44 @@ public class SphU {
                                         Object[] args) throws BlockException {
         return Env.sph.asyncEntryWithType(name, resourceType, trafficType, batchCount, false, args);
     }
+
+    /**
+     * Record statistics and perform rule checking for the given resource that indicates an async invocation,
+     * without blocking current thread when the request is queued by traffic shaping (e.g. rate limiter).
+     * The caller should wait for {@link AsyncEntry#getWaitInMs()} before starting the invocation.
+     *
+     * @param name        the unique name for the protected resource
+     * @param trafficType the traffic type (inbound, outbound or internal). This is used
+     *                    to mark whether it can be blocked when the system is unstable,
+     *                    only inbound traffic could be blocked by {@link SystemRule}
+     * @return the {@link AsyncEntry} of this invocation
+     * @throws BlockException if the block criteria is met (e.g. metric exceeded the threshold of any rules)
+     * @since 1.8.6
+     */
+    public static AsyncEntry asyncEntryNonBlocking(String name, EntryType trafficType) throws BlockException {
+        return Env.sph.nonBlockingAsyncEntryWithType(name, ResourceTypeConstants.COMMON, trafficType, 1, false,
+            OBJECTS0);
+    }
+
+    /**
+     * Record statistics and perform rule checking for the given resource that indicates an async invocation,
+     * without blocking current thread when the request is queued by traffic shaping (e.g. rate limiter).
+     * The caller should wait for {@link AsyncEntry#getWaitInMs()} (e.g. with a scheduled task) before
+     * starting the invocation, which makes it suitable for event loops.
+     *
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param trafficType  the traffic type (inbound, outbound or internal). This is used
+     *                     to mark whether it can be blocked when the system is unstable,
+     *                     only inbound traffic could be blocked by {@link SystemRule}
+     * @param batchCount   the amount of calls within the invocation (e.g. batchCount=2 means request for 2 tokens)
+     * @param args         args for parameter flow control or customized slots
+     * @return the {@link AsyncEntry} of this invocation
+     * @throws BlockException if the block criteria is met (e.g. metric exceeded the threshold of any rules)
+     * @since 1.8.6
+     */
+    public static AsyncEntry asyncEntryNonBlocking(String name, int resourceType, EntryType trafficType,
+                                                   int batchCount, Object[] args) throws BlockException {
+        return Env.sph.nonBlockingAsyncEntryWithType(name, resourceType, trafficType, batchCount, false, args);
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster;
+
+/**
+ * A single flow token request in a batch, see {@link TokenService#requestTokens(java.util.List)}.
+ *
+ * @since 1.8.6
+ */
+public class TokenRequest {
+
+    private final Long ruleId;
+    private final int acquireCount;
+    private final boolean prioritized;
+
+    public TokenRequest(Long ruleId, int acquireCount, boolean prioritized) {
+        this.ruleId = ruleId;
+        this.acquireCount = acquireCount;
+        this.prioritized = prioritized;
+    }
+
+    public Long getRuleId() {
+        return ruleId;
+    }
+
+    public int getAcquireCount() {
+        return acquireCount;
+    }
+
+    public boolean isPrioritized() {
+        return prioritized;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenRequest{" +
+            "ruleId=" + ruleId +
+            ", acquireCount=" + acquireCount +
+            ", prioritized=" + prioritized +
+            '}';
+    }
+}
@@ -15,7 +15,9 @@
  */
 package com.alibaba.csp.sentinel.cluster;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Service interface of flow control.
@@ -35,6 +37,43 @@ public interface TokenService {
      */
     TokenResult requestToken(Long ruleId, int acquireCount, boolean prioritized);
 
+    /**
+     * Request tokens of multiple flow requests from remote token server in a single round trip.
+     * Every request is checked independently, as if requested via {@link #requestToken(Long, int, boolean)}.
+     *
+     * <p>The default implementation requests the tokens one by one via {@link #requestToken(Long, int, boolean)}.</p>
+     *
+     * @param requests the token requests
+     * @return results of the token requests, in the same order of the requests
+     * @since 1.8.6
+     */
+    default List<TokenResult> requestTokens(List<TokenRequest> requests) {
+        if (requests == null) {
+            return new ArrayList<>(0);
+        }
+        List<TokenResult> results = new ArrayList<>(requests.size());
+        for (TokenRequest request : requests) {
+            results.add(requestToken(request.getRuleId(), request.getAcquireCount(), request.isPrioritized()));
+        }
+        return results;
+    }
+
+    /**
+     * Request a lease of tokens from remote token server, so that the client could acquire tokens
+     * locally until the lease runs out or expires. Leased tokens are regarded as passed by the server
+     * at the time of granting, whether they are finally used or not.
+     *
+     * @param ruleId the unique rule ID
+     * @param maxCount max token count of the lease
+     * @return result of the lease request, where {@link TokenResult#getRemaining()} is the granted token count
+     * and {@link TokenResult#getWaitInMs()} is the lease duration in milliseconds
+     * @since 1.8.6
+     */
+    default TokenResult requestTokenLease(Long ruleId, int maxCount) {
+        // Leasing is not supported by default, so the client falls back to per-request acquisition.
+        return new TokenResult(TokenResultStatus.NOT_AVAILABLE);
+    }
+
     /**
      * Request tokens for a specific parameter from remote token server.
      *
@@ -61,13 +61,40 @@ public final class SentinelConfig {
     public static final String STATISTIC_MAX_RT = "csp.sentinel.statistic.max.rt";
     public static final String SPI_CLASSLOADER = "csp.sentinel.spi.classloader";
     public static final String METRIC_FLUSH_INTERVAL = "csp.sentinel.metric.flush.interval";
+    /**
+     * Whether to recycle entries and contexts thread-locally after exit (since 1.8.6).
+     */
+    public static final String ENTRY_RECYCLE_ENABLED = "csp.sentinel.entry.recycle.enabled";
+    /**
+     * Whether Sentinel runs on virtual threads, which disables thread-local recycling (since 1.8.6).
+     * Regardless of the switch, the creation of nodes, slot chains and counters is guarded by
+     * {@link java.util.concurrent.locks.ReentrantLock}s rather than monitors, as a virtual thread
+     * blocked on a monitor pins its carrier thread.
+     */
+    public static final String VIRTUAL_THREAD_MODE_ENABLED = "csp.sentinel.virtual.thread.mode.enabled";
+    /**
+     * Alias of the time source (ticker, system, monotonic or custom SPI alias) (since 1.8.6).
+     */
+    public static final String TIME_SOURCE = "csp.sentinel.time.source";
+    /**
+     * Format of the metric log files, {@code text} (default) or {@code binary} (since 1.8.6).
+     */
+    public static final String METRIC_FILE_FORMAT = "csp.sentinel.metric.file.format";
+    /**
+     * Root directory of the cgroup file system for container metrics of system rules,
+     * or {@code off} to disable cgroup metrics (since 1.8.6).
+     */
+    public static final String CGROUP_ROOT = "csp.sentinel.cgroup.root";
 
     public static final String DEFAULT_CHARSET = "UTF-8";
     public static final long DEFAULT_SINGLE_METRIC_FILE_SIZE = 1024 * 1024 * 50;
     public static final int DEFAULT_TOTAL_METRIC_FILE_COUNT = 6;
+    public static final String DEFAULT_CGROUP_ROOT = "/sys/fs/cgroup";
     public static final int DEFAULT_COLD_FACTOR = 3;
     public static final int DEFAULT_STATISTIC_MAX_RT = 5000;
     public static final long DEFAULT_METRIC_FLUSH_INTERVAL = 1L;
+    public static final String METRIC_FILE_FORMAT_TEXT = "text";
+    public static final String METRIC_FILE_FORMAT_BINARY = "binary";
 
     static {
         try {
@@ -106,6 +133,7 @@ public final class SentinelConfig {
         setConfig(COLD_FACTOR, String.valueOf(DEFAULT_COLD_FACTOR));
         setConfig(STATISTIC_MAX_RT, String.valueOf(DEFAULT_STATISTIC_MAX_RT));
         setConfig(METRIC_FLUSH_INTERVAL, String.valueOf(DEFAULT_METRIC_FLUSH_INTERVAL));
+        setConfig(METRIC_FILE_FORMAT, METRIC_FILE_FORMAT_TEXT);
     }
 
     private static void loadProps() {
@@ -201,6 +229,65 @@ public final class SentinelConfig {
         }
     }
 
+    /**
+     * Whether entries and contexts are recycled after exit. This is disabled by default,
+     * as recycled entries must not be accessed after exit.
+     *
+     * @return true if entry recycle mode is enabled
+     * @since 1.8.6
+     */
+    public static boolean entryRecycleEnabled() {
+        return Boolean.parseBoolean(props.get(ENTRY_RECYCLE_ENABLED));
+    }
+
+    /**
+     * Whether the virtual-thread mode is enabled. Virtual threads are cheap and never pooled,
+     * so in this mode the per-thread recycling of entries and contexts is disabled, and the
+     * thread-local context is removed (rather than cleared) on exit.
+     *
+     * @return true if virtual-thread mode is enabled
+     * @since 1.8.6
+     */
+    public static boolean virtualThreadModeEnabled() {
+        return Boolean.parseBoolean(props.get(VIRTUAL_THREAD_MODE_ENABLED));
+    }
+
+    /**
+     * Get the alias of the time source used by {@link com.alibaba.csp.sentinel.util.TimeUtil}.
+     *
+     * @return alias of the time source, or null if absent (the default ticker will be used)
+     * @since 1.8.6
+     */
+    public static String timeSource() {
+        return props.get(TIME_SOURCE);
+    }
+
+    /**
+     * Whether the metric log files are written in the binary format, which could be searched
+     * by {@link com.alibaba.csp.sentinel.node.metric.BinaryMetricSearcher}.
+     *
+     * @return true if the metric file format is {@code binary}
+     * @since 1.8.6
+     */
+    public static boolean metricFileBinaryFormat() {
+        return METRIC_FILE_FORMAT_BINARY.equalsIgnoreCase(props.get(METRIC_FILE_FORMAT));
+    }
+
+    /**
+     * Get the root directory of the cgroup file system read by
+     * {@link com.alibaba.csp.sentinel.slots.system.CgroupMetricsReader}.
+     *
+     * @return the cgroup root directory, or null if cgroup metrics are disabled
+     * @since 1.8.6
+     */
+    public static String cgroupRoot() {
+        String root = props.get(CGROUP_ROOT);
+        if (StringUtil.isBlank(root)) {
+            return DEFAULT_CGROUP_ROOT;
+        }
+        return "off".equalsIgnoreCase(root) ? null : root;
+    }
+
     public static long singleMetricFileSize() {
         try {
             return Long.parseLong(props.get(SINGLE_METRIC_FILE_SIZE));
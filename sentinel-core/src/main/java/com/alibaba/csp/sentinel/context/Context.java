@@ -59,7 +59,7 @@ public class Context {
     /**
      * Context name.
      */
-    private final String name;
+    private String name;
 
     /**
      * The entrance node of current invocation tree.
@@ -100,6 +100,17 @@ public class Context {
         this.async = async;
     }
 
+    /**
+     * Reset a recycled context so that it could be used for a new invocation chain.
+     * Only synchronous contexts are recycled.
+     */
+    void reset(DefaultNode entranceNode, String name, String origin) {
+        this.name = name;
+        this.entranceNode = entranceNode;
+        this.origin = origin;
+        this.curEntry = null;
+    }
+
     public boolean isAsync() {
         return async;
     }
@@ -15,20 +15,20 @@
  */
 package com.alibaba.csp.sentinel.context;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
-
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.SphO;
 import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.ResourceRegistry;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
+import com.alibaba.csp.sentinel.util.function.Function;
+import com.alibaba.csp.sentinel.util.function.Supplier;
 
 /**
  * Utility class to get or create {@link Context} in current thread.
@@ -51,15 +51,46 @@ public class ContextUtil {
 
     /**
      * Holds all {@link EntranceNode}. Each {@link EntranceNode} is associated with a distinct context name.
+     * The default context is counted in the registry as well, so the capacity is
+     * {@link Constants#MAX_CONTEXT_NAME_SIZE} + 1.
      */
-    private static volatile Map<String, DefaultNode> contextNameNodeMap = new HashMap<>();
+    private static final ResourceRegistry<String, DefaultNode> contextNameNodeMap
+        = new ResourceRegistry<>(Constants.MAX_CONTEXT_NAME_SIZE + 1);
+
+    private static final Function<String, DefaultNode> ENTRANCE_NODE_FACTORY = new Function<String, DefaultNode>() {
+        @Override
+        public DefaultNode apply(String name) {
+            EntranceNode node = new EntranceNode(new StringResourceWrapper(name, EntryType.IN), null);
+            // Add entrance node.
+            Constants.ROOT.addChild(node);
+            return node;
+        }
+    };
 
-    private static final ReentrantLock LOCK = new ReentrantLock();
     private static final Context NULL_CONTEXT = new NullContext();
 
+    /**
+     * Whether Sentinel runs on virtual threads, see {@link SentinelConfig#VIRTUAL_THREAD_MODE_ENABLED}.
+     */
+    private static final boolean virtualThreadMode = SentinelConfig.virtualThreadModeEnabled();
+
+    /**
+     * Whether entries and contexts are recycled, see {@link SentinelConfig#ENTRY_RECYCLE_ENABLED}.
+     * The thread-local pools are useless for virtual threads, so it's disabled in virtual-thread mode.
+     */
+    private static volatile boolean recycleEnabled = SentinelConfig.entryRecycleEnabled() && !virtualThreadMode;
+
+    /**
+     * Holds the exited context of current thread for reuse when recycling is enabled.
+     */
+    private static final ThreadLocal<Context> recycledContextHolder = new ThreadLocal<>();
+
     static {
         // Cache the entrance node for default context.
         initDefaultContext();
+        if (virtualThreadMode && SentinelConfig.entryRecycleEnabled()) {
+            RecordLog.warn("[ContextUtil] Entry recycle mode is ignored in virtual-thread mode");
+        }
     }
 
     private static void initDefaultContext() {
@@ -73,11 +104,9 @@ public class ContextUtil {
      * Not thread-safe, only for test.
      */
     static void resetContextMap() {
-        if (contextNameNodeMap != null) {
-            RecordLog.warn("Context map cleared and reset to initial state");
-            contextNameNodeMap.clear();
-            initDefaultContext();
-        }
+        RecordLog.warn("Context map cleared and reset to initial state");
+        contextNameNodeMap.clear();
+        initDefaultContext();
     }
 
     /**
@@ -120,38 +149,12 @@ public class ContextUtil {
     protected static Context trueEnter(String name, String origin) {
         Context context = contextHolder.get();
         if (context == null) {
-            Map<String, DefaultNode> localCacheNameMap = contextNameNodeMap;
-            DefaultNode node = localCacheNameMap.get(name);
+            DefaultNode node = contextNameNodeMap.getOrCreate(name, ENTRANCE_NODE_FACTORY);
             if (node == null) {
-                if (localCacheNameMap.size() > Constants.MAX_CONTEXT_NAME_SIZE) {
-                    setNullContext();
-                    return NULL_CONTEXT;
-                } else {
-                    LOCK.lock();
-                    try {
-                        node = contextNameNodeMap.get(name);
-                        if (node == null) {
-                            if (contextNameNodeMap.size() > Constants.MAX_CONTEXT_NAME_SIZE) {
-                                setNullContext();
-                                return NULL_CONTEXT;
-                            } else {
-                                node = new EntranceNode(new StringResourceWrapper(name, EntryType.IN), null);
-                                // Add entrance node.
-                                Constants.ROOT.addChild(node);
-
-                                Map<String, DefaultNode> newMap = new HashMap<>(contextNameNodeMap.size() + 1);
-                                newMap.putAll(contextNameNodeMap);
-                                newMap.put(name, node);
-                                contextNameNodeMap = newMap;
-                            }
-                        }
-                    } finally {
-                        LOCK.unlock();
-                    }
-                }
+                setNullContext();
+                return NULL_CONTEXT;
             }
-            context = new Context(node, name);
-            context.setOrigin(origin);
+            context = recycleEnabled ? obtainContext(node, name, origin) : new Context(node, name).setOrigin(origin);
             contextHolder.set(context);
         }
 
@@ -200,7 +203,52 @@ public class ContextUtil {
     public static void exit() {
         Context context = contextHolder.get();
         if (context != null && context.getCurEntry() == null) {
-            contextHolder.set(null);
+            if (virtualThreadMode) {
+                // Virtual threads are never reused, so don't leave a stale entry in the thread-local map.
+                contextHolder.remove();
+            } else {
+                contextHolder.set(null);
+            }
+            if (recycleEnabled && !(context instanceof NullContext) && !context.isAsync()) {
+                recycledContextHolder.set(context);
+            }
+        }
+    }
+
+    private static Context obtainContext(DefaultNode node, String name, String origin) {
+        Context context = recycledContextHolder.get();
+        if (context == null) {
+            return new Context(node, name).setOrigin(origin);
+        }
+        recycledContextHolder.set(null);
+        context.reset(node, name, origin);
+        return context;
+    }
+
+    /**
+     * <p>Check whether entries and contexts are recycled (thread-locally) after exit to reduce allocation.</p>
+     *
+     * <p>Note that in recycle mode, an {@link com.alibaba.csp.sentinel.Entry} must not be touched
+     * after exit (exiting it again is still a no-op), and the context got from {@link #getContext()}
+     * must not be held after {@link #exit()}.</p>
+     *
+     * <p>Recycle mode is not allocation-free: each entry still allocates a small handle bound to the
+     * pooled entry, so that a stale handle never exits a later invocation which reuses the entry.</p>
+     *
+     * @return true if recycle mode is enabled
+     * @since 1.8.6
+     */
+    public static boolean isRecycleEnabled() {
+        return recycleEnabled;
+    }
+
+    /**
+     * Only for internal test.
+     */
+    static void setRecycleEnabled(boolean enabled) {
+        recycleEnabled = enabled;
+        if (!enabled) {
+            recycledContextHolder.remove();
         }
     }
 
@@ -278,4 +326,51 @@ public class ContextUtil {
             replaceContext(curContext);
         }
     }
+
+    /**
+     * <p>Execute the code in a new context with the given name and origin, which is bound to current thread
+     * only within the execution of {@code f}, in the manner of {@code ScopedValue.where(key, value).run(f)}:
+     * the context is always unbound after the execution (even if the entries within are not exited properly),
+     * and the outer context of current thread, if any, is restored.</p>
+     *
+     * <p>This is recommended when running on virtual threads, as the binding never outlives the scope.</p>
+     *
+     * @param name   the context name
+     * @param origin the origin of this invocation
+     * @param f      lambda to run within the context
+     * @since 1.8.6
+     */
+    public static void runInContext(String name, String origin, Runnable f) {
+        Context outerContext = replaceContext(null);
+        try {
+            enter(name, origin);
+            f.run();
+        } finally {
+            exit();
+            replaceContext(outerContext);
+        }
+    }
+
+    /**
+     * Execute the code in a new context with the given name and origin and get the result.
+     * The context is bound to current thread only within the execution of {@code f},
+     * see {@link #runInContext(String, String, Runnable)}.
+     *
+     * @param name   the context name
+     * @param origin the origin of this invocation
+     * @param f      lambda to run within the context
+     * @param <T>    type of the result
+     * @return the result of {@code f}
+     * @since 1.8.6
+     */
+    public static <T> T callInContext(String name, String origin, Supplier<T> f) {
+        Context outerContext = replaceContext(null);
+        try {
+            enter(name, origin);
+            return f.get();
+        } finally {
+            exit();
+            replaceContext(outerContext);
+        }
+    }
 }
@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.node;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.SphO;
@@ -50,6 +51,8 @@ public class DefaultNode extends StatisticNode {
      */
     private volatile Set<Node> childList = new HashSet<>();
 
+    private final ReentrantLock lock = new ReentrantLock();
+
     /**
      * Associated cluster node.
      */
@@ -83,13 +86,16 @@ public class DefaultNode extends StatisticNode {
             return;
         }
         if (!childList.contains(node)) {
-            synchronized (this) {
+            lock.lock();
+            try {
                 if (!childList.contains(node)) {
                     Set<Node> newSet = new HashSet<>(childList.size() + 1);
                     newSet.addAll(childList);
                     newSet.add(node);
                     childList = newSet;
                 }
+            } finally {
+                lock.unlock();
             }
             RecordLog.info("Add child <{}> to node <{}>", ((DefaultNode)node).id.getName(), id.getName());
         }
@@ -21,6 +21,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.LongAdder;
 
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
 import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
 import com.alibaba.csp.sentinel.slots.statistic.metric.Metric;
 import com.alibaba.csp.sentinel.util.TimeUtil;
@@ -167,7 +168,7 @@ public class StatisticNode implements Node {
 
     @Override
     public long totalRequest() {
-        return rollingCounterInMinute.pass() + rollingCounterInMinute.block();
+        return rollingCounterInMinute.sum(MetricEvent.PASS, MetricEvent.BLOCK);
     }
 
     @Override
@@ -192,7 +193,8 @@ public class StatisticNode implements Node {
 
     @Override
     public double totalQps() {
-        return passQps() + blockQps();
+        Metric metric = rollingCounterInSecond;
+        return metric.sum(MetricEvent.PASS, MetricEvent.BLOCK) / metric.getWindowIntervalInSec();
     }
 
     @Override
@@ -254,12 +256,7 @@ public class StatisticNode implements Node {
 
     @Override
     public double avgRt() {
-        long successCount = rollingCounterInSecond.success();
-        if (successCount == 0) {
-            return 0;
-        }
-
-        return rollingCounterInSecond.rt() * 1.0 / successCount;
+        return rollingCounterInSecond.avgRt();
     }
 
     @Override
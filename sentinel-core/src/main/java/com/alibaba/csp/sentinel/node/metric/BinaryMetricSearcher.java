@@ -0,0 +1,147 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Searcher of the binary metric files written by {@link MetricWriter} (see {@link MetricRecordCodec}).</p>
+ *
+ * <p>Metric files are memory-mapped as immutable snapshots ({@link MappedMetricFile}), which are shared by
+ * concurrent queries and reopened only when the files grow. The first record of the given time is located by
+ * binary search on the per-second index, and resources are matched by their ids in the resource dictionary,
+ * so no string parsing or global lock is involved in searching.</p>
+ *
+ * @since 1.8.6
+ */
+public class BinaryMetricSearcher extends MetricSearcher {
+
+    /**
+     * Avoid OOM in any cases.
+     */
+    private static final int MAX_LINES_RETURN = 100000;
+
+    private final String baseDir;
+    private final String baseFileName;
+
+    private final ConcurrentMap<String, MappedMetricFile> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * @param baseDir      metric文件所在目录
+     * @param baseFileName binary metric文件名的关键字，参考{@link MetricWriter#formBinaryMetricFileName(String, int)}
+     */
+    public BinaryMetricSearcher(String baseDir, String baseFileName) {
+        super(baseDir, baseFileName);
+        this.baseDir = baseDir.endsWith(File.separator) ? baseDir : baseDir + File.separator;
+        this.baseFileName = baseFileName;
+    }
+
+    @Override
+    public List<MetricNode> find(long beginTimeMs, int recommendLines) throws Exception {
+        List<MappedMetricFile> files = openFiles();
+        long beginSecond = beginTimeMs / 1000;
+        for (int i = 0; i < files.size(); i++) {
+            MappedMetricFile file = files.get(i);
+            int record = file.findRecord(beginSecond);
+            if (record >= file.getRecordCount()) {
+                continue;
+            }
+            List<MetricNode> list = new ArrayList<>(recommendLines);
+            long lastSecond = -1;
+            for (; i < files.size(); i++, record = 0) {
+                file = files.get(i);
+                for (; record < file.getRecordCount(); record++) {
+                    long second = file.secondOf(record);
+                    // Data of the same second should not be split.
+                    if (list.size() >= recommendLines && second != lastSecond) {
+                        return list;
+                    }
+                    MetricNode node = file.read(record);
+                    if (node != null) {
+                        list.add(node);
+                    }
+                    lastSecond = second;
+                }
+            }
+            return list;
+        }
+        return null;
+    }
+
+    @Override
+    public List<MetricNode> findByTimeAndResource(long beginTimeMs, long endTimeMs, String identity)
+        throws Exception {
+        List<MappedMetricFile> files = openFiles();
+        long beginSecond = beginTimeMs / 1000;
+        long endSecond = endTimeMs / 1000;
+        for (int i = 0; i < files.size(); i++) {
+            int record = files.get(i).findRecord(beginSecond);
+            if (record >= files.get(i).getRecordCount()) {
+                continue;
+            }
+            List<MetricNode> list = new ArrayList<>(1024);
+            for (; i < files.size(); i++, record = 0) {
+                MappedMetricFile file = files.get(i);
+                int end = file.findRecord(endSecond + 1);
+                // Records of the latest second might be written before its index entry.
+                while (end > record && file.secondOf(end - 1) > endSecond) {
+                    end--;
+                }
+                if (identity == null) {
+                    for (; record < end && list.size() < MAX_LINES_RETURN; record++) {
+                        MetricNode node = file.read(record);
+                        if (node != null) {
+                            list.add(node);
+                        }
+                    }
+                } else {
+                    int id = file.resourceId(identity);
+                    for (; id >= 0 && record < end && list.size() < MAX_LINES_RETURN; record++) {
+                        if (file.resourceIdOf(record) == id) {
+                            list.add(file.read(record));
+                        }
+                    }
+                }
+                if (end < file.getRecordCount() || list.size() >= MAX_LINES_RETURN) {
+                    break;
+                }
+            }
+            return list;
+        }
+        return null;
+    }
+
+    private List<MappedMetricFile> openFiles() throws Exception {
+        List<String> fileNames = MetricWriter.listMetricFiles(baseDir, baseFileName);
+        List<MappedMetricFile> files = new ArrayList<>(fileNames.size());
+        for (String fileName : fileNames) {
+            MappedMetricFile file = snapshots.get(fileName);
+            if (file == null || file.isStale()) {
+                file = MappedMetricFile.open(fileName);
+                snapshots.put(fileName, file);
+            }
+            files.add(file);
+        }
+        // Release snapshots of the removed files.
+        snapshots.keySet().retainAll(new HashSet<>(fileNames));
+        return files;
+    }
+}
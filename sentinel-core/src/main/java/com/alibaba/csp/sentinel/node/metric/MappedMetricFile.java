@@ -0,0 +1,199 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Immutable read-only snapshot of a binary metric file, together with its index and resource dictionary.
+ * The metric file and the index file are memory-mapped, and only absolute reads are performed on the buffers,
+ * so a snapshot could be shared by concurrent readers without locking.</p>
+ *
+ * <p>The metric file might still be appended by {@link MetricWriter}; a snapshot only covers the data
+ * present when it was opened, see {@link #isStale()}.</p>
+ *
+ * @since 1.8.6
+ */
+final class MappedMetricFile {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final String fileName;
+    private final long metricLength;
+    private final long indexLength;
+
+    private final ByteBuffer data;
+    private final ByteBuffer index;
+    private final int recordCount;
+    private final int indexCount;
+
+    private final List<String> resources;
+    private final Map<String, Integer> resourceIds;
+
+    private MappedMetricFile(String fileName, long metricLength, long indexLength, ByteBuffer data, ByteBuffer index,
+                             List<String> resources, Map<String, Integer> resourceIds) {
+        this.fileName = fileName;
+        this.metricLength = metricLength;
+        this.indexLength = indexLength;
+        this.data = data;
+        this.index = index;
+        this.recordCount = data.capacity() / MetricRecordCodec.RECORD_SIZE;
+        this.indexCount = index.capacity() / MetricRecordCodec.INDEX_ENTRY_SIZE;
+        this.resources = resources;
+        this.resourceIds = resourceIds;
+    }
+
+    /**
+     * Open a snapshot of the given binary metric file. The index is mapped first and the resource dictionary
+     * is read last, as the writer writes them in the reverse order.
+     */
+    static MappedMetricFile open(String fileName) throws IOException {
+        String indexFileName = MetricWriter.formIndexFileName(fileName);
+        long indexLength = new File(indexFileName).length();
+        ByteBuffer index = map(indexFileName, indexLength, MetricRecordCodec.INDEX_ENTRY_SIZE);
+        long metricLength = new File(fileName).length();
+        ByteBuffer data = map(fileName, metricLength, MetricRecordCodec.RECORD_SIZE);
+
+        List<String> resources = new ArrayList<String>();
+        Map<String, Integer> resourceIds = new HashMap<String, Integer>();
+        readResources(MetricWriter.formResourceFileName(fileName), resources, resourceIds);
+        return new MappedMetricFile(fileName, metricLength, indexLength, data, index,
+            Collections.unmodifiableList(resources), Collections.unmodifiableMap(resourceIds));
+    }
+
+    private static ByteBuffer map(String fileName, long length, int unit) throws IOException {
+        long size = Math.min(length, Integer.MAX_VALUE) / unit * unit;
+        if (size <= 0) {
+            return EMPTY;
+        }
+        RandomAccessFile file = new RandomAccessFile(fileName, "r");
+        try {
+            // The mapping remains valid after the channel is closed.
+            return file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } finally {
+            file.close();
+        }
+    }
+
+    private static void readResources(String resourceFileName, List<String> resources,
+                                      Map<String, Integer> resourceIds) throws IOException {
+        File file = new File(resourceFileName);
+        if (!file.exists()) {
+            return;
+        }
+        byte[] bytes;
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            bytes = new byte[(int) in.length()];
+            in.readFully(bytes);
+        } finally {
+            in.close();
+        }
+        DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(bytes));
+        try {
+            while (true) {
+                int id = dataIn.readInt();
+                String resource = dataIn.readUTF();
+                if (id != resources.size()) {
+                    // Should not happen as ids are allocated sequentially.
+                    break;
+                }
+                resources.add(resource);
+                resourceIds.put(resource, id);
+            }
+        } catch (EOFException ignore) {
+            // The last entry might be partially written.
+        }
+    }
+
+    /**
+     * @return whether the metric file or the index file has grown since this snapshot was opened
+     */
+    boolean isStale() {
+        return new File(fileName).length() != metricLength
+            || new File(MetricWriter.formIndexFileName(fileName)).length() != indexLength;
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Find the first record whose second is not less than {@code second} via binary search on the index.
+     *
+     * @return the record number, or {@link #getRecordCount()} if absent
+     */
+    int findRecord(long second) {
+        int low = 0;
+        int high = indexCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (index.getLong(mid * MetricRecordCodec.INDEX_ENTRY_SIZE) < second) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (low >= indexCount) {
+            return recordCount;
+        }
+        long offset = index.getLong(low * MetricRecordCodec.INDEX_ENTRY_SIZE + 8);
+        return (int) Math.min(offset / MetricRecordCodec.RECORD_SIZE, recordCount);
+    }
+
+    long secondOf(int record) {
+        return MetricRecordCodec.timestamp(data, record * MetricRecordCodec.RECORD_SIZE) / 1000;
+    }
+
+    int resourceIdOf(int record) {
+        return MetricRecordCodec.resourceId(data, record * MetricRecordCodec.RECORD_SIZE);
+    }
+
+    /**
+     * @return id of the resource in this file, or -1 if absent
+     */
+    int resourceId(String resource) {
+        Integer id = resourceIds.get(resource);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return the decoded record, or null if its resource is not in this snapshot
+     */
+    MetricNode read(int record) {
+        int id = resourceIdOf(record);
+        if (id < 0 || id >= resources.size()) {
+            return null;
+        }
+        return MetricRecordCodec.decode(data, record * MetricRecordCodec.RECORD_SIZE, resources.get(id));
+    }
+}
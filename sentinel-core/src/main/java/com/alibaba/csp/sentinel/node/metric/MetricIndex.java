@@ -0,0 +1,111 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>Immutable snapshot of a metric index file, in which every entry is {@code | second(8) | offset(8) |}.</p>
+ *
+ * <p>A snapshot could be shared by concurrent readers. As the index file is append-only,
+ * a newer snapshot is created from the previous one by reading only the appended entries.</p>
+ *
+ * @since 1.8.6
+ */
+final class MetricIndex {
+
+    private static final int ENTRY_SIZE = 16;
+
+    private static final MetricIndex EMPTY = new MetricIndex(0, new long[0], new long[0]);
+
+    /**
+     * Length of the index file covered by this snapshot.
+     */
+    private final long length;
+    private final long[] seconds;
+    private final long[] offsets;
+
+    private MetricIndex(long length, long[] seconds, long[] offsets) {
+        this.length = length;
+        this.seconds = seconds;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Get a snapshot covering the current content of the index file.
+     *
+     * @param indexFileName name of the index file
+     * @param previous      previous snapshot of the same index file, could be null
+     * @return the previous snapshot if the index file does not grow, otherwise a new snapshot
+     */
+    static MetricIndex load(String indexFileName, MetricIndex previous) throws IOException {
+        if (previous == null) {
+            previous = EMPTY;
+        }
+        File file = new File(indexFileName);
+        // Partially written entry is ignored.
+        long length = file.length() / ENTRY_SIZE * ENTRY_SIZE;
+        if (length == previous.length) {
+            return previous;
+        }
+        if (length < previous.length) {
+            // Should not happen as the index file is append-only, unless the file is re-created.
+            previous = EMPTY;
+        }
+        int count = (int) (length / ENTRY_SIZE);
+        int oldCount = previous.seconds.length;
+        long[] seconds = Arrays.copyOf(previous.seconds, count);
+        long[] offsets = Arrays.copyOf(previous.offsets, count);
+
+        byte[] bytes = new byte[(count - oldCount) * ENTRY_SIZE];
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            in.seek(previous.length);
+            in.readFully(bytes);
+        } finally {
+            in.close();
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        for (int i = oldCount; i < count; i++) {
+            seconds[i] = buf.getLong();
+            offsets[i] = buf.getLong();
+        }
+        return new MetricIndex(length, seconds, offsets);
+    }
+
+    /**
+     * Find the offset in the metric file of the first second which is not less than {@code beginSecond}.
+     *
+     * @return the offset, or -1 if absent
+     */
+    long findOffset(long beginSecond) {
+        int low = 0;
+        int high = seconds.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (seconds[mid] < beginSecond) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low < seconds.length ? offsets[low] : -1;
+    }
+}
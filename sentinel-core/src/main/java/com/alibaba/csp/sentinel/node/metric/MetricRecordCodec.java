@@ -0,0 +1,89 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Fixed-width layout of a {@link MetricNode} record in the binary metric file (big-endian):</p>
+ * <pre>
+ * | timestamp(8) | resourceId(4) | classification(4) | concurrency(4) | reserved(4) |
+ * | passQps(8) | blockQps(8) | successQps(8) | exceptionQps(8) | rt(8) | occupiedPassQps(8) |
+ * </pre>
+ * <p>The resource name is stored only once per metric file in the resource dictionary file,
+ * see {@link MetricWriter#formResourceFileName(String)}.</p>
+ *
+ * @since 1.8.6
+ */
+final class MetricRecordCodec {
+
+    static final int RECORD_SIZE = 72;
+
+    private static final int TIMESTAMP = 0;
+    private static final int RESOURCE_ID = 8;
+    private static final int CLASSIFICATION = 12;
+    private static final int CONCURRENCY = 16;
+    private static final int PASS = 24;
+    private static final int BLOCK = 32;
+    private static final int SUCCESS = 40;
+    private static final int EXCEPTION = 48;
+    private static final int RT = 56;
+    private static final int OCCUPIED_PASS = 64;
+
+    /**
+     * Index entry: | second(8) | offset of the first record of the second(8) |
+     */
+    static final int INDEX_ENTRY_SIZE = 16;
+
+    static void encode(ByteBuffer buf, MetricNode node, int resourceId) {
+        buf.putLong(TIMESTAMP, node.getTimestamp());
+        buf.putInt(RESOURCE_ID, resourceId);
+        buf.putInt(CLASSIFICATION, node.getClassification());
+        buf.putInt(CONCURRENCY, node.getConcurrency());
+        buf.putInt(CONCURRENCY + 4, 0);
+        buf.putLong(PASS, node.getPassQps());
+        buf.putLong(BLOCK, node.getBlockQps());
+        buf.putLong(SUCCESS, node.getSuccessQps());
+        buf.putLong(EXCEPTION, node.getExceptionQps());
+        buf.putLong(RT, node.getRt());
+        buf.putLong(OCCUPIED_PASS, node.getOccupiedPassQps());
+    }
+
+    static long timestamp(ByteBuffer buf, int offset) {
+        return buf.getLong(offset + TIMESTAMP);
+    }
+
+    static int resourceId(ByteBuffer buf, int offset) {
+        return buf.getInt(offset + RESOURCE_ID);
+    }
+
+    static MetricNode decode(ByteBuffer buf, int offset, String resource) {
+        MetricNode node = new MetricNode();
+        node.setTimestamp(buf.getLong(offset + TIMESTAMP));
+        node.setResource(resource);
+        node.setClassification(buf.getInt(offset + CLASSIFICATION));
+        node.setConcurrency(buf.getInt(offset + CONCURRENCY));
+        node.setPassQps(buf.getLong(offset + PASS));
+        node.setBlockQps(buf.getLong(offset + BLOCK));
+        node.setSuccessQps(buf.getLong(offset + SUCCESS));
+        node.setExceptionQps(buf.getLong(offset + EXCEPTION));
+        node.setRt(buf.getLong(offset + RT));
+        node.setOccupiedPassQps(buf.getLong(offset + OCCUPIED_PASS));
+        return node;
+    }
+
+    private MetricRecordCodec() {}
+}
@@ -15,19 +15,23 @@
  */
 package com.alibaba.csp.sentinel.node.metric;
 
-import java.io.DataInputStream;
-import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
 import java.nio.charset.Charset;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 
 /**
  * 从指定目录下找出所有的metric文件，并按照指定时间戳进行检索，参考{@link MetricSearcher#find(long, int)}。
- * 会借助索引以提高检索效率，参考{@link MetricWriter}；还会在内部缓存上一次检索的文件指针，以便下一次顺序检索时
- * 减少读盘次数。
+ * 会借助索引以提高检索效率，参考{@link MetricWriter}。
+ * <p>
+ * Since 1.8.6, the searcher is safe for concurrent queries without locking: the index of every metric file
+ * is cached as an immutable snapshot ({@link MetricIndex}), which is extended incrementally when the index
+ * file grows, and binary searched by each query.
+ * </p>
  *
  * @author leyou
  */
@@ -39,7 +43,10 @@ public class MetricSearcher {
     private String baseDir;
     private String baseFileName;
 
-    private Position lastPosition = new Position();
+    /**
+     * Index snapshots of metric files (index file name as the key).
+     */
+    private final ConcurrentMap<String, MetricIndex> indexes = new ConcurrentHashMap<>();
 
     /**
      * @param baseDir      metric文件所在目录
@@ -81,23 +88,10 @@ public class MetricSearcher {
      * @return
      * @throws Exception
      */
-    public synchronized List<MetricNode> find(long beginTimeMs, int recommendLines) throws Exception {
+    public List<MetricNode> find(long beginTimeMs, int recommendLines) throws Exception {
         List<String> fileNames = MetricWriter.listMetricFiles(baseDir, baseFileName);
-        int i = 0;
-        long offsetInIndex = 0;
-        if (validPosition(beginTimeMs)) {
-            i = fileNames.indexOf(lastPosition.metricFileName);
-            if (i == -1) {
-                i = 0;
-            } else {
-                offsetInIndex = lastPosition.offsetInIndex;
-            }
-        }
-        for (; i < fileNames.size(); i++) {
-            String fileName = fileNames.get(i);
-            long offset = findOffset(beginTimeMs, fileName,
-                MetricWriter.formIndexFileName(fileName), offsetInIndex);
-            offsetInIndex = 0;
+        for (int i = 0; i < fileNames.size(); i++) {
+            long offset = findOffset(beginTimeMs, fileNames.get(i));
             if (offset != -1) {
                 return metricsReader.readMetrics(fileNames, i, offset, recommendLines);
             }
@@ -110,29 +104,11 @@ public class MetricSearcher {
      * When identity is null, all metric between the time intervalMs will be read, otherwise, only the specific
      * identity will be read.
      */
-    public synchronized List<MetricNode> findByTimeAndResource(long beginTimeMs, long endTimeMs, String identity)
+    public List<MetricNode> findByTimeAndResource(long beginTimeMs, long endTimeMs, String identity)
         throws Exception {
         List<String> fileNames = MetricWriter.listMetricFiles(baseDir, baseFileName);
-        //RecordLog.info("pid=" + pid + ", findByTimeAndResource([" + beginTimeMs + ", " + endTimeMs
-        //    + "], " + identity + ")");
-        int i = 0;
-        long offsetInIndex = 0;
-        if (validPosition(beginTimeMs)) {
-            i = fileNames.indexOf(lastPosition.metricFileName);
-            if (i == -1) {
-                i = 0;
-            } else {
-                offsetInIndex = lastPosition.offsetInIndex;
-            }
-        } else {
-            //RecordLog.info("lastPosition is invalidate, will re iterate all files, pid = " + pid);
-        }
-
-        for (; i < fileNames.size(); i++) {
-            String fileName = fileNames.get(i);
-            long offset = findOffset(beginTimeMs, fileName,
-                    MetricWriter.formIndexFileName(fileName), offsetInIndex);
-            offsetInIndex = 0;
+        for (int i = 0; i < fileNames.size(); i++) {
+            long offset = findOffset(beginTimeMs, fileNames.get(i));
             if (offset != -1) {
                 return metricsReader.readMetricsByEndTime(fileNames, i, offset, beginTimeMs, endTimeMs, identity);
             }
@@ -140,84 +116,32 @@ public class MetricSearcher {
         return null;
     }
 
-    /**
-     * 记录上一次读取的index文件位置和数值
-     */
-    private static final class Position {
-        String metricFileName;
-        String indexFileName;
-        /**
-         * 索引文件内的偏移
-         */
-        long offsetInIndex;
-        /**
-         * 索引文件中offsetInIndex位置上的数字，秒数。
-         */
-        long second;
-    }
-
-    /**
-     * The position we cached is useful only when {@code beginTimeMs} is >= {@code lastPosition.second}
-     * and the index file exists and the second we cached is same as in the index file.
-     */
-    private boolean validPosition(long beginTimeMs) {
-        if (beginTimeMs / 1000 < lastPosition.second) {
-            return false;
-        }
-        if (lastPosition.indexFileName == null) {
-            return false;
-        }
-        // index file dose not exits
-        if (!new File(lastPosition.indexFileName).exists()) {
-            return false;
+    private long findOffset(long beginTime, String metricFileName) throws Exception {
+        String idxFileName = MetricWriter.formIndexFileName(metricFileName);
+        if (!new File(idxFileName).exists()) {
+            indexes.remove(idxFileName);
+            return -1;
         }
-        FileInputStream in = null;
-        try {
-            in = new FileInputStream(lastPosition.indexFileName);
-            in.getChannel().position(lastPosition.offsetInIndex);
-            DataInputStream indexIn = new DataInputStream(in);
-            // timestamp(second) in the specific position == that we cached
-            return indexIn.readLong() == lastPosition.second;
-        } catch (Exception e) {
-            return false;
-        } finally {
-            if (in != null) {
-                try {
-                    in.close();
-                } catch (Exception ignore) {
-                }
+        MetricIndex previous = indexes.get(idxFileName);
+        MetricIndex index = MetricIndex.load(idxFileName, previous);
+        if (index != previous) {
+            indexes.put(idxFileName, index);
+            if (previous == null) {
+                removeStaleIndexes();
             }
         }
+        return index.findOffset(beginTime / 1000);
     }
 
-    private long findOffset(long beginTime, String metricFileName,
-                            String idxFileName, long offsetInIndex) throws Exception {
-        lastPosition.metricFileName = null;
-        lastPosition.indexFileName = null;
-        if (!new File(idxFileName).exists()) {
-            return -1;
-        }
-        long beginSecond = beginTime / 1000;
-        FileInputStream in = new FileInputStream(idxFileName);
-        in.getChannel().position(offsetInIndex);
-        DataInputStream indexIn = new DataInputStream(in);
-        long offset;
-        try {
-            long second;
-            lastPosition.offsetInIndex = in.getChannel().position();
-            while ((second = indexIn.readLong()) < beginSecond) {
-                offset = indexIn.readLong();
-                lastPosition.offsetInIndex = in.getChannel().position();
-            }
-            offset = indexIn.readLong();
-            lastPosition.metricFileName = metricFileName;
-            lastPosition.indexFileName = idxFileName;
-            lastPosition.second = second;
-            return offset;
-        } catch (EOFException ignore) {
-            return -1;
-        } finally {
-            indexIn.close();
+    /**
+     * Remove snapshots of the metric files which have been deleted.
+     */
+    private void removeStaleIndexes() throws Exception {
+        List<String> fileNames = MetricWriter.listMetricFiles(baseDir, baseFileName);
+        HashSet<String> idxFileNames = new HashSet<>(fileNames.size());
+        for (String fileName : fileNames) {
+            idxFileNames.add(MetricWriter.formIndexFileName(fileName));
         }
+        indexes.keySet().retainAll(idxFileNames);
     }
 }
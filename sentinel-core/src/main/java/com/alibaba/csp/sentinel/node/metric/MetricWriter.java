@@ -19,13 +19,16 @@ import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.alibaba.csp.sentinel.log.LogBase;
 import com.alibaba.csp.sentinel.util.PidUtil;
@@ -41,6 +44,13 @@ import com.alibaba.csp.sentinel.log.RecordLog;
  * <li>metric of different day should in different file;</li>
  * <li>every metric file is accompanied with an index file, which file name is {@code ${metricFileName}.idx}</li>
  * </ol>
+ * <p>
+ * Since 1.8.6, metrics could also be written in the binary format (see {@link SentinelConfig#METRIC_FILE_FORMAT}),
+ * with file name like {@code ${appName}-metrics.bin.pid${pid}.yyyy-MM-dd.[number]}. Every {@link MetricNode} is
+ * written as a fixed-width record (see {@link MetricRecordCodec}), the resource name is replaced with an id
+ * registered in the resource dictionary file ({@code ${metricFileName}.res}), and the index file holds an entry
+ * for every second. Binary metric files could be searched by {@link BinaryMetricSearcher}.
+ * </p>
  *
  * @author Carpenter Lee
  */
@@ -56,6 +66,16 @@ public class MetricWriter {
      */
     public static final String METRIC_FILE = "metrics.log";
     public static final String METRIC_FILE_INDEX_SUFFIX = ".idx";
+    /**
+     * @since 1.8.6
+     */
+    public static final String METRIC_BINARY_FILE = "metrics.bin";
+    /**
+     * Suffix of the resource dictionary file of binary metric files.
+     *
+     * @since 1.8.6
+     */
+    public static final String METRIC_FILE_RESOURCE_SUFFIX = ".res";
     public static final Comparator<String> METRIC_FILE_NAME_CMP = new MetricFileNameComparator();
 
     private final DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -79,6 +99,15 @@ public class MetricWriter {
     private boolean append = false;
     private final int pid = PidUtil.getPid();
 
+    private final boolean binary;
+    private DataOutputStream outResource;
+    private final Map<String, Integer> resourceIds = new HashMap<String, Integer>();
+    private final ByteBuffer recordBuf = ByteBuffer.allocate(MetricRecordCodec.RECORD_SIZE);
+    /**
+     * The last second indexed in current binary metric file.
+     */
+    private long indexedSecond = -1;
+
     /**
      * 秒级统计，忽略毫秒数。
      */
@@ -89,12 +118,27 @@ public class MetricWriter {
     }
 
     public MetricWriter(long singleFileSize, int totalFileCount) {
+        this(singleFileSize, totalFileCount, false);
+    }
+
+    /**
+     * @param singleFileSize max size of single metric file
+     * @param totalFileCount max count of metric files
+     * @param binary         whether to write metrics in the binary format
+     * @since 1.8.6
+     */
+    public MetricWriter(long singleFileSize, int totalFileCount, boolean binary) {
+        this(METRIC_BASE_DIR, singleFileSize, totalFileCount, binary);
+    }
+
+    MetricWriter(String baseDir, long singleFileSize, int totalFileCount, boolean binary) {
         if (singleFileSize <= 0 || totalFileCount <= 0) {
             throw new IllegalArgumentException();
         }
-        RecordLog.info("[MetricWriter] Creating new MetricWriter, singleFileSize={}, totalFileCount={}",
-            singleFileSize, totalFileCount);
-        this.baseDir = METRIC_BASE_DIR;
+        RecordLog.info("[MetricWriter] Creating new MetricWriter, singleFileSize={}, totalFileCount={}, binary={}",
+            singleFileSize, totalFileCount, binary);
+        this.baseDir = baseDir;
+        this.binary = binary;
         File dir = new File(baseDir);
         if (!dir.exists()) {
             dir.mkdirs();
@@ -131,12 +175,16 @@ public class MetricWriter {
         }
         // first write, should create file
         if (curMetricFile == null) {
-            baseFileName = formMetricFileName(appName, pid);
+            baseFileName = binary ? formBinaryMetricFileName(appName, pid) : formMetricFileName(appName, pid);
             closeAndNewFile(nextFileNameOfDay(time));
         }
         if (!(curMetricFile.exists() && curMetricIndexFile.exists())) {
             closeAndNewFile(nextFileNameOfDay(time));
         }
+        if (binary) {
+            writeBinary(time, nodes);
+            return;
+        }
 
         long second = time / 1000;
         if (second < lastSecond) {
@@ -173,6 +221,52 @@ public class MetricWriter {
         }
     }
 
+    /**
+     * Write metrics of the same second in the binary format. The resource dictionary is written and flushed
+     * before the records, and the index entry of a second is written after its first records are flushed,
+     * so readers never see an index entry or resource id which is not written yet.
+     */
+    private void writeBinary(long time, List<MetricNode> nodes) throws Exception {
+        long second = time / 1000;
+        if (second < lastSecond) {
+            return;
+        }
+        if (second > lastSecond && isNewDay(lastSecond, second)) {
+            closeAndNewFile(nextFileNameOfDay(time));
+        }
+        int[] ids = new int[nodes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = resourceId(nodes.get(i).getResource());
+        }
+        outResource.flush();
+
+        long offset = outMetric.getChannel().position();
+        for (int i = 0; i < ids.length; i++) {
+            MetricRecordCodec.encode(recordBuf, nodes.get(i), ids[i]);
+            outMetricBuf.write(recordBuf.array());
+        }
+        outMetricBuf.flush();
+        if (second != indexedSecond) {
+            writeIndex(second, offset);
+            indexedSecond = second;
+        }
+        lastSecond = second;
+        if (!validSize()) {
+            closeAndNewFile(nextFileNameOfDay(time));
+        }
+    }
+
+    private int resourceId(String resource) throws Exception {
+        Integer id = resourceIds.get(resource);
+        if (id == null) {
+            id = resourceIds.size();
+            resourceIds.put(resource, id);
+            outResource.writeInt(id);
+            outResource.writeUTF(resource);
+        }
+        return id;
+    }
+
     public synchronized void close() throws Exception {
         if (outMetricBuf != null) {
             outMetricBuf.close();
@@ -180,6 +274,9 @@ public class MetricWriter {
         if (outIndex != null) {
             outIndex.close();
         }
+        if (outResource != null) {
+            outResource.close();
+        }
     }
 
     private void writeIndex(long time, long offset) throws Exception {
@@ -198,6 +295,7 @@ public class MetricWriter {
             String fileName = file.getName();
             if (fileName.contains(fileNameModel)
                 && !fileName.endsWith(METRIC_FILE_INDEX_SUFFIX)
+                && !fileName.endsWith(METRIC_FILE_RESOURCE_SUFFIX)
                 && !fileName.endsWith(".lck")) {
                 list.add(file.getAbsolutePath());
             }
@@ -330,6 +428,11 @@ public class MetricWriter {
             RecordLog.info("[MetricWriter] Removing metric file: {}", fileName);
             new File(indexFile).delete();
             RecordLog.info("[MetricWriter] Removing metric index file: {}", indexFile);
+            File resourceFile = new File(formResourceFileName(fileName));
+            if (resourceFile.exists()) {
+                resourceFile.delete();
+                RecordLog.info("[MetricWriter] Removing metric resource file: {}", resourceFile.getAbsolutePath());
+            }
         }
     }
 
@@ -341,6 +444,9 @@ public class MetricWriter {
         if (outIndex != null) {
             outIndex.close();
         }
+        if (outResource != null) {
+            outResource.close();
+        }
         outMetric = new FileOutputStream(fileName, append);
         outMetricBuf = new BufferedOutputStream(outMetric);
         curMetricFile = new File(fileName);
@@ -349,6 +455,13 @@ public class MetricWriter {
         outIndex = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(idxFile, append)));
         RecordLog.info("[MetricWriter] New metric file created: {}", fileName);
         RecordLog.info("[MetricWriter] New metric index file created: {}", idxFile);
+        if (binary) {
+            String resourceFile = formResourceFileName(fileName);
+            outResource = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(resourceFile, append)));
+            resourceIds.clear();
+            indexedSecond = -1;
+            RecordLog.info("[MetricWriter] New metric resource file created: {}", resourceFile);
+        }
     }
 
     private boolean validSize() throws Exception {
@@ -374,6 +487,23 @@ public class MetricWriter {
      * @return metric file name.
      */
     public static String formMetricFileName(String appName, int pid) {
+        return formMetricFileName(appName, pid, METRIC_FILE);
+    }
+
+    /**
+     * Form binary metric file name use the specific appName and pid. Note that only
+     * form the file name, not include path.
+     *
+     * @param appName
+     * @param pid
+     * @return binary metric file name.
+     * @since 1.8.6
+     */
+    public static String formBinaryMetricFileName(String appName, int pid) {
+        return formMetricFileName(appName, pid, METRIC_BINARY_FILE);
+    }
+
+    private static String formMetricFileName(String appName, int pid, String metricFile) {
         if (appName == null) {
             appName = "";
         }
@@ -383,7 +513,7 @@ public class MetricWriter {
         if (appName.contains(dot)) {
             appName = appName.replace(dot, separator);
         }
-        String name = appName + separator + METRIC_FILE;
+        String name = appName + separator + metricFile;
         if (LogBase.isLogNameUsePid()) {
             name += ".pid" + pid;
         }
@@ -399,4 +529,15 @@ public class MetricWriter {
     public static String formIndexFileName(String metricFileName) {
         return metricFileName + METRIC_FILE_INDEX_SUFFIX;
     }
+
+    /**
+     * Form resource dictionary file name of the binary {@code metricFileName}
+     *
+     * @param metricFileName
+     * @return the resource dictionary file name of the metricFileName
+     * @since 1.8.6
+     */
+    public static String formResourceFileName(String metricFileName) {
+        return metricFileName + METRIC_FILE_RESOURCE_SUFFIX;
+    }
 }
@@ -16,7 +16,9 @@
 package com.alibaba.csp.sentinel.property;
 
 /**
- * This class holds callback method when {@link SentinelProperty#updateValue(Object)} need inform the listener
+ * This class holds callback method when {@link SentinelProperty#updateValue(Object)} need inform the listener.
+ * Listeners of rules could compute the {@link RuleDiff} from the previous rules, so that only the changed rules
+ * are rebuilt.
  *
  * @author jialiang.linjl
  */
@@ -0,0 +1,129 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.property;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Difference between the previous and the new rules of a property update, computed in linear time
+ * by the {@code equals} and {@code hashCode} of the rules.</p>
+ *
+ * <p>Property listeners could use it to skip the rebuild when nothing has changed, and to keep the state
+ * (e.g. traffic shaping controllers or circuit breakers) of the retained rules, so that only the changed
+ * rules are rebuilt.</p>
+ *
+ * @param <R> rule type
+ * @since 1.8.6
+ */
+public final class RuleDiff<R> {
+
+    /**
+     * (new rule, previous equal rule)
+     */
+    private final Map<R, R> retained;
+    private final List<R> added;
+    private final List<R> removed;
+
+    private RuleDiff(Map<R, R> retained, List<R> added, List<R> removed) {
+        this.retained = retained;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    /**
+     * Compute the difference between the previous and the new rules. Duplicate rules are regarded as one.
+     * A rule instance present in both is regarded as removed and re-added, as it might have been modified
+     * in place.
+     *
+     * @param oldRules previous rules, could be null
+     * @param newRules new rules, could be null
+     * @param <R>      rule type
+     * @return the difference
+     */
+    public static <R> RuleDiff<R> of(Collection<? extends R> oldRules, Collection<? extends R> newRules) {
+        Map<R, R> oldIndex = new HashMap<>();
+        if (oldRules != null) {
+            for (R rule : oldRules) {
+                if (rule != null && !oldIndex.containsKey(rule)) {
+                    oldIndex.put(rule, rule);
+                }
+            }
+        }
+        Map<R, R> retained = new HashMap<>();
+        Set<R> added = new LinkedHashSet<>();
+        if (newRules != null) {
+            for (R rule : newRules) {
+                if (rule == null || retained.containsKey(rule)) {
+                    continue;
+                }
+                R previous = oldIndex.get(rule);
+                // The same instance might have been modified in place, so it's regarded as changed.
+                if (previous != null && previous != rule) {
+                    oldIndex.remove(rule);
+                    retained.put(rule, previous);
+                } else {
+                    added.add(rule);
+                }
+            }
+        }
+        return new RuleDiff<>(retained, new ArrayList<>(added), new ArrayList<>(oldIndex.keySet()));
+    }
+
+    /**
+     * Get the previous rule which equals to the given new rule.
+     *
+     * @param rule the new rule
+     * @return the previous equal rule, or null if the rule is newly added
+     */
+    public R getRetained(R rule) {
+        return rule == null ? null : retained.get(rule);
+    }
+
+    public List<R> getAdded() {
+        return Collections.unmodifiableList(added);
+    }
+
+    public List<R> getRemoved() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    public int getRetainedCount() {
+        return retained.size();
+    }
+
+    /**
+     * @return true if any rule has been added or removed
+     */
+    public boolean hasChanges() {
+        return !added.isEmpty() || !removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "RuleDiff{" +
+            "added=" + added.size() +
+            ", removed=" + removed.size() +
+            ", retained=" + retained.size() +
+            '}';
+    }
+}
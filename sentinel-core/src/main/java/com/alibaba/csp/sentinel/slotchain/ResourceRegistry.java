@@ -0,0 +1,157 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slotchain;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+/**
+ * <p>A concurrent registry for the per-resource (or per-context) objects such as slot chains,
+ * cluster nodes and entrance nodes, with an optional upper bound of the amount of entries.</p>
+ *
+ * <p>Former implementations used a copy-on-write {@code HashMap} guarded by a global lock, which means
+ * each new key copies the whole map. When a lot of distinct resources come up in a short time
+ * (e.g. URL or parameter derived resource names), that becomes O(n^2) and all threads stall on the lock.
+ * This registry is backed by a {@link ConcurrentHashMap}, so lookups are lock-free and creation of
+ * a new entry only locks one of the lock stripes. The stripes are {@link ReentrantLock}s rather than the bin
+ * monitors of {@code computeIfAbsent}, as the factory might be slow (see
+ * {@link com.alibaba.csp.sentinel.config.SentinelConfig#VIRTUAL_THREAD_MODE_ENABLED}).</p>
+ *
+ * <p>Note that the capacity is checked before an entry is created, so under heavy concurrent creation
+ * of distinct keys the capacity may be slightly exceeded (at most by the amount of concurrent creators).</p>
+ *
+ * @param <K> type of the key
+ * @param <V> type of the value
+ * @since 1.8.6
+ */
+public final class ResourceRegistry<K, V> {
+
+    private static final int LOCK_STRIPES = 16;
+
+    private final ConcurrentMap<K, V> map;
+    private final int maxSize;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * Create an unbounded registry.
+     */
+    public ResourceRegistry() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a registry which holds {@code maxSize} entries at most.
+     *
+     * @param maxSize max amount of entries, should be positive
+     */
+    public ResourceRegistry(int maxSize) {
+        AssertUtil.isTrue(maxSize > 0, "maxSize should be positive");
+        this.maxSize = maxSize;
+        this.map = new ConcurrentHashMap<>(Math.min(maxSize, 64));
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Get the value associated with the key.
+     *
+     * @param key the key
+     * @return associated value, or null if absent
+     */
+    public V get(K key) {
+        return map.get(key);
+    }
+
+    /**
+     * <p>Get the value associated with the key, or create a new one via the given factory if absent.</p>
+     *
+     * <p>The factory will be invoked at most once for the same key (unless it's replaced via {@link #put}),
+     * and lookups of existing keys will not be blocked during the creation.</p>
+     *
+     * @param key     the key
+     * @param factory factory for creating the value of absent key
+     * @return associated value; null if the key is absent and the registry is full
+     */
+    public V getOrCreate(K key, final Function<? super K, ? extends V> factory) {
+        V value = map.get(key);
+        if (value != null) {
+            return value;
+        }
+        if (map.size() >= maxSize) {
+            return null;
+        }
+        int h = key.hashCode();
+        ReentrantLock lock = locks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+        lock.lock();
+        try {
+            value = map.get(key);
+            if (value != null || map.size() >= maxSize) {
+                return value;
+            }
+            value = factory.apply(key);
+            if (value == null) {
+                return null;
+            }
+            V previous = map.putIfAbsent(key, value);
+            return previous == null ? value : previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Associate the value with the key regardless of the capacity, replacing the existing one.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value, or null if absent
+     */
+    public V put(K key, V value) {
+        return map.put(key, value);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isFull() {
+        return map.size() >= maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    /**
+     * Get a live view of the registry. Iteration over the view is weakly consistent
+     * and never throws {@link java.util.ConcurrentModificationException}.
+     *
+     * @return the live map view
+     */
+    public Map<K, V> asMap() {
+        return map;
+    }
+}
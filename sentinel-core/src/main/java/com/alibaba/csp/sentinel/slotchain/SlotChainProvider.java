@@ -30,31 +30,40 @@ public final class SlotChainProvider {
     private static volatile SlotChainBuilder slotChainBuilder = null;
 
     /**
-     * The load and pick process is not thread-safe, but it's okay since the method should be only invoked
-     * via {@code lookProcessChain} in {@link com.alibaba.csp.sentinel.CtSph} under lock.
+     * Create a new slot chain via the resolved slot chain builder. Slot chains are created concurrently
+     * via {@code lookProcessChain} in {@link com.alibaba.csp.sentinel.CtSph}, so the builder is
+     * resolved under lock for only once.
      *
      * @return new created slot chain
      */
     public static ProcessorSlotChain newSlotChain() {
-        if (slotChainBuilder != null) {
-            return slotChainBuilder.build();
+        SlotChainBuilder builder = slotChainBuilder;
+        if (builder == null) {
+            builder = resolveSlotChainBuilder();
         }
+        /**
+         * @see DefaultSlotChainBuilder#build()
+         */
+        return builder.build();
+    }
 
+    private static synchronized SlotChainBuilder resolveSlotChainBuilder() {
+        if (slotChainBuilder != null) {
+            return slotChainBuilder;
+        }
         // Resolve the slot chain builder SPI.
-        slotChainBuilder = SpiLoader.of(SlotChainBuilder.class).loadFirstInstanceOrDefault();
+        SlotChainBuilder builder = SpiLoader.of(SlotChainBuilder.class).loadFirstInstanceOrDefault();
 
-        if (slotChainBuilder == null) {
+        if (builder == null) {
             // Should not go through here.
             RecordLog.warn("[SlotChainProvider] Wrong state when resolving slot chain builder, using default");
-            slotChainBuilder = new DefaultSlotChainBuilder();
+            builder = new DefaultSlotChainBuilder();
         } else {
             RecordLog.info("[SlotChainProvider] Global slot chain builder resolved: {}",
-                slotChainBuilder.getClass().getCanonicalName());
+                builder.getClass().getCanonicalName());
         }
-        /**
-         * @see DefaultSlotChainBuilder#build()
-         */
-        return slotChainBuilder.build();
+        slotChainBuilder = builder;
+        return builder;
     }
 
     private SlotChainProvider() {}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block;
+
+/**
+ * <p>The rules (or rule checkers) of a single resource, resolved into an immutable array for the
+ * rule checking slot of the resource's slot chain, so that the checking needs no lookup in the rule map.</p>
+ *
+ * <p>Rule managers never modify a published rule map but replace it as a whole on each update, so the
+ * published map works as the epoch of the rules: the array is resolved again once the manager has
+ * published a new map (see {@link #isCompiledFrom(Object, String)}).</p>
+ *
+ * @param <R> type of the rules or rule checkers
+ * @since 1.8.6
+ */
+public final class CompiledResourceRules<R> {
+
+    private final Object ruleMap;
+    private final String resourceName;
+    private final R[] rules;
+
+    public CompiledResourceRules(Object ruleMap, String resourceName, R[] rules) {
+        this.ruleMap = ruleMap;
+        this.resourceName = resourceName;
+        this.rules = rules;
+    }
+
+    /**
+     * Check whether the rules are resolved from the given rule map for the given resource.
+     *
+     * @param ruleMap      the rule map currently published by the rule manager
+     * @param resourceName name of the resource
+     * @return true if the rules are up to date
+     */
+    public boolean isCompiledFrom(Object ruleMap, String resourceName) {
+        // The slot is bound to a single resource, so the names are usually the same instance.
+        return this.ruleMap == ruleMap
+            && (this.resourceName == resourceName || this.resourceName.equals(resourceName));
+    }
+
+    /**
+     * @return rules of the resource, which MUST NOT be modified
+     */
+    public R[] getRules() {
+        return rules;
+    }
+}
@@ -35,10 +35,22 @@ public final class RuleConstant {
      * Degrade by biz exception count in the last 60 seconds.
      */
     public static final int DEGRADE_GRADE_EXCEPTION_COUNT = 2;
+    /**
+     * Degrade by the percentile (e.g. p99) of response time in the statistic interval.
+     *
+     * @since 1.8.6
+     */
+    public static final int DEGRADE_GRADE_RT_PERCENTILE = 3;
 
     public static final int DEGRADE_DEFAULT_SLOW_REQUEST_AMOUNT = 5;
     public static final int DEGRADE_DEFAULT_MIN_REQUEST_AMOUNT = 5;
 
+    /**
+     * Adaptive concurrency limit strategies of {@code ConcurrencyLimitRule} (since 1.8.6).
+     */
+    public static final int CONCURRENCY_LIMIT_GRADIENT = 0;
+    public static final int CONCURRENCY_LIMIT_VEGAS = 1;
+
     public static final int AUTHORITY_WHITE = 0;
     public static final int AUTHORITY_BLACK = 1;
 
@@ -15,6 +15,10 @@
  */
 package com.alibaba.csp.sentinel.slots.block.authority;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import com.alibaba.csp.sentinel.slots.block.AbstractRule;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 
@@ -30,6 +34,13 @@ public class AuthorityRule extends AbstractRule {
      */
     private int strategy = RuleConstant.AUTHORITY_WHITE;
 
+    /**
+     * The parsed set of the comma-separated limit apps, compiled when the rule is loaded
+     * to {@link AuthorityRuleManager}, and the limit app string it's parsed from.
+     */
+    private transient Set<String> limitAppSet;
+    private transient String parsedLimitApp;
+
     public int getStrategy() {
         return strategy;
     }
@@ -39,6 +50,23 @@ public class AuthorityRule extends AbstractRule {
         return this;
     }
 
+    void compileLimitApps() {
+        String limitApp = getLimitApp();
+        Set<String> apps = new HashSet<>();
+        if (limitApp != null) {
+            Collections.addAll(apps, limitApp.split(","));
+        }
+        this.limitAppSet = Collections.unmodifiableSet(apps);
+        this.parsedLimitApp = limitApp;
+    }
+
+    /**
+     * @return the parsed set of limit apps, or null if not compiled or the limit app has been changed since
+     */
+    Set<String> getLimitAppSet() {
+        return parsedLimitApp == getLimitApp() ? limitAppSet : null;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.slots.block.authority;
 
+import java.util.Set;
+
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.util.StringUtil;
@@ -35,21 +37,13 @@ final class AuthorityRuleChecker {
             return true;
         }
 
-        // Do exact match with origin name. 与原始名称完全匹配。
-        int pos = rule.getLimitApp().indexOf(requester);
-        boolean contain = pos > -1;
-
-        if (contain) {
-            boolean exactlyMatch = false;
-            String[] appArray = rule.getLimitApp().split(",");
-            for (String app : appArray) {
-                if (requester.equals(app)) {
-                    exactlyMatch = true;
-                    break;
-                }
-            }
-
-            contain = exactlyMatch;
+        boolean contain;
+        Set<String> limitAppSet = rule.getLimitAppSet();
+        if (limitAppSet != null) {
+            // Rules loaded to AuthorityRuleManager carry the pre-split limit apps.
+            contain = limitAppSet.contains(requester);
+        } else {
+            contain = containsExactly(rule.getLimitApp(), requester);
         }
         // 判断是否存在黑名单中
         int strategy = rule.getStrategy();
@@ -64,5 +58,19 @@ final class AuthorityRuleChecker {
         return true;
     }
 
+    private static boolean containsExactly(String limitApp, String requester) {
+        // Do exact match with origin name. 与原始名称完全匹配。
+        if (limitApp.indexOf(requester) < 0) {
+            return false;
+        }
+        String[] appArray = limitApp.split(",");
+        for (String app : appArray) {
+            if (requester.equals(app)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private AuthorityRuleChecker() {}
 }
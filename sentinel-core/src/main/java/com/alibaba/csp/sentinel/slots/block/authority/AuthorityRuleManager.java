@@ -122,6 +122,7 @@ public final class AuthorityRuleManager {
                 if (StringUtil.isBlank(rule.getLimitApp())) {
                     rule.setLimitApp(RuleConstant.LIMIT_APP_DEFAULT);
                 }
+                rule.compileLimitApps();
 
                 String identity = rule.getResource();
                 Set<AuthorityRule> ruleSet = newRuleMap.get(identity);
@@ -24,18 +24,28 @@ import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.CompiledResourceRules;
 import com.alibaba.csp.sentinel.slots.system.SystemSlot;
 import com.alibaba.csp.sentinel.spi.Spi;
 
 /**
  * A {@link ProcessorSlot} that dedicates to {@link AuthorityRule} checking.
+ * The slot is created for each slot chain and keeps the authority rules of its resource in an array,
+ * which is resolved again once new rules are loaded to {@link AuthorityRuleManager}.
  *
  * @author leyou
  * @author Eric Zhao
  */
-@Spi(order = Constants.ORDER_AUTHORITY_SLOT)
+@Spi(isSingleton = false, order = Constants.ORDER_AUTHORITY_SLOT)
 public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
+    private static final AuthorityRule[] NO_RULES = new AuthorityRule[0];
+
+    /**
+     * Authority rules of the resource of this slot.
+     */
+    private volatile CompiledResourceRules<AuthorityRule> compiledRules;
+
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count, boolean prioritized, Object... args)
         throws Throwable {
@@ -66,16 +76,7 @@ public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
      * @throws AuthorityException
      */
     void checkBlackWhiteAuthority(ResourceWrapper resource, Context context) throws AuthorityException {
-        Map<String, Set<AuthorityRule>> authorityRules = AuthorityRuleManager.getAuthorityRules();
-
-        if (authorityRules == null) {
-            return;
-        }
-
-        Set<AuthorityRule> rules = authorityRules.get(resource.getName());
-        if (rules == null) {
-            return;
-        }
+        AuthorityRule[] rules = rulesOf(resource.getName());
 
         // 遍历授权规则
         for (AuthorityRule rule : rules) {
@@ -85,4 +86,19 @@ public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
             }
         }
     }
+
+    AuthorityRule[] rulesOf(String resourceName) {
+        Map<String, Set<AuthorityRule>> authorityRules = AuthorityRuleManager.getAuthorityRules();
+        if (authorityRules == null) {
+            return NO_RULES;
+        }
+        CompiledResourceRules<AuthorityRule> compiled = this.compiledRules;
+        if (compiled == null || !compiled.isCompiledFrom(authorityRules, resourceName)) {
+            Set<AuthorityRule> rules = authorityRules.get(resourceName);
+            compiled = new CompiledResourceRules<AuthorityRule>(authorityRules, resourceName,
+                rules == null ? NO_RULES : rules.toArray(new AuthorityRule[0]));
+            this.compiledRules = compiled;
+        }
+        return compiled.getRules();
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.concurrency;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Base of the adaptive concurrency limiters. The limit is estimated lazily on the request path:
+ * at most once per {@link ConcurrencyLimitRule#getUpdateIntervalMs()}, the request that wins the update
+ * reads the RT, min RT and success QPS of the resource from its {@link Node} (which are already tracked by
+ * {@code StatisticSlot}), and blends the new estimation into the current limit with
+ * {@link ConcurrencyLimitRule#getSmoothing()}. Other requests only read the current limit.</p>
+ *
+ * @since 1.8.6
+ */
+public abstract class AdaptiveConcurrencyLimiter {
+
+    protected final ConcurrencyLimitRule rule;
+
+    private final AtomicLong nextUpdateTime = new AtomicLong(0);
+    private volatile double limit;
+
+    protected AdaptiveConcurrencyLimiter(ConcurrencyLimitRule rule) {
+        this.rule = rule;
+        this.limit = clamp(rule.getInitialLimit());
+    }
+
+    public ConcurrencyLimitRule getRule() {
+        return rule;
+    }
+
+    /**
+     * @return current max amount of in-flight requests
+     */
+    public int getLimit() {
+        return (int)limit;
+    }
+
+    /**
+     * Check whether a new request of the resource could pass, updating the limit first if it's due.
+     *
+     * @param node the cluster node of the resource
+     * @return true if the in-flight requests (excluding the new one) are below the limit
+     */
+    public boolean tryPass(Node node) {
+        tryUpdate(node, TimeUtil.currentTimeMillis());
+        return node.curThreadNum() < getLimit();
+    }
+
+    void tryUpdate(Node node, long now) {
+        long next = nextUpdateTime.get();
+        if (now < next || !nextUpdateTime.compareAndSet(next, now + rule.getUpdateIntervalMs())) {
+            return;
+        }
+        double successQps = node.successQps();
+        if (successQps <= 0) {
+            // No completed request in the window, so nothing to learn from.
+            return;
+        }
+        // RT is recorded in milliseconds, so sub-millisecond requests are taken as 1 ms.
+        double avgRt = Math.max(1, node.avgRt());
+        double minRt = Math.max(1, Math.min(node.minRt(), avgRt));
+        // Little's law: the average in-flight requests from the throughput and the RT.
+        double inflight = Math.max(node.curThreadNum(), successQps * avgRt / 1000);
+
+        double current = limit;
+        double estimated = estimate(current, avgRt, minRt, inflight);
+        double smoothing = rule.getSmoothing();
+        limit = clamp(current * (1 - smoothing) + estimated * smoothing);
+    }
+
+    /**
+     * Estimate the new limit. Invoked by one request at a time.
+     *
+     * @param limit    current limit
+     * @param avgRt    average RT of the resource in the latest window, not less than 1
+     * @param minRt    min RT of the resource in the latest window, not less than 1 and not greater than avgRt
+     * @param inflight average in-flight requests of the resource in the latest window
+     * @return the new limit before smoothing and clamping
+     */
+    protected abstract double estimate(double limit, double avgRt, double minRt, double inflight);
+
+    private double clamp(double value) {
+        return Math.max(rule.getMinLimit(), Math.min(rule.getMaxLimit(), value));
+    }
+
+    /**
+     * Whether the resource is limited by the arriving traffic rather than the limit, in which case
+     * the limit should not grow.
+     */
+    protected static boolean isAppLimited(double limit, double inflight) {
+        return inflight < limit / 2;
+    }
+}
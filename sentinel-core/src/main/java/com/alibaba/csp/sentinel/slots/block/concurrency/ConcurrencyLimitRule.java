@@ -0,0 +1,162 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.concurrency;
+
+import java.util.Objects;
+
+import com.alibaba.csp.sentinel.slots.block.AbstractRule;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+
+/**
+ * <p>Adaptive concurrency limit rule. Rather than a hand-tuned threshold, the max amount of in-flight
+ * requests of the resource is estimated continuously from the response time and throughput of the resource,
+ * with the gradient ({@link RuleConstant#CONCURRENCY_LIMIT_GRADIENT}) or Vegas
+ * ({@link RuleConstant#CONCURRENCY_LIMIT_VEGAS}) algorithm. Requests beyond the limit are rejected
+ * with {@link ConcurrencyLimitException}.</p>
+ *
+ * @since 1.8.6
+ */
+public class ConcurrencyLimitRule extends AbstractRule {
+
+    public ConcurrencyLimitRule() {}
+
+    public ConcurrencyLimitRule(String resourceName) {
+        setResource(resourceName);
+    }
+
+    /**
+     * Limit estimation strategy (0: gradient, 1: Vegas).
+     */
+    private int strategy = RuleConstant.CONCURRENCY_LIMIT_GRADIENT;
+
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private int maxLimit = 1000;
+
+    /**
+     * Weight of the new estimation when the limit is updated, between (0, 1].
+     */
+    private double smoothing = 0.2d;
+
+    /**
+     * Tolerance of the current RT against the long-term RT before the gradient limit decreases
+     * (gradient strategy only), not less than 1.
+     */
+    private double rtTolerance = 1.5d;
+
+    /**
+     * Interval of the limit estimation in milliseconds.
+     */
+    private int updateIntervalMs = 1000;
+
+    public int getStrategy() {
+        return strategy;
+    }
+
+    public ConcurrencyLimitRule setStrategy(int strategy) {
+        this.strategy = strategy;
+        return this;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public ConcurrencyLimitRule setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+        return this;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public ConcurrencyLimitRule setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+        return this;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public ConcurrencyLimitRule setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public ConcurrencyLimitRule setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+        return this;
+    }
+
+    public double getRtTolerance() {
+        return rtTolerance;
+    }
+
+    public ConcurrencyLimitRule setRtTolerance(double rtTolerance) {
+        this.rtTolerance = rtTolerance;
+        return this;
+    }
+
+    public int getUpdateIntervalMs() {
+        return updateIntervalMs;
+    }
+
+    public ConcurrencyLimitRule setUpdateIntervalMs(int updateIntervalMs) {
+        this.updateIntervalMs = updateIntervalMs;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+        if (!super.equals(o)) { return false; }
+        ConcurrencyLimitRule rule = (ConcurrencyLimitRule)o;
+        return strategy == rule.strategy &&
+            initialLimit == rule.initialLimit &&
+            minLimit == rule.minLimit &&
+            maxLimit == rule.maxLimit &&
+            Double.compare(rule.smoothing, smoothing) == 0 &&
+            Double.compare(rule.rtTolerance, rtTolerance) == 0 &&
+            updateIntervalMs == rule.updateIntervalMs;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), strategy, initialLimit, minLimit, maxLimit, smoothing,
+            rtTolerance, updateIntervalMs);
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimitRule{" +
+            "resource=" + getResource() +
+            ", strategy=" + strategy +
+            ", initialLimit=" + initialLimit +
+            ", minLimit=" + minLimit +
+            ", maxLimit=" + maxLimit +
+            ", smoothing=" + smoothing +
+            ", rtTolerance=" + rtTolerance +
+            ", updateIntervalMs=" + updateIntervalMs +
+            '}';
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.concurrency;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
+import com.alibaba.csp.sentinel.property.PropertyListener;
+import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * The rule manager for adaptive concurrency limit rules ({@link ConcurrencyLimitRule}).
+ *
+ * @since 1.8.6
+ */
+public final class ConcurrencyLimitRuleManager {
+
+    private static volatile Map<String, List<AdaptiveConcurrencyLimiter>> limiters = new HashMap<>();
+
+    private static final RulePropertyListener LISTENER = new RulePropertyListener();
+    private static SentinelProperty<List<ConcurrencyLimitRule>> currentProperty
+        = new DynamicSentinelProperty<>();
+
+    static {
+        currentProperty.addListener(LISTENER);
+    }
+
+    /**
+     * Listen to the {@link SentinelProperty} for {@link ConcurrencyLimitRule}s. The property is the source
+     * of {@link ConcurrencyLimitRule}s. The rules can also be set by {@link #loadRules(List)} directly.
+     *
+     * @param property the property to listen.
+     */
+    public static void register2Property(SentinelProperty<List<ConcurrencyLimitRule>> property) {
+        AssertUtil.notNull(property, "property cannot be null");
+        synchronized (LISTENER) {
+            RecordLog.info("[ConcurrencyLimitRuleManager] Registering new property to concurrency limit rule manager");
+            currentProperty.removeListener(LISTENER);
+            property.addListener(LISTENER);
+            currentProperty = property;
+        }
+    }
+
+    static Map<String, List<AdaptiveConcurrencyLimiter>> getLimiterMap() {
+        return limiters;
+    }
+
+    /**
+     * Get the limiters of provided resource, so that the current limit could be inspected.
+     *
+     * @param resource valid resource name
+     * @return limiters of the resource, or null if the resource has no rules
+     */
+    public static List<AdaptiveConcurrencyLimiter> getLimiters(String resource) {
+        AssertUtil.assertNotBlank(resource, "resource name cannot be blank");
+        return limiters.get(resource);
+    }
+
+    public static boolean hasConfig(String resource) {
+        if (resource == null) {
+            return false;
+        }
+        return limiters.containsKey(resource);
+    }
+
+    /**
+     * <p>Get existing adaptive concurrency limit rules.</p>
+     * <p>Note: DO NOT modify the rules from the returned list directly.
+     * The behavior is <strong>undefined</strong>.</p>
+     *
+     * @return list of existing rules, or empty list if no rules were loaded
+     */
+    public static List<ConcurrencyLimitRule> getRules() {
+        List<ConcurrencyLimitRule> rules = new ArrayList<>();
+        for (List<AdaptiveConcurrencyLimiter> list : limiters.values()) {
+            for (AdaptiveConcurrencyLimiter limiter : list) {
+                rules.add(limiter.getRule());
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Load {@link ConcurrencyLimitRule}s, former rules will be replaced. The learned limit of
+     * unchanged rules is kept.
+     *
+     * @param rules new rules to load.
+     */
+    public static void loadRules(List<ConcurrencyLimitRule> rules) {
+        try {
+            currentProperty.updateValue(rules);
+        } catch (Throwable e) {
+            RecordLog.error("[ConcurrencyLimitRuleManager] Unexpected error when loading concurrency limit rules", e);
+        }
+    }
+
+    public static boolean isValidRule(ConcurrencyLimitRule rule) {
+        boolean baseValid = rule != null && !StringUtil.isBlank(rule.getResource())
+            && rule.getMinLimit() > 0 && rule.getMaxLimit() >= rule.getMinLimit()
+            && rule.getInitialLimit() > 0 && rule.getUpdateIntervalMs() > 0
+            && rule.getSmoothing() > 0 && rule.getSmoothing() <= 1;
+        if (!baseValid) {
+            return false;
+        }
+        switch (rule.getStrategy()) {
+            case RuleConstant.CONCURRENCY_LIMIT_GRADIENT:
+                return rule.getRtTolerance() >= 1;
+            case RuleConstant.CONCURRENCY_LIMIT_VEGAS:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static AdaptiveConcurrencyLimiter getExistingSameLimiterOrNew(/*@Valid*/ ConcurrencyLimitRule rule) {
+        List<AdaptiveConcurrencyLimiter> list = limiters.get(rule.getResource());
+        if (list != null) {
+            for (AdaptiveConcurrencyLimiter limiter : list) {
+                if (rule.equals(limiter.getRule())) {
+                    // Reuse the limiter if the rule remains unchanged.
+                    return limiter;
+                }
+            }
+        }
+        switch (rule.getStrategy()) {
+            case RuleConstant.CONCURRENCY_LIMIT_VEGAS:
+                return new VegasConcurrencyLimiter(rule);
+            case RuleConstant.CONCURRENCY_LIMIT_GRADIENT:
+            default:
+                return new GradientConcurrencyLimiter(rule);
+        }
+    }
+
+    private static class RulePropertyListener implements PropertyListener<List<ConcurrencyLimitRule>> {
+
+        private synchronized void reloadFrom(List<ConcurrencyLimitRule> list) {
+            Map<String, List<AdaptiveConcurrencyLimiter>> newLimiters = new HashMap<>(8);
+            if (list != null) {
+                for (ConcurrencyLimitRule rule : list) {
+                    if (!isValidRule(rule)) {
+                        RecordLog.warn(
+                            "[ConcurrencyLimitRuleManager] Ignoring invalid rule when loading new rules: {}", rule);
+                        continue;
+                    }
+                    if (StringUtil.isBlank(rule.getLimitApp())) {
+                        rule.setLimitApp(RuleConstant.LIMIT_APP_DEFAULT);
+                    }
+                    List<AdaptiveConcurrencyLimiter> resourceLimiters = newLimiters.get(rule.getResource());
+                    if (resourceLimiters == null) {
+                        resourceLimiters = new ArrayList<>();
+                        newLimiters.put(rule.getResource(), resourceLimiters);
+                    }
+                    resourceLimiters.add(getExistingSameLimiterOrNew(rule));
+                }
+            }
+            ConcurrencyLimitRuleManager.limiters = newLimiters;
+        }
+
+        @Override
+        public void configUpdate(List<ConcurrencyLimitRule> conf) {
+            reloadFrom(conf);
+            RecordLog.info("[ConcurrencyLimitRuleManager] Concurrency limit rules has been updated to: {}", limiters);
+        }
+
+        @Override
+        public void configLoad(List<ConcurrencyLimitRule> conf) {
+            reloadFrom(conf);
+            RecordLog.info("[ConcurrencyLimitRuleManager] Concurrency limit rules loaded: {}", limiters);
+        }
+    }
+
+    private ConcurrencyLimitRuleManager() {}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.concurrency;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.spi.Spi;
+
+/**
+ * A {@link ProcessorSlot} that rejects the requests beyond the adaptive concurrency limit
+ * ({@link ConcurrencyLimitRule}) of the resource. The in-flight requests are counted on the
+ * cluster node, i.e. among all contexts and origins of the resource.
+ *
+ * @since 1.8.6
+ */
+@Spi(order = Constants.ORDER_CONCURRENCY_LIMIT_SLOT)
+public class ConcurrencyLimitSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
+
+    @Override
+    public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count,
+                      boolean prioritized, Object... args) throws Throwable {
+        checkConcurrencyLimit(resourceWrapper, node);
+        fireEntry(context, resourceWrapper, node, count, prioritized, args);
+    }
+
+    void checkConcurrencyLimit(ResourceWrapper resource, DefaultNode node) throws BlockException {
+        List<AdaptiveConcurrencyLimiter> limiters = ConcurrencyLimitRuleManager.getLimiterMap()
+            .get(resource.getName());
+        if (limiters == null || limiters.isEmpty() || node == null) {
+            return;
+        }
+        Node clusterNode = node.getClusterNode() != null ? node.getClusterNode() : node;
+        for (AdaptiveConcurrencyLimiter limiter : limiters) {
+            if (!limiter.tryPass(clusterNode)) {
+                throw new ConcurrencyLimitException(limiter.getRule().getLimitApp(), limiter.getRule());
+            }
+        }
+    }
+
+    @Override
+    public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+        fireExit(context, resourceWrapper, count, args);
+    }
+}
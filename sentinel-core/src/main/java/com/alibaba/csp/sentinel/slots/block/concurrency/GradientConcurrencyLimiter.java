@@ -0,0 +1,63 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.concurrency;
+
+/**
+ * <p>Gradient concurrency limiter. A long-term RT is tracked as an exponentially weighted moving average
+ * of the window RT. The limit is scaled by the gradient {@code rtTolerance * longRt / avgRt}
+ * (within [0.5, 1]), so it shrinks as soon as queueing raises the RT, then a queue allowance of
+ * {@code sqrt(limit)} is added to probe for more capacity.</p>
+ *
+ * @since 1.8.6
+ */
+public class GradientConcurrencyLimiter extends AdaptiveConcurrencyLimiter {
+
+    /**
+     * Weight of the window RT in the long-term RT, ~20 update intervals.
+     */
+    private static final double LONG_RT_WEIGHT = 0.05d;
+
+    private volatile double longRt = -1;
+
+    public GradientConcurrencyLimiter(ConcurrencyLimitRule rule) {
+        super(rule);
+    }
+
+    @Override
+    protected double estimate(double limit, double avgRt, double minRt, double inflight) {
+        double longRt = this.longRt;
+        if (longRt < 0) {
+            longRt = avgRt;
+        } else {
+            longRt = longRt * (1 - LONG_RT_WEIGHT) + avgRt * LONG_RT_WEIGHT;
+            if (longRt > avgRt * 2) {
+                // The load has dropped a lot, let the long-term RT recover faster.
+                longRt *= 0.95d;
+            }
+        }
+        this.longRt = longRt;
+
+        if (isAppLimited(limit, inflight)) {
+            return limit;
+        }
+        double gradient = Math.max(0.5d, Math.min(1.0d, rule.getRtTolerance() * longRt / avgRt));
+        return limit * gradient + Math.sqrt(limit);
+    }
+
+    double getLongRt() {
+        return longRt;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.concurrency;
+
+/**
+ * <p>Vegas concurrency limiter. The queue size is estimated as {@code limit * (1 - noLoadRt / avgRt)},
+ * where the no-load RT is the lowest min RT observed. The limit grows when the queue is short, and
+ * shrinks when the queue is longer than {@code 6 * log10(limit)}. The no-load RT is probed again
+ * periodically, so that it follows a changed backend.</p>
+ *
+ * @since 1.8.6
+ */
+public class VegasConcurrencyLimiter extends AdaptiveConcurrencyLimiter {
+
+    /**
+     * The no-load RT is reset every {@code PROBE_INTERVAL} updates.
+     */
+    static final int PROBE_INTERVAL = 100;
+
+    private volatile double noLoadRt = -1;
+    private volatile int updatesSinceProbe;
+
+    public VegasConcurrencyLimiter(ConcurrencyLimitRule rule) {
+        super(rule);
+    }
+
+    @Override
+    protected double estimate(double limit, double avgRt, double minRt, double inflight) {
+        double noLoadRt = this.noLoadRt;
+        if (++updatesSinceProbe >= PROBE_INTERVAL) {
+            updatesSinceProbe = 0;
+            noLoadRt = -1;
+        }
+        noLoadRt = noLoadRt < 0 ? minRt : Math.min(noLoadRt, minRt);
+        this.noLoadRt = noLoadRt;
+
+        double queue = Math.ceil(limit * (1 - noLoadRt / avgRt));
+        double log = Math.max(1, Math.log10(limit));
+        double alpha = 3 * log;
+        double beta = 6 * log;
+        if (queue <= log) {
+            return isAppLimited(limit, inflight) ? limit : limit + beta;
+        } else if (queue < alpha) {
+            return isAppLimited(limit, inflight) ? limit : limit + log;
+        } else if (queue > beta) {
+            return limit - log;
+        }
+        return limit;
+    }
+
+    double getNoLoadRt() {
+        return noLoadRt;
+    }
+}
@@ -54,7 +54,7 @@ public class DegradeRule extends AbstractRule {
     }
 
     /**
-     * Circuit breaking strategy (0: average RT, 1: exception ratio, 2: exception count).
+     * Circuit breaking strategy (0: average RT, 1: exception ratio, 2: exception count, 3: RT percentile).
      */
     private int grade = RuleConstant.DEGRADE_GRADE_RT;
 
@@ -64,6 +64,7 @@ public class DegradeRule extends AbstractRule {
      *     <li>In average RT mode, it means the maximum response time(RT) in milliseconds.</li>
      *     <li>In exception ratio mode, it means exception ratio which between 0.0 and 1.0.</li>
      *     <li>In exception count mode, it means exception count</li>
+     *     <li>In RT percentile mode, it means the maximum allowed percentile of response time in milliseconds.</li>
      * <ul/>
      */
     private double count;
@@ -95,6 +96,13 @@ public class DegradeRule extends AbstractRule {
      */
     private int statIntervalMs = 1000;
 
+    /**
+     * The percentile of response time (between 0.0 and 1.0) in RT percentile mode, 0.99 for p99.
+     *
+     * @since 1.8.6
+     */
+    private double slowPercentile = 0.99d;
+
     public int getGrade() {
         return grade;
     }
@@ -149,6 +157,15 @@ public class DegradeRule extends AbstractRule {
         return this;
     }
 
+    public double getSlowPercentile() {
+        return slowPercentile;
+    }
+
+    public DegradeRule setSlowPercentile(double slowPercentile) {
+        this.slowPercentile = slowPercentile;
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
@@ -160,13 +177,14 @@ public class DegradeRule extends AbstractRule {
             grade == rule.grade &&
             minRequestAmount == rule.minRequestAmount &&
             Double.compare(rule.slowRatioThreshold, slowRatioThreshold) == 0 &&
-            statIntervalMs == rule.statIntervalMs;
+            statIntervalMs == rule.statIntervalMs &&
+            Double.compare(rule.slowPercentile, slowPercentile) == 0;
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), count, timeWindow, grade, minRequestAmount,
-            slowRatioThreshold, statIntervalMs);
+            slowRatioThreshold, statIntervalMs, slowPercentile);
     }
 
     @Override
@@ -180,6 +198,7 @@ public class DegradeRule extends AbstractRule {
             ", minRequestAmount=" + minRequestAmount +
             ", slowRatioThreshold=" + slowRatioThreshold +
             ", statIntervalMs=" + statIntervalMs +
+            ", slowPercentile=" + slowPercentile +
             '}';
     }
 }
@@ -29,6 +29,7 @@ import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ExceptionCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.PercentileResponseTimeCircuitBreaker;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ResponseTimeCircuitBreaker;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
@@ -82,6 +83,14 @@ public final class DegradeRuleManager {
         return circuitBreakers.get(resourceName);
     }
 
+    /**
+     * 获取当前发布的断路器缓存Map, 规则更新时整体替换
+     * @return
+     */
+    static Map<String, List<CircuitBreaker>> getCircuitBreakerMap() {
+        return circuitBreakers;
+    }
+
     public static boolean hasConfig(String resource) {
         if (resource == null) {
             return false;
@@ -200,6 +209,8 @@ public final class DegradeRuleManager {
             case RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO:
             case RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT:
                 return new ExceptionCircuitBreaker(rule);
+            case RuleConstant.DEGRADE_GRADE_RT_PERCENTILE:
+                return new PercentileResponseTimeCircuitBreaker(rule);
             default:
                 return null;
         }
@@ -221,6 +232,8 @@ public final class DegradeRuleManager {
                 return rule.getCount() <= 1;
             case RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT:
                 return true;
+            case RuleConstant.DEGRADE_GRADE_RT_PERCENTILE:
+                return rule.getSlowPercentile() > 0 && rule.getSlowPercentile() <= 1;
             default:
                 return false;
         }
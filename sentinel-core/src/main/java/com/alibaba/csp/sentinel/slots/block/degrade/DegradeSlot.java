@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.slots.block.degrade;
 
 import java.util.List;
+import java.util.Map;
 
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.Entry;
@@ -25,6 +26,7 @@ import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.CompiledResourceRules;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.AbstractCircuitBreaker;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ExceptionCircuitBreaker;
@@ -34,13 +36,22 @@ import com.alibaba.csp.sentinel.spi.Spi;
 /**
  * 熔断降级槽
  * A {@link ProcessorSlot} dedicates to circuit breaking.
+ * The slot is created for each slot chain and keeps the circuit breakers of its resource in an array,
+ * which is resolved again once new rules are loaded to {@link DegradeRuleManager}.
  *
  * @author Carpenter Lee
  * @author Eric Zhao
  */
-@Spi(order = Constants.ORDER_DEGRADE_SLOT)
+@Spi(isSingleton = false, order = Constants.ORDER_DEGRADE_SLOT)
 public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
+    private static final CircuitBreaker[] NO_CIRCUIT_BREAKERS = new CircuitBreaker[0];
+
+    /**
+     * Circuit breakers of the resource of this slot.
+     */
+    private volatile CompiledResourceRules<CircuitBreaker> compiledBreakers;
+
     // 进入
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count,
@@ -59,10 +70,7 @@ public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
      */
     void performChecking(Context context, ResourceWrapper r) throws BlockException {
         // 获取断路器集合
-        List<CircuitBreaker> circuitBreakers = DegradeRuleManager.getCircuitBreakers(r.getName());
-        if (circuitBreakers == null || circuitBreakers.isEmpty()) {
-            return;
-        }
+        CircuitBreaker[] circuitBreakers = circuitBreakersOf(r.getName());
         for (CircuitBreaker cb : circuitBreakers) {
             /**
              * 判断尝试通过是否成功: 检查当前资源对应的熔断器是否已经开启, 已经启动熔断的情况, 是否可以切换到半开状态
@@ -84,8 +92,8 @@ public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
             return;
         }
         // 根据资源名获取对应的断路器集合
-        List<CircuitBreaker> circuitBreakers = DegradeRuleManager.getCircuitBreakers(r.getName());
-        if (circuitBreakers == null || circuitBreakers.isEmpty()) {
+        CircuitBreaker[] circuitBreakers = circuitBreakersOf(r.getName());
+        if (circuitBreakers.length == 0) {
             fireExit(context, r, count, args);
             return;
         }
@@ -107,4 +115,16 @@ public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
         fireExit(context, r, count, args);
     }
+
+    CircuitBreaker[] circuitBreakersOf(String resourceName) {
+        Map<String, List<CircuitBreaker>> breakerMap = DegradeRuleManager.getCircuitBreakerMap();
+        CompiledResourceRules<CircuitBreaker> compiled = this.compiledBreakers;
+        if (compiled == null || !compiled.isCompiledFrom(breakerMap, resourceName)) {
+            List<CircuitBreaker> circuitBreakers = breakerMap.get(resourceName);
+            compiled = new CompiledResourceRules<CircuitBreaker>(breakerMap, resourceName,
+                circuitBreakers == null ? NO_CIRCUIT_BREAKERS : circuitBreakers.toArray(new CircuitBreaker[0]));
+            this.compiledBreakers = compiled;
+        }
+        return compiled.getRules();
+    }
 }
@@ -15,14 +15,9 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
 
-import java.util.List;
-import java.util.concurrent.atomic.LongAdder;
-
 import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
-import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
-import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 
 import static com.alibaba.csp.sentinel.slots.block.RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT;
@@ -48,13 +43,19 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
      */
     private final double threshold;
 
-    private final LeapArray<SimpleErrorCounter> stat;
+    private static final int ERROR_COUNT = 0;
+    private static final int TOTAL_COUNT = 1;
+
+    /**
+     * 滑动时间窗口计数器: 异常数/总调用数量, 窗口滚动时增量维护总数
+     */
+    private final RollingCounter stat;
 
     public ExceptionCircuitBreaker(DegradeRule rule) {
-        this(rule, new SimpleErrorCounterLeapArray(1, rule.getStatIntervalMs()));
+        this(rule, new RollingCounter(1, rule.getStatIntervalMs(), 2));
     }
 
-    ExceptionCircuitBreaker(DegradeRule rule, LeapArray<SimpleErrorCounter> stat) {
+    ExceptionCircuitBreaker(DegradeRule rule, RollingCounter stat) {
         super(rule);
         this.strategy = rule.getGrade();
         boolean modeOk = strategy == DEGRADE_GRADE_EXCEPTION_RATIO || strategy == DEGRADE_GRADE_EXCEPTION_COUNT;
@@ -67,8 +68,7 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
 
     @Override
     protected void resetStat() {
-        // Reset current bucket (bucket count = 1).
-        stat.currentWindow().value().reset();
+        stat.reset();
     }
 
     @Override
@@ -79,11 +79,11 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
         }
         Throwable error = entry.getError();
         // 累计异常数
-        SimpleErrorCounter counter = stat.currentWindow().value();
+        int bucket = stat.currentBucket();
         if (error != null) {
-            counter.getErrorCount().add(1);
+            stat.add(bucket, ERROR_COUNT, 1);
         }
-        counter.getTotalCount().add(1);
+        stat.add(bucket, TOTAL_COUNT, 1);
         // 超过阈值时处理状态变更
         handleStateChangeWhenThresholdExceeded(error);
     }
@@ -103,13 +103,8 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
             return;
         }
         
-        List<SimpleErrorCounter> counters = stat.values();
-        long errCount = 0;
-        long totalCount = 0;
-        for (SimpleErrorCounter counter : counters) {
-            errCount += counter.errorCount.sum();
-            totalCount += counter.totalCount.sum();
-        }
+        long errCount = stat.total(ERROR_COUNT);
+        long totalCount = stat.total(TOTAL_COUNT);
         if (totalCount < minRequestAmount) {
             return;
         }
@@ -125,60 +120,4 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
             transformToOpen(curCount);
         }
     }
-
-    static class SimpleErrorCounter {
-        private LongAdder errorCount;
-        private LongAdder totalCount;
-
-        public SimpleErrorCounter() {
-            this.errorCount = new LongAdder();
-            this.totalCount = new LongAdder();
-        }
-
-        public LongAdder getErrorCount() {
-            return errorCount;
-        }
-
-        public LongAdder getTotalCount() {
-            return totalCount;
-        }
-
-        /**
-         * 重置数据: 错误调用数量/总调用数量
-         * @return
-         */
-        public SimpleErrorCounter reset() {
-            errorCount.reset();
-            totalCount.reset();
-            return this;
-        }
-
-        @Override
-        public String toString() {
-            return "SimpleErrorCounter{" +
-                "errorCount=" + errorCount +
-                ", totalCount=" + totalCount +
-                '}';
-        }
-    }
-
-    static class SimpleErrorCounterLeapArray extends LeapArray<SimpleErrorCounter> {
-
-        public SimpleErrorCounterLeapArray(int sampleCount, int intervalInMs) {
-            super(sampleCount, intervalInMs);
-        }
-
-        @Override
-        public SimpleErrorCounter newEmptyBucket(long timeMillis) {
-            return new SimpleErrorCounter();
-        }
-
-        @Override
-        protected WindowWrap<SimpleErrorCounter> resetWindowTo(WindowWrap<SimpleErrorCounter> w, long startTime) {
-            // Update the start time and reset value.
-            w.resetTo(startTime);
-            w.value().reset();
-            return w;
-        }
-    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Circuit breaker that opens when the given percentile (e.g. p99, see {@link DegradeRule#getSlowPercentile()})
+ * of response time in the statistic interval exceeds the max allowed RT ({@code count} of the rule).</p>
+ *
+ * <p>Response times are recorded into a {@link LogLinearHistogram} of the sliding window.
+ * The p-th percentile exceeds the max allowed RT exactly when more than {@code total - ceil(p * total)}
+ * requests are slow, so the breaker checks the (exact) slow request count on each completed request,
+ * and reads the percentile from the histogram only when the breaker opens (as the trigger value)
+ * or on {@link #getPercentileRt()}.</p>
+ *
+ * @since 1.8.6
+ */
+public class PercentileResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
+
+    private static final int TOTAL_COUNT = 0;
+    private static final int SLOW_COUNT = 1;
+    private static final int HISTOGRAM_OFFSET = 2;
+
+    private final long maxAllowedRt;
+    private final double percentile;
+    private final int minRequestAmount;
+
+    private final RollingCounter stat;
+
+    public PercentileResponseTimeCircuitBreaker(DegradeRule rule) {
+        this(rule, new RollingCounter(1, rule.getStatIntervalMs(),
+            HISTOGRAM_OFFSET + LogLinearHistogram.BUCKET_COUNT));
+    }
+
+    PercentileResponseTimeCircuitBreaker(DegradeRule rule, RollingCounter stat) {
+        super(rule);
+        AssertUtil.isTrue(rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT_PERCENTILE,
+            "rule metric type should be RT percentile");
+        AssertUtil.notNull(stat, "stat cannot be null");
+        this.maxAllowedRt = Math.round(rule.getCount());
+        this.percentile = rule.getSlowPercentile();
+        this.minRequestAmount = rule.getMinRequestAmount();
+        this.stat = stat;
+    }
+
+    @Override
+    void resetStat() {
+        stat.reset();
+    }
+
+    @Override
+    public void onRequestComplete(Context context) {
+        Entry entry = context.getCurEntry();
+        if (entry == null) {
+            return;
+        }
+        int bucket = stat.currentBucket();
+        long completeTime = entry.getCompleteTimestamp();
+        if (completeTime <= 0) {
+            completeTime = TimeUtil.currentTimeMillis();
+        }
+        long rt = completeTime - entry.getCreateTimestamp();
+        stat.add(bucket, HISTOGRAM_OFFSET + LogLinearHistogram.bucketOf(rt), 1);
+        if (rt > maxAllowedRt) {
+            stat.add(bucket, SLOW_COUNT, 1);
+        }
+        stat.add(bucket, TOTAL_COUNT, 1);
+        handleStateChangeWhenThresholdExceeded(rt);
+    }
+
+    private void handleStateChangeWhenThresholdExceeded(long rt) {
+        if (currentState.get() == State.OPEN) {
+            return;
+        }
+        if (currentState.get() == State.HALF_OPEN) {
+            // In detecting request
+            if (rt > maxAllowedRt) {
+                fromHalfOpenToOpen(rt);
+            } else {
+                fromHalfOpenToClose();
+            }
+            return;
+        }
+
+        long totalCount = stat.total(TOTAL_COUNT);
+        if (totalCount < minRequestAmount) {
+            return;
+        }
+        long slowCount = stat.total(SLOW_COUNT);
+        if (slowCount > totalCount - rankOf(totalCount)) {
+            transformToOpen(percentileRt(totalCount));
+        }
+    }
+
+    /**
+     * @return 1-based rank of the percentile among the given amount of sorted response times
+     */
+    private long rankOf(long totalCount) {
+        return Math.max(1L, (long)Math.ceil(percentile * totalCount));
+    }
+
+    /**
+     * Get the configured percentile of response time in current statistic interval, as the highest
+     * equivalent value of its histogram bucket.
+     *
+     * @return the percentile of response time (in milliseconds), or 0 if there are no requests
+     */
+    public long getPercentileRt() {
+        return percentileRt(stat.total(TOTAL_COUNT));
+    }
+
+    private long percentileRt(long totalCount) {
+        if (totalCount <= 0) {
+            return 0;
+        }
+        long rank = rankOf(totalCount);
+        // Search from the highest bucket, as the percentile is usually at the tail.
+        long tailCount = 0;
+        for (int i = LogLinearHistogram.BUCKET_COUNT - 1; i >= 0; i--) {
+            tailCount += stat.total(HISTOGRAM_OFFSET + i);
+            if (totalCount - tailCount < rank) {
+                return LogLinearHistogram.highestValueOf(i);
+            }
+        }
+        return 0;
+    }
+}
@@ -15,15 +15,10 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
 
-import java.util.List;
-import java.util.concurrent.atomic.LongAdder;
-
 import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
-import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
-import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
@@ -36,6 +31,9 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
 
     private static final double SLOW_REQUEST_RATIO_MAX_VALUE = 1.0d;
 
+    private static final int SLOW_COUNT = 0;
+    private static final int TOTAL_COUNT = 1;
+
     /**
      * Sentinel 控制台, 熔断配置 最大 RT
      */
@@ -49,13 +47,16 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
      */
     private final int minRequestAmount;
 
-    private final LeapArray<SlowRequestCounter> slidingCounter;
+    /**
+     * 滑动时间窗口计数器: 慢调用数量/总调用数量, 窗口滚动时增量维护总数
+     */
+    private final RollingCounter slidingCounter;
 
     public ResponseTimeCircuitBreaker(DegradeRule rule) {
-        this(rule, new SlowRequestLeapArray(1, rule.getStatIntervalMs()));
+        this(rule, new RollingCounter(1, rule.getStatIntervalMs(), 2));
     }
 
-    ResponseTimeCircuitBreaker(DegradeRule rule, LeapArray<SlowRequestCounter> stat) {
+    ResponseTimeCircuitBreaker(DegradeRule rule, RollingCounter stat) {
         super(rule);
         AssertUtil.isTrue(rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT, "rule metric type should be RT");
         AssertUtil.notNull(stat, "stat cannot be null");
@@ -67,18 +68,17 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
 
     @Override
     public void resetStat() {
-        // Reset current bucket (bucket count = 1).
-        slidingCounter.currentWindow().value().reset();
+        slidingCounter.reset();
     }
 
     @Override
     public void onRequestComplete(Context context) {
-        // 获取当前滑动时间窗口的计数器
-        SlowRequestCounter counter = slidingCounter.currentWindow().value();
         Entry entry = context.getCurEntry();
         if (entry == null) {
             return;
         }
+        // 获取当前滑动时间窗口的桶
+        int bucket = slidingCounter.currentBucket();
         // 当前业务请求的完成时间
         long completeTime = entry.getCompleteTimestamp();
         if (completeTime <= 0) {
@@ -89,10 +89,10 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
         // 如果业务请求的响应时长 > 慢调用比例中配置的最大RT
         if (rt > maxAllowedRt) {
             // 表示为慢调用, 滑动时间窗口计数器 慢调用数量累加1
-            counter.slowCount.add(1);
+            slidingCounter.add(bucket, SLOW_COUNT, 1);
         }
         // 滑动时间窗口计数器 总调用数累加1
-        counter.totalCount.add(1);
+        slidingCounter.add(bucket, TOTAL_COUNT, 1);
         // 根据 业务请求响应时长 处理 断路器状态变更
         handleStateChangeWhenThresholdExceeded(rt);
     }
@@ -122,16 +122,9 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
         }
         // 断路器关闭状态
 
-        // 滑动时间窗口
-        List<SlowRequestCounter> counters = slidingCounter.values();
-        long slowCount = 0;
-        // 用于存储时间窗口内的请求数量
-        long totalCount = 0;
-        // 遍历计算慢调用数量和总调用数量
-        for (SlowRequestCounter counter : counters) {
-            slowCount += counter.slowCount.sum();
-            totalCount += counter.totalCount.sum();
-        }
+        // 滑动时间窗口内的慢调用数量和总调用数量 (增量维护, 无需遍历各个桶)
+        long slowCount = slidingCounter.total(SLOW_COUNT);
+        long totalCount = slidingCounter.total(TOTAL_COUNT);
         // 如果请求数量 小于 最小请求数量
         if (totalCount < minRequestAmount) {
             return;
@@ -150,59 +143,4 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
             transformToOpen(currentRatio);
         }
     }
-
-    static class SlowRequestCounter {
-        private LongAdder slowCount;
-        private LongAdder totalCount;
-
-        public SlowRequestCounter() {
-            this.slowCount = new LongAdder();
-            this.totalCount = new LongAdder();
-        }
-
-        public LongAdder getSlowCount() {
-            return slowCount;
-        }
-
-        public LongAdder getTotalCount() {
-            return totalCount;
-        }
-
-        /**
-         * 重置数据: 慢调用数量/总调用数量
-         * @return
-         */
-        public SlowRequestCounter reset() {
-            slowCount.reset();
-            totalCount.reset();
-            return this;
-        }
-
-        @Override
-        public String toString() {
-            return "SlowRequestCounter{" +
-                "slowCount=" + slowCount +
-                ", totalCount=" + totalCount +
-                '}';
-        }
-    }
-
-    static class SlowRequestLeapArray extends LeapArray<SlowRequestCounter> {
-
-        public SlowRequestLeapArray(int sampleCount, int intervalInMs) {
-            super(sampleCount, intervalInMs);
-        }
-
-        @Override
-        public SlowRequestCounter newEmptyBucket(long timeMillis) {
-            return new SlowRequestCounter();
-        }
-
-        @Override
-        protected WindowWrap<SlowRequestCounter> resetWindowTo(WindowWrap<SlowRequestCounter> w, long startTime) {
-            w.resetTo(startTime);
-            w.value().reset();
-            return w;
-        }
-    }
 }
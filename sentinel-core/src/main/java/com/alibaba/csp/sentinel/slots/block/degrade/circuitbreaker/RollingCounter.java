@@ -0,0 +1,142 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>A lock-free sliding window of a fixed number of {@code long} counters for circuit breakers,
+ * which keeps the running totals of the whole window.</p>
+ *
+ * <p>Unlike {@code LeapArray}, reading the totals doesn't iterate the buckets (nor allocate a list
+ * of them): the totals are updated together with the buckets on each {@link #add(int, int, long)},
+ * and the counts of a bucket are subtracted from the totals when the bucket rolls over
+ * (or is deprecated) on the first access of a new window. Neither the update nor the read allocates.</p>
+ *
+ * <p>Each subtraction is paired with the clearing of the same counts in the bucket, so the totals
+ * never drift from the sum of the buckets. Counts added concurrently while their bucket is rolling over
+ * might be dropped along with the former window, which is negligible for circuit breaking.</p>
+ *
+ * @since 1.8.6
+ */
+final class RollingCounter {
+
+    private static final long INVALID_WINDOW_START = -1L;
+
+    private final int sampleCount;
+    private final int windowLengthInMs;
+    private final int intervalInMs;
+    private final int counterCount;
+
+    private final AtomicLongArray windowStarts;
+    private final AtomicLongArray buckets;
+    private final AtomicLongArray totals;
+
+    /**
+     * @param sampleCount   bucket count of the sliding window
+     * @param intervalInMs  total time length of the sliding window
+     * @param counterCount  amount of counters in each bucket
+     */
+    RollingCounter(int sampleCount, int intervalInMs, int counterCount) {
+        AssertUtil.isTrue(sampleCount > 0, "bucket count is invalid: " + sampleCount);
+        AssertUtil.isTrue(intervalInMs > 0, "total time interval of the sliding window should be positive");
+        AssertUtil.isTrue(intervalInMs % sampleCount == 0, "time span needs to be evenly divided");
+        AssertUtil.isTrue(counterCount > 0, "counter count should be positive");
+        this.sampleCount = sampleCount;
+        this.intervalInMs = intervalInMs;
+        this.windowLengthInMs = intervalInMs / sampleCount;
+        this.counterCount = counterCount;
+        this.windowStarts = new AtomicLongArray(sampleCount);
+        for (int i = 0; i < sampleCount; i++) {
+            windowStarts.set(i, INVALID_WINDOW_START);
+        }
+        this.buckets = new AtomicLongArray(sampleCount * counterCount);
+        this.totals = new AtomicLongArray(counterCount);
+    }
+
+    /**
+     * Get the bucket of current time, rolling over the buckets if needed.
+     *
+     * @return index of the current bucket
+     */
+    int currentBucket() {
+        return currentBucket(TimeUtil.currentTimeMillis());
+    }
+
+    int currentBucket(long timeMillis) {
+        int idx = (int)((timeMillis / windowLengthInMs) % sampleCount);
+        long windowStart = timeMillis - timeMillis % windowLengthInMs;
+        while (true) {
+            long old = windowStarts.get(idx);
+            if (old >= windowStart) {
+                // Current window (or the clock went backwards, then just count into the bucket).
+                return idx;
+            }
+            if (windowStarts.compareAndSet(idx, old, windowStart)) {
+                clearBucket(idx);
+                expireDeprecatedBuckets(windowStart);
+                return idx;
+            }
+        }
+    }
+
+    private void expireDeprecatedBuckets(long currentWindowStart) {
+        for (int i = 0; i < sampleCount; i++) {
+            long start = windowStarts.get(i);
+            if (start != INVALID_WINDOW_START && currentWindowStart - start >= intervalInMs
+                && windowStarts.compareAndSet(i, start, INVALID_WINDOW_START)) {
+                clearBucket(i);
+            }
+        }
+    }
+
+    private void clearBucket(int idx) {
+        int base = idx * counterCount;
+        for (int counter = 0; counter < counterCount; counter++) {
+            long value = buckets.getAndSet(base + counter, 0);
+            if (value != 0) {
+                totals.addAndGet(counter, -value);
+            }
+        }
+    }
+
+    /**
+     * Add to the counter in the given bucket (acquired from {@link #currentBucket()}).
+     */
+    void add(int bucket, int counter, long delta) {
+        buckets.addAndGet(bucket * counterCount + counter, delta);
+        totals.addAndGet(counter, delta);
+    }
+
+    /**
+     * @return total value of the counter in the sliding window
+     */
+    long total(int counter) {
+        return totals.get(counter);
+    }
+
+    /**
+     * Reset all buckets.
+     */
+    void reset() {
+        for (int i = 0; i < sampleCount; i++) {
+            clearBucket(i);
+        }
+    }
+}
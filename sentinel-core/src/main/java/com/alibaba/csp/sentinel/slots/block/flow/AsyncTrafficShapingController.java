@@ -0,0 +1,48 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import com.alibaba.csp.sentinel.node.Node;
+
+/**
+ * <p>A traffic shaping controller that may queue requests. Instead of sleeping in the calling thread
+ * like {@link #canPass(Node, int, boolean)}, it reserves the pass time and returns how long the caller
+ * should wait, so that the waiting could be scheduled without blocking (e.g. in an event loop).</p>
+ *
+ * @since 1.8.6
+ */
+public interface AsyncTrafficShapingController extends TrafficShapingController {
+
+    /**
+     * Wait time indicating that the request should be blocked.
+     */
+    long BLOCKED = -1;
+
+    /**
+     * Check whether given resource entry can pass with provided count, without blocking current thread.
+     * If the request passes after waiting, the pass time has been reserved for it, so the caller should
+     * wait for the returned time before proceeding.
+     *
+     * @param node resource node
+     * @param acquireCount count to acquire
+     * @param prioritized whether the request is prioritized
+     * @return the time to wait in milliseconds before passing (0 to pass immediately),
+     * or {@link #BLOCKED} if it should be blocked
+     * @throws PriorityWaitException if the prioritized request occupied the future window,
+     * then it should pass after waiting for {@link PriorityWaitException#getWaitInMs()}
+     */
+    long tryPass(Node node, int acquireCount, boolean prioritized);
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * <p>Immutable, pre-resolved form of the node selection of a {@link FlowRule}
+ * (see {@link FlowRuleChecker#selectNodeByRequesterAndStrategy(FlowRule, Context, DefaultNode)}).</p>
+ *
+ * <p>The origin matching mode of the rule and the limit apps of all rules of the same resource
+ * (for the {@code other} matching) are resolved once when the rules are loaded,
+ * so the selection does neither string comparison against {@code default}/{@code other}
+ * nor iteration over the rules of the resource for each request.</p>
+ *
+ * @since 1.8.6
+ */
+final class FlowNodeSelector {
+
+    private static final int MATCH_SPECIFIC = 0;
+    private static final int MATCH_DEFAULT = 1;
+    private static final int MATCH_OTHER = 2;
+
+    private final String limitApp;
+    private final int originMatch;
+    private final int strategy;
+    /**
+     * Limit apps of all rules of the resource, used for the {@code other} matching.
+     */
+    private final Set<String> resourceLimitApps;
+
+    FlowNodeSelector(/*@Valid*/ FlowRule rule, Set<String> resourceLimitApps) {
+        this.limitApp = rule.getLimitApp();
+        this.strategy = rule.getStrategy();
+        this.resourceLimitApps = resourceLimitApps;
+        if (RuleConstant.LIMIT_APP_DEFAULT.equals(limitApp)) {
+            this.originMatch = MATCH_DEFAULT;
+        } else if (RuleConstant.LIMIT_APP_OTHER.equals(limitApp)) {
+            this.originMatch = MATCH_OTHER;
+        } else {
+            this.originMatch = MATCH_SPECIFIC;
+        }
+    }
+
+    Node select(FlowRule rule, Context context, DefaultNode node) {
+        String origin = context.getOrigin();
+        switch (originMatch) {
+            case MATCH_SPECIFIC:
+                if (!limitApp.equals(origin)) {
+                    return null;
+                }
+                return strategy == RuleConstant.STRATEGY_DIRECT ? context.getOriginNode()
+                    : FlowRuleChecker.selectReferenceNode(rule, context, node);
+            case MATCH_DEFAULT:
+                return strategy == RuleConstant.STRATEGY_DIRECT ? node.getClusterNode()
+                    : FlowRuleChecker.selectReferenceNode(rule, context, node);
+            default:
+                if (StringUtil.isEmpty(origin) || resourceLimitApps.contains(origin)) {
+                    return null;
+                }
+                return strategy == RuleConstant.STRATEGY_DIRECT ? context.getOriginNode()
+                    : FlowRuleChecker.selectReferenceNode(rule, context, node);
+        }
+    }
+}
@@ -96,6 +96,11 @@ public class FlowRule extends AbstractRule {
      */
     private TrafficShapingController controller;
 
+    /**
+     * The pre-resolved node selector, compiled when the rule is loaded to {@link FlowRuleManager}.
+     */
+    private FlowNodeSelector nodeSelector;
+
     public int getControlBehavior() {
         return controlBehavior;
     }
@@ -123,6 +128,15 @@ public class FlowRule extends AbstractRule {
         return controller;
     }
 
+    FlowRule setNodeSelector(FlowNodeSelector nodeSelector) {
+        this.nodeSelector = nodeSelector;
+        return this;
+    }
+
+    FlowNodeSelector getNodeSelector() {
+        return nodeSelector;
+    }
+
     public int getWarmUpPeriodSec() {
         return warmUpPeriodSec;
     }
@@ -17,6 +17,8 @@ package com.alibaba.csp.sentinel.slots.block.flow;
 
 import java.util.Collection;
 
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.cluster.ClusterStateManager;
 import com.alibaba.csp.sentinel.cluster.server.EmbeddedClusterTokenServerProvider;
 import com.alibaba.csp.sentinel.cluster.client.TokenClientProvider;
@@ -68,6 +70,22 @@ public class FlowRuleChecker {
         }
     }
 
+    /**
+     * Check the flow rules of a resource, which have been resolved by the {@link FlowSlot} of the resource.
+     *
+     * @param rules flow rules of the resource
+     * @throws BlockException if any of the rules is triggered
+     * @since 1.8.6
+     */
+    public void checkFlow(FlowRule[] rules, Context context, DefaultNode node, int count, boolean prioritized)
+        throws BlockException {
+        for (FlowRule rule : rules) {
+            if (!canPassCheck(rule, context, node, count, prioritized)) {
+                throw new FlowException(rule.getLimitApp(), rule);
+            }
+        }
+    }
+
     public boolean canPassCheck(/*@NonNull*/ FlowRule rule, Context context, DefaultNode node,
                                                     int acquireCount) {
         return canPassCheck(rule, context, node, acquireCount, false);
@@ -117,7 +135,35 @@ public class FlowRuleChecker {
          * 排队等待
          * @see RateLimiterController#canPass(Node, int, boolean)
          */
-        return rule.getRater().canPass(selectedNode, acquireCount, prioritized);
+        TrafficShapingController rater = rule.getRater();
+        AsyncEntry nonBlockingEntry = nonBlockingEntryOf(context);
+        if (nonBlockingEntry != null && rater instanceof AsyncTrafficShapingController) {
+            // Leave the queueing to the caller of the non-blocking entry rather than sleeping here.
+            long waitInMs;
+            try {
+                waitInMs = ((AsyncTrafficShapingController)rater).tryPass(selectedNode, acquireCount, prioritized);
+            } catch (PriorityWaitException ex) {
+                nonBlockingEntry.recordWaitInMs(ex.getWaitInMs());
+                throw ex;
+            }
+            if (waitInMs == AsyncTrafficShapingController.BLOCKED) {
+                return false;
+            }
+            nonBlockingEntry.recordWaitInMs(waitInMs);
+            return true;
+        }
+        return rater.canPass(selectedNode, acquireCount, prioritized);
+    }
+
+    private static AsyncEntry nonBlockingEntryOf(Context context) {
+        if (context == null) {
+            return null;
+        }
+        Entry curEntry = context.getCurEntry();
+        if (curEntry instanceof AsyncEntry && ((AsyncEntry)curEntry).isNonBlocking()) {
+            return (AsyncEntry)curEntry;
+        }
+        return null;
     }
 
     static Node selectReferenceNode(FlowRule rule, Context context, DefaultNode node) {
@@ -148,6 +194,11 @@ public class FlowRuleChecker {
     }
 
     static Node selectNodeByRequesterAndStrategy(/*@NonNull*/ FlowRule rule, Context context, DefaultNode node) {
+        FlowNodeSelector selector = rule.getNodeSelector();
+        if (selector != null) {
+            // Rules loaded to FlowRuleManager carry the pre-resolved selector.
+            return selector.select(rule, context, node);
+        }
         // The limit app should not be empty.
         String limitApp = rule.getLimitApp();
         int strategy = rule.getStrategy();
@@ -225,6 +276,11 @@ public class FlowRuleChecker {
             case TokenResultStatus.OK:
                 return true;
             case TokenResultStatus.SHOULD_WAIT:
+                AsyncEntry nonBlockingEntry = nonBlockingEntryOf(context);
+                if (nonBlockingEntry != null) {
+                    nonBlockingEntry.recordWaitInMs(result.getWaitInMs());
+                    return true;
+                }
                 // Wait for next tick.
                 try {
                     Thread.sleep(result.getWaitInMs());
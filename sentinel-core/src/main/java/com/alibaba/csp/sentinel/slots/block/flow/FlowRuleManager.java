@@ -21,11 +21,10 @@ import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.metric.MetricTimerListener;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
+import com.alibaba.csp.sentinel.property.RuleDiff;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
-import com.alibaba.csp.sentinel.util.function.Function;
-import com.alibaba.csp.sentinel.util.function.Predicate;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -169,15 +168,7 @@ public class FlowRuleManager {
          */
         @Override
         public synchronized void configUpdate(List<FlowRule> value) {
-            /**
-             * 构建流控规则Map
-             * @see FlowRuleUtil#buildFlowRuleMap(List, Function, Predicate, boolean)
-             */
-            Map<String, List<FlowRule>> rules = FlowRuleUtil.buildFlowRuleMap(value);
-            if (rules != null) {
-                // 替换全局流控规则缓存
-                flowRules = rules;
-            }
+            Map<String, List<FlowRule>> rules = applyRules(value);
             RecordLog.info("[FlowRuleManager] Flow rules received: {}", rules);
         }
 
@@ -187,14 +178,28 @@ public class FlowRuleManager {
          */
         @Override
         public synchronized void configLoad(List<FlowRule> conf) {
-            // 构建流控规则Map
-            Map<String, List<FlowRule>> rules = FlowRuleUtil.buildFlowRuleMap(conf);
-            if (rules != null) {
-                // 替换全局流控规则缓存
-                flowRules = rules;
-            }
+            Map<String, List<FlowRule>> rules = applyRules(conf);
             RecordLog.info("[FlowRuleManager] Flow rules loaded: {}", rules);
         }
+
+        private Map<String, List<FlowRule>> applyRules(List<FlowRule> conf) {
+            // 只重建变更的规则: 未变更的规则复用原有的流控器(保留预热等状态)
+            RuleDiff<FlowRule> diff = RuleDiff.of(getRules(), conf);
+            if (!diff.hasChanges()) {
+                RecordLog.info("[FlowRuleManager] Flow rules unchanged, {}", diff);
+                return flowRules;
+            }
+            /**
+             * 构建流控规则Map
+             * @see FlowRuleUtil#rebuildFlowRuleMap(List, RuleDiff)
+             */
+            Map<String, List<FlowRule>> rules = FlowRuleUtil.rebuildFlowRuleMap(conf, diff);
+            FlowRuleUtil.compileNodeSelectors(rules);
+            // 替换全局流控规则缓存
+            flowRules = rules;
+            RecordLog.info("[FlowRuleManager] Flow rules changed, {}", diff);
+            return rules;
+        }
     }
 
 }
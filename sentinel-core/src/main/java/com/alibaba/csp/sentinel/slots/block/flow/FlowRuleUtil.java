@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.slots.block.flow;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.property.RuleDiff;
 import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.controller.DefaultController;
@@ -83,6 +84,27 @@ public final class FlowRuleUtil {
      */
     public static <K> Map<K, List<FlowRule>> buildFlowRuleMap(List<FlowRule> list, Function<FlowRule, K> groupFunction,
                                                               Predicate<FlowRule> filter, boolean shouldSort) {
+        return buildFlowRuleMap(list, groupFunction, filter, shouldSort, null);
+    }
+
+    /**
+     * Build the flow rule map from raw list of flow rules, grouping by resource name.
+     * The traffic shaping controllers of the retained rules are reused, so that their state (e.g. warm-up)
+     * is kept and only the changed rules get new controllers.
+     *
+     * @param list raw list of flow rules
+     * @param diff difference from the previous rules
+     * @return constructed new flow rule map; empty map if list is null or empty, or no valid rules
+     * @since 1.8.6
+     */
+    static Map<String, List<FlowRule>> rebuildFlowRuleMap(List<FlowRule> list, RuleDiff<FlowRule> diff) {
+        return buildFlowRuleMap(list, extractResource, null, true, diff);
+    }
+
+    private static <K> Map<K, List<FlowRule>> buildFlowRuleMap(List<FlowRule> list,
+                                                               Function<FlowRule, K> groupFunction,
+                                                               Predicate<FlowRule> filter, boolean shouldSort,
+                                                               RuleDiff<FlowRule> diff) {
         // 流控规则Map
         Map<K, List<FlowRule>> newRuleMap = new ConcurrentHashMap<>();
         if (list == null || list.isEmpty()) {
@@ -102,7 +124,9 @@ public final class FlowRuleUtil {
             if (StringUtil.isBlank(rule.getLimitApp())) {
                 rule.setLimitApp(RuleConstant.LIMIT_APP_DEFAULT);
             }
-            TrafficShapingController rater = generateRater(rule);
+            FlowRule retained = diff == null ? null : diff.getRetained(rule);
+            TrafficShapingController rater = retained != null && retained.getRater() != null
+                ? retained.getRater() : generateRater(rule);
             rule.setRater(rater);
 
             /**
@@ -136,6 +160,26 @@ public final class FlowRuleUtil {
         return newRuleMap;
     }
 
+    /**
+     * Compile the pre-resolved node selector of each rule in the resource-grouped rule map,
+     * so that the node selection does no rule iteration or origin string matching per request.
+     *
+     * @param ruleMap flow rules grouped by resource name
+     * @since 1.8.6
+     */
+    static void compileNodeSelectors(Map<String, List<FlowRule>> ruleMap) {
+        for (List<FlowRule> rules : ruleMap.values()) {
+            Set<String> limitApps = new HashSet<>();
+            for (FlowRule rule : rules) {
+                limitApps.add(rule.getLimitApp());
+            }
+            limitApps = Collections.unmodifiableSet(limitApps);
+            for (FlowRule rule : rules) {
+                rule.setNodeSelector(new FlowNodeSelector(rule, limitApps));
+            }
+        }
+    }
+
     private static TrafficShapingController generateRater(/*@Valid*/ FlowRule rule) {
         if (rule.getGrade() == RuleConstant.FLOW_GRADE_QPS) {
             switch (rule.getControlBehavior()) {
@@ -21,12 +21,11 @@ import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.CompiledResourceRules;
 import com.alibaba.csp.sentinel.slots.block.degrade.DegradeSlot;
 import com.alibaba.csp.sentinel.spi.Spi;
 import com.alibaba.csp.sentinel.util.AssertUtil;
-import com.alibaba.csp.sentinel.util.function.Function;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -49,6 +48,12 @@ import java.util.Map;
  * </p>
  *
  * <p>
+ * A FlowSlot is created for each slot chain (i.e. each resource). It keeps the flow rules
+ * of its resource in an array, which is resolved again once new rules are loaded to
+ * {@link FlowRuleManager}.
+ * </p>
+ *
+ * <p>
  * Each {@link FlowRule} is mainly composed of these factors: grade, strategy, path. We
  * can combine these factors to achieve different effects.
  * </p>
@@ -139,11 +144,18 @@ import java.util.Map;
  * @author jialiang.linjl
  * @author Eric Zhao
  */
-@Spi(order = Constants.ORDER_FLOW_SLOT)
+@Spi(isSingleton = false, order = Constants.ORDER_FLOW_SLOT)
 public class FlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
+    private static final FlowRule[] NO_RULES = new FlowRule[0];
+
     private final FlowRuleChecker checker;
 
+    /**
+     * Flow rules of the resource of this slot.
+     */
+    private volatile CompiledResourceRules<FlowRule> compiledRules;
+
     public FlowSlot() {
         this(new FlowRuleChecker());
     }
@@ -176,7 +188,25 @@ public class FlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
     void checkFlow(ResourceWrapper resource, Context context, DefaultNode node, int count, boolean prioritized)
         throws BlockException {
-        checker.checkFlow(ruleProvider, resource, context, node, count, prioritized);
+        FlowRule[] rules = rulesOf(resource.getName());
+        if (rules.length > 0) {
+            checker.checkFlow(rules, context, node, count, prioritized);
+        }
+    }
+
+    FlowRule[] rulesOf(String resourceName) {
+        // Flow rule map should not be null.
+        // 通过流控规则管理器, 获取全局的流控规则缓存Map
+        Map<String, List<FlowRule>> flowRules = FlowRuleManager.getFlowRuleMap();
+        CompiledResourceRules<FlowRule> compiled = this.compiledRules;
+        if (compiled == null || !compiled.isCompiledFrom(flowRules, resourceName)) {
+            // 根据资源名获取对应的流控规则集合
+            List<FlowRule> rules = flowRules.get(resourceName);
+            compiled = new CompiledResourceRules<FlowRule>(flowRules, resourceName,
+                rules == null ? NO_RULES : rules.toArray(new FlowRule[0]));
+            this.compiledRules = compiled;
+        }
+        return compiled.getRules();
     }
 
     @Override
@@ -188,15 +218,4 @@ public class FlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
          */
         fireExit(context, resourceWrapper, count, args);
     }
-
-    private final Function<String, Collection<FlowRule>> ruleProvider = new Function<String, Collection<FlowRule>>() {
-        @Override
-        public Collection<FlowRule> apply(String resource) {
-            // Flow rule map should not be null.
-            // 通过流控规则管理器, 获取全局的流控规则缓存Map
-            Map<String, List<FlowRule>> flowRules = FlowRuleManager.getFlowRuleMap();
-            // 根据资源名获取对应的流控规则集合
-            return flowRules.get(resource);
-        }
-    };
 }
@@ -20,7 +20,7 @@ import com.alibaba.csp.sentinel.node.OccupyTimeoutProperty;
 import com.alibaba.csp.sentinel.node.StatisticNode;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.PriorityWaitException;
-import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.slots.block.flow.AsyncTrafficShapingController;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
@@ -29,7 +29,7 @@ import com.alibaba.csp.sentinel.util.TimeUtil;
  * @author jialiang.linjl
  * @author Eric Zhao
  */
-public class DefaultController implements TrafficShapingController {
+public class DefaultController implements AsyncTrafficShapingController {
 
     private static final int DEFAULT_AVG_USED_TOKENS = 0;
 
@@ -50,6 +50,16 @@ public class DefaultController implements TrafficShapingController {
 
     @Override
     public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        try {
+            return tryPass(node, acquireCount, prioritized) != BLOCKED;
+        } catch (PriorityWaitException ex) {
+            sleep(ex.getWaitInMs());
+            throw ex;
+        }
+    }
+
+    @Override
+    public long tryPass(Node node, int acquireCount, boolean prioritized) {
         // 根据阈值类型获取当前节点对应的线程数 或 QPS数
         int curCount = avgUsedTokens(node);
         // 当前数量 + 调用次数(默认1) > 流控规则中配置的阈值, 返回false, 表示不能通过, 否则返回true. 可以通过
@@ -64,15 +74,14 @@ public class DefaultController implements TrafficShapingController {
                 if (waitInMs < OccupyTimeoutProperty.getOccupyTimeout()) {
                     node.addWaitingRequest(currentTime + waitInMs, acquireCount);
                     node.addOccupiedPass(acquireCount);
-                    sleep(waitInMs);
 
                     // PriorityWaitException indicates that the request will pass after waiting for {@link @waitInMs}.
                     throw new PriorityWaitException(waitInMs);
                 }
             }
-            return false;
+            return BLOCKED;
         }
-        return true;
+        return 0;
     }
 
     private int avgUsedTokens(Node node) {
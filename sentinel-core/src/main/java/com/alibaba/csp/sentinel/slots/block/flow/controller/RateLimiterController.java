@@ -17,7 +17,7 @@ package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
 import java.util.concurrent.atomic.AtomicLong;
 
-import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.slots.block.flow.AsyncTrafficShapingController;
 
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.node.Node;
@@ -25,7 +25,7 @@ import com.alibaba.csp.sentinel.node.Node;
 /**
  * @author jialiang.linjl
  */
-public class RateLimiterController implements TrafficShapingController {
+public class RateLimiterController implements AsyncTrafficShapingController {
 
     private final int maxQueueingTimeMs;
     private final double count;
@@ -44,14 +44,32 @@ public class RateLimiterController implements TrafficShapingController {
 
     @Override
     public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        long waitTime = tryPass(node, acquireCount, prioritized);
+        if (waitTime == BLOCKED) {
+            return false;
+        }
+        if (waitTime > 0) {
+            try {
+                // 睡眠等待
+                Thread.sleep(waitTime);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        // 等待时间到后, 放行请求
+        return true;
+    }
+
+    @Override
+    public long tryPass(Node node, int acquireCount, boolean prioritized) {
         // Pass when acquire count is less or equal than 0.
         if (acquireCount <= 0) {
-            return true;
+            return 0;
         }
         // Reject when count is less or equal than 0.
         // Otherwise,the costTime will be max of long and waitTime will overflow in some cases.
         if (count <= 0) {
-            return false;
+            return BLOCKED;
         }
 
         long currentTime = TimeUtil.currentTimeMillis();
@@ -62,45 +80,33 @@ public class RateLimiterController implements TrafficShapingController {
         long expectedTime = costTime + latestPassedTime.get();
         // 此处因为没有加锁, 可能存在线程不安全. 如果说在此时同时并发来了多个请求, 都满足当前时间 > 预期时间, 则可能都通过.
         if (expectedTime <= currentTime) {
-            // 如果预期的通过时间 小于等于 当前时间, 表示当前请求可以通过, 将上一个请求的通过时间更新为当前时间后返回true, 放行请求
+            // 如果预期的通过时间 小于等于 当前时间, 表示当前请求可以通过, 将上一个请求的通过时间更新为当前时间后返回0, 立即放行请求
             // Contention may exist here, but it's okay.
             latestPassedTime.set(currentTime);
-            return true;
-        } else {
-            /**
-             * 漏桶算法: 匀速执行.
-             * 表示当前请求还没到预期请求的时间, 需要等待执行.
-             */
-            // Calculate the time to wait.计算等待时间, 当前请求的预期通过时间 - 当前时间戳
-            long waitTime = costTime + latestPassedTime.get() - TimeUtil.currentTimeMillis();
-            if (waitTime > maxQueueingTimeMs) {
-                // 如果等待时长 > 最大的排队等待时长, 等待超时, 则返回fasle
-                return false;
-            } else {
-                // 更新latestPassedTime, 并获取更新后的时间, 实际上就是上面的预期通过时间.
-                // 感觉这里的几个时间计算有点冗余, 有点像双重检验的意思, 可能是并发考虑, 不过感觉还是线程不安全的
-                long oldTime = latestPassedTime.addAndGet(costTime);
-                try {
-                    // 计算等待时间
-                    waitTime = oldTime - TimeUtil.currentTimeMillis();
-                    // 如果等待时长 > 最大的排队等待时长, 等待超时
-                    if (waitTime > maxQueueingTimeMs) {
-                        // 回滚上一个请求的通过时间, 并返回false
-                        latestPassedTime.addAndGet(-costTime);
-                        return false;
-                    }
-                    // in race condition waitTime may <= 0 在竞争条件下 waitTime 可能 <= 0
-                    if (waitTime > 0) {
-                        // 睡眠等待
-                        Thread.sleep(waitTime);
-                    }
-                    // 等待时间到后, 放行请求
-                    return true;
-                } catch (InterruptedException e) {
-                }
-            }
+            return 0;
+        }
+        /**
+         * 漏桶算法: 匀速执行.
+         * 表示当前请求还没到预期请求的时间, 需要等待执行.
+         */
+        // Calculate the time to wait.计算等待时间, 当前请求的预期通过时间 - 当前时间戳
+        long waitTime = costTime + latestPassedTime.get() - TimeUtil.currentTimeMillis();
+        if (waitTime > maxQueueingTimeMs) {
+            // 如果等待时长 > 最大的排队等待时长, 等待超时, 则拒绝
+            return BLOCKED;
+        }
+        // 更新latestPassedTime, 并获取更新后的时间, 实际上就是上面的预期通过时间.
+        long oldTime = latestPassedTime.addAndGet(costTime);
+        // 计算等待时间
+        waitTime = oldTime - TimeUtil.currentTimeMillis();
+        // 如果等待时长 > 最大的排队等待时长, 等待超时
+        if (waitTime > maxQueueingTimeMs) {
+            // 回滚上一个请求的通过时间, 并拒绝
+            latestPassedTime.addAndGet(-costTime);
+            return BLOCKED;
         }
-        return false;
+        // in race condition waitTime may <= 0 在竞争条件下 waitTime 可能 <= 0
+        return Math.max(waitTime, 0);
     }
 
 }
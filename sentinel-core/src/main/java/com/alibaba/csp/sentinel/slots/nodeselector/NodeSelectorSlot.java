@@ -28,6 +28,7 @@ import com.alibaba.csp.sentinel.spi.Spi;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * </p>
@@ -133,6 +134,11 @@ public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
      */
     private volatile Map<String, DefaultNode> map = new HashMap<String, DefaultNode>(10);
 
+    /**
+     * Guards the creation of nodes.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, Object obj, int count, boolean prioritized, Object... args)
         throws Throwable {
@@ -157,7 +163,8 @@ public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
         // 从缓存中获取默认节点
         DefaultNode node = map.get(context.getName());
         if (node == null) {
-            synchronized (this) {
+            lock.lock();
+            try {
                 node = map.get(context.getName());
                 if (node == null) {
                     // 双重检验锁(DCL), 缓存中不存在, 初始化一个新的默认节点
@@ -170,7 +177,8 @@ public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
                     // Build invocation tree
                     ((DefaultNode) context.getLastNode()).addChild(node);
                 }
-
+            } finally {
+                lock.unlock();
             }
         }
         // 设置当前节点
@@ -371,6 +371,31 @@ public abstract class LeapArray<T> {
         return result;
     }
 
+    /**
+     * Get the value of the bucket at the given index of the underlying array if the bucket
+     * is valid at the given time. Different from {@link #values(long)}, no list will be allocated,
+     * so it's suitable for aggregating all buckets in a single pass on the hot path:
+     *
+     * <pre>
+     * for (int i = 0; i &lt; leapArray.getSampleCount(); i++) {
+     *     T value = leapArray.getValidValue(i, timeMillis);
+     *     ...
+     * }
+     * </pre>
+     *
+     * @param idx        index of the bucket in the array, in range of [0, sampleCount)
+     * @param timeMillis valid time in ms
+     * @return the bucket value, or null if the bucket is absent or deprecated
+     * @since 1.8.6
+     */
+    public T getValidValue(int idx, long timeMillis) {
+        WindowWrap<T> windowWrap = array.get(idx);
+        if (windowWrap == null || isWindowDeprecated(timeMillis, windowWrap)) {
+            return null;
+        }
+        return windowWrap.value();
+    }
+
     /**
      * Get the valid "head" bucket of the sliding window for provided timestamp.
      * Package-private for test.
@@ -25,6 +25,7 @@ import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.slots.statistic.metric.occupy.OccupiableBucketLeapArray;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.util.function.Predicate;
 
 /**
@@ -35,6 +36,8 @@ import com.alibaba.csp.sentinel.util.function.Predicate;
  */
 public class ArrayMetric implements Metric {
 
+    private static final MetricEvent[] EVENTS = MetricEvent.values();
+
     private final LeapArray<MetricBucket> data;
 
     public ArrayMetric(int sampleCount, int intervalInMs) {
@@ -56,27 +59,34 @@ public class ArrayMetric implements Metric {
         this.data = array;
     }
 
+    /**
+     * Refresh the current bucket and get the current time, so that all the following
+     * aggregation in the same call uses the same timestamp.
+     */
+    private long refreshAndGetTime() {
+        long time = TimeUtil.currentTimeMillis();
+        data.currentWindow(time);
+        return time;
+    }
+
     @Override
     public long success() {
-        data.currentWindow();
-        long success = 0;
-
-        List<MetricBucket> list = data.values();
-        for (MetricBucket window : list) {
-            success += window.success();
-        }
-        return success;
+        return sum(MetricEvent.SUCCESS);
     }
 
     @Override
     public long maxSuccess() {
-        data.currentWindow();
+        long time = refreshAndGetTime();
         long success = 0;
 
-        List<MetricBucket> list = data.values();
-        for (MetricBucket window : list) {
-            if (window.success() > success) {
-                success = window.success();
+        for (int i = 0; i < data.getSampleCount(); i++) {
+            MetricBucket window = data.getValidValue(i, time);
+            if (window == null) {
+                continue;
+            }
+            long windowSuccess = window.success();
+            if (windowSuccess > success) {
+                success = windowSuccess;
             }
         }
         return Math.max(success, 1);
@@ -84,24 +94,12 @@ public class ArrayMetric implements Metric {
 
     @Override
     public long exception() {
-        data.currentWindow();
-        long exception = 0;
-        List<MetricBucket> list = data.values();
-        for (MetricBucket window : list) {
-            exception += window.exception();
-        }
-        return exception;
+        return sum(MetricEvent.EXCEPTION);
     }
 
     @Override
     public long block() {
-        data.currentWindow();
-        long block = 0;
-        List<MetricBucket> list = data.values();
-        for (MetricBucket window : list) {
-            block += window.block();
-        }
-        return block;
+        return sum(MetricEvent.BLOCK);
     }
 
     /**
@@ -109,46 +107,27 @@ public class ArrayMetric implements Metric {
      */
     @Override
     public long pass() {
-        data.currentWindow();
-        long pass = 0;
-        // 获取滑动时间窗口的时间窗格集合
-        List<MetricBucket> list = data.values();
-        // 遍历累加计算总通过数
-        for (MetricBucket window : list) {
-            pass += window.pass();
-        }
-        return pass;
+        // 遍历滑动时间窗口的时间窗格, 累加计算总通过数
+        return sum(MetricEvent.PASS);
     }
 
     @Override
     public long occupiedPass() {
-        data.currentWindow();
-        long pass = 0;
-        List<MetricBucket> list = data.values();
-        for (MetricBucket window : list) {
-            pass += window.occupiedPass();
-        }
-        return pass;
+        return sum(MetricEvent.OCCUPIED_PASS);
     }
 
     @Override
     public long rt() {
-        data.currentWindow();
-        long rt = 0;
-        List<MetricBucket> list = data.values();
-        for (MetricBucket window : list) {
-            rt += window.rt();
-        }
-        return rt;
+        return sum(MetricEvent.RT);
     }
 
     @Override
     public long minRt() {
-        data.currentWindow();
+        long time = refreshAndGetTime();
         long rt = SentinelConfig.statisticMaxRt();
-        List<MetricBucket> list = data.values();
-        for (MetricBucket window : list) {
-            if (window.minRt() < rt) {
+        for (int i = 0; i < data.getSampleCount(); i++) {
+            MetricBucket window = data.getValidValue(i, time);
+            if (window != null && window.minRt() < rt) {
                 rt = window.minRt();
             }
         }
@@ -156,6 +135,68 @@ public class ArrayMetric implements Metric {
         return Math.max(1, rt);
     }
 
+    @Override
+    public long sum(MetricEvent event) {
+        long time = refreshAndGetTime();
+        long sum = 0;
+        for (int i = 0; i < data.getSampleCount(); i++) {
+            MetricBucket window = data.getValidValue(i, time);
+            if (window != null) {
+                sum += window.get(event);
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public long sum(MetricEvent event1, MetricEvent event2) {
+        long time = refreshAndGetTime();
+        long sum = 0;
+        for (int i = 0; i < data.getSampleCount(); i++) {
+            MetricBucket window = data.getValidValue(i, time);
+            if (window != null) {
+                sum += window.get(event1) + window.get(event2);
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public double avgRt() {
+        long time = refreshAndGetTime();
+        long rt = 0;
+        long success = 0;
+        for (int i = 0; i < data.getSampleCount(); i++) {
+            MetricBucket window = data.getValidValue(i, time);
+            if (window != null) {
+                rt += window.rt();
+                success += window.success();
+            }
+        }
+        if (success == 0) {
+            return 0;
+        }
+        return rt * 1.0 / success;
+    }
+
+    @Override
+    public void sumAll(long[] sums) {
+        long time = refreshAndGetTime();
+        MetricEvent[] events = EVENTS;
+        for (MetricEvent event : events) {
+            sums[event.ordinal()] = 0;
+        }
+        for (int i = 0; i < data.getSampleCount(); i++) {
+            MetricBucket window = data.getValidValue(i, time);
+            if (window == null) {
+                continue;
+            }
+            for (MetricEvent event : events) {
+                sums[event.ordinal()] += window.get(event);
+            }
+        }
+    }
+
     @Override
     public List<MetricNode> details() {
         List<MetricNode> details = new ArrayList<>();
@@ -264,7 +305,7 @@ public class ArrayMetric implements Metric {
 
     @Override
     public void debug() {
-        data.debug(System.currentTimeMillis());
+        data.debug(TimeUtil.currentTimeMillis());
     }
 
     @Override
@@ -302,14 +343,7 @@ public class ArrayMetric implements Metric {
      * @return total sum for event
      */
     public long getSum(MetricEvent event) {
-        data.currentWindow();
-        long sum = 0;
-
-        List<MetricBucket> buckets = data.values();
-        for (MetricBucket bucket : buckets) {
-            sum += bucket.get(event);
-        }
-        return sum;
+        return sum(event);
     }
 
     /**
@@ -18,6 +18,7 @@ package com.alibaba.csp.sentinel.slots.statistic.metric;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
 import com.alibaba.csp.sentinel.util.function.Predicate;
 
@@ -79,6 +80,73 @@ public interface Metric extends DebugSupport {
      */
     long minRt();
 
+    /**
+     * Get the total count of the given event in a single pass over the sliding window.
+     * The default implementation delegates to the getter of the event (e.g. {@link #pass()}).
+     *
+     * @param event metric event
+     * @return total count of the event
+     * @since 1.8.6
+     */
+    default long sum(MetricEvent event) {
+        switch (event) {
+            case PASS:
+                return pass();
+            case BLOCK:
+                return block();
+            case EXCEPTION:
+                return exception();
+            case SUCCESS:
+                return success();
+            case RT:
+                return rt();
+            case OCCUPIED_PASS:
+                return occupiedPass();
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Get the total count of the two given events in a single pass over the sliding window
+     * (e.g. {@code sum(PASS, BLOCK)} for total requests).
+     *
+     * @param event1 metric event
+     * @param event2 another metric event
+     * @return total count of the two events
+     * @since 1.8.6
+     */
+    default long sum(MetricEvent event1, MetricEvent event2) {
+        return sum(event1) + sum(event2);
+    }
+
+    /**
+     * Get the average RT of completed requests in a single pass over the sliding window.
+     *
+     * @return average RT, or 0 if there are no completed requests
+     * @since 1.8.6
+     */
+    default double avgRt() {
+        long success = success();
+        if (success == 0) {
+            return 0;
+        }
+        return rt() * 1.0 / success;
+    }
+
+    /**
+     * Aggregate all events in a single pass over the sliding window without allocation.
+     * The total count of each event will be set to {@code sums[event.ordinal()]}.
+     *
+     * @param sums array to hold the result, the length should be no less than the amount of {@link MetricEvent}
+     * @since 1.8.6
+     */
+    default void sumAll(long[] sums) {
+        for (MetricEvent event : MetricEvent.values()) {
+            sums[event.ordinal()] = sum(event);
+        }
+    }
+
     /**
      * Get aggregated metric nodes of all resources.
      *
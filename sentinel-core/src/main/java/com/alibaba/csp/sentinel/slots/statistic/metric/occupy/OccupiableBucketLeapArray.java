@@ -21,6 +21,7 @@ import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * @author jialiang.linjl
@@ -71,12 +72,14 @@ public class OccupiableBucketLeapArray extends LeapArray<MetricBucket> {
 
     @Override
     public long currentWaiting() {
-        borrowArray.currentWindow();
+        long time = TimeUtil.currentTimeMillis();
+        borrowArray.currentWindow(time);
         long currentWaiting = 0;
-        List<MetricBucket> list = borrowArray.values();
-
-        for (MetricBucket window : list) {
-            currentWaiting += window.pass();
+        for (int i = 0; i < borrowArray.getSampleCount(); i++) {
+            MetricBucket window = borrowArray.getValidValue(i, time);
+            if (window != null) {
+                currentWaiting += window.pass();
+            }
         }
         return currentWaiting;
     }
@@ -0,0 +1,574 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.system;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Reader of the resource metrics of the current cgroup (v1 or v2), so that system protection
+ * works against the CPU quota and memory limit of the container rather than the host.</p>
+ *
+ * <p>Readings (each is negative if unavailable):</p>
+ * <ul>
+ *     <li>CPU quota usage: CPU time used in the last sampling period divided by the CPU quota
+ *     ({@code cpu.max}, or {@code cpu.cfs_quota_us}/{@code cpu.cfs_period_us} in v1), or by the available
+ *     processors if the quota is unlimited. Might be greater than 1 on short bursts.</li>
+ *     <li>CPU throttled ratio: throttled periods divided by elapsed enforcement periods
+ *     ({@code nr_throttled}/{@code nr_periods} of {@code cpu.stat}) in the last sampling period.</li>
+ *     <li>Memory usage: {@code memory.current}/{@code memory.max} (or {@code memory.usage_in_bytes}/
+ *     {@code memory.limit_in_bytes} in v1), unavailable if the memory is unlimited.</li>
+ *     <li>CPU and memory pressure: {@code some avg10} of the PSI files {@code cpu.pressure} and
+ *     {@code memory.pressure} as a ratio in [0, 1] (v2 only).</li>
+ * </ul>
+ *
+ * <p>The cgroup directory of current process is resolved from {@code /proc/self/cgroup} and
+ * {@code /proc/self/mountinfo} on creation, so that the cgroup of the container is read even if the
+ * cgroup file system of the host is mounted (e.g. cgroup v1, or v2 without cgroup namespace).
+ * The reader is disabled if the cgroup cannot be resolved.</p>
+ *
+ * <p>The cgroup files are tiny pseudo files, which are read into a reused buffer and parsed in place.
+ * The reader is not thread-safe, and it's expected to be sampled periodically by a single thread
+ * (see {@link SystemStatusListener}).</p>
+ *
+ * @since 1.8.6
+ */
+public final class CgroupMetricsReader {
+
+    static final long UNLIMITED = Long.MAX_VALUE;
+    private static final long ABSENT = -1;
+    /**
+     * cgroup v1 reports unlimited memory as a huge page-aligned number.
+     */
+    private static final long V1_UNLIMITED_MEMORY_THRESHOLD = 1L << 60;
+
+    private static final String PROC_SELF_CGROUP = "/proc/self/cgroup";
+    private static final String PROC_SELF_MOUNTINFO = "/proc/self/mountinfo";
+    private static final String MOUNT_TYPE_V1 = "cgroup";
+    private static final String MOUNT_TYPE_V2 = "cgroup2";
+
+    private static final byte[] KEY_USAGE_USEC = "usage_usec".getBytes();
+    private static final byte[] KEY_NR_PERIODS = "nr_periods".getBytes();
+    private static final byte[] KEY_NR_THROTTLED = "nr_throttled".getBytes();
+    private static final byte[] KEY_SOME = "some".getBytes();
+    private static final byte[] KEY_AVG10 = "avg10=".getBytes();
+
+    private final boolean v2;
+    private final File cpuStat;
+    private final File cpuMax;
+    private final File cpuQuota;
+    private final File cpuPeriod;
+    private final File cpuUsage;
+    private final File memoryCurrent;
+    private final File memoryMax;
+    private final File cpuPressureFile;
+    private final File memoryPressureFile;
+    private final int availableProcessors;
+
+    private final byte[] buffer = new byte[4096];
+    private int length;
+
+    private long lastSampleNanos = ABSENT;
+    private long lastCpuUsageNanos = ABSENT;
+    private long lastPeriods = ABSENT;
+    private long lastThrottled = ABSENT;
+
+    private double cpuQuotaUsage = -1;
+    private double cpuThrottledRatio = -1;
+    private double memoryUsage = -1;
+    private double cpuPressure = -1;
+    private double memoryPressure = -1;
+
+    /**
+     * Detect the cgroup of current process, which is resolved from {@code /proc/self/cgroup}
+     * and the cgroup mount points under the given root in {@code /proc/self/mountinfo}.
+     *
+     * @param root the cgroup root directory, e.g. {@code /sys/fs/cgroup}
+     * @return the reader, or null if the cgroup of current process cannot be resolved under the root
+     */
+    public static CgroupMetricsReader detect(String root) {
+        return detect(root, new File(PROC_SELF_CGROUP), new File(PROC_SELF_MOUNTINFO),
+            Runtime.getRuntime().availableProcessors());
+    }
+
+    static CgroupMetricsReader detect(String root, File procCgroup, File mountInfo, int availableProcessors) {
+        if (root == null) {
+            return null;
+        }
+        List<String[]> memberships = readFields(procCgroup, ":", 3);
+        List<String[]> mounts = readMountInfo(mountInfo, root);
+        if (memberships == null || mounts == null) {
+            return null;
+        }
+        // Prefer v1 controllers in hybrid mode, where cpu and memory are not enabled in the unified hierarchy.
+        File cpuDir = resolveV1(memberships, mounts, "cpu");
+        File cpuacctDir = resolveV1(memberships, mounts, "cpuacct");
+        File memoryDir = resolveV1(memberships, mounts, "memory");
+        if (cpuDir != null || memoryDir != null) {
+            return new CgroupMetricsReader(false, cpuDir, cpuacctDir, memoryDir, availableProcessors);
+        }
+        File dir = resolveV2(memberships, mounts);
+        if (dir != null && new File(dir, "cgroup.controllers").isFile()) {
+            return new CgroupMetricsReader(true, dir, dir, dir, availableProcessors);
+        }
+        return null;
+    }
+
+    private static File resolveV1(List<String[]> memberships, List<String[]> mounts, String controller) {
+        for (String[] membership : memberships) {
+            if (!containsToken(membership[1], controller)) {
+                continue;
+            }
+            for (String[] mount : mounts) {
+                if (MOUNT_TYPE_V1.equals(mount[2]) && containsToken(mount[3], controller)) {
+                    return resolveDir(mount, membership[2]);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static File resolveV2(List<String[]> memberships, List<String[]> mounts) {
+        for (String[] membership : memberships) {
+            if (!"0".equals(membership[0]) || !membership[1].isEmpty()) {
+                continue;
+            }
+            for (String[] mount : mounts) {
+                if (MOUNT_TYPE_V2.equals(mount[2])) {
+                    return resolveDir(mount, membership[2]);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Map the cgroup path of current process to the directory under the mount point. The mount root
+     * is the cgroup path mounted at the mount point, e.g. {@code /docker/<id>} in a container
+     * without cgroup namespace.
+     *
+     * @return the directory, or null if the cgroup is not visible under the mount point
+     */
+    private static File resolveDir(String[] mount, String cgroupPath) {
+        String mountRoot = mount[0];
+        String relative;
+        if ("/".equals(mountRoot)) {
+            relative = cgroupPath;
+        } else if (cgroupPath.equals(mountRoot)) {
+            relative = "";
+        } else if (cgroupPath.startsWith(mountRoot + "/")) {
+            relative = cgroupPath.substring(mountRoot.length());
+        } else {
+            return null;
+        }
+        File dir = relative.isEmpty() || "/".equals(relative) ? new File(mount[1]) : new File(mount[1], relative);
+        return dir.isDirectory() ? dir : null;
+    }
+
+    /**
+     * @return {root, mount point, file system type, super options} of the cgroup mounts under the root,
+     * or null if failed to read
+     */
+    private static List<String[]> readMountInfo(File mountInfo, String root) {
+        List<String[]> lines = readFields(mountInfo, " ", 0);
+        if (lines == null) {
+            return null;
+        }
+        String rootPath = new File(root).getAbsolutePath();
+        List<String[]> mounts = new ArrayList<>();
+        for (String[] fields : lines) {
+            // e.g. 36 32 0:32 / /sys/fs/cgroup/memory rw,relatime shared:15 - cgroup cgroup rw,memory
+            int separator = Arrays.asList(fields).indexOf("-");
+            if (separator < 5 || separator + 3 >= fields.length) {
+                continue;
+            }
+            String type = fields[separator + 1];
+            if (!MOUNT_TYPE_V1.equals(type) && !MOUNT_TYPE_V2.equals(type)) {
+                continue;
+            }
+            String mountPoint = unescape(fields[4]);
+            if (!mountPoint.equals(rootPath) && !mountPoint.startsWith(rootPath + "/")) {
+                continue;
+            }
+            mounts.add(new String[] {unescape(fields[3]), mountPoint, type, fields[separator + 3]});
+        }
+        return mounts;
+    }
+
+    /**
+     * Mount info escapes space, tab, newline and backslash in octal, e.g. {@code \040}.
+     */
+    private static String unescape(String path) {
+        if (path.indexOf('\\') < 0) {
+            return path;
+        }
+        StringBuilder sb = new StringBuilder(path.length());
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '\\' && i + 3 < path.length()) {
+                try {
+                    sb.append((char)Integer.parseInt(path.substring(i + 1, i + 4), 8));
+                    i += 3;
+                    continue;
+                } catch (NumberFormatException ignore) {
+                }
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static boolean containsToken(String list, String token) {
+        for (String item : list.split(",")) {
+            if (item.equals(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param limit max amount of fields per line (the last field holds the rest), or 0 for unlimited
+     * @return fields of the non-empty lines, or null if failed to read
+     */
+    private static List<String[]> readFields(File file, String separator, int limit) {
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+            List<String[]> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split(separator, limit > 0 ? limit : -1);
+                if (limit <= 0 || fields.length == limit) {
+                    lines.add(fields);
+                }
+            }
+            return lines;
+        } catch (IOException ex) {
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    private CgroupMetricsReader(boolean v2, File cpuDir, File cpuacctDir, File memoryDir,
+                                int availableProcessors) {
+        AssertUtil.isTrue(availableProcessors > 0, "availableProcessors should be positive");
+        this.v2 = v2;
+        this.availableProcessors = availableProcessors;
+        if (v2) {
+            this.cpuStat = new File(cpuDir, "cpu.stat");
+            this.cpuMax = new File(cpuDir, "cpu.max");
+            this.cpuQuota = null;
+            this.cpuPeriod = null;
+            this.cpuUsage = null;
+            this.memoryCurrent = new File(memoryDir, "memory.current");
+            this.memoryMax = new File(memoryDir, "memory.max");
+            this.cpuPressureFile = new File(cpuDir, "cpu.pressure");
+            this.memoryPressureFile = new File(memoryDir, "memory.pressure");
+        } else {
+            // cpu and cpuacct are usually co-mounted, and absent controllers lead to unavailable readings.
+            this.cpuStat = cpuDir == null ? null : new File(cpuDir, "cpu.stat");
+            this.cpuMax = null;
+            this.cpuQuota = cpuDir == null ? null : new File(cpuDir, "cpu.cfs_quota_us");
+            this.cpuPeriod = cpuDir == null ? null : new File(cpuDir, "cpu.cfs_period_us");
+            this.cpuUsage = cpuacctDir == null ? null : new File(cpuacctDir, "cpuacct.usage");
+            this.memoryCurrent = memoryDir == null ? null : new File(memoryDir, "memory.usage_in_bytes");
+            this.memoryMax = memoryDir == null ? null : new File(memoryDir, "memory.limit_in_bytes");
+            this.cpuPressureFile = null;
+            this.memoryPressureFile = null;
+        }
+    }
+
+    public boolean isV2() {
+        return v2;
+    }
+
+    /**
+     * Sample the cgroup files. Ratios of CPU are calculated against the former sample.
+     *
+     * @param nowNanos current time in nanoseconds, e.g. {@link System#nanoTime()}
+     */
+    public void sample(long nowNanos) {
+        sampleCpu(nowNanos);
+        sampleMemory();
+        this.cpuPressure = v2 ? readPressure(cpuPressureFile) : -1;
+        this.memoryPressure = v2 ? readPressure(memoryPressureFile) : -1;
+    }
+
+    private void sampleCpu(long nowNanos) {
+        long usageNanos = ABSENT;
+        long periods = ABSENT;
+        long throttled = ABSENT;
+        if (read(cpuStat)) {
+            if (v2) {
+                long usageUsec = keyedValue(KEY_USAGE_USEC);
+                usageNanos = usageUsec < 0 ? ABSENT : usageUsec * 1000;
+            }
+            periods = keyedValue(KEY_NR_PERIODS);
+            throttled = keyedValue(KEY_NR_THROTTLED);
+        }
+        if (!v2 && read(cpuUsage)) {
+            usageNanos = firstValue();
+        }
+
+        long elapsedNanos = lastSampleNanos < 0 ? 0 : nowNanos - lastSampleNanos;
+        if (usageNanos >= 0 && lastCpuUsageNanos >= 0 && elapsedNanos > 0) {
+            this.cpuQuotaUsage = (usageNanos - lastCpuUsageNanos) / (elapsedNanos * quotaCores());
+        } else {
+            this.cpuQuotaUsage = -1;
+        }
+        if (periods >= 0 && throttled >= 0 && lastPeriods >= 0) {
+            long periodDiff = periods - lastPeriods;
+            this.cpuThrottledRatio = periodDiff > 0 ? (double)(throttled - lastThrottled) / periodDiff : 0;
+        } else {
+            this.cpuThrottledRatio = -1;
+        }
+        this.lastSampleNanos = nowNanos;
+        this.lastCpuUsageNanos = usageNanos;
+        this.lastPeriods = periods;
+        this.lastThrottled = throttled;
+    }
+
+    /**
+     * @return CPU cores of the quota, or the available processors if unlimited
+     */
+    double quotaCores() {
+        long quota;
+        long period;
+        if (v2) {
+            if (!read(cpuMax)) {
+                return availableProcessors;
+            }
+            quota = firstValue();
+            period = secondValue();
+        } else {
+            quota = read(cpuQuota) ? firstValue() : ABSENT;
+            period = read(cpuPeriod) ? firstValue() : ABSENT;
+        }
+        // Negative quota (-1) means unlimited in v1.
+        if (quota <= 0 || quota == UNLIMITED || period <= 0) {
+            return availableProcessors;
+        }
+        return (double)quota / period;
+    }
+
+    private void sampleMemory() {
+        long current = read(memoryCurrent) ? firstValue() : ABSENT;
+        long max = read(memoryMax) ? firstValue() : ABSENT;
+        if (current < 0 || max <= 0 || max == UNLIMITED || (!v2 && max >= V1_UNLIMITED_MEMORY_THRESHOLD)) {
+            this.memoryUsage = -1;
+        } else {
+            this.memoryUsage = (double)current / max;
+        }
+    }
+
+    private double readPressure(File file) {
+        if (!read(file)) {
+            return -1;
+        }
+        int line = lineStartingWith(0, KEY_SOME);
+        if (line < 0) {
+            return -1;
+        }
+        int pos = indexOf(line, KEY_AVG10);
+        if (pos < 0) {
+            return -1;
+        }
+        return parseDecimal(pos + KEY_AVG10.length) / 100;
+    }
+
+    public double getCpuQuotaUsage() {
+        return cpuQuotaUsage;
+    }
+
+    public double getCpuThrottledRatio() {
+        return cpuThrottledRatio;
+    }
+
+    public double getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public double getCpuPressure() {
+        return cpuPressure;
+    }
+
+    public double getMemoryPressure() {
+        return memoryPressure;
+    }
+
+    /**
+     * Read the whole (small) file into the buffer.
+     */
+    private boolean read(File file) {
+        length = 0;
+        if (file == null) {
+            return false;
+        }
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            int n;
+            while (length < buffer.length && (n = in.read(buffer, length, buffer.length - length)) > 0) {
+                length += n;
+            }
+            return length > 0;
+        } catch (IOException ex) {
+            length = 0;
+            return false;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    /**
+     * @return value of the line {@code key value} in a flat keyed file, or {@link #ABSENT}
+     */
+    private long keyedValue(byte[] key) {
+        int from = 0;
+        while (from < length) {
+            int line = lineStartingWith(from, key);
+            if (line < 0) {
+                return ABSENT;
+            }
+            int pos = line + key.length;
+            if (pos < length && buffer[pos] == ' ') {
+                return parseLong(pos + 1);
+            }
+            from = nextLine(line);
+        }
+        return ABSENT;
+    }
+
+    private long firstValue() {
+        return parseLong(0);
+    }
+
+    private long secondValue() {
+        int pos = 0;
+        while (pos < length && buffer[pos] != ' ') {
+            pos++;
+        }
+        return parseLong(pos + 1);
+    }
+
+    private int lineStartingWith(int from, byte[] prefix) {
+        for (int line = from; line < length; line = nextLine(line)) {
+            if (regionMatches(line, prefix)) {
+                return line;
+            }
+        }
+        return -1;
+    }
+
+    private int nextLine(int pos) {
+        while (pos < length && buffer[pos] != '\n') {
+            pos++;
+        }
+        return pos + 1;
+    }
+
+    private int indexOf(int lineStart, byte[] token) {
+        for (int pos = lineStart; pos < length && buffer[pos] != '\n'; pos++) {
+            if (regionMatches(pos, token)) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private boolean regionMatches(int pos, byte[] token) {
+        if (pos + token.length > length) {
+            return false;
+        }
+        for (int i = 0; i < token.length; i++) {
+            if (buffer[pos + i] != token[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse a non-negative integer, or {@code max} as {@link #UNLIMITED}.
+     */
+    private long parseLong(int pos) {
+        if (pos >= length) {
+            return ABSENT;
+        }
+        if (buffer[pos] == 'm') {
+            return UNLIMITED;
+        }
+        boolean negative = buffer[pos] == '-';
+        if (negative) {
+            pos++;
+        }
+        long value = 0;
+        int start = pos;
+        while (pos < length && buffer[pos] >= '0' && buffer[pos] <= '9') {
+            value = value * 10 + (buffer[pos] - '0');
+            pos++;
+        }
+        if (pos == start) {
+            return ABSENT;
+        }
+        // Negative values (e.g. -1 of cfs_quota_us) stand for unlimited.
+        return negative ? UNLIMITED : value;
+    }
+
+    private double parseDecimal(int pos) {
+        long integer = 0;
+        while (pos < length && buffer[pos] >= '0' && buffer[pos] <= '9') {
+            integer = integer * 10 + (buffer[pos] - '0');
+            pos++;
+        }
+        double fraction = 0;
+        if (pos < length && buffer[pos] == '.') {
+            double scale = 0.1;
+            pos++;
+            while (pos < length && buffer[pos] >= '0' && buffer[pos] <= '9') {
+                fraction += (buffer[pos] - '0') * scale;
+                scale /= 10;
+                pos++;
+            }
+        }
+        return integer + fraction;
+    }
+}
@@ -48,6 +48,16 @@ public class SystemRule extends AbstractRule {
     private double qps = -1;
     private long avgRt = -1;
     private long maxThread = -1;
+    /**
+     * Container (cgroup) metrics, see {@link CgroupMetricsReader}, all between [0, 1].
+     *
+     * @since 1.8.6
+     */
+    private double highestCpuQuotaUsage = -1;
+    private double highestCpuThrottledRatio = -1;
+    private double highestMemoryUsage = -1;
+    private double highestCpuPressure = -1;
+    private double highestMemoryPressure = -1;
 
     public double getQps() {
         return qps;
@@ -131,6 +141,76 @@ public class SystemRule extends AbstractRule {
         this.highestCpuUsage = highestCpuUsage;
     }
 
+    public double getHighestCpuQuotaUsage() {
+        return highestCpuQuotaUsage;
+    }
+
+    /**
+     * Set highest CPU usage of the container, relative to its CPU quota (cgroup {@code cpu.max}).
+     *
+     * @param highestCpuQuotaUsage usage between [0, 1], values < 0 are special for clearing the threshold.
+     * @since 1.8.6
+     */
+    public void setHighestCpuQuotaUsage(double highestCpuQuotaUsage) {
+        this.highestCpuQuotaUsage = highestCpuQuotaUsage;
+    }
+
+    public double getHighestCpuThrottledRatio() {
+        return highestCpuThrottledRatio;
+    }
+
+    /**
+     * Set highest ratio of the CPU periods in which the container is throttled by its CPU quota.
+     *
+     * @param highestCpuThrottledRatio ratio between [0, 1], values < 0 are special for clearing the threshold.
+     * @since 1.8.6
+     */
+    public void setHighestCpuThrottledRatio(double highestCpuThrottledRatio) {
+        this.highestCpuThrottledRatio = highestCpuThrottledRatio;
+    }
+
+    public double getHighestMemoryUsage() {
+        return highestMemoryUsage;
+    }
+
+    /**
+     * Set highest memory usage of the container, relative to its memory limit.
+     *
+     * @param highestMemoryUsage usage between [0, 1], values < 0 are special for clearing the threshold.
+     * @since 1.8.6
+     */
+    public void setHighestMemoryUsage(double highestMemoryUsage) {
+        this.highestMemoryUsage = highestMemoryUsage;
+    }
+
+    public double getHighestCpuPressure() {
+        return highestCpuPressure;
+    }
+
+    /**
+     * Set highest CPU pressure (PSI {@code some avg10} of cgroup v2) of the container.
+     *
+     * @param highestCpuPressure pressure between [0, 1], values < 0 are special for clearing the threshold.
+     * @since 1.8.6
+     */
+    public void setHighestCpuPressure(double highestCpuPressure) {
+        this.highestCpuPressure = highestCpuPressure;
+    }
+
+    public double getHighestMemoryPressure() {
+        return highestMemoryPressure;
+    }
+
+    /**
+     * Set highest memory pressure (PSI {@code some avg10} of cgroup v2) of the container.
+     *
+     * @param highestMemoryPressure pressure between [0, 1], values < 0 are special for clearing the threshold.
+     * @since 1.8.6
+     */
+    public void setHighestMemoryPressure(double highestMemoryPressure) {
+        this.highestMemoryPressure = highestMemoryPressure;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -159,6 +239,13 @@ public class SystemRule extends AbstractRule {
         if (avgRt != that.avgRt) {
             return false;
         }
+        if (Double.compare(that.highestCpuQuotaUsage, highestCpuQuotaUsage) != 0
+            || Double.compare(that.highestCpuThrottledRatio, highestCpuThrottledRatio) != 0
+            || Double.compare(that.highestMemoryUsage, highestMemoryUsage) != 0
+            || Double.compare(that.highestCpuPressure, highestCpuPressure) != 0
+            || Double.compare(that.highestMemoryPressure, highestMemoryPressure) != 0) {
+            return false;
+        }
         return maxThread == that.maxThread;
     }
 
@@ -177,6 +264,12 @@ public class SystemRule extends AbstractRule {
 
         result = 31 * result + (int)(avgRt ^ (avgRt >>> 32));
         result = 31 * result + (int)(maxThread ^ (maxThread >>> 32));
+
+        for (double value : new double[] {highestCpuQuotaUsage, highestCpuThrottledRatio, highestMemoryUsage,
+            highestCpuPressure, highestMemoryPressure}) {
+            temp = Double.doubleToLongBits(value);
+            result = 31 * result + (int)(temp ^ (temp >>> 32));
+        }
         return result;
     }
 
@@ -188,6 +281,11 @@ public class SystemRule extends AbstractRule {
             ", qps=" + qps +
             ", avgRt=" + avgRt +
             ", maxThread=" + maxThread +
+            ", highestCpuQuotaUsage=" + highestCpuQuotaUsage +
+            ", highestCpuThrottledRatio=" + highestCpuThrottledRatio +
+            ", highestMemoryUsage=" + highestMemoryUsage +
+            ", highestCpuPressure=" + highestCpuPressure +
+            ", highestMemoryPressure=" + highestMemoryPressure +
             "}";
     }
 }
@@ -73,6 +73,14 @@ public final class SystemRuleManager {
     private static volatile double qps = Double.MAX_VALUE;
     private static volatile long maxRt = Long.MAX_VALUE;
     private static volatile long maxThread = Long.MAX_VALUE;
+    /**
+     * Container (cgroup) metrics thresholds, between [0, 1] (since 1.8.6).
+     */
+    private static volatile double highestCpuQuotaUsage = Double.MAX_VALUE;
+    private static volatile double highestCpuThrottledRatio = Double.MAX_VALUE;
+    private static volatile double highestMemoryUsage = Double.MAX_VALUE;
+    private static volatile double highestCpuPressure = Double.MAX_VALUE;
+    private static volatile double highestMemoryPressure = Double.MAX_VALUE;
     /**
      * mark whether the threshold are set by user.
      */
@@ -81,6 +89,11 @@ public final class SystemRuleManager {
     private static volatile boolean qpsIsSet = false;
     private static volatile boolean maxRtIsSet = false;
     private static volatile boolean maxThreadIsSet = false;
+    private static volatile boolean highestCpuQuotaUsageIsSet = false;
+    private static volatile boolean highestCpuThrottledRatioIsSet = false;
+    private static volatile boolean highestMemoryUsageIsSet = false;
+    private static volatile boolean highestCpuPressureIsSet = false;
+    private static volatile boolean highestMemoryPressureIsSet = false;
 
     private static AtomicBoolean checkSystemStatus = new AtomicBoolean(false);
 
@@ -165,6 +178,36 @@ public final class SystemRuleManager {
             result.add(qpsRule);
         }
 
+        if (highestCpuQuotaUsageIsSet) {
+            SystemRule rule = new SystemRule();
+            rule.setHighestCpuQuotaUsage(highestCpuQuotaUsage);
+            result.add(rule);
+        }
+
+        if (highestCpuThrottledRatioIsSet) {
+            SystemRule rule = new SystemRule();
+            rule.setHighestCpuThrottledRatio(highestCpuThrottledRatio);
+            result.add(rule);
+        }
+
+        if (highestMemoryUsageIsSet) {
+            SystemRule rule = new SystemRule();
+            rule.setHighestMemoryUsage(highestMemoryUsage);
+            result.add(rule);
+        }
+
+        if (highestCpuPressureIsSet) {
+            SystemRule rule = new SystemRule();
+            rule.setHighestCpuPressure(highestCpuPressure);
+            result.add(rule);
+        }
+
+        if (highestMemoryPressureIsSet) {
+            SystemRule rule = new SystemRule();
+            rule.setHighestMemoryPressure(highestMemoryPressure);
+            result.add(rule);
+        }
+
         return result;
     }
 
@@ -199,13 +242,23 @@ public final class SystemRuleManager {
                     + "highestCpuUsage: %e, "
                     + "maxRt: %d, "
                     + "maxThread: %d, "
-                    + "maxQps: %e",
+                    + "maxQps: %e, "
+                    + "highestCpuQuotaUsage: %e, "
+                    + "highestCpuThrottledRatio: %e, "
+                    + "highestMemoryUsage: %e, "
+                    + "highestCpuPressure: %e, "
+                    + "highestMemoryPressure: %e",
                 checkSystemStatus.get(),
                 highestSystemLoad,
                 highestCpuUsage,
                 maxRt,
                 maxThread,
-                qps));
+                qps,
+                highestCpuQuotaUsage,
+                highestCpuThrottledRatio,
+                highestMemoryUsage,
+                highestCpuPressure,
+                highestMemoryPressure));
         }
 
         protected void restoreSetting() {
@@ -217,12 +270,22 @@ public final class SystemRuleManager {
             maxRt = Long.MAX_VALUE;
             maxThread = Long.MAX_VALUE;
             qps = Double.MAX_VALUE;
+            highestCpuQuotaUsage = Double.MAX_VALUE;
+            highestCpuThrottledRatio = Double.MAX_VALUE;
+            highestMemoryUsage = Double.MAX_VALUE;
+            highestCpuPressure = Double.MAX_VALUE;
+            highestMemoryPressure = Double.MAX_VALUE;
 
             highestSystemLoadIsSet = false;
             highestCpuUsageIsSet = false;
             maxRtIsSet = false;
             maxThreadIsSet = false;
             qpsIsSet = false;
+            highestCpuQuotaUsageIsSet = false;
+            highestCpuThrottledRatioIsSet = false;
+            highestMemoryUsageIsSet = false;
+            highestCpuPressureIsSet = false;
+            highestMemoryPressureIsSet = false;
         }
 
     }
@@ -277,10 +340,47 @@ public final class SystemRuleManager {
             checkStatus = true;
         }
 
+        if (isValidRatio(rule.getHighestCpuQuotaUsage(), "highestCpuQuotaUsage")) {
+            highestCpuQuotaUsage = Math.min(highestCpuQuotaUsage, rule.getHighestCpuQuotaUsage());
+            highestCpuQuotaUsageIsSet = true;
+            checkStatus = true;
+        }
+        if (isValidRatio(rule.getHighestCpuThrottledRatio(), "highestCpuThrottledRatio")) {
+            highestCpuThrottledRatio = Math.min(highestCpuThrottledRatio, rule.getHighestCpuThrottledRatio());
+            highestCpuThrottledRatioIsSet = true;
+            checkStatus = true;
+        }
+        if (isValidRatio(rule.getHighestMemoryUsage(), "highestMemoryUsage")) {
+            highestMemoryUsage = Math.min(highestMemoryUsage, rule.getHighestMemoryUsage());
+            highestMemoryUsageIsSet = true;
+            checkStatus = true;
+        }
+        if (isValidRatio(rule.getHighestCpuPressure(), "highestCpuPressure")) {
+            highestCpuPressure = Math.min(highestCpuPressure, rule.getHighestCpuPressure());
+            highestCpuPressureIsSet = true;
+            checkStatus = true;
+        }
+        if (isValidRatio(rule.getHighestMemoryPressure(), "highestMemoryPressure")) {
+            highestMemoryPressure = Math.min(highestMemoryPressure, rule.getHighestMemoryPressure());
+            highestMemoryPressureIsSet = true;
+            checkStatus = true;
+        }
+
         checkSystemStatus.set(checkStatus);
 
     }
 
+    private static boolean isValidRatio(double value, String name) {
+        if (value < 0) {
+            return false;
+        }
+        if (value > 1) {
+            RecordLog.warn(String.format("[SystemRuleManager] Ignoring invalid SystemRule: %s %.3f > 1", name, value));
+            return false;
+        }
+        return true;
+    }
+
     /**
      * 将SystemRule应用到资源中。只会检查入站流量。
      * Apply {@link SystemRule} to the resource. Only inbound traffic will be checked.
@@ -330,6 +430,27 @@ public final class SystemRuleManager {
         if (highestCpuUsageIsSet && getCurrentCpuUsage() > highestCpuUsage) {
             throw new SystemBlockException(resourceWrapper.getName(), "cpu");
         }
+
+        // container (cgroup) metrics, which are negative (thus never exceed) if unavailable
+        checkContainerMetrics(resourceWrapper);
+    }
+
+    private static void checkContainerMetrics(ResourceWrapper resourceWrapper) throws SystemBlockException {
+        if (highestCpuQuotaUsageIsSet && statusListener.getCpuQuotaUsage() > highestCpuQuotaUsage) {
+            throw new SystemBlockException(resourceWrapper.getName(), "cpuQuota");
+        }
+        if (highestCpuThrottledRatioIsSet && statusListener.getCpuThrottledRatio() > highestCpuThrottledRatio) {
+            throw new SystemBlockException(resourceWrapper.getName(), "cpuThrottle");
+        }
+        if (highestMemoryUsageIsSet && statusListener.getMemoryUsage() > highestMemoryUsage) {
+            throw new SystemBlockException(resourceWrapper.getName(), "memory");
+        }
+        if (highestCpuPressureIsSet && statusListener.getCpuPressure() > highestCpuPressure) {
+            throw new SystemBlockException(resourceWrapper.getName(), "cpuPressure");
+        }
+        if (highestMemoryPressureIsSet && statusListener.getMemoryPressure() > highestMemoryPressure) {
+            throw new SystemBlockException(resourceWrapper.getName(), "memoryPressure");
+        }
     }
 
     private static boolean checkBbr(int currentThread) {
@@ -347,4 +468,39 @@ public final class SystemRuleManager {
     public static double getCurrentCpuUsage() {
         return statusListener.getCpuUsage();
     }
+
+    /**
+     * @since 1.8.6
+     */
+    public static double getCurrentCpuQuotaUsage() {
+        return statusListener.getCpuQuotaUsage();
+    }
+
+    /**
+     * @since 1.8.6
+     */
+    public static double getCurrentCpuThrottledRatio() {
+        return statusListener.getCpuThrottledRatio();
+    }
+
+    /**
+     * @since 1.8.6
+     */
+    public static double getCurrentMemoryUsage() {
+        return statusListener.getMemoryUsage();
+    }
+
+    /**
+     * @since 1.8.6
+     */
+    public static double getCurrentCpuPressure() {
+        return statusListener.getCpuPressure();
+    }
+
+    /**
+     * @since 1.8.6
+     */
+    public static double getCurrentMemoryPressure() {
+        return statusListener.getMemoryPressure();
+    }
 }
@@ -20,6 +20,7 @@ import java.lang.management.RuntimeMXBean;
 import java.util.concurrent.TimeUnit;
 
 import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
@@ -38,6 +39,31 @@ public class SystemStatusListener implements Runnable {
     volatile long processCpuTime = 0;
     volatile long processUpTime = 0;
 
+    /**
+     * Metrics of the current cgroup (container), null if not running in a cgroup.
+     *
+     * @since 1.8.6
+     */
+    private final CgroupMetricsReader cgroupReader;
+
+    volatile double currentCpuQuotaUsage = -1;
+    volatile double currentCpuThrottledRatio = -1;
+    volatile double currentMemoryUsage = -1;
+    volatile double currentCpuPressure = -1;
+    volatile double currentMemoryPressure = -1;
+
+    public SystemStatusListener() {
+        this(CgroupMetricsReader.detect(SentinelConfig.cgroupRoot()));
+    }
+
+    SystemStatusListener(CgroupMetricsReader cgroupReader) {
+        this.cgroupReader = cgroupReader;
+        if (cgroupReader != null) {
+            RecordLog.info("[SystemStatusListener] Reading container metrics from cgroup {}",
+                cgroupReader.isV2() ? "v2" : "v1");
+        }
+    }
+
     public double getSystemAverageLoad() {
         return currentLoad;
     }
@@ -46,6 +72,26 @@ public class SystemStatusListener implements Runnable {
         return currentCpuUsage;
     }
 
+    public double getCpuQuotaUsage() {
+        return currentCpuQuotaUsage;
+    }
+
+    public double getCpuThrottledRatio() {
+        return currentCpuThrottledRatio;
+    }
+
+    public double getMemoryUsage() {
+        return currentMemoryUsage;
+    }
+
+    public double getCpuPressure() {
+        return currentCpuPressure;
+    }
+
+    public double getMemoryPressure() {
+        return currentMemoryPressure;
+    }
+
     @Override
     public void run() {
         try {
@@ -76,6 +122,8 @@ public class SystemStatusListener implements Runnable {
 
             currentCpuUsage = Math.max(processCpuUsage, systemCpuUsage);
 
+            sampleCgroup();
+
             if (currentLoad > SystemRuleManager.getSystemLoadThreshold()) {
                 writeSystemStatusLog();
             }
@@ -84,11 +132,32 @@ public class SystemStatusListener implements Runnable {
         }
     }
 
+    void sampleCgroup() {
+        if (cgroupReader == null) {
+            return;
+        }
+        try {
+            cgroupReader.sample(System.nanoTime());
+            currentCpuQuotaUsage = cgroupReader.getCpuQuotaUsage();
+            currentCpuThrottledRatio = cgroupReader.getCpuThrottledRatio();
+            currentMemoryUsage = cgroupReader.getMemoryUsage();
+            currentCpuPressure = cgroupReader.getCpuPressure();
+            currentMemoryPressure = cgroupReader.getMemoryPressure();
+        } catch (Throwable e) {
+            RecordLog.warn("[SystemStatusListener] Failed to get container metrics from cgroup", e);
+        }
+    }
+
     private void writeSystemStatusLog() {
         StringBuilder sb = new StringBuilder();
         sb.append("Load exceeds the threshold: ");
         sb.append("load:").append(String.format("%.4f", currentLoad)).append("; ");
         sb.append("cpuUsage:").append(String.format("%.4f", currentCpuUsage)).append("; ");
+        if (cgroupReader != null) {
+            sb.append("cpuQuotaUsage:").append(String.format("%.4f", currentCpuQuotaUsage)).append("; ");
+            sb.append("cpuThrottled:").append(String.format("%.4f", currentCpuThrottledRatio)).append("; ");
+            sb.append("memoryUsage:").append(String.format("%.4f", currentMemoryUsage)).append("; ");
+        }
         sb.append("qps:").append(String.format("%.4f", Constants.ENTRY_NODE.passQps())).append("; ");
         sb.append("rt:").append(String.format("%.4f", Constants.ENTRY_NODE.avgRt())).append("; ");
         sb.append("thread:").append(Constants.ENTRY_NODE.curThreadNum()).append("; ");
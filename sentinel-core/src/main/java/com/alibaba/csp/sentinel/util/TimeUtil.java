@@ -19,10 +19,14 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.spi.SpiLoader;
 import com.alibaba.csp.sentinel.util.function.Tuple2;
+import com.alibaba.csp.sentinel.util.time.TickerTimeSource;
+import com.alibaba.csp.sentinel.util.time.TimeSource;
 
 /**
  * <p>Provides millisecond-level time of OS.</p>
@@ -35,6 +39,12 @@ import com.alibaba.csp.sentinel.util.function.Tuple2;
  * </pre>
  * For detail design and proposals please goto
  * <a href="https://github.com/alibaba/Sentinel/issues/1702#issuecomment-692151160">https://github.com/alibaba/Sentinel/issues/1702</a>
+ * </p>
+ * <p>
+ * Since 1.8.6, {@link #currentTimeMillis()} delegates to a pluggable {@link TimeSource}
+ * (configured via {@code csp.sentinel.time.source}), and the tick thread is only started
+ * when the default {@code ticker} time source is used.
+ * </p>
  *
  * @author qinan.qn
  * @author jason
@@ -63,7 +73,11 @@ public final class TimeUtil implements Runnable {
         }
     }
 
-    private static TimeUtil INSTANCE;
+    private static class TickerHolder {
+        private static final TimeUtil INSTANCE = new TimeUtil();
+    }
+
+    private static volatile TimeSource timeSource;
 
     private volatile long currentTimeMillis;
     private volatile STATE state = STATE.IDLE;
@@ -76,7 +90,7 @@ public final class TimeUtil implements Runnable {
     private long lastCheck = 0;
 
     static {
-        INSTANCE = new TimeUtil();
+        timeSource = resolveTimeSource();
     }
 
     public TimeUtil() {
@@ -215,11 +229,57 @@ public final class TimeUtil implements Runnable {
         return this.currentTime(false);
     }
 
+    /**
+     * Get the ticker instance. The tick thread will be started at the first call.
+     *
+     * @return the ticker instance
+     */
     public static TimeUtil instance() {
-        return INSTANCE;
+        return TickerHolder.INSTANCE;
     }
 
+    /**
+     * Current timestamp in milliseconds of the current {@link TimeSource}.
+     *
+     * @return current timestamp in milliseconds
+     */
     public static long currentTimeMillis() {
-        return INSTANCE.getTime();
+        return timeSource.currentTimeMillis();
+    }
+
+    /**
+     * Get the current time source.
+     *
+     * @return the current time source
+     * @since 1.8.6
+     */
+    public static TimeSource getTimeSource() {
+        return timeSource;
+    }
+
+    /**
+     * Replace the time source, e.g. with a {@link com.alibaba.csp.sentinel.util.time.ManualTimeSource} in tests.
+     *
+     * @param source the new time source, should not be null
+     * @since 1.8.6
+     */
+    public static void setTimeSource(TimeSource source) {
+        AssertUtil.notNull(source, "time source cannot be null");
+        timeSource = source;
+        RecordLog.info("[TimeUtil] Time source changed to: {}", source.getClass().getName());
+    }
+
+    private static TimeSource resolveTimeSource() {
+        String name = SentinelConfig.timeSource();
+        if (StringUtil.isNotBlank(name) && !TickerTimeSource.NAME.equals(name)) {
+            try {
+                TimeSource source = SpiLoader.of(TimeSource.class).loadInstance(name);
+                RecordLog.info("[TimeUtil] Resolved time source: {}", source.getClass().getName());
+                return source;
+            } catch (Throwable ex) {
+                RecordLog.warn("[TimeUtil] Failed to resolve time source <" + name + ">, fallback to default ticker", ex);
+            }
+        }
+        return new TickerTimeSource();
     }
 }
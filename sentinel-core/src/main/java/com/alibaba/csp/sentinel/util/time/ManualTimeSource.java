@@ -0,0 +1,58 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.time;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * Time source that is advanced manually, which is useful for deterministic tests.
+ *
+ * @since 1.8.6
+ */
+public final class ManualTimeSource implements TimeSource {
+
+    private final AtomicLong currentMillis;
+
+    public ManualTimeSource() {
+        this(0);
+    }
+
+    public ManualTimeSource(long initialMillis) {
+        this.currentMillis = new AtomicLong(initialMillis);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return currentMillis.get();
+    }
+
+    public void setCurrentTimeMillis(long timeMillis) {
+        currentMillis.set(timeMillis);
+    }
+
+    /**
+     * Advance the time by given milliseconds.
+     *
+     * @param millis the milliseconds to advance, must not be negative
+     * @return the time after advanced
+     */
+    public long advance(long millis) {
+        AssertUtil.isTrue(millis >= 0, "millis should not be negative");
+        return currentMillis.addAndGet(millis);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.time;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.spi.Spi;
+
+/**
+ * <p>Time source based on {@link System#nanoTime()}, anchored to the wall clock when created.</p>
+ *
+ * <p>The time never goes backwards even if the wall clock is adjusted (e.g. by NTP), so sliding windows
+ * and rate limiters won't be disturbed. The time may drift from the wall clock in the long run.</p>
+ *
+ * @since 1.8.6
+ */
+@Spi(MonotonicTimeSource.NAME)
+public final class MonotonicTimeSource implements TimeSource {
+
+    public static final String NAME = "monotonic";
+
+    private final long baseMillis;
+    private final long baseNanos;
+
+    public MonotonicTimeSource() {
+        this.baseMillis = System.currentTimeMillis();
+        this.baseNanos = System.nanoTime();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return baseMillis + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - baseNanos);
+    }
+}
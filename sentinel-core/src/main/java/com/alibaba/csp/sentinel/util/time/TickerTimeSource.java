@@ -0,0 +1,37 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.time;
+
+import com.alibaba.csp.sentinel.spi.Spi;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * The default time source, backed by the adaptive tick thread of {@link TimeUtil}.
+ *
+ * @since 1.8.6
+ */
+@Spi(value = TickerTimeSource.NAME, isDefault = true)
+public final class TickerTimeSource implements TimeSource {
+
+    public static final String NAME = "ticker";
+
+    private final TimeUtil ticker = TimeUtil.instance();
+
+    @Override
+    public long currentTimeMillis() {
+        return ticker.getTime();
+    }
+}
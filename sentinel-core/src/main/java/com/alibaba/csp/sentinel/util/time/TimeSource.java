@@ -0,0 +1,43 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.time;
+
+/**
+ * <p>The source of millisecond-level time used by Sentinel statistics, flow controllers and circuit breakers.
+ * All of them read time via {@link com.alibaba.csp.sentinel.util.TimeUtil#currentTimeMillis()},
+ * which delegates to the current time source.</p>
+ *
+ * <p>Built-in time sources can be selected via {@code csp.sentinel.time.source}:</p>
+ * <ul>
+ *     <li>{@code ticker} (default): {@link TickerTimeSource}, cached time refreshed by a daemon thread under load</li>
+ *     <li>{@code system}: {@link SystemTimeSource}, plain {@link System#currentTimeMillis()}</li>
+ *     <li>{@code monotonic}: {@link MonotonicTimeSource}, {@link System#nanoTime()} anchored to the wall clock</li>
+ * </ul>
+ * <p>Custom time sources can be registered via SPI (annotated with {@link com.alibaba.csp.sentinel.spi.Spi})
+ * and selected by their alias. {@link ManualTimeSource} is intended for tests and can be set programmatically
+ * via {@link com.alibaba.csp.sentinel.util.TimeUtil#setTimeSource(TimeSource)}.</p>
+ *
+ * @since 1.8.6
+ */
+public interface TimeSource {
+
+    /**
+     * Get current timestamp in milliseconds.
+     *
+     * @return current timestamp in milliseconds
+     */
+    long currentTimeMillis();
+}
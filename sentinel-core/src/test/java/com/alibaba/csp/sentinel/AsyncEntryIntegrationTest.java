@@ -20,11 +20,16 @@ import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import org.hamcrest.CoreMatchers;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
@@ -32,6 +37,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -239,6 +246,28 @@ public class AsyncEntryIntegrationTest {
         ContextTestUtil.cleanUpContext();
     }
 
+    @Test
+    public void testNonBlockingAsyncEntryWithRateLimiter() throws Exception {
+        String resourceName = "testNonBlockingAsyncEntryWithRateLimiter";
+        FlowRuleManager.loadRules(Collections.singletonList(new FlowRule(resourceName).setCount(10)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER).setMaxQueueingTimeMs(1000)));
+        try {
+            long start = System.currentTimeMillis();
+            AsyncEntry first = SphU.asyncEntryNonBlocking(resourceName, EntryType.IN);
+            AsyncEntry second = SphU.asyncEntryNonBlocking(resourceName, EntryType.IN);
+            // The queueing is left to the caller, so current thread won't be blocked.
+            assertTrue(System.currentTimeMillis() - start < 100);
+
+            assertTrue(first.isNonBlocking());
+            assertEquals(0, first.getWaitInMs());
+            assertTrue(second.getWaitInMs() > 50 && second.getWaitInMs() <= 100);
+            second.exit();
+            first.exit();
+        } finally {
+            FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+        }
+    }
+
     private void runAsync(Runnable f) {
         // In Java 8, we can use CompletableFuture.runAsync(f) instead.
         pool.submit(f);
@@ -0,0 +1,143 @@
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextTestUtil;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CtEntryPoolTest {
+
+    @Before
+    public void setUp() {
+        ContextTestUtil.cleanUpContext();
+        ContextTestUtil.setRecycleEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        ContextTestUtil.setRecycleEnabled(false);
+        ContextTestUtil.cleanUpContext();
+    }
+
+    private static CtEntry pooledEntryOf(Entry entry) {
+        assertTrue(entry instanceof PooledEntryHandle);
+        return ((PooledEntryHandle) entry).getEntry();
+    }
+
+    @Test
+    public void testEntryAndContextRecycled() throws BlockException {
+        Entry e1 = SphU.entry("testEntryRecycled-a");
+        Context c1 = ContextUtil.getContext();
+        CtEntry pooled = pooledEntryOf(e1);
+        assertTrue(pooled.pooled);
+        e1.exit();
+        assertNull(ContextUtil.getContext());
+
+        Entry e2 = SphU.entry("testEntryRecycled-b", EntryType.IN);
+        assertSame(pooled, pooledEntryOf(e2));
+        assertSame(c1, ContextUtil.getContext());
+        assertEquals("testEntryRecycled-b", e2.getResourceWrapper().getName());
+        assertEquals(EntryType.IN, e2.getResourceWrapper().getEntryType());
+        assertNotNull(e2.getCurNode());
+        assertNull(pooled.parent);
+        assertSame(pooled, ContextUtil.getContext().getCurEntry());
+        e2.exit();
+        assertNull(ContextUtil.getContext());
+    }
+
+    @Test
+    public void testNestedEntriesRecycled() throws BlockException {
+        Entry parent = SphU.entry("testNestedEntriesRecycled-parent");
+        Entry child = SphU.entry("testNestedEntriesRecycled-child");
+        CtEntry pooledParent = pooledEntryOf(parent);
+        CtEntry pooledChild = pooledEntryOf(child);
+        assertNotSame(pooledParent, pooledChild);
+        assertSame(pooledParent, pooledChild.parent);
+        child.exit();
+        assertSame(pooledParent, ContextUtil.getContext().getCurEntry());
+
+        Entry child2 = SphU.entry("testNestedEntriesRecycled-child2");
+        assertSame(pooledChild, pooledEntryOf(child2));
+        assertSame(pooledParent, pooledChild.parent);
+        assertSame(pooledChild, pooledParent.child);
+        child2.exit();
+        parent.exit();
+        assertNull(ContextUtil.getContext());
+    }
+
+    @Test
+    public void testResourceWrapperCached() throws BlockException {
+        Entry e1 = SphU.entry("testResourceWrapperCached");
+        Object wrapper = e1.getResourceWrapper();
+        e1.exit();
+        Entry e2 = SphU.entry("testResourceWrapperCached");
+        assertSame(wrapper, e2.getResourceWrapper());
+        e2.exit();
+    }
+
+    @Test
+    public void testAsyncEntryNotPooled() throws BlockException {
+        AsyncEntry entry = SphU.asyncEntry("testAsyncEntryNotPooled");
+        assertFalse(entry.pooled);
+        entry.exit();
+    }
+
+    @Test
+    public void testStaleHandleExitIgnored() throws BlockException {
+        Entry e1 = SphU.entry("testStaleHandleExitIgnored-a");
+        CtEntry pooled = pooledEntryOf(e1);
+        e1.exit();
+        // Exit again before reuse.
+        e1.exit();
+        assertNull(ContextUtil.getContext());
+
+        Entry e2 = SphU.entry("testStaleHandleExitIgnored-b");
+        assertSame(pooled, pooledEntryOf(e2));
+        assertNull(pooledEntryOf(e1));
+        assertNull(e1.getCurNode());
+
+        // Exit the stale handle after the entry has been reused: the new invocation should be kept.
+        e1.exit();
+        assertSame(pooled, ContextUtil.getContext().getCurEntry());
+        assertEquals("testStaleHandleExitIgnored-b", ContextUtil.getContext().getCurEntry()
+            .getResourceWrapper().getName());
+        e2.exit();
+        assertNull(ContextUtil.getContext());
+    }
+
+    @Test
+    public void testEntryWithAsyncChildNotRecycled() throws BlockException {
+        Entry grandParent = SphU.entry("testEntryWithAsyncChildNotRecycled-grandParent");
+        Entry parent = SphU.entry("testEntryWithAsyncChildNotRecycled-parent");
+        CtEntry pooledGrandParent = pooledEntryOf(grandParent);
+        CtEntry pooledParent = pooledEntryOf(parent);
+        AsyncEntry asyncEntry = SphU.asyncEntry("testEntryWithAsyncChildNotRecycled-async");
+        assertSame(pooledParent, asyncEntry.parent);
+        assertTrue(pooledParent.hasAsyncChild);
+        assertTrue(pooledGrandParent.hasAsyncChild);
+
+        parent.exit();
+        grandParent.exit();
+        assertNull(ContextUtil.getContext());
+
+        Entry e1 = SphU.entry("testEntryWithAsyncChildNotRecycled-other1");
+        Entry e2 = SphU.entry("testEntryWithAsyncChildNotRecycled-other2");
+        assertNotSame(pooledParent, pooledEntryOf(e1));
+        assertNotSame(pooledGrandParent, pooledEntryOf(e1));
+        assertNotSame(pooledParent, pooledEntryOf(e2));
+        assertNotSame(pooledGrandParent, pooledEntryOf(e2));
+        e2.exit();
+        e1.exit();
+
+        // The async context still refers to the original parent.
+        assertEquals("testEntryWithAsyncChildNotRecycled-parent", pooledParent.getResourceWrapper().getName());
+        assertSame(pooledParent.getCurNode(), asyncEntry.getLastNode());
+        asyncEntry.exit();
+    }
+}
@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.context;
 
 import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.util.function.Supplier;
 
 import org.junit.After;
 import org.junit.Before;
@@ -139,4 +140,48 @@ public class ContextTest {
         });
         assertEquals(contextName, ContextUtil.getContext().getName());
     }
+
+    @Test
+    public void testRunInContextRestoresOuterContext() {
+        final String outerName = "contextOuter";
+        final String innerName = "contextInner";
+        ContextUtil.enter(outerName, "originA");
+        final Context outerContext = ContextUtil.getContext();
+
+        ContextUtil.runInContext(innerName, "originB", new Runnable() {
+            @Override
+            public void run() {
+                Context context = ContextUtil.getContext();
+                assertNotSame(outerContext, context);
+                assertEquals(innerName, context.getName());
+                assertEquals("originB", context.getOrigin());
+            }
+        });
+        assertSame(outerContext, ContextUtil.getContext());
+        ContextUtil.exit();
+
+        String result = ContextUtil.callInContext(innerName, "originC", new Supplier<String>() {
+            @Override
+            public String get() {
+                return ContextUtil.getContext().getOrigin();
+            }
+        });
+        assertEquals("originC", result);
+        assertNull(ContextUtil.getContext());
+    }
+
+    @Test
+    public void testRunInContextUnboundOnError() {
+        try {
+            ContextUtil.runInContext("contextA", "", new Runnable() {
+                @Override
+                public void run() {
+                    throw new IllegalStateException("some error");
+                }
+            });
+            fail("should throw");
+        } catch (IllegalStateException ex) {
+            assertNull(ContextUtil.getContext());
+        }
+    }
 }
@@ -34,6 +34,10 @@ public final class ContextTestUtil {
         }
     }
 
+    public static void setRecycleEnabled(boolean enabled) {
+        ContextUtil.setRecycleEnabled(enabled);
+    }
+
     public static void resetContextMap() {
         ContextUtil.resetContextMap();
         Constants.ROOT.removeChildList();
@@ -0,0 +1,165 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.util.PidUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class BinaryMetricSearcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String baseDir;
+    private MetricWriter writer;
+    private long baseTime;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = folder.getRoot().getAbsolutePath() + File.separator;
+        // Metrics earlier than the creation of the writer are ignored.
+        baseTime = (System.currentTimeMillis() / 1000 + 1) * 1000;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private BinaryMetricSearcher searcher() {
+        return new BinaryMetricSearcher(baseDir,
+            MetricWriter.formBinaryMetricFileName(SentinelConfig.getAppName(), PidUtil.getPid()));
+    }
+
+    private static List<MetricNode> nodes(String... resources) {
+        List<MetricNode> list = new ArrayList<>();
+        for (String resource : resources) {
+            MetricNode node = new MetricNode();
+            node.setResource(resource);
+            node.setPassQps(resource.length());
+            node.setBlockQps(2);
+            node.setSuccessQps(3);
+            node.setExceptionQps(4);
+            node.setRt(5);
+            node.setOccupiedPassQps(6);
+            node.setConcurrency(7);
+            node.setClassification(1);
+            list.add(node);
+        }
+        return list;
+    }
+
+    @Test
+    public void testWriteAndFind() throws Exception {
+        writer = new MetricWriter(baseDir, 1024 * 1024, 6, true);
+        for (int i = 0; i < 10; i++) {
+            writer.write(baseTime + i * 1000, nodes("a", "bb", "c|c"));
+        }
+        BinaryMetricSearcher searcher = searcher();
+
+        List<MetricNode> list = searcher.find(baseTime + 5000, 4);
+        // Data of the same second should not be split.
+        assertEquals(6, list.size());
+        assertEquals(baseTime + 5000, list.get(0).getTimestamp());
+        assertEquals(baseTime + 6000, list.get(5).getTimestamp());
+        MetricNode node = list.get(1);
+        assertEquals("bb", node.getResource());
+        assertEquals(2, node.getPassQps());
+        assertEquals(2, node.getBlockQps());
+        assertEquals(3, node.getSuccessQps());
+        assertEquals(4, node.getExceptionQps());
+        assertEquals(5, node.getRt());
+        assertEquals(6, node.getOccupiedPassQps());
+        assertEquals(7, node.getConcurrency());
+        assertEquals(1, node.getClassification());
+
+        assertNull(searcher.find(baseTime + 10000, 10));
+
+        // Searched by second: [2, 4]
+        list = searcher.findByTimeAndResource(baseTime + 2500, baseTime + 4999, null);
+        assertEquals(9, list.size());
+        list = searcher.findByTimeAndResource(baseTime, baseTime + 100000, "c|c");
+        assertEquals(10, list.size());
+        for (MetricNode n : list) {
+            assertEquals("c|c", n.getResource());
+        }
+        assertTrue(searcher.findByTimeAndResource(baseTime, baseTime + 100000, "absent").isEmpty());
+
+        // Snapshots are refreshed when the file grows.
+        writer.write(baseTime + 10000, nodes("d"));
+        list = searcher.findByTimeAndResource(baseTime + 10000, baseTime + 10000, "d");
+        assertEquals(1, list.size());
+        assertEquals(baseTime + 10000, list.get(0).getTimestamp());
+    }
+
+    @Test
+    public void testFindAcrossFiles() throws Exception {
+        // Roll to a new file after every write.
+        writer = new MetricWriter(baseDir, 1, 100, true);
+        for (int i = 0; i < 5; i++) {
+            writer.write(baseTime + i * 1000, nodes("a", "b"));
+        }
+        BinaryMetricSearcher searcher = searcher();
+        List<MetricNode> list = searcher.find(baseTime + 1000, 3);
+        assertEquals(4, list.size());
+        assertEquals("a", list.get(2).getResource());
+        assertEquals(baseTime + 2000, list.get(3).getTimestamp());
+
+        list = searcher.findByTimeAndResource(baseTime + 1000, baseTime + 3000, "b");
+        assertEquals(3, list.size());
+        assertEquals(baseTime + 3000, list.get(2).getTimestamp());
+    }
+
+    @Test
+    public void testSameResultAsTextFormat() throws Exception {
+        writer = new MetricWriter(baseDir, 1024 * 1024, 6, true);
+        MetricWriter textWriter = new MetricWriter(baseDir, 1024 * 1024, 6, false);
+        try {
+            for (int i = 0; i < 5; i++) {
+                writer.write(baseTime + i * 1000, nodes("a", "b"));
+                textWriter.write(baseTime + i * 1000, nodes("a", "b"));
+            }
+        } finally {
+            textWriter.close();
+        }
+        MetricSearcher textSearcher = new MetricSearcher(baseDir,
+            MetricWriter.formMetricFileName(SentinelConfig.getAppName(), PidUtil.getPid()));
+        assertEquals(toThinStrings(textSearcher.findByTimeAndResource(baseTime + 1000, baseTime + 3000, "a")),
+            toThinStrings(searcher().findByTimeAndResource(baseTime + 1000, baseTime + 3000, "a")));
+    }
+
+    private static List<String> toThinStrings(List<MetricNode> nodes) {
+        List<String> list = new ArrayList<>();
+        for (MetricNode node : nodes) {
+            list.add(node.toThinString());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.util.PidUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class MetricSearcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String baseDir;
+    private MetricWriter writer;
+    private long baseTime;
+
+    @Before
+    public void setUp() {
+        baseDir = folder.getRoot().getAbsolutePath() + File.separator;
+        // Metrics earlier than the creation of the writer are ignored.
+        baseTime = (System.currentTimeMillis() / 1000 + 1) * 1000;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private MetricSearcher searcher() {
+        return new MetricSearcher(baseDir,
+            MetricWriter.formMetricFileName(SentinelConfig.getAppName(), PidUtil.getPid()));
+    }
+
+    private void write(long time, String... resources) throws Exception {
+        List<MetricNode> list = new ArrayList<>();
+        for (String resource : resources) {
+            MetricNode node = new MetricNode();
+            node.setResource(resource);
+            node.setPassQps(1);
+            list.add(node);
+        }
+        writer.write(time, list);
+    }
+
+    @Test
+    public void testFindAfterIndexGrows() throws Exception {
+        writer = new MetricWriter(baseDir, 1024 * 1024, 6, false);
+        MetricSearcher searcher = searcher();
+        assertNull(searcher.find(baseTime, 10));
+
+        for (int i = 0; i < 5; i++) {
+            write(baseTime + i * 1000, "a", "b");
+        }
+        List<MetricNode> list = searcher.find(baseTime + 1000, 3);
+        assertEquals(4, list.size());
+        assertEquals(baseTime + 1000, list.get(0).getTimestamp());
+
+        // Query earlier than the last one.
+        list = searcher.findByTimeAndResource(baseTime, baseTime + 1000, "b");
+        assertEquals(2, list.size());
+
+        write(baseTime + 5000, "c");
+        write(baseTime + 6000, "c");
+        list = searcher.findByTimeAndResource(baseTime + 5000, baseTime + 6000, "c");
+        assertEquals(2, list.size());
+        assertEquals(baseTime + 5000, list.get(0).getTimestamp());
+        assertEquals(baseTime + 6000, list.get(1).getTimestamp());
+    }
+
+    @Test
+    public void testConcurrentFind() throws Exception {
+        writer = new MetricWriter(baseDir, 4096, 100, false);
+        for (int i = 0; i < 100; i++) {
+            write(baseTime + i * 1000, "a", "b", "c");
+        }
+        final MetricSearcher searcher = searcher();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 64; t++) {
+                final int begin = t % 90;
+                futures.add(pool.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        List<MetricNode> list = searcher.findByTimeAndResource(baseTime + begin * 1000,
+                            baseTime + (begin + 9) * 1000, "b");
+                        if (list.size() != 10) {
+                            return false;
+                        }
+                        for (int i = 0; i < list.size(); i++) {
+                            if (list.get(i).getTimestamp() != baseTime + (begin + i) * 1000) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.property;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link RuleDiff}.
+ */
+public class RuleDiffTest {
+
+    @Test
+    public void testDiff() {
+        FlowRule a = new FlowRule("a").setCount(1);
+        FlowRule b = new FlowRule("b").setCount(2);
+        FlowRule c = new FlowRule("c").setCount(3);
+        FlowRule newA = new FlowRule("a").setCount(1);
+        FlowRule newB = new FlowRule("b").setCount(5);
+
+        RuleDiff<FlowRule> diff = RuleDiff.of(Arrays.asList(a, b, c), Arrays.asList(newB, newA, newA, c));
+        assertTrue(diff.hasChanges());
+        assertSame(a, diff.getRetained(newA));
+        assertNull(diff.getRetained(newB));
+        // The same instance is regarded as changed, as it might have been modified in place.
+        assertNull(diff.getRetained(c));
+        assertEquals(Arrays.asList(newB, c), diff.getAdded());
+        assertEquals(2, diff.getRemoved().size());
+        assertTrue(diff.getRemoved().contains(b));
+        assertEquals(1, diff.getRetainedCount());
+    }
+
+    @Test
+    public void testNoChanges() {
+        RuleDiff<FlowRule> diff = RuleDiff.of(Arrays.asList(new FlowRule("a").setCount(1)),
+            Arrays.asList(new FlowRule("a").setCount(1)));
+        assertFalse(diff.hasChanges());
+        assertEquals(1, diff.getRetainedCount());
+
+        assertFalse(RuleDiff.<FlowRule>of(null, Collections.<FlowRule>emptyList()).hasChanges());
+    }
+}
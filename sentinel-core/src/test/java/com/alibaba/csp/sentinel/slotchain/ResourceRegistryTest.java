@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slotchain;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.util.function.Function;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ResourceRegistryTest {
+
+    @Test
+    public void testGetOrCreateWithCapacity() {
+        ResourceRegistry<String, Object> registry = new ResourceRegistry<>(2);
+        final AtomicInteger created = new AtomicInteger();
+        Function<String, Object> factory = new Function<String, Object>() {
+            @Override
+            public Object apply(String s) {
+                created.incrementAndGet();
+                return new Object();
+            }
+        };
+
+        Object a = registry.getOrCreate("a", factory);
+        assertNotNull(a);
+        assertSame(a, registry.getOrCreate("a", factory));
+        assertNotNull(registry.getOrCreate("b", factory));
+        assertTrue(registry.isFull());
+
+        assertNull(registry.getOrCreate("c", factory));
+        assertFalse(registry.asMap().containsKey("c"));
+        assertEquals(2, created.get());
+        assertEquals(2, registry.size());
+
+        registry.clear();
+        assertNotNull(registry.getOrCreate("c", factory));
+    }
+
+    @Test
+    public void testConcurrentGetOrCreate() throws Exception {
+        final ResourceRegistry<String, Object> registry = new ResourceRegistry<>();
+        final AtomicInteger created = new AtomicInteger();
+        final Function<String, Object> factory = new Function<String, Object>() {
+            @Override
+            public Object apply(String s) {
+                created.incrementAndGet();
+                return new Object();
+            }
+        };
+        int threads = 8;
+        final int keys = 1000;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < keys; i++) {
+                        registry.getOrCreate("res-" + i, factory);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdownNow();
+
+        assertEquals(keys, registry.size());
+        assertEquals(keys, created.get());
+    }
+}
@@ -56,4 +56,27 @@ public class AuthorityRuleCheckerTest {
             ContextUtil.exit();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPassCheckWithCompiledLimitApps() {
+        String origin = "appA";
+        ContextUtil.enter("entrance", origin);
+        try {
+            AuthorityRule rule = new AuthorityRule()
+                .setResource("testPassCheckWithCompiledLimitApps")
+                .setLimitApp("appAB," + origin)
+                .as(AuthorityRule.class)
+                .setStrategy(RuleConstant.AUTHORITY_BLACK);
+            rule.compileLimitApps();
+            assertNotNull(rule.getLimitAppSet());
+            assertFalse(AuthorityRuleChecker.passCheck(rule, ContextUtil.getContext()));
+
+            // The compiled limit apps should not be used once the limit app is changed.
+            rule.setLimitApp("appAB");
+            assertNull(rule.getLimitAppSet());
+            assertTrue(AuthorityRuleChecker.passCheck(rule, ContextUtil.getContext()));
+        } finally {
+            ContextUtil.exit();
+        }
+    }
+}
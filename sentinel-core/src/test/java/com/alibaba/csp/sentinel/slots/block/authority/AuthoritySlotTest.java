@@ -13,6 +13,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.*;
+
 /**
  * Test cases for {@link AuthoritySlot}.
  *
@@ -91,6 +93,36 @@ public class AuthoritySlotTest {
         }
     }
 
+    @Test
+    public void testCheckAuthorityAfterRulesUpdated() throws Exception {
+        String origin = "appA";
+        String resourceName = "testCheckAuthorityAfterRulesUpdated";
+        ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.IN);
+        ContextUtil.enter("entrance", origin);
+        try {
+            // No rules at first, then the updated rules should take effect at once.
+            authoritySlot.checkBlackWhiteAuthority(resourceWrapper, ContextUtil.getContext());
+
+            AuthorityRule rule = new AuthorityRule()
+                .setResource(resourceName)
+                .setLimitApp(origin)
+                .as(AuthorityRule.class)
+                .setStrategy(RuleConstant.AUTHORITY_BLACK);
+            AuthorityRuleManager.loadRules(Collections.singletonList(rule));
+            try {
+                authoritySlot.checkBlackWhiteAuthority(resourceWrapper, ContextUtil.getContext());
+                fail("should be blocked by the updated rules");
+            } catch (AuthorityException ex) {
+                assertSame(rule, ex.getRule());
+            }
+
+            AuthorityRuleManager.loadRules(null);
+            authoritySlot.checkBlackWhiteAuthority(resourceWrapper, ContextUtil.getContext());
+        } finally {
+            ContextUtil.exit();
+        }
+    }
+
     /*@Test
     public void testCheckAuthorityWithExceptionItemsSuccess() throws Exception {
         String origin = "ipA";
@@ -0,0 +1,115 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.concurrency;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test cases for {@link GradientConcurrencyLimiter} and {@link VegasConcurrencyLimiter}.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static Node mockNode(double successQps, double avgRt, double minRt, int threads) {
+        Node node = mock(Node.class);
+        when(node.successQps()).thenReturn(successQps);
+        when(node.avgRt()).thenReturn(avgRt);
+        when(node.minRt()).thenReturn(minRt);
+        when(node.curThreadNum()).thenReturn(threads);
+        return node;
+    }
+
+    private static ConcurrencyLimitRule newRule(int strategy) {
+        return new ConcurrencyLimitRule("abc")
+            .setStrategy(strategy)
+            .setInitialLimit(20)
+            .setMaxLimit(200)
+            .setSmoothing(1)
+            .setUpdateIntervalMs(1000);
+    }
+
+    @Test
+    public void testGradientLimitGrowsWithStableRt() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(
+            newRule(RuleConstant.CONCURRENCY_LIMIT_GRADIENT));
+        // 20 in-flight requests: 1000 qps * 20 ms.
+        Node node = mockNode(1000, 20, 10, 20);
+        limiter.tryUpdate(node, 1000);
+        // 20 * 1 + sqrt(20)
+        assertEquals(24, limiter.getLimit());
+        assertEquals(20, limiter.getLongRt(), 0.01);
+
+        // Not updated within the interval.
+        limiter.tryUpdate(node, 1500);
+        assertEquals(24, limiter.getLimit());
+    }
+
+    @Test
+    public void testGradientLimitShrinksWhenRtRises() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(
+            newRule(RuleConstant.CONCURRENCY_LIMIT_GRADIENT));
+        limiter.tryUpdate(mockNode(1000, 20, 10, 20), 1000);
+        int limit = limiter.getLimit();
+
+        // RT is tripled by queueing: long RT = 20 * 0.95 + 60 * 0.05 = 22, gradient = 1.5 * 22 / 60 = 0.55.
+        limiter.tryUpdate(mockNode(1000, 60, 10, limit), 2000);
+        assertEquals(22, limiter.getLongRt(), 0.01);
+        // 24.47 * 0.55 + sqrt(24.47)
+        assertEquals(18, limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitNotGrowingWhenAppLimited() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(
+            newRule(RuleConstant.CONCURRENCY_LIMIT_GRADIENT));
+        // Only ~2 in-flight requests against a limit of 20.
+        limiter.tryUpdate(mockNode(100, 20, 10, 2), 1000);
+        assertEquals(20, limiter.getLimit());
+
+        // No successful requests, no update at all.
+        limiter.tryUpdate(mockNode(0, 0, 5000, 0), 2000);
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    public void testVegasLimit() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(newRule(RuleConstant.CONCURRENCY_LIMIT_VEGAS));
+        // No queueing: avgRt equals to the no-load RT, grow by beta = 6 * log10(20).
+        limiter.tryUpdate(mockNode(2000, 10, 10, 20), 1000);
+        assertEquals(10, limiter.getNoLoadRt(), 0.01);
+        assertEquals(27, limiter.getLimit());
+
+        // Heavy queueing: RT doubled, the queue (27.8 / 2) is beyond beta (8.7), shrink by log10(27.8).
+        limiter.tryUpdate(mockNode(1400, 20, 15, 27), 2000);
+        assertEquals(10, limiter.getNoLoadRt(), 0.01);
+        assertEquals(26, limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitClamped() {
+        ConcurrencyLimitRule rule = newRule(RuleConstant.CONCURRENCY_LIMIT_VEGAS).setMaxLimit(22).setMinLimit(5);
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(rule);
+        limiter.tryUpdate(mockNode(2000, 10, 10, 20), 1000);
+        assertEquals(22, limiter.getLimit());
+
+        assertEquals(5, new GradientConcurrencyLimiter(rule.setInitialLimit(1)).getLimit());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.concurrency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test cases for {@link ConcurrencyLimitSlot} and {@link ConcurrencyLimitRuleManager}.
+ */
+public class ConcurrencyLimitSlotTest {
+
+    @Before
+    public void setUp() {
+        ConcurrencyLimitRuleManager.loadRules(new ArrayList<ConcurrencyLimitRule>());
+    }
+
+    @After
+    public void tearDown() {
+        ConcurrencyLimitRuleManager.loadRules(new ArrayList<ConcurrencyLimitRule>());
+    }
+
+    @Test
+    public void testLoadRulesReuseLimiter() {
+        String resource = "testLoadRulesReuseLimiter";
+        ConcurrencyLimitRule rule = new ConcurrencyLimitRule(resource);
+        ConcurrencyLimitRuleManager.loadRules(Arrays.asList(rule,
+            new ConcurrencyLimitRule("invalid").setMinLimit(0),
+            new ConcurrencyLimitRule("unknown").setStrategy(5)));
+        assertEquals(1, ConcurrencyLimitRuleManager.getRules().size());
+        assertEquals(RuleConstant.LIMIT_APP_DEFAULT, rule.getLimitApp());
+        AdaptiveConcurrencyLimiter limiter = ConcurrencyLimitRuleManager.getLimiters(resource).get(0);
+        assertTrue(limiter instanceof GradientConcurrencyLimiter);
+
+        ConcurrencyLimitRuleManager.loadRules(Arrays.asList(new ConcurrencyLimitRule(resource),
+            new ConcurrencyLimitRule("abc").setStrategy(RuleConstant.CONCURRENCY_LIMIT_VEGAS)));
+        assertSame(limiter, ConcurrencyLimitRuleManager.getLimiters(resource).get(0));
+        assertTrue(ConcurrencyLimitRuleManager.getLimiters("abc").get(0) instanceof VegasConcurrencyLimiter);
+        assertFalse(ConcurrencyLimitRuleManager.hasConfig("testLoadRulesReuseLimiter-other"));
+    }
+
+    @Test
+    public void testCheckConcurrencyLimit() throws Exception {
+        String resourceName = "testCheckConcurrencyLimit";
+        ResourceWrapper resource = new StringResourceWrapper(resourceName, EntryType.IN);
+        ClusterNode clusterNode = mock(ClusterNode.class);
+        DefaultNode node = mock(DefaultNode.class);
+        when(node.getClusterNode()).thenReturn(clusterNode);
+        when(clusterNode.curThreadNum()).thenReturn(4);
+
+        ConcurrencyLimitSlot slot = new ConcurrencyLimitSlot();
+        // No rules.
+        slot.checkConcurrencyLimit(resource, node);
+
+        ConcurrencyLimitRuleManager.loadRules(Collections.singletonList(
+            new ConcurrencyLimitRule(resourceName).setInitialLimit(5)));
+        slot.checkConcurrencyLimit(resource, node);
+
+        when(clusterNode.curThreadNum()).thenReturn(5);
+        try {
+            slot.checkConcurrencyLimit(resource, node);
+            fail("should be blocked");
+        } catch (ConcurrencyLimitException e) {
+            assertEquals(resourceName, e.getRule().getResource());
+        }
+    }
+
+    @Test
+    public void testSharedSlotAmongResources() throws Exception {
+        // Slots are SPI singletons, so one slot instance serves all the resources.
+        ResourceWrapper limited = new StringResourceWrapper("testSharedSlotAmongResources-a", EntryType.IN);
+        ResourceWrapper unlimited = new StringResourceWrapper("testSharedSlotAmongResources-b", EntryType.IN);
+        ClusterNode clusterNode = mock(ClusterNode.class);
+        DefaultNode node = mock(DefaultNode.class);
+        when(node.getClusterNode()).thenReturn(clusterNode);
+        when(clusterNode.curThreadNum()).thenReturn(5);
+        ConcurrencyLimitRuleManager.loadRules(Arrays.asList(
+            new ConcurrencyLimitRule(limited.getName()).setInitialLimit(5),
+            new ConcurrencyLimitRule(unlimited.getName()).setInitialLimit(100)));
+
+        ConcurrencyLimitSlot slot = new ConcurrencyLimitSlot();
+        for (int i = 0; i < 3; i++) {
+            slot.checkConcurrencyLimit(unlimited, node);
+            try {
+                slot.checkConcurrencyLimit(limited, node);
+                fail("should be blocked");
+            } catch (ConcurrencyLimitException e) {
+                assertEquals(limited.getName(), e.getRule().getResource());
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test cases for {@link PercentileResponseTimeCircuitBreaker}, {@link RollingCounter}
+ * and {@link LogLinearHistogram}.
+ */
+public class PercentileResponseTimeCircuitBreakerTest extends AbstractTimeBasedTest {
+
+    @Before
+    public void setUp() {
+        DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+    }
+
+    @After
+    public void tearDown() {
+        DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+    }
+
+    @Test
+    public void testOpenWhenPercentileExceedsMaxRt() {
+        String resource = "testOpenWhenPercentileExceedsMaxRt";
+        DegradeRule rule = new DegradeRule(resource)
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT_PERCENTILE)
+            .setCount(10)
+            .setSlowPercentile(0.9)
+            .setMinRequestAmount(10)
+            .setStatIntervalMs(10000)
+            .setTimeWindow(5);
+        DegradeRuleManager.loadRules(Collections.singletonList(rule));
+
+        setCurrentMillis(System.currentTimeMillis() / 10000 * 10000);
+        // 1 slow request out of 10: p90 is still fast.
+        for (int i = 0; i < 9; i++) {
+            assertTrue(entryAndSleepFor(resource, 1));
+        }
+        assertTrue(entryAndSleepFor(resource, 50));
+        assertTrue(entryAndSleepFor(resource, 1));
+
+        // 2 slow requests out of 12: p90 (the 11th) becomes slow.
+        assertTrue(entryAndSleepFor(resource, 50));
+        assertFalse(entryAndSleepFor(resource, 1));
+
+        // Half-open after the recovery timeout, and closed by a fast probe.
+        sleepSecond(5);
+        assertTrue(entryAndSleepFor(resource, 1));
+        assertTrue(entryAndSleepFor(resource, 50));
+    }
+
+    @Test
+    public void testPercentileRt() {
+        DegradeRule rule = new DegradeRule("testPercentileRt")
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT_PERCENTILE)
+            .setCount(100)
+            .setSlowPercentile(0.99)
+            .setMinRequestAmount(1000)
+            .setTimeWindow(5);
+        PercentileResponseTimeCircuitBreaker cb = new PercentileResponseTimeCircuitBreaker(rule);
+        setCurrentMillis(10000);
+        assertEquals(0, cb.getPercentileRt());
+
+        Entry entry = mock(Entry.class);
+        Context context = mock(Context.class);
+        when(context.getCurEntry()).thenReturn(entry);
+        when(entry.getCreateTimestamp()).thenReturn(10000L);
+        for (int i = 1; i <= 100; i++) {
+            when(entry.getCompleteTimestamp()).thenReturn(10000L + i);
+            cb.onRequestComplete(context);
+        }
+        // The 99th of 1..100 is 99, which is in bucket [96, 103].
+        assertEquals(103, cb.getPercentileRt());
+        assertEquals(CircuitBreaker.State.CLOSED, cb.currentState());
+    }
+
+    @Test
+    public void testInvalidPercentile() {
+        DegradeRule rule = new DegradeRule("testInvalidPercentile")
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT_PERCENTILE)
+            .setCount(10)
+            .setTimeWindow(5);
+        assertTrue(DegradeRuleManager.isValidRule(rule));
+        assertFalse(DegradeRuleManager.isValidRule(rule.setSlowPercentile(0)));
+        assertFalse(DegradeRuleManager.isValidRule(rule.setSlowPercentile(1.5)));
+    }
+
+    @Test
+    public void testRollingCounterTotals() {
+        RollingCounter counter = new RollingCounter(2, 1000, 2);
+        int bucket = counter.currentBucket(1000);
+        counter.add(bucket, 0, 3);
+        counter.add(bucket, 1, 1);
+        bucket = counter.currentBucket(1600);
+        counter.add(bucket, 0, 2);
+        assertEquals(5, counter.total(0));
+        assertEquals(1, counter.total(1));
+
+        // The first bucket rolls over.
+        bucket = counter.currentBucket(2000);
+        counter.add(bucket, 0, 1);
+        assertEquals(3, counter.total(0));
+        assertEquals(0, counter.total(1));
+
+        // All former buckets are deprecated.
+        counter.currentBucket(5000);
+        assertEquals(0, counter.total(0));
+
+        bucket = counter.currentBucket(5100);
+        counter.add(bucket, 1, 4);
+        counter.reset();
+        assertEquals(0, counter.total(1));
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        for (long value = 0; value < 100000; value++) {
+            int bucket = LogLinearHistogram.bucketOf(value);
+            assertTrue(bucket >= 0 && bucket < LogLinearHistogram.BUCKET_COUNT);
+            long highest = LogLinearHistogram.highestValueOf(bucket);
+            assertTrue(highest >= value);
+            if (value < LogLinearHistogram.LINEAR_LIMIT) {
+                assertEquals(value, highest);
+            } else {
+                assertTrue(highest - value < value / LogLinearHistogram.SUB_BUCKET_COUNT + 1);
+            }
+            if (bucket > 0) {
+                assertTrue(LogLinearHistogram.highestValueOf(bucket - 1) < value);
+            }
+        }
+        assertEquals(LogLinearHistogram.BUCKET_COUNT - 1, LogLinearHistogram.bucketOf(Long.MAX_VALUE));
+    }
+}
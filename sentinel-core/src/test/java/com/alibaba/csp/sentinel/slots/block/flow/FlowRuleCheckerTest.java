@@ -21,6 +21,7 @@ import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
@@ -99,6 +100,42 @@ public class FlowRuleCheckerTest {
         assertNull(FlowRuleChecker.selectNodeByRequesterAndStrategy(ruleB, context, node));
     }
 
+    @Test
+    public void testCompiledNodeSelectorConsistentWithLegacySelection() {
+        String resourceName = "testCompiledNodeSelectorConsistentWithLegacySelection";
+        DefaultNode node = mock(DefaultNode.class);
+        DefaultNode originNode = mock(DefaultNode.class);
+        ClusterNode cn = mock(ClusterNode.class);
+        when(node.getClusterNode()).thenReturn(cn);
+        Context context = mock(Context.class);
+        when(context.getOriginNode()).thenReturn(originNode);
+        when(context.getName()).thenReturn("entrance");
+
+        FlowRule ruleA = new FlowRule(resourceName).setCount(1);
+        ruleA.setLimitApp("appA");
+        FlowRule ruleOther = new FlowRule(resourceName).setCount(2);
+        ruleOther.setLimitApp(RuleConstant.LIMIT_APP_OTHER);
+        FlowRule ruleDefault = new FlowRule(resourceName).setCount(3);
+        FlowRule ruleChain = new FlowRule(resourceName).setCount(4)
+            .setStrategy(RuleConstant.STRATEGY_CHAIN)
+            .setRefResource("entrance");
+        FlowRuleManager.loadRules(Arrays.asList(ruleA, ruleOther, ruleDefault, ruleChain));
+
+        for (FlowRule rule : FlowRuleManager.getFlowRuleMap().get(resourceName)) {
+            assertNotNull(rule.getNodeSelector());
+            for (String origin : Arrays.asList("appA", "appB", "", RuleConstant.LIMIT_APP_DEFAULT,
+                RuleConstant.LIMIT_APP_OTHER)) {
+                when(context.getOrigin()).thenReturn(origin);
+                Node compiled = FlowRuleChecker.selectNodeByRequesterAndStrategy(rule, context, node);
+                FlowNodeSelector selector = rule.getNodeSelector();
+                rule.setNodeSelector(null);
+                Node legacy = FlowRuleChecker.selectNodeByRequesterAndStrategy(rule, context, node);
+                rule.setNodeSelector(selector);
+                assertSame("rule=" + rule + ", origin=" + origin, legacy, compiled);
+            }
+        }
+    }
+
     @Test
     public void testSelectNodeForEmptyReference() {
         DefaultNode node = mock(DefaultNode.class);
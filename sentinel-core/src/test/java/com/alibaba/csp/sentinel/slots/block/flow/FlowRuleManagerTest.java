@@ -19,10 +19,15 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 /**
  * @author Weihua
@@ -76,4 +81,45 @@ public class FlowRuleManagerTest {
         }
         latchEnd.await(10, TimeUnit.SECONDS);
     }
+
+    @Test
+    public void testReuseControllersOfRetainedRules() {
+        try {
+            List<FlowRule> rules = new ArrayList<FlowRule>();
+            rules.add(newWarmUpRule("testReuseControllers-a", 10));
+            rules.add(newWarmUpRule("testReuseControllers-b", 20));
+            FlowRuleManager.loadRules(rules);
+            TrafficShapingController raterA = FlowRuleManager.getFlowRuleMap().get("testReuseControllers-a")
+                .get(0).getRater();
+            TrafficShapingController raterB = FlowRuleManager.getFlowRuleMap().get("testReuseControllers-b")
+                .get(0).getRater();
+
+            // Equal rules of new instances, in a different order: nothing is rebuilt.
+            Map<String, List<FlowRule>> ruleMap = FlowRuleManager.getFlowRuleMap();
+            List<FlowRule> reordered = new ArrayList<FlowRule>();
+            reordered.add(newWarmUpRule("testReuseControllers-b", 20));
+            reordered.add(newWarmUpRule("testReuseControllers-a", 10));
+            FlowRuleManager.loadRules(reordered);
+            assertSame(ruleMap, FlowRuleManager.getFlowRuleMap());
+
+            // Only the changed rule gets a new controller.
+            List<FlowRule> changed = new ArrayList<FlowRule>();
+            changed.add(newWarmUpRule("testReuseControllers-a", 10));
+            changed.add(newWarmUpRule("testReuseControllers-b", 30));
+            FlowRuleManager.loadRules(changed);
+            assertSame(raterA, FlowRuleManager.getFlowRuleMap().get("testReuseControllers-a").get(0).getRater());
+            assertNotSame(raterB, FlowRuleManager.getFlowRuleMap().get("testReuseControllers-b").get(0).getRater());
+            assertEquals(2, FlowRuleManager.getRules().size());
+        } finally {
+            FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+        }
+    }
+
+    private static FlowRule newWarmUpRule(String resource, double count) {
+        FlowRule rule = new FlowRule(resource);
+        rule.setCount(count);
+        rule.setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_WARM_UP);
+        rule.setWarmUpPeriodSec(10);
+        return rule;
+    }
 }
@@ -15,20 +15,20 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.context.ContextTestUtil;
 import com.alibaba.csp.sentinel.node.DefaultNode;
-import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
-import com.alibaba.csp.sentinel.util.function.Function;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -55,8 +55,8 @@ public class FlowSlotTest {
         FlowSlot flowSlot = new FlowSlot(checker);
         Context context = mock(Context.class);
         DefaultNode node = mock(DefaultNode.class);
-        doCallRealMethod().when(checker).checkFlow(any(Function.class), any(ResourceWrapper.class), any(Context.class),
-            any(DefaultNode.class), anyInt(), anyBoolean());
+        doCallRealMethod().when(checker).checkFlow(any(FlowRule[].class), any(Context.class), any(DefaultNode.class),
+            anyInt(), anyBoolean());
 
         String resA = "resAK";
         String resB = "resBK";
@@ -81,8 +81,8 @@ public class FlowSlotTest {
         FlowSlot flowSlot = new FlowSlot(checker);
         Context context = mock(Context.class);
         DefaultNode node = mock(DefaultNode.class);
-        doCallRealMethod().when(checker).checkFlow(any(Function.class), any(ResourceWrapper.class), any(Context.class),
-            any(DefaultNode.class), anyInt(), anyBoolean());
+        doCallRealMethod().when(checker).checkFlow(any(FlowRule[].class), any(Context.class), any(DefaultNode.class),
+            anyInt(), anyBoolean());
 
         String resA = "resAK";
         FlowRule rule = new FlowRule(resA).setCount(10);
@@ -93,4 +93,26 @@ public class FlowSlotTest {
 
         flowSlot.checkFlow(new StringResourceWrapper(resA, EntryType.IN), context, node, 1, false);
     }
+
+    @Test
+    public void testRulesOfFollowRuleUpdates() {
+        FlowSlot flowSlot = new FlowSlot();
+        String resA = "resAK";
+        FlowRule rule1 = new FlowRule(resA).setCount(10);
+        FlowRule rule2 = new FlowRule(resA).setCount(20);
+
+        assertEquals(0, flowSlot.rulesOf(resA).length);
+
+        FlowRuleManager.loadRules(Collections.singletonList(rule1));
+        FlowRule[] rules = flowSlot.rulesOf(resA);
+        assertArrayEquals(new FlowRule[] {rule1}, rules);
+        // Rules are resolved only once until new rules are loaded.
+        assertSame(rules, flowSlot.rulesOf(resA));
+
+        FlowRuleManager.loadRules(Arrays.asList(rule1, rule2));
+        assertEquals(2, flowSlot.rulesOf(resA).length);
+
+        FlowRuleManager.loadRules(null);
+        assertEquals(0, flowSlot.rulesOf(resA).length);
+    }
 }
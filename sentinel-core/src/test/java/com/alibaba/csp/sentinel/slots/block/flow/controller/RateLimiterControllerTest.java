@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -24,6 +25,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
+import com.alibaba.csp.sentinel.slots.block.flow.AsyncTrafficShapingController;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.node.Node;
 
@@ -45,6 +47,25 @@ public class RateLimiterControllerTest {
         assertTrue((end - start) > 400);
     }
 
+    @Test
+    public void testPaceController_tryPassWithoutBlocking() {
+        RateLimiterController paceController = new RateLimiterController(500, 10d);
+        Node node = mock(Node.class);
+
+        long start = System.currentTimeMillis();
+        assertEquals(0, paceController.tryPass(node, 1, false));
+        long lastWait = 0;
+        for (int i = 0; i < 5; i++) {
+            long waitTime = paceController.tryPass(node, 1, false);
+            assertTrue(waitTime > lastWait);
+            lastWait = waitTime;
+        }
+        assertTrue(lastWait > 400);
+        // Exceeds the max queueing time.
+        assertEquals(AsyncTrafficShapingController.BLOCKED, paceController.tryPass(node, 1, false));
+        assertTrue(System.currentTimeMillis() - start < 400);
+    }
+
     @Test
     public void testPaceController_timeout() throws InterruptedException {
         final RateLimiterController paceController = new RateLimiterController(500, 10d);
@@ -28,6 +28,8 @@ import com.alibaba.csp.sentinel.util.function.Predicate;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -46,7 +48,9 @@ public class ArrayMetricTest {
         final WindowWrap<MetricBucket> windowWrap = new WindowWrap<MetricBucket>(windowLengthInMs, 0,
             new MetricBucket());
         when(leapArray.currentWindow()).thenReturn(windowWrap);
-        when(leapArray.values()).thenReturn(new ArrayList<MetricBucket>() {{ add(windowWrap.value()); }});
+        when(leapArray.currentWindow(anyLong())).thenReturn(windowWrap);
+        when(leapArray.getSampleCount()).thenReturn(1);
+        when(leapArray.getValidValue(eq(0), anyLong())).thenReturn(windowWrap.value());
 
         ArrayMetric metric = new ArrayMetric(leapArray);
 
@@ -75,6 +79,16 @@ public class ArrayMetricTest {
         assertEquals(expectedSuccess, metric.success());
         assertEquals(expectedException, metric.exception());
         assertEquals(expectedRt, metric.rt());
+        assertEquals(expectedPass + expectedBlock, metric.sum(MetricEvent.PASS, MetricEvent.BLOCK));
+        assertEquals(expectedRt * 1.0 / expectedSuccess, metric.avgRt(), 0.01);
+
+        long[] sums = new long[MetricEvent.values().length];
+        metric.sumAll(sums);
+        assertEquals(expectedPass, sums[MetricEvent.PASS.ordinal()]);
+        assertEquals(expectedBlock, sums[MetricEvent.BLOCK.ordinal()]);
+        assertEquals(expectedSuccess, sums[MetricEvent.SUCCESS.ordinal()]);
+        assertEquals(expectedException, sums[MetricEvent.EXCEPTION.ordinal()]);
+        assertEquals(expectedRt, sums[MetricEvent.RT.ordinal()]);
     }
 
     @Test
@@ -117,4 +131,150 @@ public class ArrayMetricTest {
         });
         assertEquals(0, metricNodes.size());
     }
+
+    @Test
+    public void testDefaultAggregationOfMetric() {
+        // Metric implementations without the single-pass aggregation fall back to the per-event getters.
+        Metric metric = new FixedEventMetric(5, 2, 1, 4, 30, 3);
+
+        assertEquals(5, metric.sum(MetricEvent.PASS));
+        assertEquals(7, metric.sum(MetricEvent.PASS, MetricEvent.BLOCK));
+        assertEquals(7.5, metric.avgRt(), 0.01);
+        long[] sums = new long[MetricEvent.values().length];
+        metric.sumAll(sums);
+        assertArrayEquals(new long[] {5, 2, 1, 4, 30, 3}, sums);
+
+        assertEquals(0, new FixedEventMetric(5, 0, 0, 0, 0, 0).avgRt(), 0.01);
+    }
+
+    /**
+     * A {@link Metric} with fixed event counts, which only implements the per-event getters.
+     */
+    private static class FixedEventMetric implements Metric {
+
+        private final long pass;
+        private final long block;
+        private final long exception;
+        private final long success;
+        private final long rt;
+        private final long occupiedPass;
+
+        FixedEventMetric(long pass, long block, long exception, long success, long rt, long occupiedPass) {
+            this.pass = pass;
+            this.block = block;
+            this.exception = exception;
+            this.success = success;
+            this.rt = rt;
+            this.occupiedPass = occupiedPass;
+        }
+
+        @Override
+        public long success() {
+            return success;
+        }
+
+        @Override
+        public long maxSuccess() {
+            return success;
+        }
+
+        @Override
+        public long exception() {
+            return exception;
+        }
+
+        @Override
+        public long block() {
+            return block;
+        }
+
+        @Override
+        public long pass() {
+            return pass;
+        }
+
+        @Override
+        public long rt() {
+            return rt;
+        }
+
+        @Override
+        public long minRt() {
+            return rt;
+        }
+
+        @Override
+        public List<MetricNode> details() {
+            return new ArrayList<MetricNode>();
+        }
+
+        @Override
+        public List<MetricNode> detailsOnCondition(Predicate<Long> timePredicate) {
+            return new ArrayList<MetricNode>();
+        }
+
+        @Override
+        public MetricBucket[] windows() {
+            return new MetricBucket[0];
+        }
+
+        @Override
+        public void addException(int n) {}
+
+        @Override
+        public void addBlock(int n) {}
+
+        @Override
+        public void addSuccess(int n) {}
+
+        @Override
+        public void addPass(int n) {}
+
+        @Override
+        public void addRT(long rt) {}
+
+        @Override
+        public double getWindowIntervalInSec() {
+            return 1;
+        }
+
+        @Override
+        public int getSampleCount() {
+            return 1;
+        }
+
+        @Override
+        public long getWindowPass(long timeMillis) {
+            return pass;
+        }
+
+        @Override
+        public void addOccupiedPass(int acquireCount) {}
+
+        @Override
+        public void addWaiting(long futureTime, int acquireCount) {}
+
+        @Override
+        public long waiting() {
+            return 0;
+        }
+
+        @Override
+        public long occupiedPass() {
+            return occupiedPass;
+        }
+
+        @Override
+        public long previousWindowBlock() {
+            return 0;
+        }
+
+        @Override
+        public long previousWindowPass() {
+            return 0;
+        }
+
+        @Override
+        public void debug() {}
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.system;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link CgroupMetricsReader} against fixture cgroup directories.
+ */
+public class CgroupMetricsReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void write(File dir, String name, String content) throws IOException {
+        File file = new File(dir, name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CgroupMetricsReader detect(File root, String procCgroup, String mountInfo, int processors)
+        throws IOException {
+        File proc = folder.newFolder();
+        write(proc, "cgroup", procCgroup);
+        write(proc, "mountinfo", mountInfo);
+        return CgroupMetricsReader.detect(root.getPath(), new File(proc, "cgroup"), new File(proc, "mountinfo"),
+            processors);
+    }
+
+    private static String mount(String mountRoot, File mountPoint, String type, String superOptions) {
+        return "30 23 0:26 " + mountRoot + " " + mountPoint.getPath() + " rw,nosuid,nodev,noexec shared:4 - "
+            + type + " " + type + " " + superOptions + "\n";
+    }
+
+    private static String cpuStatV2(long usageUsec, long periods, long throttled) {
+        return "usage_usec " + usageUsec + "\n"
+            + "user_usec 1000\n"
+            + "system_usec 1000\n"
+            + "nr_periods " + periods + "\n"
+            + "nr_throttled " + throttled + "\n"
+            + "throttled_usec 500\n";
+    }
+
+    @Test
+    public void testReadCgroupV2() throws IOException {
+        File root = folder.newFolder("v2");
+        write(root, "cgroup.controllers", "cpu io memory pids\n");
+        // Values of the root cgroup (host), which should not be read.
+        write(root, "memory.current", "1\n");
+        write(root, "memory.max", "2\n");
+        root = new File(root, "system.slice/app.service");
+        write(root, "cgroup.controllers", "cpu io memory pids\n");
+        write(root, "cpu.max", "200000 100000\n");
+        write(root, "cpu.stat", cpuStatV2(1000000, 100, 0));
+        write(root, "memory.current", "268435456\n");
+        write(root, "memory.max", "1073741824\n");
+        write(root, "cpu.pressure", "some avg10=12.50 avg60=3.00 avg300=1.00 total=123456\n"
+            + "full avg10=2.00 avg60=0.00 avg300=0.00 total=1234\n");
+        write(root, "memory.pressure", "some avg10=0.00 avg60=0.00 avg300=0.00 total=0\n"
+            + "full avg10=0.00 avg60=0.00 avg300=0.00 total=0\n");
+
+        // Without cgroup namespace, the whole hierarchy is mounted.
+        File mountPoint = root.getParentFile().getParentFile();
+        CgroupMetricsReader reader = detect(mountPoint, "0::/system.slice/app.service\n",
+            "22 1 8:1 / / rw,relatime shared:1 - ext4 /dev/sda1 rw\n"
+                + mount("/", mountPoint, "cgroup2", "rw,nsdelegate"), 8);
+        assertNotNull(reader);
+        assertTrue(reader.isV2());
+        assertEquals(2.0d, reader.quotaCores(), 0.001);
+
+        long start = TimeUnit.SECONDS.toNanos(100);
+        reader.sample(start);
+        // No former sample for CPU ratios.
+        assertTrue(reader.getCpuQuotaUsage() < 0);
+        assertTrue(reader.getCpuThrottledRatio() < 0);
+        assertEquals(0.25d, reader.getMemoryUsage(), 0.001);
+        assertEquals(0.125d, reader.getCpuPressure(), 0.001);
+        assertEquals(0d, reader.getMemoryPressure(), 0.001);
+
+        // 1.5 CPU seconds in 1 second with 2 CPUs of quota, 5 of 10 periods throttled.
+        write(root, "cpu.stat", cpuStatV2(2500000, 110, 5));
+        write(root, "memory.max", "max\n");
+        reader.sample(start + TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0.75d, reader.getCpuQuotaUsage(), 0.001);
+        assertEquals(0.5d, reader.getCpuThrottledRatio(), 0.001);
+        // Unlimited memory.
+        assertTrue(reader.getMemoryUsage() < 0);
+    }
+
+    @Test
+    public void testReadCgroupV2WithoutCpuQuota() throws IOException {
+        File root = folder.newFolder("v2-unlimited");
+        write(root, "cgroup.controllers", "cpu memory\n");
+        write(root, "cpu.max", "max 100000\n");
+        write(root, "cpu.stat", cpuStatV2(0, 0, 0));
+
+        // With cgroup namespace, the cgroup of the container is mounted as the root.
+        CgroupMetricsReader reader = detect(root, "0::/\n", mount("/", root, "cgroup2", "rw"), 4);
+        assertNotNull(reader);
+        assertEquals(4.0d, reader.quotaCores(), 0.001);
+        reader.sample(0);
+        write(root, "cpu.stat", cpuStatV2(2000000, 0, 0));
+        reader.sample(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0.5d, reader.getCpuQuotaUsage(), 0.001);
+        assertEquals(0d, reader.getCpuThrottledRatio(), 0.001);
+        // Absent files.
+        assertTrue(reader.getMemoryUsage() < 0);
+        assertTrue(reader.getCpuPressure() < 0);
+    }
+
+    @Test
+    public void testReadCgroupV1() throws IOException {
+        File root = folder.newFolder("v1");
+        File cpu = new File(root, "cpu,cpuacct");
+        File memory = new File(root, "memory/docker/abc");
+        write(cpu, "cpu.cfs_quota_us", "50000\n");
+        write(cpu, "cpu.cfs_period_us", "100000\n");
+        write(cpu, "cpu.stat", "nr_periods 20\nnr_throttled 2\nthrottled_time 1000000\n");
+        write(cpu, "cpuacct.usage", "1000000000\n");
+        write(memory, "memory.usage_in_bytes", "536870912\n");
+        write(memory, "memory.limit_in_bytes", "1073741824\n");
+
+        // The cpu hierarchy is mounted from the cgroup of the container, while the memory one is mounted from root.
+        CgroupMetricsReader reader = detect(root, "12:memory:/docker/abc\n4:cpu,cpuacct:/docker/abc\n"
+                + "1:name=systemd:/docker/abc\n0::/docker/abc\n",
+            mount("/docker/abc", cpu, "cgroup", "rw,cpu,cpuacct")
+                + mount("/", new File(root, "memory"), "cgroup", "rw,memory")
+                + mount("/", new File(root, "systemd"), "cgroup", "rw,xattr,name=systemd"), 8);
+        assertNotNull(reader);
+        assertFalse(reader.isV2());
+        assertEquals(0.5d, reader.quotaCores(), 0.001);
+
+        reader.sample(0);
+        write(cpu, "cpu.stat", "nr_periods 30\nnr_throttled 10\nthrottled_time 9000000\n");
+        write(cpu, "cpuacct.usage", "1400000000\n");
+        write(memory, "memory.limit_in_bytes", "9223372036854771712\n");
+        reader.sample(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0.8d, reader.getCpuQuotaUsage(), 0.001);
+        assertEquals(0.8d, reader.getCpuThrottledRatio(), 0.001);
+        assertTrue(reader.getMemoryUsage() < 0);
+        // No PSI in cgroup v1.
+        assertTrue(reader.getCpuPressure() < 0);
+
+        write(cpu, "cpu.cfs_quota_us", "-1\n");
+        assertEquals(8.0d, reader.quotaCores(), 0.001);
+    }
+
+    @Test
+    public void testDetectWithoutCgroup() throws IOException {
+        File root = folder.newFolder("empty");
+        File proc = folder.newFolder("proc");
+        assertNull(CgroupMetricsReader.detect(root.getPath(), new File(proc, "cgroup"), new File(proc, "mountinfo"),
+            8));
+        assertNull(CgroupMetricsReader.detect(null));
+        // No cgroup mounted under the root.
+        assertNull(detect(root, "0::/\n", mount("/", folder.newFolder("other"), "cgroup2", "rw"), 8));
+    }
+
+    @Test
+    public void testDetectInvisibleCgroup() throws IOException {
+        File root = folder.newFolder("invisible");
+        write(root, "cgroup.controllers", "cpu memory\n");
+        // The cgroup of current process is out of the mounted sub-hierarchy.
+        assertNull(detect(root, "0::/other\n", mount("/app", root, "cgroup2", "rw"), 8));
+        assertNull(detect(root, "4:cpu,cpuacct:/other\n", mount("/app", root, "cgroup", "rw,cpu,cpuacct"), 8));
+        // The cgroup directory does not exist.
+        assertNull(detect(root, "0::/app/gone\n", mount("/app", root, "cgroup2", "rw"), 8));
+    }
+}
@@ -81,6 +81,25 @@ public class SystemRuleManagerTest {
         assertEquals(1.2d, SystemRuleManager.getSystemLoadThreshold(), 0.01);
     }
 
+    @Test
+    public void testLoadContainerMetricRules() {
+        SystemRule rule1 = new SystemRule();
+        rule1.setHighestCpuQuotaUsage(0.8d);
+        SystemRule rule2 = new SystemRule();
+        rule2.setHighestMemoryUsage(0.9d);
+        SystemRule rule3 = new SystemRule();
+        rule3.setHighestCpuPressure(0.3d);
+        SystemRule invalidRule = new SystemRule();
+        invalidRule.setHighestCpuThrottledRatio(1.5d);
+        SystemRuleManager.loadRules(Arrays.asList(invalidRule, rule1, rule2, rule3));
+
+        List<SystemRule> rules = SystemRuleManager.getRules();
+        assertEquals(3, rules.size());
+        assertTrue(rules.contains(rule1));
+        assertTrue(rules.contains(rule2));
+        assertTrue(rules.contains(rule3));
+    }
+
     @Test
     public void testCheckMaxCpuUsageNotBBR() throws Exception {
         SystemRule rule1 = new SystemRule();
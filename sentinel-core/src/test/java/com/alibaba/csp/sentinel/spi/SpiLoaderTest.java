@@ -23,6 +23,7 @@ import com.alibaba.csp.sentinel.slotchain.SlotChainBuilder;
 import com.alibaba.csp.sentinel.slots.DefaultSlotChainBuilder;
 import com.alibaba.csp.sentinel.slots.block.authority.AuthoritySlot;
 import com.alibaba.csp.sentinel.slots.block.degrade.DegradeSlot;
+import com.alibaba.csp.sentinel.slots.block.concurrency.ConcurrencyLimitSlot;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowSlot;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
 import com.alibaba.csp.sentinel.slots.logger.LogSlot;
@@ -94,17 +95,18 @@ public class SpiLoaderTest {
         List<ProcessorSlot> slots2 = spiLoader.loadInstanceList();
         assertNotSame(slots1, slots2);
 
-        List<Class<? extends ProcessorSlot>> prototypeSlotClasses = new ArrayList<>(2);
+        List<Class<? extends ProcessorSlot>> prototypeSlotClasses = new ArrayList<>(5);
         prototypeSlotClasses.add(NodeSelectorSlot.class);
         prototypeSlotClasses.add(ClusterBuilderSlot.class);
+        prototypeSlotClasses.add(AuthoritySlot.class);
+        prototypeSlotClasses.add(FlowSlot.class);
+        prototypeSlotClasses.add(DegradeSlot.class);
 
-        List<Class<? extends ProcessorSlot>> singletonSlotClasses = new ArrayList<>(6);
+        List<Class<? extends ProcessorSlot>> singletonSlotClasses = new ArrayList<>(4);
         singletonSlotClasses.add(LogSlot.class);
         singletonSlotClasses.add(StatisticSlot.class);
-        singletonSlotClasses.add(AuthoritySlot.class);
         singletonSlotClasses.add(SystemSlot.class);
-        singletonSlotClasses.add(FlowSlot.class);
-        singletonSlotClasses.add(DegradeSlot.class);
+        singletonSlotClasses.add(ConcurrencyLimitSlot.class);
 
         for (int i = 0; i < slots1.size(); i++) {
             ProcessorSlot slot1 = slots1.get(i);
@@ -147,8 +149,8 @@ public class SpiLoaderTest {
         List<ProcessorSlot> sortedSlots = SpiLoader.of(ProcessorSlot.class).loadInstanceListSorted();
         assertNotNull(sortedSlots);
 
-        // Total 8 default slot in sentinel-core
-        assertEquals(8, sortedSlots.size());
+        // Total 9 default slot in sentinel-core
+        assertEquals(9, sortedSlots.size());
 
         // Verify the order of slot
         int index = 0;
@@ -158,6 +160,7 @@ public class SpiLoaderTest {
         assertTrue(sortedSlots.get(index++) instanceof StatisticSlot);
         assertTrue(sortedSlots.get(index++) instanceof AuthoritySlot);
         assertTrue(sortedSlots.get(index++) instanceof SystemSlot);
+        assertTrue(sortedSlots.get(index++) instanceof ConcurrencyLimitSlot);
         assertTrue(sortedSlots.get(index++) instanceof FlowSlot);
         assertTrue(sortedSlots.get(index++) instanceof DegradeSlot);
     }
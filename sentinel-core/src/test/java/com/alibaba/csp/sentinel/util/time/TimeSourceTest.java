@@ -0,0 +1,88 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.time;
+
+import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
+import com.alibaba.csp.sentinel.spi.SpiLoader;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimeSourceTest {
+
+    @Test
+    public void testManualTimeSource() {
+        ManualTimeSource source = new ManualTimeSource(1000);
+        assertEquals(1000, source.currentTimeMillis());
+        assertEquals(1500, source.advance(500));
+        assertEquals(1500, source.currentTimeMillis());
+        source.setCurrentTimeMillis(42);
+        assertEquals(42, source.currentTimeMillis());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testManualTimeSourceAdvanceNegative() {
+        new ManualTimeSource().advance(-1);
+    }
+
+    @Test
+    public void testMonotonicTimeSource() {
+        MonotonicTimeSource source = new MonotonicTimeSource();
+        long start = System.currentTimeMillis();
+        long last = source.currentTimeMillis();
+        assertTrue(Math.abs(last - start) < 100);
+        for (int i = 0; i < 10000; i++) {
+            long now = source.currentTimeMillis();
+            assertTrue(now >= last);
+            last = now;
+        }
+    }
+
+    @Test
+    public void testLoadBuiltInTimeSourceByAlias() {
+        SpiLoader<TimeSource> loader = SpiLoader.of(TimeSource.class);
+        assertTrue(loader.loadInstance(TickerTimeSource.NAME) instanceof TickerTimeSource);
+        assertTrue(loader.loadInstance(SystemTimeSource.NAME) instanceof SystemTimeSource);
+        assertTrue(loader.loadInstance(MonotonicTimeSource.NAME) instanceof MonotonicTimeSource);
+    }
+
+    @Test
+    public void testLeapArrayReadsTimeSource() {
+        TimeSource origin = TimeUtil.getTimeSource();
+        ManualTimeSource source = new ManualTimeSource(10000);
+        TimeUtil.setTimeSource(source);
+        try {
+            assertEquals(10000, TimeUtil.currentTimeMillis());
+            ArrayMetric metric = new ArrayMetric(2, 1000);
+            metric.addPass(3);
+            assertEquals(3, metric.pass());
+
+            source.advance(500);
+            metric.addPass(2);
+            assertEquals(5, metric.pass());
+
+            // The first bucket is deprecated after a whole interval.
+            source.advance(500);
+            assertEquals(2, metric.pass());
+            source.advance(1000);
+            assertEquals(0, metric.pass());
+        } finally {
+            TimeUtil.setTimeSource(origin);
+        }
+    }
+}
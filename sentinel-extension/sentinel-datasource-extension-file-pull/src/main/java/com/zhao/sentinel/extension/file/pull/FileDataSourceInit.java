@@ -16,6 +16,7 @@
 package com.zhao.sentinel.extension.file.pull;
 
 import com.alibaba.csp.sentinel.command.handler.ModifyParamFlowRulesCommandHandler;
+import com.alibaba.csp.sentinel.datasource.Converter;
 import com.alibaba.csp.sentinel.datasource.FileRefreshableDataSource;
 import com.alibaba.csp.sentinel.datasource.FileWritableDataSource;
 import com.alibaba.csp.sentinel.datasource.ReadableDataSource;
@@ -33,6 +34,7 @@ import com.alibaba.csp.sentinel.slots.system.SystemRule;
 import com.alibaba.csp.sentinel.slots.system.SystemRuleManager;
 import com.alibaba.csp.sentinel.transport.util.WritableDataSourceRegistry;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.List;
 
@@ -68,8 +70,8 @@ public class FileDataSourceInit implements InitFunc {
         String ruleFilePath = PersistenceRuleConstant.rulesMap.get(PersistenceRuleConstant.FLOW_RULE_PATH).toString();
 
         //创建流控规则的可读数据源
-        ReadableDataSource<String, List<FlowRule>> flowRuleRDS = new FileRefreshableDataSource(
-                ruleFilePath, RuleListConverterUtils.flowRuleListParser
+        ReadableDataSource<?, List<FlowRule>> flowRuleRDS = createReadableDataSource(
+                ruleFilePath, RuleListConverterUtils.flowRuleListParser, FlowRule.class, RuleRecordCodecs.FLOW_RULE
         );
 
         // 将可读数据源注册至FlowRuleManager 这样当规则文件发生变化时，就会更新规则到内存
@@ -90,8 +92,9 @@ public class FileDataSourceInit implements InitFunc {
         String degradeRuleFilePath = PersistenceRuleConstant.rulesMap.get(PersistenceRuleConstant.DEGRAGE_RULE_PATH).toString();
 
         //创建流控规则的可读数据源
-        ReadableDataSource<String, List<DegradeRule>> degradeRuleRDS = new FileRefreshableDataSource(
-                degradeRuleFilePath, RuleListConverterUtils.degradeRuleListParse
+        ReadableDataSource<?, List<DegradeRule>> degradeRuleRDS = createReadableDataSource(
+                degradeRuleFilePath, RuleListConverterUtils.degradeRuleListParse, DegradeRule.class,
+                RuleRecordCodecs.json(DegradeRule.class)
         );
 
         // 将可读数据源注册至FlowRuleManager 这样当规则文件发生变化时，就会更新规则到内存
@@ -112,8 +115,9 @@ public class FileDataSourceInit implements InitFunc {
         String systemRuleFilePath = PersistenceRuleConstant.rulesMap.get(PersistenceRuleConstant.SYSTEM_RULE_PATH).toString();
 
         //创建流控规则的可读数据源
-        ReadableDataSource<String, List<SystemRule>> systemRuleRDS = new FileRefreshableDataSource(
-                systemRuleFilePath, RuleListConverterUtils.sysRuleListParse
+        ReadableDataSource<?, List<SystemRule>> systemRuleRDS = createReadableDataSource(
+                systemRuleFilePath, RuleListConverterUtils.sysRuleListParse, SystemRule.class,
+                RuleRecordCodecs.json(SystemRule.class)
         );
 
         // 将可读数据源注册至FlowRuleManager 这样当规则文件发生变化时，就会更新规则到内存
@@ -135,8 +139,9 @@ public class FileDataSourceInit implements InitFunc {
         String paramFlowRuleFilePath = PersistenceRuleConstant.rulesMap.get(PersistenceRuleConstant.HOT_PARAM_RULE).toString();
 
         //创建流控规则的可读数据源
-        ReadableDataSource<String, List<ParamFlowRule>> paramFlowRuleRDS = new FileRefreshableDataSource(
-                paramFlowRuleFilePath, RuleListConverterUtils.paramFlowRuleListParse
+        ReadableDataSource<?, List<ParamFlowRule>> paramFlowRuleRDS = createReadableDataSource(
+                paramFlowRuleFilePath, RuleListConverterUtils.paramFlowRuleListParse, ParamFlowRule.class,
+                RuleRecordCodecs.PARAM_FLOW_RULE
         );
 
         // 将可读数据源注册至FlowRuleManager 这样当规则文件发生变化时，就会更新规则到内存
@@ -157,8 +162,9 @@ public class FileDataSourceInit implements InitFunc {
         String authFilePath = PersistenceRuleConstant.rulesMap.get(PersistenceRuleConstant.AUTH_RULE_PATH).toString();
 
         //创建流控规则的可读数据源
-        ReadableDataSource<String, List<AuthorityRule>> authRuleRDS = new FileRefreshableDataSource(
-                authFilePath, RuleListConverterUtils.authorityRuleParse
+        ReadableDataSource<?, List<AuthorityRule>> authRuleRDS = createReadableDataSource(
+                authFilePath, RuleListConverterUtils.authorityRuleParse, AuthorityRule.class,
+                RuleRecordCodecs.json(AuthorityRule.class)
         );
 
         // 将可读数据源注册至FlowRuleManager 这样当规则文件发生变化时，就会更新规则到内存
@@ -174,4 +180,20 @@ public class FileDataSourceInit implements InitFunc {
         WritableDataSourceRegistry.registerAuthorityDataSource(authRuleWDS);
     }
 
+    /**
+     * 创建规则文件的可读数据源, 启用规则快照时 (见 {@link PersistenceRuleConstant#RULE_SNAPSHOT_ENABLED})
+     * 流式解析规则文件, 并通过二进制快照加快启动时的加载
+     */
+    private <R> ReadableDataSource<?, List<R>> createReadableDataSource(String ruleFilePath,
+                                                                        Converter<String, List<R>> parser,
+                                                                        Class<R> ruleClass,
+                                                                        RuleRecordCodec<R> codec)
+            throws FileNotFoundException {
+        if (PersistenceRuleConstant.isRuleSnapshotEnabled()) {
+            return new SnapshotFileRefreshableDataSource<R>(new File(ruleFilePath),
+                    new File(ruleFilePath + PersistenceRuleConstant.RULE_SNAPSHOT_SUFFIX), ruleClass, codec);
+        }
+        return new FileRefreshableDataSource<List<R>>(ruleFilePath, parser);
+    }
+
 }
@@ -1,5 +1,7 @@
 package com.zhao.sentinel.extension.file.pull;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +38,20 @@ public class PersistenceRuleConstant {
     //热点参数文件
     public static final String HOT_PARAM_RULE = "hotParamRulePath";
 
+    /**
+     * 是否启用规则文件的二进制快照, 默认不启用, 见 {@link SnapshotFileRefreshableDataSource}
+     *
+     * @since 1.8.6
+     */
+    public static final String RULE_SNAPSHOT_ENABLED = "csp.sentinel.file.rule.snapshot.enabled";
+
+    /**
+     * 规则快照文件后缀, 快照文件与规则文件位于同一目录
+     *
+     * @since 1.8.6
+     */
+    public static final String RULE_SNAPSHOT_SUFFIX = ".snapshot";
+
     static {
         rulesMap.put(FLOW_RULE_PATH, storePath + File.separator + "flowRule.json");
         rulesMap.put(DEGRAGE_RULE_PATH, storePath + File.separator + "degradeRule.json");
@@ -43,4 +59,13 @@ public class PersistenceRuleConstant {
         rulesMap.put(AUTH_RULE_PATH, storePath + File.separator + "authRule.json");
         rulesMap.put(HOT_PARAM_RULE, storePath + File.separator + "hotParamRule.json");
     }
+
+    /**
+     * 是否启用规则文件的二进制快照
+     *
+     * @since 1.8.6
+     */
+    public static boolean isRuleSnapshotEnabled() {
+        return Boolean.parseBoolean(SentinelConfig.getConfig(RULE_SNAPSHOT_ENABLED));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zhao.sentinel.extension.file.pull;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 规则快照的单条规则编解码器
+ *
+ * <p>Encodes a rule into a record of the binary rule snapshot, and decodes it back.</p>
+ *
+ * @param <R> rule type
+ * @see RuleSnapshot
+ * @since 1.8.6
+ */
+public interface RuleRecordCodec<R> {
+
+    /**
+     * Name of the codec, which is written to the snapshot header, so that a snapshot won't be
+     * decoded by a different codec.
+     *
+     * @return name of the codec
+     */
+    String name();
+
+    /**
+     * Encode the rule.
+     *
+     * @param rule valid rule
+     * @param out  output of the record
+     * @throws IOException if failed to write
+     */
+    void encode(R rule, DataOutput out) throws IOException;
+
+    /**
+     * Decode the rule from the record.
+     *
+     * @param record the record, from its position to its limit
+     * @return the decoded rule
+     */
+    R decode(ByteBuffer record);
+}
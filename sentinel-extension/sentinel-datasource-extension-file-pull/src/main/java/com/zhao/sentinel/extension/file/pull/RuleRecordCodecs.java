@@ -0,0 +1,229 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zhao.sentinel.extension.file.pull;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowClusterConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowItem;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.fastjson.JSON;
+
+import static com.zhao.sentinel.extension.file.pull.RuleSnapshot.readNullableInt;
+import static com.zhao.sentinel.extension.file.pull.RuleSnapshot.readNullableLong;
+import static com.zhao.sentinel.extension.file.pull.RuleSnapshot.readString;
+import static com.zhao.sentinel.extension.file.pull.RuleSnapshot.writeNullableInt;
+import static com.zhao.sentinel.extension.file.pull.RuleSnapshot.writeNullableLong;
+import static com.zhao.sentinel.extension.file.pull.RuleSnapshot.writeString;
+
+/**
+ * 规则快照编解码器
+ *
+ * <p>Binary record codecs of the rule snapshot. Flow rules and parameter flow rules, which could be large
+ * in amount, are encoded field by field; other rules could use the {@link #json(Class)} codec.</p>
+ *
+ * @since 1.8.6
+ */
+public final class RuleRecordCodecs {
+
+    public static final RuleRecordCodec<FlowRule> FLOW_RULE = new RuleRecordCodec<FlowRule>() {
+        @Override
+        public String name() {
+            return "flow-v1";
+        }
+
+        @Override
+        public void encode(FlowRule rule, DataOutput out) throws IOException {
+            writeNullableLong(out, rule.getId());
+            writeString(out, rule.getResource());
+            writeString(out, rule.getLimitApp());
+            out.writeInt(rule.getGrade());
+            out.writeDouble(rule.getCount());
+            out.writeInt(rule.getStrategy());
+            writeString(out, rule.getRefResource());
+            out.writeInt(rule.getControlBehavior());
+            out.writeInt(rule.getWarmUpPeriodSec());
+            out.writeInt(rule.getMaxQueueingTimeMs());
+            out.writeBoolean(rule.isClusterMode());
+            ClusterFlowConfig config = rule.getClusterConfig();
+            out.writeBoolean(config != null);
+            if (config != null) {
+                writeNullableLong(out, config.getFlowId());
+                out.writeInt(config.getThresholdType());
+                out.writeBoolean(config.isFallbackToLocalWhenFail());
+                out.writeInt(config.getStrategy());
+                out.writeInt(config.getSampleCount());
+                out.writeInt(config.getWindowIntervalMs());
+                out.writeLong(config.getResourceTimeout());
+                out.writeInt(config.getResourceTimeoutStrategy());
+                out.writeInt(config.getAcquireRefuseStrategy());
+                out.writeLong(config.getClientOfflineTime());
+            }
+        }
+
+        @Override
+        public FlowRule decode(ByteBuffer in) {
+            FlowRule rule = new FlowRule();
+            rule.setId(readNullableLong(in));
+            rule.setResource(readString(in));
+            rule.setLimitApp(readString(in));
+            rule.setGrade(in.getInt());
+            rule.setCount(in.getDouble());
+            rule.setStrategy(in.getInt());
+            rule.setRefResource(readString(in));
+            rule.setControlBehavior(in.getInt());
+            rule.setWarmUpPeriodSec(in.getInt());
+            rule.setMaxQueueingTimeMs(in.getInt());
+            rule.setClusterMode(in.get() != 0);
+            if (in.get() != 0) {
+                ClusterFlowConfig config = new ClusterFlowConfig();
+                config.setFlowId(readNullableLong(in));
+                config.setThresholdType(in.getInt());
+                config.setFallbackToLocalWhenFail(in.get() != 0);
+                config.setStrategy(in.getInt());
+                config.setSampleCount(in.getInt());
+                config.setWindowIntervalMs(in.getInt());
+                config.setResourceTimeout(in.getLong());
+                config.setResourceTimeoutStrategy(in.getInt());
+                config.setAcquireRefuseStrategy(in.getInt());
+                config.setClientOfflineTime(in.getLong());
+                rule.setClusterConfig(config);
+            }
+            return rule;
+        }
+    };
+
+    public static final RuleRecordCodec<ParamFlowRule> PARAM_FLOW_RULE = new RuleRecordCodec<ParamFlowRule>() {
+        @Override
+        public String name() {
+            return "param-flow-v1";
+        }
+
+        @Override
+        public void encode(ParamFlowRule rule, DataOutput out) throws IOException {
+            writeNullableLong(out, rule.getId());
+            writeString(out, rule.getResource());
+            writeString(out, rule.getLimitApp());
+            out.writeInt(rule.getGrade());
+            writeNullableInt(out, rule.getParamIdx());
+            out.writeDouble(rule.getCount());
+            out.writeInt(rule.getControlBehavior());
+            out.writeInt(rule.getMaxQueueingTimeMs());
+            out.writeInt(rule.getBurstCount());
+            out.writeLong(rule.getDurationInSec());
+            List<ParamFlowItem> items = rule.getParamFlowItemList();
+            out.writeInt(items == null ? -1 : items.size());
+            if (items != null) {
+                for (ParamFlowItem item : items) {
+                    writeString(out, item.getObject());
+                    writeNullableInt(out, item.getCount());
+                    writeString(out, item.getClassType());
+                }
+            }
+            out.writeBoolean(rule.isClusterMode());
+            ParamFlowClusterConfig config = rule.getClusterConfig();
+            out.writeBoolean(config != null);
+            if (config != null) {
+                writeNullableLong(out, config.getFlowId());
+                out.writeInt(config.getThresholdType());
+                out.writeBoolean(config.isFallbackToLocalWhenFail());
+                out.writeInt(config.getSampleCount());
+                out.writeInt(config.getWindowIntervalMs());
+            }
+            out.writeBoolean(rule.isSketchMode());
+            out.writeInt(rule.getSketchTopK());
+        }
+
+        @Override
+        public ParamFlowRule decode(ByteBuffer in) {
+            ParamFlowRule rule = new ParamFlowRule();
+            rule.setId(readNullableLong(in));
+            rule.setResource(readString(in));
+            rule.setLimitApp(readString(in));
+            rule.setGrade(in.getInt());
+            rule.setParamIdx(readNullableInt(in));
+            rule.setCount(in.getDouble());
+            rule.setControlBehavior(in.getInt());
+            rule.setMaxQueueingTimeMs(in.getInt());
+            rule.setBurstCount(in.getInt());
+            rule.setDurationInSec(in.getLong());
+            int itemCount = in.getInt();
+            if (itemCount >= 0) {
+                // Each item takes more than one byte, so a corrupted count won't cause a huge allocation.
+                List<ParamFlowItem> items = new ArrayList<ParamFlowItem>(Math.min(itemCount, in.remaining()));
+                for (int i = 0; i < itemCount; i++) {
+                    items.add(new ParamFlowItem()
+                        .setObject(readString(in))
+                        .setCount(readNullableInt(in))
+                        .setClassType(readString(in)));
+                }
+                rule.setParamFlowItemList(items);
+            } else {
+                rule.setParamFlowItemList(null);
+            }
+            rule.setClusterMode(in.get() != 0);
+            if (in.get() != 0) {
+                rule.setClusterConfig(new ParamFlowClusterConfig()
+                    .setFlowId(readNullableLong(in))
+                    .setThresholdType(in.getInt())
+                    .setFallbackToLocalWhenFail(in.get() != 0)
+                    .setSampleCount(in.getInt())
+                    .setWindowIntervalMs(in.getInt()));
+            }
+            rule.setSketchMode(in.get() != 0);
+            rule.setSketchTopK(in.getInt());
+            return rule;
+        }
+    };
+
+    /**
+     * Codec which encodes each rule as a JSON record, for rule types without a binary codec.
+     *
+     * @param ruleClass rule class
+     * @param <R>       rule type
+     * @return the codec
+     */
+    public static <R> RuleRecordCodec<R> json(final Class<R> ruleClass) {
+        AssertUtil.notNull(ruleClass, "ruleClass cannot be null");
+        return new RuleRecordCodec<R>() {
+            @Override
+            public String name() {
+                return "json:" + ruleClass.getName();
+            }
+
+            @Override
+            public void encode(R rule, DataOutput out) throws IOException {
+                out.write(JSON.toJSONBytes(rule));
+            }
+
+            @Override
+            public R decode(ByteBuffer in) {
+                byte[] bytes = new byte[in.remaining()];
+                in.get(bytes);
+                return JSON.parseObject(bytes, ruleClass);
+            }
+        };
+    }
+
+    private RuleRecordCodecs() {}
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zhao.sentinel.extension.file.pull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * 二进制规则快照, 用于本地规则缓存的快速加载
+ *
+ * <p>A compact binary snapshot of rules for the local rule cache, which is loaded with memory-mapped I/O,
+ * so that loading a large rule set at startup needs no JSON parsing and no copy of the whole file on heap.</p>
+ *
+ * <p>Format (big-endian):</p>
+ * <pre>
+ * magic: int "SNTS" | version: byte | codec name: string | rule count: int
+ * records: (length: int, payload: length bytes) * rule count
+ * </pre>
+ * <p>Strings are written as the byte length (-1 for null) followed by the UTF-8 bytes. The snapshot is
+ * written to a temporary file and then moved to the target, so readers never see a partial snapshot.</p>
+ *
+ * @see RuleRecordCodec
+ * @since 1.8.6
+ */
+public final class RuleSnapshot {
+
+    static final int MAGIC = 0x534E5453;
+    static final byte VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("utf-8");
+
+    /**
+     * Write the rules to the snapshot file, replacing the previous one.
+     *
+     * @param file  snapshot file
+     * @param rules rules to write
+     * @param codec record codec of the rules
+     * @param <R>   rule type
+     * @throws IOException if failed to write
+     */
+    public static <R> void write(File file, Collection<R> rules, RuleRecordCodec<R> codec) throws IOException {
+        AssertUtil.notNull(file, "file cannot be null");
+        AssertUtil.notNull(codec, "codec cannot be null");
+        File tmpFile = new File(file.getAbsolutePath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            writeString(out, codec.name());
+            List<R> validRules = new ArrayList<R>();
+            if (rules != null) {
+                for (R rule : rules) {
+                    if (rule != null) {
+                        validRules.add(rule);
+                    }
+                }
+            }
+            out.writeInt(validRules.size());
+            // Records are length-prefixed, so each one is encoded into a reused buffer first.
+            ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+            DataOutputStream record = new DataOutputStream(recordBytes);
+            for (R rule : validRules) {
+                recordBytes.reset();
+                codec.encode(rule, record);
+                record.flush();
+                out.writeInt(recordBytes.size());
+                recordBytes.writeTo(out);
+            }
+        } finally {
+            out.close();
+        }
+        try {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Read the rules from the snapshot file with memory-mapped I/O.
+     *
+     * @param file  snapshot file
+     * @param codec record codec of the rules, which should be the same as the one writing the snapshot
+     * @param <R>   rule type
+     * @return the rules
+     * @throws IOException if failed to read, or the file is not a valid snapshot of the codec
+     */
+    public static <R> List<R> read(File file, RuleRecordCodec<R> codec) throws IOException {
+        AssertUtil.notNull(file, "file cannot be null");
+        AssertUtil.notNull(codec, "codec cannot be null");
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer, codec, file);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static <R> List<R> read(ByteBuffer buffer, RuleRecordCodec<R> codec, File file) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a rule snapshot: " + file.getAbsolutePath());
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported rule snapshot version " + version + ": " + file.getAbsolutePath());
+            }
+            String codecName = readString(buffer);
+            if (!codec.name().equals(codecName)) {
+                throw new IOException("Rule snapshot codec mismatch, expected " + codec.name() + " but "
+                    + codecName + ": " + file.getAbsolutePath());
+            }
+            int count = buffer.getInt();
+            if (count < 0) {
+                throw new IOException("Invalid rule count " + count + ": " + file.getAbsolutePath());
+            }
+            List<R> rules = new ArrayList<R>(Math.min(count, buffer.remaining() / 4));
+            for (int i = 0; i < count; i++) {
+                int len = buffer.getInt();
+                if (len < 0 || len > buffer.remaining()) {
+                    throw new IOException("Corrupted rule snapshot: " + file.getAbsolutePath());
+                }
+                ByteBuffer record = buffer.slice();
+                record.limit(len);
+                buffer.position(buffer.position() + len);
+                rules.add(codec.decode(record));
+            }
+            return rules;
+        } catch (RuntimeException ex) {
+            // e.g. BufferUnderflowException of a truncated file
+            throw new IOException("Corrupted rule snapshot: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+    static void writeString(DataOutput out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int len = in.getInt();
+        if (len < 0) {
+            return null;
+        }
+        if (len > in.remaining()) {
+            // Corrupted length, fail before allocating for it.
+            throw new BufferUnderflowException();
+        }
+        if (in.hasArray()) {
+            String s = new String(in.array(), in.arrayOffset() + in.position(), len, UTF_8);
+            in.position(in.position() + len);
+            return s;
+        }
+        byte[] bytes = new byte[len];
+        in.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    static void writeNullableLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    static Long readNullableLong(ByteBuffer in) {
+        return in.get() != 0 ? in.getLong() : null;
+    }
+
+    static void writeNullableInt(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    static Integer readNullableInt(ByteBuffer in) {
+        return in.get() != 0 ? in.getInt() : null;
+    }
+
+    private RuleSnapshot() {}
+}
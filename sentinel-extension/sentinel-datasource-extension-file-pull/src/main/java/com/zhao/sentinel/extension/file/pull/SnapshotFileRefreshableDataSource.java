@@ -0,0 +1,136 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zhao.sentinel.extension.file.pull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.datasource.AutoRefreshDataSource;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * 带二进制快照的规则文件数据源
+ *
+ * <p>A {@link AutoRefreshDataSource} of a JSON rule file, which parses the file with
+ * {@link StreamingJsonRuleConverter} and keeps a {@link RuleSnapshot} of the rules beside it.</p>
+ *
+ * <p>On the first load, the rules are read from the snapshot if it is newer than the rule file, so that no JSON
+ * parsing is needed at startup. Otherwise (or if the snapshot could not be read) the rule file is parsed, and the
+ * snapshot is rewritten after each parsing of the rule file. The rule file is always the source of truth.</p>
+ *
+ * @param <R> rule type
+ * @since 1.8.6
+ */
+public class SnapshotFileRefreshableDataSource<R> extends AutoRefreshDataSource<InputStream, List<R>> {
+
+    private final File file;
+    private final File snapshotFile;
+    private final RuleRecordCodec<R> codec;
+
+    private long lastModified = 0L;
+
+    public SnapshotFileRefreshableDataSource(File file, File snapshotFile, Class<R> ruleClass,
+                                             RuleRecordCodec<R> codec) {
+        super(new StreamingJsonRuleConverter<R>(ruleClass));
+        AssertUtil.notNull(file, "file cannot be null");
+        AssertUtil.notNull(snapshotFile, "snapshotFile cannot be null");
+        AssertUtil.notNull(codec, "codec cannot be null");
+        if (file.isDirectory()) {
+            throw new IllegalArgumentException("File can't be a directory");
+        }
+        this.file = file;
+        this.snapshotFile = snapshotFile;
+        this.codec = codec;
+        // If the file does not exist, the last modified will be 0.
+        this.lastModified = file.lastModified();
+        firstLoad();
+    }
+
+    private void firstLoad() {
+        try {
+            List<R> newValue = loadSnapshot();
+            if (newValue == null) {
+                newValue = loadConfig();
+            }
+            getProperty().updateValue(newValue);
+        } catch (Throwable e) {
+            RecordLog.info("loadConfig exception", e);
+        }
+    }
+
+    /**
+     * @return rules of the snapshot, or null if there is no snapshot newer than the rule file
+     */
+    private List<R> loadSnapshot() {
+        // The snapshot should be strictly newer, as the rule file may be modified within the same tick.
+        if (!snapshotFile.isFile() || snapshotFile.lastModified() <= file.lastModified()) {
+            return null;
+        }
+        try {
+            return RuleSnapshot.read(snapshotFile, codec);
+        } catch (IOException ex) {
+            RecordLog.warn("[SnapshotFileRefreshableDataSource] Failed to read rule snapshot, "
+                + "will parse the rule file instead: " + snapshotFile.getAbsolutePath(), ex);
+            return null;
+        }
+    }
+
+    @Override
+    public List<R> loadConfig() throws Exception {
+        long sourceModified = file.lastModified();
+        List<R> rules = super.loadConfig();
+        writeSnapshot(rules, sourceModified);
+        return rules;
+    }
+
+    private void writeSnapshot(List<R> rules, long sourceModified) {
+        try {
+            RuleSnapshot.write(snapshotFile, rules, codec);
+            if (file.lastModified() != sourceModified) {
+                // The rule file has been modified while being parsed, so the snapshot may be stale.
+                snapshotFile.delete();
+            }
+        } catch (IOException ex) {
+            RecordLog.warn("[SnapshotFileRefreshableDataSource] Failed to write rule snapshot: "
+                + snapshotFile.getAbsolutePath(), ex);
+        }
+    }
+
+    @Override
+    public InputStream readSource() throws Exception {
+        if (!file.exists()) {
+            // Will throw FileNotFoundException later.
+            RecordLog.warn(String.format("[SnapshotFileRefreshableDataSource] File does not exist: %s",
+                file.getAbsolutePath()));
+        }
+        // The stream will be closed by the converter.
+        return new FileInputStream(file);
+    }
+
+    @Override
+    protected boolean isModified() {
+        long curLastModified = file.lastModified();
+        if (curLastModified != this.lastModified) {
+            this.lastModified = curLastModified;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zhao.sentinel.extension.file.pull;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.datasource.Converter;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.parser.JSONToken;
+
+/**
+ * 流式规则解析器, 从输入流中逐条解析 JSON 数组中的规则
+ *
+ * <p>A converter which parses the JSON array of rules from the stream one rule at a time, so that neither the
+ * whole payload as a {@link String} nor the intermediate JSON tree is held in memory. The stream is closed
+ * after the conversion.</p>
+ *
+ * @param <R> rule type
+ * @since 1.8.6
+ */
+public class StreamingJsonRuleConverter<R> implements Converter<InputStream, List<R>> {
+
+    private static final Charset DEFAULT_CHARSET = Charset.forName("utf-8");
+
+    private final Class<R> ruleClass;
+    private final Charset charset;
+
+    public StreamingJsonRuleConverter(Class<R> ruleClass) {
+        this(ruleClass, DEFAULT_CHARSET);
+    }
+
+    public StreamingJsonRuleConverter(Class<R> ruleClass, Charset charset) {
+        AssertUtil.notNull(ruleClass, "ruleClass cannot be null");
+        AssertUtil.notNull(charset, "charset cannot be null");
+        this.ruleClass = ruleClass;
+        this.charset = charset;
+    }
+
+    /**
+     * @param source stream of a JSON array of rules
+     * @return the rules; empty list if the stream is null or empty
+     */
+    @Override
+    public List<R> convert(InputStream source) {
+        List<R> rules = new ArrayList<R>();
+        if (source == null) {
+            return rules;
+        }
+        JSONReader reader = new JSONReader(new InputStreamReader(source, charset));
+        try {
+            if (reader.peek() == JSONToken.EOF) {
+                return rules;
+            }
+            reader.startArray();
+            while (reader.hasNext()) {
+                R rule = reader.readObject(ruleClass);
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            }
+            reader.endArray();
+            return rules;
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zhao.sentinel.extension.file.pull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowClusterConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowItem;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RuleSnapshotTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("sentinel-rule-snapshot", ".snapshot");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testFlowRuleRoundTrip() throws IOException {
+        ClusterFlowConfig clusterConfig = new ClusterFlowConfig()
+            .setFlowId(1001L)
+            .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL)
+            .setFallbackToLocalWhenFail(false)
+            .setStrategy(2)
+            .setSampleCount(20)
+            .setWindowIntervalMs(2000);
+        clusterConfig.setResourceTimeout(3000L);
+        clusterConfig.setResourceTimeoutStrategy(1);
+        clusterConfig.setAcquireRefuseStrategy(2);
+        clusterConfig.setClientOfflineTime(4000L);
+        FlowRule clusterRule = new FlowRule("testFlowRuleRoundTrip-cluster")
+            .setGrade(RuleConstant.FLOW_GRADE_THREAD)
+            .setCount(12.5)
+            .setStrategy(RuleConstant.STRATEGY_RELATE)
+            .setRefResource("testFlowRuleRoundTrip-ref")
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_WARM_UP_RATE_LIMITER)
+            .setWarmUpPeriodSec(20)
+            .setMaxQueueingTimeMs(800)
+            .setClusterMode(true)
+            .setClusterConfig(clusterConfig);
+        clusterRule.setId(7L);
+        clusterRule.setLimitApp("appA");
+        // Rule with null fields and without cluster config.
+        FlowRule localRule = new FlowRule("testFlowRuleRoundTrip-local").setCount(5);
+        localRule.setLimitApp(null);
+        List<FlowRule> rules = Arrays.asList(clusterRule, localRule);
+
+        RuleSnapshot.write(file, rules, RuleRecordCodecs.FLOW_RULE);
+        List<FlowRule> decoded = RuleSnapshot.read(file, RuleRecordCodecs.FLOW_RULE);
+
+        assertEquals(rules, decoded);
+        assertEquals(Long.valueOf(7L), decoded.get(0).getId());
+        assertEquals(Long.valueOf(1001L), decoded.get(0).getClusterConfig().getFlowId());
+        assertNull(decoded.get(1).getId());
+        assertNull(decoded.get(1).getLimitApp());
+        assertNull(decoded.get(1).getRefResource());
+        assertNull(decoded.get(1).getClusterConfig());
+    }
+
+    @Test
+    public void testParamFlowRuleRoundTrip() throws IOException {
+        ParamFlowRule rule = new ParamFlowRule("testParamFlowRuleRoundTrip")
+            .setParamIdx(1)
+            .setGrade(RuleConstant.FLOW_GRADE_QPS)
+            .setCount(10)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+            .setMaxQueueingTimeMs(300)
+            .setBurstCount(3)
+            .setDurationInSec(2)
+            .setParamFlowItemList(Arrays.asList(
+                new ParamFlowItem().setObject("中文参数").setCount(1).setClassType(String.class.getName()),
+                new ParamFlowItem().setObject("42").setCount(null).setClassType(int.class.getName())))
+            .setClusterMode(true)
+            .setClusterConfig(new ParamFlowClusterConfig()
+                .setFlowId(2002L)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL)
+                .setFallbackToLocalWhenFail(true)
+                .setSampleCount(5)
+                .setWindowIntervalMs(500))
+            .setSketchMode(true)
+            .setSketchTopK(16);
+        rule.setId(9L);
+        rule.setLimitApp("appB");
+        ParamFlowRule noItemRule = new ParamFlowRule("testParamFlowRuleRoundTrip-noItem")
+            .setParamIdx(null)
+            .setParamFlowItemList(null);
+        ParamFlowRule emptyItemRule = new ParamFlowRule("testParamFlowRuleRoundTrip-emptyItem")
+            .setParamIdx(0)
+            .setParamFlowItemList(new ArrayList<ParamFlowItem>());
+        List<ParamFlowRule> rules = Arrays.asList(rule, noItemRule, emptyItemRule);
+
+        RuleSnapshot.write(file, rules, RuleRecordCodecs.PARAM_FLOW_RULE);
+        List<ParamFlowRule> decoded = RuleSnapshot.read(file, RuleRecordCodecs.PARAM_FLOW_RULE);
+
+        assertEquals(rules, decoded);
+        assertEquals(Long.valueOf(9L), decoded.get(0).getId());
+        assertEquals("中文参数", decoded.get(0).getParamFlowItemList().get(0).getObject());
+        assertNull(decoded.get(0).getParamFlowItemList().get(1).getCount());
+        assertTrue(decoded.get(0).isSketchMode());
+        assertEquals(16, decoded.get(0).getSketchTopK());
+        assertNull(decoded.get(1).getParamIdx());
+        assertNull(decoded.get(1).getParamFlowItemList());
+        assertNull(decoded.get(1).getClusterConfig());
+        assertTrue(decoded.get(2).getParamFlowItemList().isEmpty());
+    }
+
+    @Test
+    public void testJsonCodecRoundTrip() throws IOException {
+        DegradeRule rule = new DegradeRule("testJsonCodecRoundTrip")
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO)
+            .setCount(0.5)
+            .setTimeWindow(10)
+            .setMinRequestAmount(20);
+        RuleRecordCodec<DegradeRule> codec = RuleRecordCodecs.json(DegradeRule.class);
+
+        RuleSnapshot.write(file, Collections.singletonList(rule), codec);
+
+        assertEquals(Collections.singletonList(rule), RuleSnapshot.read(file, codec));
+    }
+
+    @Test
+    public void testEmptyAndNullRules() throws IOException {
+        RuleSnapshot.write(file, null, RuleRecordCodecs.FLOW_RULE);
+        assertTrue(RuleSnapshot.read(file, RuleRecordCodecs.FLOW_RULE).isEmpty());
+
+        RuleSnapshot.write(file, Arrays.asList(null, new FlowRule("testEmptyAndNullRules")),
+            RuleRecordCodecs.FLOW_RULE);
+        List<FlowRule> decoded = RuleSnapshot.read(file, RuleRecordCodecs.FLOW_RULE);
+        assertEquals(1, decoded.size());
+        assertEquals("testEmptyAndNullRules", decoded.get(0).getResource());
+    }
+
+    @Test
+    public void testTruncatedSnapshot() throws IOException {
+        RuleSnapshot.write(file, Arrays.asList(new FlowRule("testTruncatedSnapshot-a"),
+            new FlowRule("testTruncatedSnapshot-b")), RuleRecordCodecs.FLOW_RULE);
+        long length = file.length();
+        // Truncated within the last record, within the header and to an empty file.
+        for (long truncatedLength : new long[] {length - 1, 6, 0}) {
+            truncate(truncatedLength);
+            assertCorrupted(RuleRecordCodecs.FLOW_RULE);
+        }
+    }
+
+    @Test
+    public void testCorruptedRecordLength() throws IOException {
+        RuleSnapshot.write(file, Collections.singletonList(new FlowRule("testCorruptedRecordLength")),
+            RuleRecordCodecs.FLOW_RULE);
+        // The first record length follows magic (4), version (1), codec name (4 + 7) and rule count (4).
+        int recordLengthOffset = 4 + 1 + 4 + RuleRecordCodecs.FLOW_RULE.name().length() + 4;
+        assertEquals(file.length() - recordLengthOffset - 4, readIntAt(recordLengthOffset));
+        writeIntAt(recordLengthOffset, Integer.MAX_VALUE);
+        assertCorrupted(RuleRecordCodecs.FLOW_RULE);
+
+        writeIntAt(recordLengthOffset, -1);
+        assertCorrupted(RuleRecordCodecs.FLOW_RULE);
+    }
+
+    @Test
+    public void testCorruptedRecordPayload() throws IOException {
+        RuleSnapshot.write(file, Collections.singletonList(new FlowRule("testCorruptedRecordPayload")),
+            RuleRecordCodecs.FLOW_RULE);
+        // Break the length of the resource name within the record.
+        int recordOffset = 4 + 1 + 4 + RuleRecordCodecs.FLOW_RULE.name().length() + 4 + 4;
+        assertEquals("testCorruptedRecordPayload".length(), readIntAt(recordOffset + 1));
+        writeIntAt(recordOffset + 1, Integer.MAX_VALUE);
+        assertCorrupted(RuleRecordCodecs.FLOW_RULE);
+    }
+
+    @Test
+    public void testCorruptedParamItemCount() throws IOException {
+        ParamFlowRule rule = new ParamFlowRule("r").setParamIdx(0)
+            .setParamFlowItemList(Collections.singletonList(new ParamFlowItem().setObject("a").setCount(1)));
+        RuleSnapshot.write(file, Collections.singletonList(rule), RuleRecordCodecs.PARAM_FLOW_RULE);
+        // Item count follows id (1), resource (4 + 1), null limitApp (4), grade (4), paramIdx (1 + 4), count (8),
+        // control behavior (4), max queueing time (4), burst count (4) and duration (8).
+        int recordOffset = 4 + 1 + 4 + RuleRecordCodecs.PARAM_FLOW_RULE.name().length() + 4 + 4;
+        int itemCountOffset = recordOffset + 1 + 5 + 4 + 4 + 5 + 8 + 4 + 4 + 4 + 8;
+        assertEquals(1, readIntAt(itemCountOffset));
+        writeIntAt(itemCountOffset, Integer.MAX_VALUE);
+        assertCorrupted(RuleRecordCodecs.PARAM_FLOW_RULE);
+    }
+
+    @Test
+    public void testNegativeRuleCount() throws IOException {
+        RuleSnapshot.write(file, Collections.singletonList(new FlowRule("testNegativeRuleCount")),
+            RuleRecordCodecs.FLOW_RULE);
+        writeIntAt(4 + 1 + 4 + RuleRecordCodecs.FLOW_RULE.name().length(), -1);
+        assertCorrupted(RuleRecordCodecs.FLOW_RULE);
+    }
+
+    @Test
+    public void testBadMagicAndVersion() throws IOException {
+        RuleSnapshot.write(file, Collections.singletonList(new FlowRule("testBadMagicAndVersion")),
+            RuleRecordCodecs.FLOW_RULE);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(4);
+            raf.writeByte(RuleSnapshot.VERSION + 1);
+        } finally {
+            raf.close();
+        }
+        assertCorrupted(RuleRecordCodecs.FLOW_RULE);
+
+        writeIntAt(0, 0x7B5B2C7D);
+        assertCorrupted(RuleRecordCodecs.FLOW_RULE);
+    }
+
+    @Test
+    public void testCodecMismatch() throws IOException {
+        RuleSnapshot.write(file, Collections.singletonList(new FlowRule("testCodecMismatch")),
+            RuleRecordCodecs.FLOW_RULE);
+        assertCorrupted(RuleRecordCodecs.PARAM_FLOW_RULE);
+        assertCorrupted(RuleRecordCodecs.json(FlowRule.class));
+        assertEquals(1, RuleSnapshot.read(file, RuleRecordCodecs.FLOW_RULE).size());
+    }
+
+    @Test
+    public void testWriteReplacesSnapshot() throws IOException {
+        RuleSnapshot.write(file, Arrays.asList(new FlowRule("testWriteReplacesSnapshot-a"),
+            new FlowRule("testWriteReplacesSnapshot-b")), RuleRecordCodecs.FLOW_RULE);
+        RuleSnapshot.write(file, Collections.singletonList(new FlowRule("testWriteReplacesSnapshot-c")),
+            RuleRecordCodecs.FLOW_RULE);
+
+        List<FlowRule> decoded = RuleSnapshot.read(file, RuleRecordCodecs.FLOW_RULE);
+        assertEquals(1, decoded.size());
+        assertEquals("testWriteReplacesSnapshot-c", decoded.get(0).getResource());
+        assertFalse(new File(file.getAbsolutePath() + ".tmp").exists());
+    }
+
+    private <R> void assertCorrupted(RuleRecordCodec<R> codec) {
+        try {
+            RuleSnapshot.read(file, codec);
+            fail("Corrupted snapshot should not be read");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains(file.getAbsolutePath()));
+        }
+    }
+
+    private void truncate(long length) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(length);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private int readIntAt(long offset) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            raf.seek(offset);
+            return raf.readInt();
+        } finally {
+            raf.close();
+        }
+    }
+
+    private void writeIntAt(long offset, int value) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(offset);
+            raf.writeInt(value);
+        } finally {
+            raf.close();
+        }
+    }
+}
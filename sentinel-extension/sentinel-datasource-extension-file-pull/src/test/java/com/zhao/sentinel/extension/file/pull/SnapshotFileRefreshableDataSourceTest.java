@@ -0,0 +1,186 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zhao.sentinel.extension.file.pull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.csp.sentinel.property.SimplePropertyListener;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.fastjson.JSON;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SnapshotFileRefreshableDataSourceTest {
+
+    private File dir;
+    private File file;
+    private File snapshotFile;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("sentinel-rule-snapshot").toFile();
+        file = new File(dir, "flowRule.json");
+        snapshotFile = new File(dir, "flowRule.json" + PersistenceRuleConstant.RULE_SNAPSHOT_SUFFIX);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testFirstLoadWritesSnapshot() throws Exception {
+        List<FlowRule> rules = Arrays.asList(new FlowRule("testFirstLoadWritesSnapshot").setCount(3));
+        writeRuleFile(JSON.toJSONString(rules));
+
+        SnapshotFileRefreshableDataSource<FlowRule> ds = newDataSource();
+        try {
+            assertEquals(rules, currentRules(ds));
+            assertEquals(rules, RuleSnapshot.read(snapshotFile, RuleRecordCodecs.FLOW_RULE));
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void testFirstLoadFromNewerSnapshot() throws Exception {
+        writeRuleFile(JSON.toJSONString(Collections.singletonList(new FlowRule("testFirstLoadFromNewerSnapshot-file"))));
+        List<FlowRule> snapshotRules = Collections.singletonList(new FlowRule("testFirstLoadFromNewerSnapshot"));
+        RuleSnapshot.write(snapshotFile, snapshotRules, RuleRecordCodecs.FLOW_RULE);
+        assertTrue(snapshotFile.setLastModified(file.lastModified() + 2000));
+
+        SnapshotFileRefreshableDataSource<FlowRule> ds = newDataSource();
+        try {
+            // The rule file is not parsed at all.
+            assertEquals(snapshotRules, currentRules(ds));
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void testFirstLoadIgnoresStaleSnapshot() throws Exception {
+        List<FlowRule> rules = Collections.singletonList(new FlowRule("testFirstLoadIgnoresStaleSnapshot"));
+        writeRuleFile(JSON.toJSONString(rules));
+        RuleSnapshot.write(snapshotFile, Collections.singletonList(new FlowRule("stale")), RuleRecordCodecs.FLOW_RULE);
+        assertTrue(snapshotFile.setLastModified(file.lastModified() - 2000));
+
+        SnapshotFileRefreshableDataSource<FlowRule> ds = newDataSource();
+        try {
+            assertEquals(rules, currentRules(ds));
+            assertEquals(rules, RuleSnapshot.read(snapshotFile, RuleRecordCodecs.FLOW_RULE));
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void testFirstLoadFallbackOnCorruptedSnapshot() throws Exception {
+        List<FlowRule> rules = Collections.singletonList(new FlowRule("testFirstLoadFallbackOnCorruptedSnapshot"));
+        writeRuleFile(JSON.toJSONString(rules));
+        OutputStream out = new FileOutputStream(snapshotFile);
+        try {
+            out.write(new byte[] {'S', 'N', 'T'});
+        } finally {
+            out.close();
+        }
+        assertTrue(snapshotFile.setLastModified(file.lastModified() + 2000));
+
+        SnapshotFileRefreshableDataSource<FlowRule> ds = newDataSource();
+        try {
+            assertEquals(rules, currentRules(ds));
+            // The corrupted snapshot is replaced.
+            assertEquals(rules, RuleSnapshot.read(snapshotFile, RuleRecordCodecs.FLOW_RULE));
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void testLoadEmptyRuleFile() throws Exception {
+        writeRuleFile("");
+
+        SnapshotFileRefreshableDataSource<FlowRule> ds = newDataSource();
+        try {
+            assertTrue(currentRules(ds).isEmpty());
+            assertTrue(RuleSnapshot.read(snapshotFile, RuleRecordCodecs.FLOW_RULE).isEmpty());
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void testLoadConfigAfterModified() throws Exception {
+        writeRuleFile("[]");
+        SnapshotFileRefreshableDataSource<FlowRule> ds = newDataSource();
+        try {
+            assertFalse(ds.isModified());
+
+            List<FlowRule> rules = Collections.singletonList(new FlowRule("testLoadConfigAfterModified"));
+            writeRuleFile(JSON.toJSONString(rules));
+            assertTrue(file.setLastModified(file.lastModified() + 2000));
+            assertTrue(ds.isModified());
+
+            assertEquals(rules, ds.loadConfig());
+            assertEquals(rules, RuleSnapshot.read(snapshotFile, RuleRecordCodecs.FLOW_RULE));
+        } finally {
+            ds.close();
+        }
+    }
+
+    private static List<FlowRule> currentRules(SnapshotFileRefreshableDataSource<FlowRule> ds) {
+        final AtomicReference<List<FlowRule>> rules = new AtomicReference<List<FlowRule>>();
+        ds.getProperty().addListener(new SimplePropertyListener<List<FlowRule>>() {
+            @Override
+            public void configUpdate(List<FlowRule> value) {
+                rules.set(value);
+            }
+        });
+        return rules.get();
+    }
+
+    private SnapshotFileRefreshableDataSource<FlowRule> newDataSource() {
+        return new SnapshotFileRefreshableDataSource<FlowRule>(file, snapshotFile, FlowRule.class,
+            RuleRecordCodecs.FLOW_RULE);
+    }
+
+    private void writeRuleFile(String content) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("utf-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
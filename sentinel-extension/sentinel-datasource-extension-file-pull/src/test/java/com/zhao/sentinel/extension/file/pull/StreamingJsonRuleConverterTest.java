@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zhao.sentinel.extension.file.pull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowItem;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.fastjson.JSON;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StreamingJsonRuleConverterTest {
+
+    private static final Charset UTF_8 = Charset.forName("utf-8");
+
+    @Test
+    public void testConvertNullOrEmptyStream() {
+        StreamingJsonRuleConverter<FlowRule> converter = new StreamingJsonRuleConverter<FlowRule>(FlowRule.class);
+        assertTrue(converter.convert(null).isEmpty());
+        assertTrue(converter.convert(stream("")).isEmpty());
+        assertTrue(converter.convert(stream("[]")).isEmpty());
+    }
+
+    @Test
+    public void testConvertSameAsJsonParse() {
+        ParamFlowRule rule = new ParamFlowRule("testConvertSameAsJsonParse")
+            .setParamIdx(0)
+            .setCount(5)
+            .setParamFlowItemList(Arrays.asList(
+                new ParamFlowItem().setObject("中文").setCount(1).setClassType(String.class.getName())));
+        String json = JSON.toJSONString(Arrays.asList(rule, new ParamFlowRule("testConvertSameAsJsonParse-b")));
+
+        List<ParamFlowRule> rules = new StreamingJsonRuleConverter<ParamFlowRule>(ParamFlowRule.class)
+            .convert(stream(json));
+
+        assertEquals(JSON.parseArray(json, ParamFlowRule.class), rules);
+        assertEquals("中文", rules.get(0).getParamFlowItemList().get(0).getObject());
+    }
+
+    @Test
+    public void testConvertSkipsNullElements() {
+        List<FlowRule> rules = new StreamingJsonRuleConverter<FlowRule>(FlowRule.class)
+            .convert(stream("[null, {\"resource\": \"testConvertSkipsNullElements\", \"count\": 1}]"));
+
+        assertEquals(1, rules.size());
+        assertEquals("testConvertSkipsNullElements", rules.get(0).getResource());
+    }
+
+    @Test
+    public void testStreamClosed() {
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        InputStream source = new ByteArrayInputStream("[]".getBytes(UTF_8)) {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+
+        new StreamingJsonRuleConverter<FlowRule>(FlowRule.class).convert(source);
+
+        assertTrue(closed.get());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testConvertMalformedJson() {
+        new StreamingJsonRuleConverter<FlowRule>(FlowRule.class)
+            .convert(stream("[{\"resource\": \"testConvertMalformedJson\""));
+    }
+
+    private static InputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(UTF_8));
+    }
+}
@@ -15,18 +15,16 @@
  */
 package com.alibaba.csp.sentinel.datasource;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ScheduledFuture;
 
-import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 
 /**
- * 自动刷新数据源, 通过周期性线程池定时刷新数据源
+ * 自动刷新数据源, 通过共享的周期性线程池定时刷新数据源
  *
  * A {@link ReadableDataSource} automatically fetches the backend data.
+ * All the data sources share a bounded scheduler (see {@link DataSourceRefreshScheduler}).
  *
  * @param <S> source data type
  * @param <T> target data type
@@ -34,7 +32,7 @@ import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
  */
 public abstract class AutoRefreshDataSource<S, T> extends AbstractDataSource<S, T> {
 
-    private ScheduledExecutorService service;
+    private ScheduledFuture<?> refreshFuture;
     protected long recommendRefreshMs = 3000;
 
     public AutoRefreshDataSource(Converter<S, T> configParser) {
@@ -53,12 +51,9 @@ public abstract class AutoRefreshDataSource<S, T> extends AbstractDataSource<S,
         startTimerService();
     }
 
-    @SuppressWarnings("PMD.ThreadPoolCreationRule")
     private void startTimerService() {
-        service = Executors.newScheduledThreadPool(1,
-            new NamedThreadFactory("sentinel-datasource-auto-refresh-task", true));
-        // 周期性线程池, 每隔3秒调用线程判断数据源是否更新
-        service.scheduleAtFixedRate(new Runnable() {
+        // 共享的周期性线程池, 每隔3秒调用线程判断数据源是否更新
+        refreshFuture = DataSourceRefreshScheduler.scheduleAtFixedRate(new Runnable() {
             @Override
             public void run() {
                 try {
@@ -77,14 +72,14 @@ public abstract class AutoRefreshDataSource<S, T> extends AbstractDataSource<S,
                     RecordLog.info("loadConfig exception", e);
                 }
             }
-        }, recommendRefreshMs, recommendRefreshMs, TimeUnit.MILLISECONDS);
+        }, recommendRefreshMs);
     }
 
     @Override
     public void close() throws Exception {
-        if (service != null) {
-            service.shutdownNow();
-            service = null;
+        if (refreshFuture != null) {
+            refreshFuture.cancel(true);
+            refreshFuture = null;
         }
     }
 
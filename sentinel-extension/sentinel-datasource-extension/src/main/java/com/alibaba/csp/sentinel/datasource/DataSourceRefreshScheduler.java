@@ -0,0 +1,75 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.datasource;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * <p>A bounded scheduler shared by all {@link AutoRefreshDataSource}s, instead of one thread pool per data source.</p>
+ *
+ * <p>The pool size could be configured by {@code csp.sentinel.datasource.refresh.pool.size}, which is
+ * {@code min(4, available processors)} by default. A refresh task never runs concurrently with itself,
+ * so a slow data source only delays its own refresh, as long as the slow ones are fewer than the threads.</p>
+ *
+ * @since 1.8.6
+ */
+final class DataSourceRefreshScheduler {
+
+    static final String POOL_SIZE_KEY = "csp.sentinel.datasource.refresh.pool.size";
+    private static final int MAX_DEFAULT_POOL_SIZE = 4;
+
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(resolvePoolSize(),
+            new NamedThreadFactory("sentinel-datasource-auto-refresh-task", true));
+        // Remove the cancelled tasks of closed data sources from the queue immediately.
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    static int resolvePoolSize() {
+        int defaultSize = Math.max(1, Math.min(MAX_DEFAULT_POOL_SIZE, Runtime.getRuntime().availableProcessors()));
+        String config = SentinelConfig.getConfig(POOL_SIZE_KEY);
+        if (StringUtil.isBlank(config)) {
+            return defaultSize;
+        }
+        try {
+            int size = Integer.parseInt(config.trim());
+            if (size > 0) {
+                return size;
+            }
+        } catch (NumberFormatException ignore) {
+        }
+        RecordLog.warn("[DataSourceRefreshScheduler] Invalid {}: {}, use default value: {}",
+            POOL_SIZE_KEY, config, defaultSize);
+        return defaultSize;
+    }
+
+    static ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long periodMs) {
+        return SCHEDULER.scheduleAtFixedRate(task, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    private DataSourceRefreshScheduler() {}
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.datasource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+/**
+ * <p>A file watcher shared by all file data sources, so that a single thread serves all the watched files.</p>
+ *
+ * <p>Files are watched with the {@link WatchService} of the default file system, which registers the parent
+ * directory of each file (only once per directory). Changes of a file are debounced: the listener is notified
+ * when no further change of the file has been seen during the debounce period, so that a burst of writes
+ * results in a single reload.</p>
+ *
+ * <p>When watching isn't supported (no native watch service, or the directory can't be registered), the file
+ * is polled by its last modified time and length in the same thread instead. Files reached via symbolic links
+ * are polled as well: e.g. Kubernetes ConfigMap and Secret volumes are updated by atomically swapping the
+ * {@code ..data} link, so no event of the file itself is ever seen in its directory.</p>
+ *
+ * @since 1.8.6
+ */
+final class SharedFileWatcher {
+
+    /**
+     * Max wait time of the watcher thread, so that the polled files are checked in time.
+     */
+    private static final long MAX_WAIT_MS = 1000;
+
+    private static final SharedFileWatcher INSTANCE = new SharedFileWatcher(createWatchService());
+
+    private final WatchService watchService;
+    private final List<Watch> watches = new CopyOnWriteArrayList<>();
+    private final Map<Path, WatchKey> dirKeys = new HashMap<>();
+    private final Map<WatchKey, Path> keyDirs = new HashMap<>();
+
+    private Thread watcherThread;
+
+    static SharedFileWatcher getInstance() {
+        return INSTANCE;
+    }
+
+    SharedFileWatcher(WatchService watchService) {
+        this.watchService = watchService;
+    }
+
+    private static WatchService createWatchService() {
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            // The JDK fallback implementation (e.g. on macOS) polls the directories itself with a long delay,
+            // so it's no better than polling the files directly.
+            if (service.getClass().getName().endsWith("PollingWatchService")) {
+                service.close();
+                RecordLog.info("[SharedFileWatcher] Native file watch service is unavailable, polling files instead");
+                return null;
+            }
+            return service;
+        } catch (Throwable ex) {
+            RecordLog.warn("[SharedFileWatcher] Failed to create file watch service, polling files instead", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Watch the file.
+     *
+     * @param file           the file to watch
+     * @param debounceMs     quiet period before the listener is notified of a change
+     * @param pollIntervalMs interval to poll the file if it can't be watched
+     * @param listener       the change listener, which is called in the watcher thread
+     * @return the watch, which could be cancelled by {@link #unwatch(Watch)}
+     */
+    synchronized Watch watch(File file, long debounceMs, long pollIntervalMs, FileChangeListener listener) {
+        Path path = file.getAbsoluteFile().toPath().normalize();
+        Watch watch = new Watch(path, debounceMs, pollIntervalMs, listener);
+        Path dir = path.getParent();
+        boolean linked = isSymbolicLinked(path);
+        if (linked) {
+            RecordLog.info("[SharedFileWatcher] File <{}> is reached via symbolic links, polling it instead", path);
+        }
+        if (watchService != null && dir != null && !linked && registerDir(dir)) {
+            watch.polling = false;
+        } else {
+            watch.polling = true;
+            watch.lastModified = file.lastModified();
+            watch.length = file.length();
+            watch.nextPollTime = System.currentTimeMillis() + pollIntervalMs;
+        }
+        watches.add(watch);
+        ensureStarted();
+        return watch;
+    }
+
+    synchronized void unwatch(Watch watch) {
+        if (watch == null || !watches.remove(watch) || watch.polling) {
+            return;
+        }
+        Path dir = watch.path.getParent();
+        for (Watch w : watches) {
+            if (!w.polling && dir.equals(w.path.getParent())) {
+                return;
+            }
+        }
+        // No more files to watch in the directory.
+        WatchKey key = dirKeys.remove(dir);
+        if (key != null) {
+            keyDirs.remove(key);
+            key.cancel();
+        }
+    }
+
+    /**
+     * @return true if the file or any of its ancestors is a symbolic link
+     */
+    private static boolean isSymbolicLinked(Path path) {
+        for (Path p = path; p != null; p = p.getParent()) {
+            if (Files.isSymbolicLink(p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean registerDir(Path dir) {
+        if (dirKeys.containsKey(dir)) {
+            return true;
+        }
+        try {
+            WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            dirKeys.put(dir, key);
+            keyDirs.put(key, dir);
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            RecordLog.warn("[SharedFileWatcher] Failed to watch directory <" + dir + ">, polling files instead", ex);
+            return false;
+        }
+    }
+
+    private void ensureStarted() {
+        if (watcherThread != null) {
+            return;
+        }
+        watcherThread = new NamedThreadFactory("sentinel-datasource-file-watcher", true).newThread(new Runnable() {
+            @Override
+            public void run() {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        runOnce();
+                    } catch (InterruptedException | ClosedWatchServiceException ex) {
+                        return;
+                    } catch (Throwable ex) {
+                        RecordLog.warn("[SharedFileWatcher] Unexpected error when watching files", ex);
+                    }
+                }
+            }
+        });
+        watcherThread.start();
+    }
+
+    private void runOnce() throws InterruptedException {
+        long waitMs = nextWaitMs(System.currentTimeMillis());
+        if (watchService != null) {
+            WatchKey key = watchService.poll(waitMs, TimeUnit.MILLISECONDS);
+            if (key != null) {
+                handleKey(key);
+            }
+        } else if (waitMs > 0) {
+            Thread.sleep(waitMs);
+        }
+        long now = System.currentTimeMillis();
+        pollFiles(now);
+        fireDue(now);
+    }
+
+    private long nextWaitMs(long now) {
+        long next = now + MAX_WAIT_MS;
+        for (Watch w : watches) {
+            long dueTime = w.dueTime;
+            if (dueTime > 0 && dueTime < next) {
+                next = dueTime;
+            }
+            if (w.polling && w.nextPollTime < next) {
+                next = w.nextPollTime;
+            }
+        }
+        return Math.max(next - now, 1);
+    }
+
+    private void handleKey(WatchKey key) {
+        Path dir;
+        synchronized (this) {
+            dir = keyDirs.get(key);
+        }
+        long now = System.currentTimeMillis();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null) {
+                continue;
+            }
+            Object context = event.context();
+            boolean overflow = event.kind() == StandardWatchEventKinds.OVERFLOW;
+            for (Watch w : watches) {
+                if (w.polling || !dir.equals(w.path.getParent())) {
+                    continue;
+                }
+                if (overflow || w.path.getFileName().equals(context)) {
+                    w.dueTime = now + w.debounceMs;
+                }
+            }
+        }
+        if (!key.reset() && dir != null) {
+            // The directory is no longer accessible (e.g. deleted), so poll the files instead.
+            synchronized (this) {
+                dirKeys.remove(dir);
+                keyDirs.remove(key);
+                for (Watch w : watches) {
+                    if (!w.polling && dir.equals(w.path.getParent())) {
+                        w.lastModified = 0L;
+                        w.length = 0L;
+                        w.nextPollTime = now + w.pollIntervalMs;
+                        w.polling = true;
+                    }
+                }
+            }
+            RecordLog.warn("[SharedFileWatcher] Directory <{}> is no longer watchable, polling files instead", dir);
+        }
+    }
+
+    private void pollFiles(long now) {
+        for (Watch w : watches) {
+            if (!w.polling || now < w.nextPollTime) {
+                continue;
+            }
+            w.nextPollTime = now + w.pollIntervalMs;
+            File file = w.path.toFile();
+            long lastModified = file.lastModified();
+            long length = file.length();
+            if (lastModified != w.lastModified || length != w.length) {
+                w.lastModified = lastModified;
+                w.length = length;
+                notifyListener(w);
+            }
+        }
+    }
+
+    private void fireDue(long now) {
+        for (Watch w : watches) {
+            long dueTime = w.dueTime;
+            if (dueTime > 0 && now >= dueTime) {
+                w.dueTime = 0L;
+                notifyListener(w);
+            }
+        }
+    }
+
+    private void notifyListener(Watch w) {
+        try {
+            w.listener.onFileChanged();
+        } catch (Throwable ex) {
+            RecordLog.warn("[SharedFileWatcher] Error when handling the change of file <" + w.path + ">", ex);
+        }
+    }
+
+    boolean isWatchSupported() {
+        return watchService != null;
+    }
+
+    interface FileChangeListener {
+
+        /**
+         * Called in the watcher thread when the file might have been changed.
+         */
+        void onFileChanged();
+    }
+
+    static final class Watch {
+        private final Path path;
+        private final long debounceMs;
+        private final long pollIntervalMs;
+        private final FileChangeListener listener;
+
+        private volatile boolean polling;
+        /**
+         * Time to notify the listener, or 0 if there are no pending changes.
+         */
+        private volatile long dueTime;
+        private long lastModified;
+        private long length;
+        private volatile long nextPollTime;
+
+        Watch(Path path, long debounceMs, long pollIntervalMs, FileChangeListener listener) {
+            this.path = path;
+            this.debounceMs = debounceMs;
+            this.pollIntervalMs = pollIntervalMs;
+            this.listener = listener;
+        }
+
+        boolean isPolling() {
+            return polling;
+        }
+    }
+}
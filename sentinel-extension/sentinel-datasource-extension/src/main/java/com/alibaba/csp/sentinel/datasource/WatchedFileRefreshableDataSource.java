@@ -0,0 +1,225 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.datasource;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+/**
+ * <p>
+ * A {@link ReadableDataSource} based on file, which reloads the file when it's changed.
+ * Different from {@link FileRefreshableDataSource}, no polling thread is started per data source:
+ * the file is watched by a {@link java.nio.file.WatchService} shared by all watched files, so changes
+ * are picked up right after the debounce period. The file is polled in the shared thread only when
+ * watching isn't supported.
+ * </p>
+ * <p>
+ * The file is read into reusable buffers, and the content is converted and updated to the property
+ * only when the bytes have actually changed. Max file size is 4 MB. Default charset is UTF-8.
+ * </p>
+ *
+ * @param <T> target data type
+ * @since 1.8.6
+ */
+public class WatchedFileRefreshableDataSource<T> extends AbstractDataSource<String, T> {
+
+    private static final int MAX_SIZE = 1024 * 1024 * 4;
+    private static final int INITIAL_BUF_SIZE = 1024 * 8;
+    private static final long DEFAULT_DEBOUNCE_MS = 100;
+    private static final long DEFAULT_POLL_INTERVAL_MS = 3000;
+    private static final Charset DEFAULT_CHAR_SET = Charset.forName("utf-8");
+
+    private final File file;
+    private final Charset charset;
+    private final SharedFileWatcher watcher;
+    private final SharedFileWatcher.Watch watch;
+
+    /**
+     * Bytes of the current content.
+     */
+    private byte[] current = new byte[0];
+    private int currentLen = -1;
+    /**
+     * Buffer for the next read, which is swapped with {@link #current} when the content has changed.
+     */
+    private byte[] spare = new byte[INITIAL_BUF_SIZE];
+
+    public WatchedFileRefreshableDataSource(File file, Converter<String, T> configParser)
+        throws FileNotFoundException {
+        this(file, configParser, DEFAULT_DEBOUNCE_MS, DEFAULT_POLL_INTERVAL_MS, DEFAULT_CHAR_SET);
+    }
+
+    public WatchedFileRefreshableDataSource(String fileName, Converter<String, T> configParser)
+        throws FileNotFoundException {
+        this(new File(fileName), configParser);
+    }
+
+    public WatchedFileRefreshableDataSource(File file, Converter<String, T> configParser, Charset charset)
+        throws FileNotFoundException {
+        this(file, configParser, DEFAULT_DEBOUNCE_MS, DEFAULT_POLL_INTERVAL_MS, charset);
+    }
+
+    /**
+     * @param file           the file to read
+     * @param configParser   the config decoder (parser)
+     * @param debounceMs     quiet period after the last change event before the file is reloaded
+     * @param pollIntervalMs interval to poll the file when watching isn't supported
+     * @param charset        charset of the file
+     */
+    public WatchedFileRefreshableDataSource(File file, Converter<String, T> configParser, long debounceMs,
+                                            long pollIntervalMs, Charset charset) throws FileNotFoundException {
+        this(file, configParser, debounceMs, pollIntervalMs, charset, SharedFileWatcher.getInstance());
+    }
+
+    WatchedFileRefreshableDataSource(File file, Converter<String, T> configParser, long debounceMs,
+                                     long pollIntervalMs, Charset charset, SharedFileWatcher watcher) {
+        super(configParser);
+        if (file == null || file.isDirectory()) {
+            throw new IllegalArgumentException("File can't be null or a directory");
+        }
+        if (charset == null) {
+            throw new IllegalArgumentException("charset can't be null");
+        }
+        if (debounceMs < 0 || pollIntervalMs <= 0) {
+            throw new IllegalArgumentException("debounceMs must >= 0 and pollIntervalMs must > 0, but "
+                + debounceMs + " and " + pollIntervalMs + " get");
+        }
+        this.file = file;
+        this.charset = charset;
+        this.watcher = watcher;
+        // Watch before the first load, so that no change is missed in between.
+        this.watch = watcher.watch(file, debounceMs, pollIntervalMs, new SharedFileWatcher.FileChangeListener() {
+            @Override
+            public void onFileChanged() {
+                refresh();
+            }
+        });
+        refresh();
+    }
+
+    /**
+     * Reload the file, and update the property if the content has changed.
+     */
+    synchronized void refresh() {
+        try {
+            if (!readChanged()) {
+                return;
+            }
+            T newValue = loadConfig(new String(current, 0, currentLen, charset));
+            getProperty().updateValue(newValue);
+        } catch (Throwable e) {
+            RecordLog.info("loadConfig exception", e);
+        }
+    }
+
+    /**
+     * Read the file into a new buffer. The buffers of {@link #refresh()} are left untouched, so that the change
+     * is still updated to the property by the next refresh.
+     */
+    @Override
+    public String readSource() throws Exception {
+        FileInputStream inputStream = openFile();
+        try {
+            FileChannel channel = inputStream.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int)checkSize(channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Continue reading until EOF.
+            }
+            return new String(buffer.array(), 0, buffer.position(), charset);
+        } finally {
+            try {
+                inputStream.close();
+            } catch (Exception ignore) {
+            }
+        }
+    }
+
+    private FileInputStream openFile() throws FileNotFoundException {
+        if (!file.exists()) {
+            // Will throw FileNotFoundException later.
+            RecordLog.warn(String.format("[WatchedFileRefreshableDataSource] File does not exist: %s",
+                file.getAbsolutePath()));
+        }
+        return new FileInputStream(file);
+    }
+
+    private long checkSize(long size) {
+        if (size > MAX_SIZE) {
+            throw new IllegalStateException(file.getAbsolutePath() + " file size=" + size
+                + ", is bigger than max size=" + MAX_SIZE + ". Can't read");
+        }
+        return size;
+    }
+
+    /**
+     * Read the file into the spare buffer, and swap it with the current one if the content has changed.
+     *
+     * @return true if the content has changed
+     */
+    private boolean readChanged() throws IOException {
+        FileInputStream inputStream = openFile();
+        try {
+            FileChannel channel = inputStream.getChannel();
+            long size = checkSize(channel.size());
+            if (spare.length < size) {
+                spare = new byte[(int)Math.max(size, Math.min(MAX_SIZE, spare.length * 2L))];
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(spare, 0, (int)size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Continue reading until EOF. Changes during the read will be picked up by the next event.
+            }
+            int len = buffer.position();
+            if (len == currentLen && rangeEquals(spare, current, len)) {
+                return false;
+            }
+            byte[] tmp = current;
+            current = spare;
+            currentLen = len;
+            spare = tmp.length > 0 ? tmp : new byte[INITIAL_BUF_SIZE];
+            return true;
+        } finally {
+            try {
+                inputStream.close();
+            } catch (Exception ignore) {
+            }
+        }
+    }
+
+    private static boolean rangeEquals(byte[] a, byte[] b, int len) {
+        for (int i = 0; i < len; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isWatching() {
+        return !watch.isPolling();
+    }
+
+    @Override
+    public void close() throws Exception {
+        watcher.unwatch(watch);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.datasource;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.csp.sentinel.property.SimplePropertyListener;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link WatchedFileRefreshableDataSource}.
+ */
+public class WatchedFileRefreshableDataSourceTest {
+
+    private static final Charset UTF_8 = Charset.forName("utf-8");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReloadOnChange() throws Exception {
+        verifyReloadOnChange(SharedFileWatcher.getInstance());
+    }
+
+    @Test
+    public void testReloadOnChangeWithPolling() throws Exception {
+        verifyReloadOnChange(new SharedFileWatcher(null));
+    }
+
+    private void verifyReloadOnChange(SharedFileWatcher watcher) throws Exception {
+        File file = folder.newFile("rules.txt");
+        write(file, "a");
+        final AtomicInteger convertCount = new AtomicInteger();
+        Converter<String, String> converter = new Converter<String, String>() {
+            @Override
+            public String convert(String source) {
+                convertCount.incrementAndGet();
+                return source;
+            }
+        };
+        final AtomicInteger updateCount = new AtomicInteger();
+        WatchedFileRefreshableDataSource<String> ds = new WatchedFileRefreshableDataSource<>(file, converter,
+            10, 50, UTF_8, watcher);
+        ds.getProperty().addListener(new SimplePropertyListener<String>() {
+            @Override
+            public void configUpdate(String newValue) {
+                updateCount.incrementAndGet();
+            }
+        });
+        try {
+            assertEquals("a", ds.loadConfig());
+            assertEquals(1, updateCount.get());
+            if (watcher.isWatchSupported()) {
+                assertTrue(ds.isWatching());
+            }
+
+            write(file, "bb");
+            waitUntil(updateCount, 2);
+            assertEquals("bb", ds.loadConfig());
+
+            // Same content, so it's not converted again.
+            int count = convertCount.get();
+            ds.refresh();
+            assertEquals(count, convertCount.get());
+            assertEquals(2, updateCount.get());
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void testReloadOnSymbolicLinkSwap() throws Exception {
+        // Layout of Kubernetes ConfigMap volumes: rules.txt -> ..data/rules.txt, ..data -> ..v1
+        File dir = folder.newFolder("config");
+        write(new File(folder.newFolder("config", "..v1"), "rules.txt"), "a");
+        Path dataLink = Files.createSymbolicLink(new File(dir, "..data").toPath(), Paths.get("..v1"));
+        File file = Files.createSymbolicLink(new File(dir, "rules.txt").toPath(), Paths.get("..data/rules.txt"))
+            .toFile();
+
+        final AtomicInteger updateCount = new AtomicInteger();
+        final AtomicReference<String> lastValue = new AtomicReference<>();
+        WatchedFileRefreshableDataSource<String> ds = new WatchedFileRefreshableDataSource<>(file,
+            new Converter<String, String>() {
+                @Override
+                public String convert(String source) {
+                    return source;
+                }
+            }, 10, 50, UTF_8, SharedFileWatcher.getInstance());
+        ds.getProperty().addListener(new SimplePropertyListener<String>() {
+            @Override
+            public void configUpdate(String newValue) {
+                lastValue.set(newValue);
+                updateCount.incrementAndGet();
+            }
+        });
+        try {
+            assertEquals(1, updateCount.get());
+            assertFalse(ds.isWatching());
+
+            // Swap the data link atomically.
+            write(new File(folder.newFolder("config", "..v2"), "rules.txt"), "bb");
+            Path tmpLink = Files.createSymbolicLink(new File(dir, "..data_tmp").toPath(), Paths.get("..v2"));
+            Files.move(tmpLink, dataLink, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            waitUntil(updateCount, 2);
+            assertEquals("bb", lastValue.get());
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void testReadSourceNotConsumingChange() throws Exception {
+        File file = folder.newFile("rules.txt");
+        write(file, "a");
+        final AtomicInteger updateCount = new AtomicInteger();
+        // Never notified by the watcher, as the poll interval is long enough.
+        WatchedFileRefreshableDataSource<String> ds = new WatchedFileRefreshableDataSource<>(file,
+            new Converter<String, String>() {
+                @Override
+                public String convert(String source) {
+                    return source;
+                }
+            }, 10, 60000, UTF_8, new SharedFileWatcher(null));
+        ds.getProperty().addListener(new SimplePropertyListener<String>() {
+            @Override
+            public void configUpdate(String newValue) {
+                updateCount.incrementAndGet();
+            }
+        });
+        try {
+            assertEquals(1, updateCount.get());
+            write(file, "bb");
+            assertEquals("bb", ds.readSource());
+            assertEquals("bb", ds.loadConfig());
+
+            ds.refresh();
+            assertEquals(2, updateCount.get());
+        } finally {
+            ds.close();
+        }
+    }
+
+    private static void waitUntil(AtomicInteger counter, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15000;
+        while (counter.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, counter.get());
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes(UTF_8));
+        } finally {
+            out.close();
+        }
+    }
+}
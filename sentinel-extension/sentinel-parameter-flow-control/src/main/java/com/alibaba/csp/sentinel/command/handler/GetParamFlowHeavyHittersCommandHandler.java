@@ -0,0 +1,62 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamHeavyHitterSketch;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetric;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetricStorage;
+import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * Get the current top-K heavy hitters of parameter flow rules in sketch mode,
+ * optionally of the given {@code resource}.
+ *
+ * @since 1.8.6
+ */
+@CommandMapping(name = "getParamFlowHeavyHitters", desc = "Get top-K heavy hitters of parameter flow rules in sketch mode")
+public class GetParamFlowHeavyHittersCommandHandler implements CommandHandler<String> {
+
+    @Override
+    public CommandResponse<String> handle(CommandRequest request) {
+        String resource = request.getParam("resource");
+        JSONArray array = new JSONArray();
+        for (ParamFlowRule rule : ParamFlowRuleManager.getRules()) {
+            if (!rule.isSketchMode() || (StringUtil.isNotBlank(resource) && !resource.equals(rule.getResource()))) {
+                continue;
+            }
+            ParameterMetric metric = ParameterMetricStorage.getParamMetricForResource(rule.getResource());
+            ParamHeavyHitterSketch sketch = metric == null ? null : metric.getRuleSketch(rule);
+            if (sketch == null) {
+                continue;
+            }
+            JSONObject obj = new JSONObject();
+            obj.put("resource", rule.getResource());
+            obj.put("paramIdx", rule.getParamIdx());
+            obj.put("topK", sketch.getTopK());
+            obj.put("heavyHitters", sketch.getHeavyHitters());
+            array.add(obj);
+        }
+        return CommandResponse.ofSuccess(array.toJSONString());
+    }
+}
@@ -25,16 +25,21 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.cluster.ClusterStateManager;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenService;
 import com.alibaba.csp.sentinel.cluster.client.TokenClientProvider;
 import com.alibaba.csp.sentinel.cluster.server.EmbeddedClusterTokenServerProvider;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
+import com.alibaba.csp.sentinel.slots.statistic.cache.LongKeyCounterMap;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
@@ -105,7 +110,9 @@ public final class ParamFlowChecker {
     static boolean passSingleValueCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
                                         Object value) {
         if (rule.getGrade() == RuleConstant.FLOW_GRADE_QPS) {
-            if (rule.getControlBehavior() == RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER) {
+            if (rule.isSketchMode()) {
+                return passSketchLocalCheck(resourceWrapper, rule, acquireCount, value);
+            } else if (rule.getControlBehavior() == RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER) {
                 return passThrottleLocalCheck(resourceWrapper, rule, acquireCount, value);
             } else {
                 return passDefaultLocalCheck(resourceWrapper, rule, acquireCount, value);
@@ -124,13 +131,38 @@ public final class ParamFlowChecker {
         return true;
     }
 
+    static boolean passSketchLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
+                                        Object value) {
+        ParameterMetric metric = getParameterMetric(resourceWrapper);
+        ParamHeavyHitterSketch sketch = metric == null ? null : metric.getRuleSketch(rule);
+        if (sketch == null) {
+            return true;
+        }
+
+        // Calculate max token count (threshold)
+        Set<Object> exclusionItems = rule.getParsedHotItems().keySet();
+        long tokenCount = (long)rule.getCount();
+        if (exclusionItems.contains(value)) {
+            tokenCount = rule.getParsedHotItems().get(value);
+        }
+
+        if (tokenCount == 0) {
+            return false;
+        }
+        long maxCount = tokenCount + rule.getBurstCount();
+        return sketch.tryAcquire(value, toPrimitiveKey(value), acquireCount, maxCount);
+    }
+
     static boolean passDefaultLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
                                          Object value) {
         ParameterMetric metric = getParameterMetric(resourceWrapper);
         CacheMap<Object, AtomicLong> tokenCounters = metric == null ? null : metric.getRuleTokenCounter(rule);
         CacheMap<Object, AtomicLong> timeCounters = metric == null ? null : metric.getRuleTimeCounter(rule);
+        LongKeyCounterMap tokenStore = metric == null ? null : metric.getRuleTokenStore(rule);
+        LongKeyCounterMap timeStore = metric == null ? null : metric.getRuleTimeStore(rule);
 
-        if (tokenCounters == null || timeCounters == null) {
+        boolean primitive = tokenStore != null && timeStore != null;
+        if (!primitive && (tokenCounters == null || timeCounters == null)) {
             return true;
         }
 
@@ -149,6 +181,17 @@ public final class ParamFlowChecker {
         if (acquireCount > maxCount) {
             return false;
         }
+        long durationInMs = rule.getDurationInSec() * 1000;
+        if (primitive) {
+            long key = toPrimitiveKey(value);
+            if (ParamTokenBucket.fits(maxCount)) {
+                return passPackedPrimitiveCheck(tokenStore, key, acquireCount, tokenCount, maxCount, durationInMs);
+            }
+            return passDefaultPrimitiveCheck(rule, acquireCount, key, tokenCount, maxCount, tokenStore, timeStore);
+        }
+        if (ParamTokenBucket.fits(maxCount)) {
+            return passPackedCheck(tokenCounters, value, acquireCount, tokenCount, maxCount, durationInMs);
+        }
 
         while (true) {
             long currentTime = TimeUtil.currentTimeMillis();
@@ -201,11 +244,116 @@ public final class ParamFlowChecker {
         }
     }
 
+    /**
+     * Check with the token bucket packed in a single counter (see {@link ParamTokenBucket}).
+     */
+    private static boolean passPackedCheck(CacheMap<Object, AtomicLong> tokenCounters, Object value,
+                                           int acquireCount, long tokenCount, long maxCount, long durationInMs) {
+        long currentTime = TimeUtil.currentTimeMillis();
+        AtomicLong bucket = tokenCounters.get(value);
+        if (bucket == null) {
+            // Token never added, just replenish the tokens and consume {@code acquireCount} immediately.
+            bucket = tokenCounters.putIfAbsent(value,
+                new AtomicLong(ParamTokenBucket.pack(currentTime, maxCount - acquireCount)));
+            if (bucket == null) {
+                return true;
+            }
+        }
+        for (int i = 0; i < ParamTokenBucket.MAX_CAS_ATTEMPTS; i++) {
+            long state = bucket.get();
+            long newState = ParamTokenBucket.tryAcquire(state, currentTime, acquireCount, tokenCount, maxCount,
+                durationInMs);
+            if (newState == ParamTokenBucket.BLOCKED) {
+                return false;
+            }
+            if (bucket.compareAndSet(state, newState)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean passPackedPrimitiveCheck(LongKeyCounterMap tokenStore, long key, int acquireCount,
+                                                    long tokenCount, long maxCount, long durationInMs) {
+        long currentTime = TimeUtil.currentTimeMillis();
+        for (int i = 0; i < ParamTokenBucket.MAX_CAS_ATTEMPTS; i++) {
+            long state = tokenStore.get(key);
+            if (state == LongKeyCounterMap.NO_VALUE) {
+                // Token never added or evicted, just replenish the tokens and consume {@code acquireCount}.
+                if (tokenStore.putIfAbsent(key, ParamTokenBucket.pack(currentTime, maxCount - acquireCount))
+                    == LongKeyCounterMap.NO_VALUE) {
+                    return true;
+                }
+                continue;
+            }
+            long newState = ParamTokenBucket.tryAcquire(state, currentTime, acquireCount, tokenCount, maxCount,
+                durationInMs);
+            if (newState == ParamTokenBucket.BLOCKED) {
+                return false;
+            }
+            if (tokenStore.compareAndSet(key, state, newState)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The same algorithm as the {@link CacheMap}-based check, with counters in primitive maps.
+     * As counters might be evicted at any time, an evicted counter is treated as a newly replenished one.
+     */
+    private static boolean passDefaultPrimitiveCheck(ParamFlowRule rule, int acquireCount, long key,
+                                                     long tokenCount, long maxCount, LongKeyCounterMap tokenStore,
+                                                     LongKeyCounterMap timeStore) {
+        while (true) {
+            long currentTime = TimeUtil.currentTimeMillis();
+
+            long lastAddTokenTime = timeStore.putIfAbsent(key, currentTime);
+            if (lastAddTokenTime == LongKeyCounterMap.NO_VALUE) {
+                // Token never added, just replenish the tokens and consume {@code acquireCount} immediately.
+                tokenStore.put(key, maxCount - acquireCount);
+                return true;
+            }
+
+            long passTime = currentTime - lastAddTokenTime;
+            long restQps = tokenStore.get(key);
+            if (restQps == LongKeyCounterMap.NO_VALUE) {
+                if (tokenStore.putIfAbsent(key, maxCount - acquireCount) == LongKeyCounterMap.NO_VALUE) {
+                    timeStore.put(key, currentTime);
+                    return true;
+                }
+                continue;
+            }
+            if (passTime > rule.getDurationInSec() * 1000) {
+                long toAddCount = (passTime * tokenCount) / (rule.getDurationInSec() * 1000);
+                long newQps = toAddCount + restQps > maxCount ? (maxCount - acquireCount)
+                    : (restQps + toAddCount - acquireCount);
+
+                if (newQps < 0) {
+                    return false;
+                }
+                if (tokenStore.compareAndSet(key, restQps, newQps)) {
+                    timeStore.put(key, currentTime);
+                    return true;
+                }
+            } else {
+                if (restQps - acquireCount < 0) {
+                    return false;
+                }
+                if (tokenStore.compareAndSet(key, restQps, restQps - acquireCount)) {
+                    return true;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
     static boolean passThrottleLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
                                           Object value) {
         ParameterMetric metric = getParameterMetric(resourceWrapper);
         CacheMap<Object, AtomicLong> timeRecorderMap = metric == null ? null : metric.getRuleTimeCounter(rule);
-        if (timeRecorderMap == null) {
+        LongKeyCounterMap timeStore = metric == null ? null : metric.getRuleTimeStore(rule);
+        if (timeRecorderMap == null && timeStore == null) {
             return true;
         }
 
@@ -221,36 +369,126 @@ public final class ParamFlowChecker {
         }
 
         long costTime = Math.round(1.0 * 1000 * acquireCount * rule.getDurationInSec() / tokenCount);
-        while (true) {
-            long currentTime = TimeUtil.currentTimeMillis();
-            AtomicLong timeRecorder = timeRecorderMap.putIfAbsent(value, new AtomicLong(currentTime));
+        if (timeStore != null) {
+            return passThrottlePrimitiveCheck(rule, toPrimitiveKey(value), costTime, timeStore);
+        }
+        long currentTime = TimeUtil.currentTimeMillis();
+        AtomicLong timeRecorder = timeRecorderMap.get(value);
+        if (timeRecorder == null) {
+            timeRecorder = timeRecorderMap.putIfAbsent(value, new AtomicLong(currentTime));
             if (timeRecorder == null) {
                 return true;
             }
-            //AtomicLong timeRecorder = timeRecorderMap.get(value);
+        }
+        for (int i = 0; i < ParamTokenBucket.MAX_CAS_ATTEMPTS; i++) {
             long lastPassTime = timeRecorder.get();
             long expectedTime = lastPassTime + costTime;
 
             if (expectedTime <= currentTime || expectedTime - currentTime < rule.getMaxQueueingTimeMs()) {
-                AtomicLong lastPastTimeRef = timeRecorderMap.get(value);
-                if (lastPastTimeRef.compareAndSet(lastPassTime, currentTime)) {
-                    long waitTime = expectedTime - currentTime;
+                long waitTime = expectedTime - currentTime;
+                if (timeRecorder.compareAndSet(lastPassTime, waitTime > 0 ? expectedTime : currentTime)) {
                     if (waitTime > 0) {
-                        lastPastTimeRef.set(expectedTime);
-                        try {
-                            TimeUnit.MILLISECONDS.sleep(waitTime);
-                        } catch (InterruptedException e) {
-                            RecordLog.warn("passThrottleLocalCheck: wait interrupted", e);
-                        }
+                        waitForQueueing(waitTime);
+                    }
+                    return true;
+                }
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean passThrottlePrimitiveCheck(ParamFlowRule rule, long key, long costTime,
+                                                      LongKeyCounterMap timeStore) {
+        long currentTime = TimeUtil.currentTimeMillis();
+        for (int i = 0; i < ParamTokenBucket.MAX_CAS_ATTEMPTS; i++) {
+            long lastPassTime = timeStore.putIfAbsent(key, currentTime);
+            if (lastPassTime == LongKeyCounterMap.NO_VALUE) {
+                return true;
+            }
+            long expectedTime = lastPassTime + costTime;
+
+            if (expectedTime <= currentTime || expectedTime - currentTime < rule.getMaxQueueingTimeMs()) {
+                long waitTime = expectedTime - currentTime;
+                if (timeStore.compareAndSet(key, lastPassTime, waitTime > 0 ? expectedTime : currentTime)) {
+                    if (waitTime > 0) {
+                        waitForQueueing(waitTime);
                     }
                     return true;
-                } else {
-                    Thread.yield();
                 }
             } else {
                 return false;
             }
         }
+        return false;
+    }
+
+    /**
+     * Wait for the reserved pass time. The non-blocking async entry records the time to wait instead,
+     * so that the caller could schedule the invocation rather than blocking current thread.
+     */
+    private static void waitForQueueing(long waitTime) {
+        Context context = ContextUtil.getContext();
+        Entry curEntry = context == null ? null : context.getCurEntry();
+        if (curEntry instanceof AsyncEntry && ((AsyncEntry)curEntry).isNonBlocking()) {
+            ((AsyncEntry)curEntry).recordWaitInMs(waitTime);
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(waitTime);
+        } catch (InterruptedException e) {
+            RecordLog.warn("passThrottleLocalCheck: wait interrupted", e);
+        }
+    }
+
+    /**
+     * Get the primitive counter key of the parameter value. The value (the value itself for integral types,
+     * a 64-bit hash for strings, or {@code hashCode} for other types) is mixed with its type, so that values
+     * of different types (e.g. {@code Integer(1)} and {@code Long(1)}) are counted separately as in the boxed
+     * counters. The mixing is a bijection for a given type, so integral values of the same type never collide.
+     *
+     * @param value non-null parameter value
+     * @return the counter key
+     */
+    static long toPrimitiveKey(Object value) {
+        if (value instanceof Long) {
+            return mixType((Long)value, 1);
+        }
+        if (value instanceof Integer) {
+            return mixType((Integer)value, 2);
+        }
+        if (value instanceof String) {
+            // 64-bit FNV-1a, as the 32-bit String#hashCode collides too often among millions of values.
+            String s = (String)value;
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                hash ^= s.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return mixType(hash, 3);
+        }
+        if (value instanceof Short) {
+            return mixType((Short)value, 4);
+        }
+        if (value instanceof Byte) {
+            return mixType((Byte)value, 5);
+        }
+        if (value instanceof Character) {
+            return mixType((Character)value, 6);
+        }
+        return mixType(value.hashCode(), value.getClass().hashCode());
+    }
+
+    private static long mixType(long value, long type) {
+        // The finalizer of MurmurHash3 over the value offset by the type.
+        long key = value + type * 0x9e3779b97f4a7c15L;
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
     }
 
     private static ParameterMetric getParameterMetric(ResourceWrapper resourceWrapper) {
@@ -82,6 +82,17 @@ public class ParamFlowRule extends AbstractRule {
      */
     private ParamFlowClusterConfig clusterConfig;
 
+    /**
+     * Indicating whether to estimate the QPS of parameters with a Count-Min Sketch and count only the
+     * top-K heavy hitters exactly, so that the memory is fixed for unbounded parameter cardinality
+     * (since 1.8.6). Only for QPS grade with the default control behavior.
+     */
+    private boolean sketchMode = false;
+    /**
+     * Amount of heavy hitters counted exactly in sketch mode (since 1.8.6).
+     */
+    private int sketchTopK = 100;
+
     public int getControlBehavior() {
         return controlBehavior;
     }
@@ -188,6 +199,24 @@ public class ParamFlowRule extends AbstractRule {
         return this;
     }
 
+    public boolean isSketchMode() {
+        return sketchMode;
+    }
+
+    public ParamFlowRule setSketchMode(boolean sketchMode) {
+        this.sketchMode = sketchMode;
+        return this;
+    }
+
+    public int getSketchTopK() {
+        return sketchTopK;
+    }
+
+    public ParamFlowRule setSketchTopK(int sketchTopK) {
+        this.sketchTopK = sketchTopK;
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
@@ -203,6 +232,8 @@ public class ParamFlowRule extends AbstractRule {
         if (burstCount != that.burstCount) { return false; }
         if (durationInSec != that.durationInSec) { return false; }
         if (clusterMode != that.clusterMode) { return false; }
+        if (sketchMode != that.sketchMode) { return false; }
+        if (sketchTopK != that.sketchTopK) { return false; }
         if (!Objects.equals(paramIdx, that.paramIdx)) { return false; }
         if (!Objects.equals(paramFlowItemList, that.paramFlowItemList)) { return false; }
         return Objects.equals(clusterConfig, that.clusterConfig);
@@ -223,6 +254,8 @@ public class ParamFlowRule extends AbstractRule {
         result = 31 * result + (paramFlowItemList != null ? paramFlowItemList.hashCode() : 0);
         result = 31 * result + (clusterMode ? 1 : 0);
         result = 31 * result + (clusterConfig != null ? clusterConfig.hashCode() : 0);
+        result = 31 * result + (sketchMode ? 1 : 0);
+        result = 31 * result + sketchTopK;
         return result;
     }
 
@@ -239,6 +272,8 @@ public class ParamFlowRule extends AbstractRule {
             ", paramFlowItemList=" + paramFlowItemList +
             ", clusterMode=" + clusterMode +
             ", clusterConfig=" + clusterConfig +
+            ", sketchMode=" + sketchMode +
+            ", sketchTopK=" + sketchTopK +
             '}';
     }
 }
@@ -48,7 +48,16 @@ public final class ParamFlowRuleUtil {
             && rule.getGrade() >= 0 && rule.getParamIdx() != null
             && rule.getBurstCount() >= 0 && rule.getControlBehavior() >= 0
             && rule.getDurationInSec() > 0 && rule.getMaxQueueingTimeMs() >= 0
-            && checkCluster(rule);
+            && checkCluster(rule) && checkSketch(rule);
+    }
+
+    private static boolean checkSketch(/*@PreChecked*/ ParamFlowRule rule) {
+        if (!rule.isSketchMode()) {
+            return true;
+        }
+        return rule.getGrade() == RuleConstant.FLOW_GRADE_QPS
+            && rule.getControlBehavior() == RuleConstant.CONTROL_BEHAVIOR_DEFAULT
+            && rule.getSketchTopK() > 0;
     }
 
     private static boolean checkCluster(/*@PreChecked*/ ParamFlowRule rule) {
@@ -0,0 +1,220 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.UnaryLeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.sketch.CountMinSketchLeapArray;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>QPS counter of parameters for rules in sketch mode, whose memory is fixed regardless of the
+ * amount of distinct parameter values.</p>
+ *
+ * <p>The count of each parameter value in the recent {@code durationInSec} is estimated by a sliding
+ * Count-Min Sketch. The top-K heavy hitters (the parameter values with the highest count) are admitted
+ * to a small table and counted exactly, so that hot parameter values are throttled accurately.
+ * A parameter value with a higher estimated count replaces the coldest one in a full table.</p>
+ *
+ * @since 1.8.6
+ */
+public class ParamHeavyHitterSketch {
+
+    static final int SKETCH_DEPTH = 4;
+    static final int SKETCH_WIDTH = 2048;
+    private static final int SAMPLE_COUNT = 2;
+
+    private final int topK;
+    private final int intervalInMs;
+    private final CountMinSketchLeapArray sketch;
+    private final Map<Object, HeavyHitter> heavyHitters = new ConcurrentHashMap<>();
+
+    private final Object admissionLock = new Object();
+    /**
+     * Min count among the full table when it was last scanned, which is only valid in the same window.
+     */
+    private volatile long admissionFloor = 0;
+    private volatile long admissionFloorTime = 0;
+
+    public ParamHeavyHitterSketch(int topK, long durationInSec) {
+        this.topK = topK;
+        this.intervalInMs = (int)(durationInSec * 1000);
+        this.sketch = new CountMinSketchLeapArray(SAMPLE_COUNT, intervalInMs, SKETCH_DEPTH, SKETCH_WIDTH);
+    }
+
+    /**
+     * Try to acquire the count for the parameter value.
+     *
+     * @param value        the parameter value
+     * @param key          primitive key of the parameter value
+     * @param acquireCount count to acquire
+     * @param maxCount     max count of the parameter value in the interval
+     * @return true if passed, false if blocked
+     */
+    public boolean tryAcquire(Object value, long key, int acquireCount, long maxCount) {
+        HeavyHitter heavyHitter = heavyHitters.get(value);
+        if (heavyHitter != null) {
+            if (heavyHitter.count() + acquireCount > maxCount) {
+                return false;
+            }
+            heavyHitter.add(acquireCount);
+            return true;
+        }
+
+        long estimate = sketch.estimate(key);
+        if (estimate + acquireCount > maxCount) {
+            // Count it exactly from now on, as it's probably hot.
+            tryAdmit(value, key, estimate);
+            return false;
+        }
+        sketch.add(key, acquireCount);
+        tryAdmit(value, key, estimate + acquireCount);
+        return true;
+    }
+
+    private void tryAdmit(Object value, long key, long estimate) {
+        long currentTime = TimeUtil.currentTimeMillis();
+        if (estimate <= admissionFloor && currentTime - admissionFloorTime < intervalInMs / SAMPLE_COUNT) {
+            return;
+        }
+        synchronized (admissionLock) {
+            if (heavyHitters.containsKey(value)) {
+                return;
+            }
+            if (heavyHitters.size() < topK) {
+                heavyHitters.put(value, new HeavyHitter(value, key, estimate));
+                return;
+            }
+            HeavyHitter coldest = null;
+            long minCount = Long.MAX_VALUE;
+            for (HeavyHitter heavyHitter : heavyHitters.values()) {
+                long count = heavyHitter.count();
+                if (count < minCount) {
+                    minCount = count;
+                    coldest = heavyHitter;
+                }
+            }
+            admissionFloorTime = currentTime;
+            if (coldest == null || estimate <= minCount) {
+                admissionFloor = minCount;
+                return;
+            }
+            heavyHitters.remove(coldest.value);
+            // Hand its count back to the sketch, so that it won't be forgotten.
+            if (minCount > 0) {
+                sketch.add(coldest.key, (int)Math.min(minCount, Integer.MAX_VALUE));
+            }
+            heavyHitters.put(value, new HeavyHitter(value, key, estimate));
+            admissionFloor = minCount;
+        }
+    }
+
+    /**
+     * @return current heavy hitters in descending order of the count
+     */
+    public List<HeavyHitterItem> getHeavyHitters() {
+        List<HeavyHitterItem> items = new ArrayList<>(heavyHitters.size());
+        for (HeavyHitter heavyHitter : heavyHitters.values()) {
+            items.add(new HeavyHitterItem(heavyHitter.value, heavyHitter.count()));
+        }
+        Collections.sort(items, new Comparator<HeavyHitterItem>() {
+            @Override
+            public int compare(HeavyHitterItem o1, HeavyHitterItem o2) {
+                return Long.compare(o2.getCount(), o1.getCount());
+            }
+        });
+        return items;
+    }
+
+    /**
+     * Estimate the count of the parameter value in the interval.
+     *
+     * @param value the parameter value
+     * @param key   primitive key of the parameter value
+     * @return exact count of heavy hitters, or estimated count of other values
+     */
+    public long estimate(Object value, long key) {
+        HeavyHitter heavyHitter = heavyHitters.get(value);
+        return heavyHitter != null ? heavyHitter.count() : sketch.estimate(key);
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    private final class HeavyHitter {
+        private final Object value;
+        private final long key;
+        private final UnaryLeapArray counter;
+
+        HeavyHitter(Object value, long key, long initialCount) {
+            this.value = value;
+            this.key = key;
+            this.counter = new UnaryLeapArray(SAMPLE_COUNT, intervalInMs);
+            add(initialCount);
+        }
+
+        void add(long count) {
+            counter.currentWindow().value().add(count);
+        }
+
+        long count() {
+            long timeMillis = TimeUtil.currentTimeMillis();
+            counter.currentWindow(timeMillis);
+            long sum = 0;
+            for (int i = 0; i < SAMPLE_COUNT; i++) {
+                LongAdder adder = counter.getValidValue(i, timeMillis);
+                if (adder != null) {
+                    sum += adder.sum();
+                }
+            }
+            return sum;
+        }
+    }
+
+    public static class HeavyHitterItem {
+        private final Object value;
+        private final long count;
+
+        public HeavyHitterItem(Object value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return "HeavyHitterItem{" +
+                "value=" + value +
+                ", count=" + count +
+                '}';
+        }
+    }
+}
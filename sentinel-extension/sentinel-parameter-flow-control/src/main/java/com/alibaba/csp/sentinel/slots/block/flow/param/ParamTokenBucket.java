@@ -0,0 +1,85 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+/**
+ * <p>The token bucket of a parameter value packed in a single non-negative {@code long}, so that
+ * the refill and the consumption are done in a single CAS: the high 39 bits are the time of the last refill
+ * (in ms, modulo 2^39, i.e. about 17 years) and the low 24 bits are the remaining tokens.</p>
+ *
+ * <p>Buckets whose max token count exceeds {@link #MAX_TOKENS} fall back to separate time and token counters.</p>
+ *
+ * @since 1.8.6
+ */
+final class ParamTokenBucket {
+
+    static final int TOKEN_BITS = 24;
+    static final long MAX_TOKENS = (1L << TOKEN_BITS) - 1;
+    private static final long TIME_MASK = (1L << (63 - TOKEN_BITS)) - 1;
+
+    /**
+     * Returned by {@link #tryAcquire} when there are not enough tokens. It's never a valid state.
+     */
+    static final long BLOCKED = -1;
+
+    /**
+     * Max attempts of CAS on a bucket. The request fails fast rather than spinning on a hot parameter value,
+     * as every failed attempt means that another request has taken tokens.
+     */
+    static final int MAX_CAS_ATTEMPTS = 32;
+
+    static boolean fits(long maxCount) {
+        return maxCount <= MAX_TOKENS;
+    }
+
+    static long pack(long timeMillis, long tokens) {
+        return ((timeMillis & TIME_MASK) << TOKEN_BITS) | tokens;
+    }
+
+    static long tokens(long state) {
+        return state & MAX_TOKENS;
+    }
+
+    /**
+     * @return elapsed time since the last refill, or 0 if the clock has gone backwards
+     */
+    static long elapsed(long state, long currentTime) {
+        long elapsed = (currentTime - (state >>> TOKEN_BITS)) & TIME_MASK;
+        return elapsed > (TIME_MASK >>> 1) ? 0 : elapsed;
+    }
+
+    /**
+     * The same simplified token bucket as the former counters: the tokens are replenished only when the
+     * statistic window ({@code durationInMs}) has passed since the last refill.
+     *
+     * @return the new state after the acquisition, or {@link #BLOCKED} if there are not enough tokens
+     */
+    static long tryAcquire(long state, long currentTime, int acquireCount, long tokenCount, long maxCount,
+                           long durationInMs) {
+        long restQps = tokens(state);
+        long passTime = elapsed(state, currentTime);
+        if (passTime > durationInMs) {
+            long toAddCount = passTime > Long.MAX_VALUE / tokenCount ? maxCount
+                : (passTime * tokenCount) / durationInMs;
+            long newQps = toAddCount + restQps > maxCount ? (maxCount - acquireCount)
+                : (restQps + toAddCount - acquireCount);
+            return newQps < 0 ? BLOCKED : pack(currentTime, newQps);
+        }
+        return restQps < acquireCount ? BLOCKED : state - acquireCount;
+    }
+
+    private ParamTokenBucket() {}
+}
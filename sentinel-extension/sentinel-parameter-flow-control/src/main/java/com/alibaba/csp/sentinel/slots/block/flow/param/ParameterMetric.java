@@ -22,9 +22,11 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
 import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLinkedHashMapWrapper;
+import com.alibaba.csp.sentinel.slots.statistic.cache.LongKeyCounterMap;
 
 /**
  * Metrics for frequent ("hot spot") parameters.
@@ -34,6 +36,16 @@ import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLinkedHashMapWra
  */
 public class ParameterMetric {
 
+    /**
+     * Whether to keep the QPS counters of parameters in primitive {@link LongKeyCounterMap}s rather than
+     * {@link CacheMap}s of {@link AtomicLong} (since 1.8.6). Parameters are keyed by their numeric value or
+     * a 64-bit hash, so two distinct parameters might share a counter in rare cases.
+     */
+    public static final String PRIMITIVE_COUNTER_ENABLED = "csp.sentinel.param.counter.primitive.enabled";
+
+    private static final boolean DEFAULT_PRIMITIVE_COUNTER_ENABLED =
+        Boolean.parseBoolean(SentinelConfig.getConfig(PRIMITIVE_COUNTER_ENABLED));
+
     private static final int THREAD_COUNT_MAX_CAPACITY = 4000;
     private static final int BASE_PARAM_MAX_CAPACITY = 4000;
     private static final int TOTAL_MAX_CAPACITY = 20_0000;
@@ -48,11 +60,47 @@ public class ParameterMetric {
     private final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTimeCounters = new HashMap<>();
     /**
      * Format: (rule, (value, tokenCounter))
+     * <p>Since 1.8.6, the counter holds the packed token bucket (see {@link ParamTokenBucket}) of the value,
+     * unless the threshold of the value is too large to be packed.</p>
      *
      * @since 1.6.0
      */
     private final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTokenCounter = new HashMap<>();
     private final Map<Integer, CacheMap<Object, AtomicInteger>> threadCountMap = new HashMap<>();
+    /**
+     * Format: (rule, (value key, timeRecorder)), in primitive counter mode.
+     *
+     * @since 1.8.6
+     */
+    private final Map<ParamFlowRule, LongKeyCounterMap> ruleTimeStores = new HashMap<>();
+    /**
+     * Format: (rule, (value key, tokenCounter)), in primitive counter mode. The counter holds the packed token
+     * bucket as well.
+     *
+     * @since 1.8.6
+     */
+    private final Map<ParamFlowRule, LongKeyCounterMap> ruleTokenStores = new HashMap<>();
+
+    /**
+     * Format: (rule, heavyHitterSketch), for rules in sketch mode.
+     *
+     * @since 1.8.6
+     */
+    private final Map<ParamFlowRule, ParamHeavyHitterSketch> ruleSketches = new HashMap<>();
+
+    private final boolean primitiveCounter;
+
+    public ParameterMetric() {
+        this(DEFAULT_PRIMITIVE_COUNTER_ENABLED);
+    }
+
+    /**
+     * @param primitiveCounter whether to keep the QPS counters in {@link LongKeyCounterMap}s
+     * @since 1.8.6
+     */
+    public ParameterMetric(boolean primitiveCounter) {
+        this.primitiveCounter = primitiveCounter;
+    }
 
     /**
      * Get the token counter for given parameter rule.
@@ -76,11 +124,51 @@ public class ParameterMetric {
         return ruleTimeCounters.get(rule);
     }
 
+    /**
+     * Get the primitive token counter for given parameter rule.
+     *
+     * @param rule valid parameter rule
+     * @return the associated token counter, or null if not in primitive counter mode
+     * @since 1.8.6
+     */
+    public LongKeyCounterMap getRuleTokenStore(ParamFlowRule rule) {
+        return ruleTokenStores.get(rule);
+    }
+
+    /**
+     * Get the primitive time record counter for given parameter rule.
+     *
+     * @param rule valid parameter rule
+     * @return the associated time counter, or null if not in primitive counter mode
+     * @since 1.8.6
+     */
+    public LongKeyCounterMap getRuleTimeStore(ParamFlowRule rule) {
+        return ruleTimeStores.get(rule);
+    }
+
+    /**
+     * Get the heavy hitter sketch for given parameter rule in sketch mode.
+     *
+     * @param rule valid parameter rule
+     * @return the associated sketch, or null if the rule is not in sketch mode
+     * @since 1.8.6
+     */
+    public ParamHeavyHitterSketch getRuleSketch(ParamFlowRule rule) {
+        return ruleSketches.get(rule);
+    }
+
+    public boolean isPrimitiveCounter() {
+        return primitiveCounter;
+    }
+
     public void clear() {
         synchronized (lock) {
             threadCountMap.clear();
             ruleTimeCounters.clear();
             ruleTokenCounter.clear();
+            ruleTimeStores.clear();
+            ruleTokenStores.clear();
+            ruleSketches.clear();
         }
     }
 
@@ -88,11 +176,63 @@ public class ParameterMetric {
         synchronized (lock) {
             ruleTimeCounters.remove(rule);
             ruleTokenCounter.remove(rule);
+            ruleTimeStores.remove(rule);
+            ruleTokenStores.remove(rule);
+            ruleSketches.remove(rule);
             threadCountMap.remove(rule.getParamIdx());
         }
     }
 
     public void initialize(ParamFlowRule rule) {
+        if (rule.isSketchMode()) {
+            initializeSketch(rule);
+        } else if (primitiveCounter) {
+            initializeStores(rule);
+        } else {
+            initializeCounters(rule);
+        }
+
+        if (!threadCountMap.containsKey(rule.getParamIdx())) {
+            synchronized (lock) {
+                if (threadCountMap.get(rule.getParamIdx()) == null) {
+                    threadCountMap.put(rule.getParamIdx(),
+                        new ConcurrentLinkedHashMapWrapper<Object, AtomicInteger>(THREAD_COUNT_MAX_CAPACITY));
+                }
+            }
+        }
+    }
+
+    private void initializeSketch(ParamFlowRule rule) {
+        if (!ruleSketches.containsKey(rule)) {
+            synchronized (lock) {
+                if (ruleSketches.get(rule) == null) {
+                    ruleSketches.put(rule, new ParamHeavyHitterSketch(rule.getSketchTopK(), rule.getDurationInSec()));
+                }
+            }
+        }
+    }
+
+    private void initializeStores(ParamFlowRule rule) {
+        if (!ruleTimeStores.containsKey(rule)) {
+            synchronized (lock) {
+                if (ruleTimeStores.get(rule) == null) {
+                    long size = Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
+                    ruleTimeStores.put(rule, new LongKeyCounterMap(size));
+                }
+            }
+        }
+
+        if (!ruleTokenStores.containsKey(rule)) {
+            synchronized (lock) {
+                if (ruleTokenStores.get(rule) == null) {
+                    long size = Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
+                    ruleTokenStores.put(rule, new LongKeyCounterMap(size));
+                }
+            }
+        }
+    }
+
+    private void initializeCounters(ParamFlowRule rule) {
         if (!ruleTimeCounters.containsKey(rule)) {
             synchronized (lock) {
                 if (ruleTimeCounters.get(rule) == null) {
@@ -110,15 +250,6 @@ public class ParameterMetric {
                 }
             }
         }
-
-        if (!threadCountMap.containsKey(rule.getParamIdx())) {
-            synchronized (lock) {
-                if (threadCountMap.get(rule.getParamIdx()) == null) {
-                    threadCountMap.put(rule.getParamIdx(),
-                        new ConcurrentLinkedHashMapWrapper<Object, AtomicInteger>(THREAD_COUNT_MAX_CAPACITY));
-                }
-            }
-        }
     }
 
     @SuppressWarnings("rawtypes")
@@ -264,4 +395,12 @@ public class ParameterMetric {
     Map<ParamFlowRule, CacheMap<Object, AtomicLong>> getRuleTimeCounterMap() {
         return ruleTimeCounters;
     }
+
+    Map<ParamFlowRule, LongKeyCounterMap> getRuleTokenStoreMap() {
+        return ruleTokenStores;
+    }
+
+    Map<ParamFlowRule, LongKeyCounterMap> getRuleTimeStoreMap() {
+        return ruleTimeStores;
+    }
 }
@@ -0,0 +1,293 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>A bounded, concurrent map from primitive {@code long} keys to {@code long} counters,
+ * backed by plain {@code long[]} arrays, so no entry or counter object is allocated per key.</p>
+ *
+ * <p>The table is set-associative: a key is hashed to a set of {@link #WAYS} slots. When the set is full,
+ * a victim is chosen by the CLOCK algorithm within the set (an approximate LRU), so the map never grows
+ * beyond its capacity. Sets are guarded by a fixed number of {@link ReentrantLock} stripes.</p>
+ *
+ * <p>Counters might be evicted at any time, so callers should be prepared for {@link #NO_VALUE}
+ * and a failed {@link #compareAndSet(long, long, long)}.</p>
+ *
+ * @since 1.8.6
+ */
+public class LongKeyCounterMap {
+
+    /**
+     * Value returned when the key is absent. It's never a valid counter value.
+     */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    static final int WAYS = 8;
+    private static final int MAX_STRIPES = 64;
+
+    private static final byte EMPTY = 0;
+    private static final byte PRESENT = 1;
+    private static final byte REFERENCED = 2;
+
+    private final long[] keys;
+    private final long[] values;
+    private final byte[] states;
+    /**
+     * The CLOCK hand of each set.
+     */
+    private final byte[] hands;
+    private final int setMask;
+
+    private final ReentrantLock[] locks;
+    private final int[] sizes;
+    private final int stripeMask;
+
+    /**
+     * @param maxCapacity max amount of counters, rounded up to a power of two
+     */
+    public LongKeyCounterMap(long maxCapacity) {
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("Cache max capacity should be positive: " + maxCapacity);
+        }
+        int capacity = WAYS;
+        while (capacity < maxCapacity && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        int setCount = capacity / WAYS;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.states = new byte[capacity];
+        this.hands = new byte[setCount];
+        this.setMask = setCount - 1;
+
+        int stripes = Math.min(MAX_STRIPES, setCount);
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.sizes = new int[stripes];
+        this.stripeMask = stripes - 1;
+    }
+
+    private static long spread(long key) {
+        // The finalizer of MurmurHash3, so that sequential keys are spread evenly among the sets.
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private int setOf(long key) {
+        return (int)spread(key) & setMask;
+    }
+
+    /**
+     * @return slot index of the key in the set, or -1 if absent
+     */
+    private int find(int set, long key) {
+        int base = set * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            if (states[i] != EMPTY && keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find an empty slot in the set, or evict an unreferenced one with the CLOCK hand.
+     */
+    private int claim(int set, int stripe) {
+        int base = set * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            if (states[i] == EMPTY) {
+                sizes[stripe]++;
+                return i;
+            }
+        }
+        int hand = hands[set];
+        while (true) {
+            int i = base + hand;
+            hand = (hand + 1) & (WAYS - 1);
+            if (states[i] == REFERENCED) {
+                // Give it a second chance.
+                states[i] = PRESENT;
+            } else {
+                hands[set] = (byte)hand;
+                return i;
+            }
+        }
+    }
+
+    public long get(long key) {
+        int set = setOf(key);
+        ReentrantLock lock = locks[set & stripeMask];
+        lock.lock();
+        try {
+            int i = find(set, key);
+            if (i < 0) {
+                return NO_VALUE;
+            }
+            states[i] = REFERENCED;
+            return values[i];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != NO_VALUE;
+    }
+
+    /**
+     * @return the previous value, or {@link #NO_VALUE} if the key was absent and the value has been put
+     */
+    public long putIfAbsent(long key, long value) {
+        checkValue(value);
+        int set = setOf(key);
+        int stripe = set & stripeMask;
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            int i = find(set, key);
+            if (i >= 0) {
+                states[i] = REFERENCED;
+                return values[i];
+            }
+            i = claim(set, stripe);
+            keys[i] = key;
+            values[i] = value;
+            states[i] = REFERENCED;
+            return NO_VALUE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the previous value, or {@link #NO_VALUE} if the key was absent
+     */
+    public long put(long key, long value) {
+        checkValue(value);
+        int set = setOf(key);
+        int stripe = set & stripeMask;
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            int i = find(set, key);
+            long previous = NO_VALUE;
+            if (i >= 0) {
+                previous = values[i];
+            } else {
+                i = claim(set, stripe);
+                keys[i] = key;
+            }
+            values[i] = value;
+            states[i] = REFERENCED;
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Atomically set the counter of the key to {@code update} if its current value equals to {@code expect}.
+     *
+     * @return true if successful, false if the current value differs or the key is absent
+     */
+    public boolean compareAndSet(long key, long expect, long update) {
+        checkValue(update);
+        int set = setOf(key);
+        ReentrantLock lock = locks[set & stripeMask];
+        lock.lock();
+        try {
+            int i = find(set, key);
+            if (i < 0 || values[i] != expect) {
+                return false;
+            }
+            values[i] = update;
+            states[i] = REFERENCED;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the removed value, or {@link #NO_VALUE} if the key was absent
+     */
+    public long remove(long key) {
+        int set = setOf(key);
+        int stripe = set & stripeMask;
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            int i = find(set, key);
+            if (i < 0) {
+                return NO_VALUE;
+            }
+            states[i] = EMPTY;
+            sizes[stripe]--;
+            return values[i];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (int i = 0; i < locks.length; i++) {
+            ReentrantLock lock = locks[i];
+            lock.lock();
+            try {
+                size += sizes[i];
+            } finally {
+                lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public void clear() {
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            ReentrantLock lock = locks[stripe];
+            lock.lock();
+            try {
+                for (int set = stripe; set <= setMask; set += locks.length) {
+                    Arrays.fill(states, set * WAYS, (set + 1) * WAYS, EMPTY);
+                }
+                sizes[stripe] = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static void checkValue(long value) {
+        if (value == NO_VALUE) {
+            throw new IllegalArgumentException("Invalid counter value: " + value);
+        }
+    }
+}
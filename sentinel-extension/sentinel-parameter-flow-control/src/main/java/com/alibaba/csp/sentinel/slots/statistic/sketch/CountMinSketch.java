@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.sketch;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>A Count-Min Sketch of {@code long} keys with conservative update, whose memory is fixed
+ * ({@code depth * width} counters) regardless of the amount of distinct keys.</p>
+ *
+ * <p>The estimated count of a key is never less than its real count. The overestimation is bounded by
+ * {@code e / width} of the total count with probability {@code 1 - e^(-depth)}.</p>
+ *
+ * @since 1.8.6
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final AtomicIntegerArray counters;
+
+    /**
+     * @param depth amount of rows (hash functions)
+     * @param width amount of counters per row, should be a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0 || (width & (width - 1)) != 0) {
+            throw new IllegalArgumentException("Invalid sketch size: depth=" + depth + ", width=" + width);
+        }
+        this.depth = depth;
+        this.widthMask = width - 1;
+        this.counters = new AtomicIntegerArray(depth * width);
+    }
+
+    static long spread(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Index of the counter of the (spread) key in the row, derived by double hashing.
+     */
+    int indexOf(long hash, int row) {
+        int h1 = (int)hash;
+        int h2 = (int)(hash >>> 32) | 1;
+        return row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+    }
+
+    int getCounter(int index) {
+        return counters.get(index);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @param key the key
+     * @return estimated count of the key
+     */
+    public int estimate(long key) {
+        long hash = spread(key);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(indexOf(hash, row)));
+        }
+        return min;
+    }
+
+    /**
+     * Add the count to the key. With conservative update, only counters less than the new estimation
+     * are raised, which reduces the overestimation of other keys.
+     *
+     * @param key   the key
+     * @param count count to add
+     */
+    public void add(long key, int count) {
+        long hash = spread(key);
+        int target = estimate(key) + count;
+        if (target < 0) {
+            // Saturated.
+            target = Integer.MAX_VALUE;
+        }
+        for (int row = 0; row < depth; row++) {
+            int index = indexOf(hash, row);
+            int current;
+            while ((current = counters.get(index)) < target) {
+                if (counters.compareAndSet(index, current, target)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+}
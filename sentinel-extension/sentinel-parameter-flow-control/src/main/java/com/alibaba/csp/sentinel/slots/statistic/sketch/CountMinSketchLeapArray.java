@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.sketch;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * A sliding window of {@link CountMinSketch}s, which estimates the count of keys in the recent interval.
+ *
+ * @since 1.8.6
+ */
+public class CountMinSketchLeapArray extends LeapArray<CountMinSketch> {
+
+    private final int depth;
+    private final int width;
+
+    public CountMinSketchLeapArray(int sampleCount, int intervalInMs, int depth, int width) {
+        super(sampleCount, intervalInMs);
+        this.depth = depth;
+        this.width = width;
+    }
+
+    @Override
+    public CountMinSketch newEmptyBucket(long timeMillis) {
+        return new CountMinSketch(depth, width);
+    }
+
+    @Override
+    protected WindowWrap<CountMinSketch> resetWindowTo(WindowWrap<CountMinSketch> w, long startTime) {
+        w.resetTo(startTime);
+        w.value().reset();
+        return w;
+    }
+
+    /**
+     * Estimate the count of the key in the sliding window, i.e. the minimum among rows of the sum
+     * of the counters among valid buckets.
+     *
+     * @param key the key
+     * @return estimated count of the key
+     */
+    public long estimate(long key) {
+        long timeMillis = TimeUtil.currentTimeMillis();
+        // Make sure the current bucket is not deprecated.
+        currentWindow(timeMillis);
+        long hash = CountMinSketch.spread(key);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long sum = 0;
+            for (int i = 0; i < getSampleCount(); i++) {
+                CountMinSketch sketch = getValidValue(i, timeMillis);
+                if (sketch != null) {
+                    sum += sketch.getCounter(sketch.indexOf(hash, row));
+                }
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    public void add(long key, int count) {
+        currentWindow().value().add(key, count);
+    }
+}
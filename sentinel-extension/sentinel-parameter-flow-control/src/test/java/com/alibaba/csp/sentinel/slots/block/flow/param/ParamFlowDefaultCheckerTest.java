@@ -17,6 +17,8 @@ package com.alibaba.csp.sentinel.slots.block.flow.param;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.concurrent.CountDownLatch;
@@ -120,6 +122,73 @@ public class ParamFlowDefaultCheckerTest extends AbstractTimeBasedTest {
         assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
     }
 
+    @Test
+    public void testParamFlowDefaultCheckSingleQpsWithPrimitiveCounter() {
+        final String resourceName = "testParamFlowDefaultCheckSingleQpsWithPrimitiveCounter";
+        final ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.IN);
+        int paramIdx = 0;
+
+        long threshold = 5L;
+
+        ParamFlowRule rule = new ParamFlowRule(resourceName)
+            .setCount(threshold)
+            .setParamIdx(paramIdx);
+
+        String valueA = "valueA";
+        long valueB = 10086L;
+        ParameterMetric metric = new ParameterMetric(true);
+        ParameterMetricStorage.getMetricsMap().put(resourceWrapper.getName(), metric);
+        metric.initialize(rule);
+        assertNull(metric.getRuleTokenCounter(rule));
+        assertNotNull(metric.getRuleTokenStore(rule));
+
+        // We mock the time directly to avoid unstable behaviour.
+        setCurrentMillis(System.currentTimeMillis());
+
+        for (int i = 0; i < threshold; i++) {
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+        }
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 5, valueB));
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueB));
+
+        // The evicted counter is replenished.
+        metric.getRuleTokenStore(rule).remove(ParamFlowChecker.toPrimitiveKey(valueA));
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+        assertEquals(threshold - 1, ParamTokenBucket.tokens(
+            metric.getRuleTokenStore(rule).get(ParamFlowChecker.toPrimitiveKey(valueA))));
+
+        sleep(3000);
+        for (int i = 0; i < threshold; i++) {
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+        }
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+    }
+
+    @Test
+    public void testPrimitiveCounterSeparatesValueTypes() {
+        final String resourceName = "testPrimitiveCounterSeparatesValueTypes";
+        final ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.IN);
+        ParamFlowRule rule = new ParamFlowRule(resourceName)
+            .setCount(1)
+            .setParamIdx(0);
+        ParameterMetric metric = new ParameterMetric(true);
+        ParameterMetricStorage.getMetricsMap().put(resourceWrapper.getName(), metric);
+        metric.initialize(rule);
+
+        setCurrentMillis(System.currentTimeMillis());
+
+        // Equal numbers of different types are different parameters, as in the boxed counters.
+        Object[] values = new Object[] {1L, 1, (short)1, (byte)1, (char)1, "1"};
+        for (Object value : values) {
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, value));
+        }
+        for (Object value : values) {
+            assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, value));
+        }
+        assertEquals(values.length, metric.getRuleTokenStore(rule).size());
+    }
+
     @Test
     public void testParamFlowDefaultCheckSingleQpsWithBurst() throws InterruptedException {
         final String resourceName = "testParamFlowDefaultCheckSingleQpsWithBurst";
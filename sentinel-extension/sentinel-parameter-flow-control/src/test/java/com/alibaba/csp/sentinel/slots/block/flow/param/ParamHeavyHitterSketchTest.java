@@ -0,0 +1,94 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamHeavyHitterSketch.HeavyHitterItem;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link ParamHeavyHitterSketch}.
+ */
+public class ParamHeavyHitterSketchTest extends AbstractTimeBasedTest {
+
+    @After
+    public void tearDown() {
+        ParameterMetricStorage.getMetricsMap().clear();
+    }
+
+    @Test
+    public void testHotValueThrottledAmongColdValues() {
+        setCurrentMillis(System.currentTimeMillis());
+        ParamHeavyHitterSketch sketch = new ParamHeavyHitterSketch(4, 1);
+        String hotValue = "hot";
+        long hotKey = ParamFlowChecker.toPrimitiveKey(hotValue);
+
+        int passed = 0;
+        for (int i = 0; i < 20000; i++) {
+            String coldValue = "cold-" + i;
+            assertTrue(sketch.tryAcquire(coldValue, ParamFlowChecker.toPrimitiveKey(coldValue), 1, 10));
+            if (sketch.tryAcquire(hotValue, hotKey, 1, 10)) {
+                passed++;
+            }
+        }
+        assertEquals(10, passed);
+
+        List<HeavyHitterItem> heavyHitters = sketch.getHeavyHitters();
+        assertTrue(heavyHitters.size() <= 4);
+        assertEquals(hotValue, heavyHitters.get(0).getValue());
+        assertEquals(10, heavyHitters.get(0).getCount());
+
+        // A new window.
+        sleep(1000);
+        assertTrue(sketch.tryAcquire(hotValue, hotKey, 10, 10));
+        assertFalse(sketch.tryAcquire(hotValue, hotKey, 1, 10));
+    }
+
+    @Test
+    public void testSketchModeCheck() {
+        String resourceName = "testSketchModeCheck";
+        ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.IN);
+        ParamFlowRule rule = new ParamFlowRule(resourceName)
+            .setParamIdx(0)
+            .setCount(5)
+            .setSketchMode(true)
+            .setSketchTopK(8);
+        assertTrue(ParamFlowRuleUtil.isValidRule(rule));
+        assertFalse(ParamFlowRuleUtil.isValidRule(new ParamFlowRule(resourceName).setParamIdx(0).setCount(5)
+            .setSketchMode(true).setSketchTopK(0)));
+
+        setCurrentMillis(System.currentTimeMillis());
+        ParameterMetricStorage.initParamMetricsFor(resourceWrapper, rule);
+        ParameterMetric metric = ParameterMetricStorage.getParamMetric(resourceWrapper);
+        assertNotNull(metric.getRuleSketch(rule));
+        assertNull(metric.getRuleTokenCounter(rule));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, 10086L));
+        }
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, 10086L));
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, 10087L));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link ParamTokenBucket}.
+ */
+public class ParamTokenBucketTest {
+
+    @Test
+    public void testPackAndAcquire() {
+        long now = System.currentTimeMillis();
+        long state = ParamTokenBucket.pack(now, 4);
+        assertTrue(state >= 0);
+        assertEquals(4, ParamTokenBucket.tokens(state));
+        assertEquals(0, ParamTokenBucket.elapsed(state, now));
+
+        state = ParamTokenBucket.tryAcquire(state, now + 500, 3, 5, 5, 1000);
+        assertEquals(1, ParamTokenBucket.tokens(state));
+        assertEquals(500, ParamTokenBucket.elapsed(state, now + 500));
+        assertEquals(ParamTokenBucket.BLOCKED, ParamTokenBucket.tryAcquire(state, now + 1000, 2, 5, 5, 1000));
+
+        // Replenished after the window, with the refill time updated.
+        state = ParamTokenBucket.tryAcquire(state, now + 1001, 2, 5, 5, 1000);
+        assertEquals(3, ParamTokenBucket.tokens(state));
+        assertEquals(0, ParamTokenBucket.elapsed(state, now + 1001));
+    }
+
+    @Test
+    public void testLongIntervalAndClockBackwards() {
+        long now = System.currentTimeMillis();
+        long maxCount = ParamTokenBucket.MAX_TOKENS;
+        long state = ParamTokenBucket.pack(now, 0);
+        // 100 days passed, which must not overflow.
+        state = ParamTokenBucket.tryAcquire(state, now + 100L * 24 * 3600 * 1000, 1, maxCount, maxCount, 1000);
+        assertEquals(maxCount - 1, ParamTokenBucket.tokens(state));
+
+        state = ParamTokenBucket.pack(now, 1);
+        assertEquals(0, ParamTokenBucket.elapsed(state, now - 10));
+        assertEquals(ParamTokenBucket.BLOCKED, ParamTokenBucket.tryAcquire(state, now - 10, 2, 5, 5, 1000));
+    }
+
+    @Test
+    public void testFits() {
+        assertTrue(ParamTokenBucket.fits(ParamTokenBucket.MAX_TOKENS));
+        assertFalse(ParamTokenBucket.fits(ParamTokenBucket.MAX_TOKENS + 1));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link LongKeyCounterMap}.
+ */
+public class LongKeyCounterMapTest {
+
+    @Test
+    public void testPutGetAndCompareAndSet() {
+        LongKeyCounterMap map = new LongKeyCounterMap(100);
+        assertEquals(128, map.capacity());
+
+        assertEquals(LongKeyCounterMap.NO_VALUE, map.get(-1L));
+        assertEquals(LongKeyCounterMap.NO_VALUE, map.putIfAbsent(-1L, 5));
+        assertEquals(5, map.putIfAbsent(-1L, 6));
+        assertEquals(5, map.get(-1L));
+
+        assertFalse(map.compareAndSet(-1L, 4, 3));
+        assertTrue(map.compareAndSet(-1L, 5, 3));
+        assertEquals(3, map.get(-1L));
+        assertFalse(map.compareAndSet(2L, 0, 1));
+
+        assertEquals(3, map.put(-1L, 0));
+        assertEquals(LongKeyCounterMap.NO_VALUE, map.put(2L, 7));
+        assertEquals(2, map.size());
+
+        assertEquals(0, map.remove(-1L));
+        assertFalse(map.containsKey(-1L));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(2L));
+    }
+
+    @Test
+    public void testBoundedWithClockEviction() {
+        int capacity = 1024;
+        LongKeyCounterMap map = new LongKeyCounterMap(capacity);
+        for (long i = 0; i < capacity * 10; i++) {
+            map.put(i, i);
+        }
+        assertTrue(map.size() <= capacity);
+
+        // A frequently accessed key survives the eviction.
+        long hotKey = -100L;
+        map.put(hotKey, 1);
+        for (long i = 0; i < capacity * 10; i++) {
+            map.put(i + capacity * 10, i);
+            assertEquals(1, map.get(hotKey));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectNoValue() {
+        new LongKeyCounterMap(16).put(1L, LongKeyCounterMap.NO_VALUE);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.sketch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link CountMinSketch}.
+ */
+public class CountMinSketchTest {
+
+    @Test
+    public void testEstimateNeverUnderCounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        for (long key = 0; key < 10000; key++) {
+            sketch.add(key, (int)(key % 7) + 1);
+        }
+        for (long key = 0; key < 10000; key++) {
+            assertTrue(sketch.estimate(key) >= (key % 7) + 1);
+        }
+    }
+
+    @Test
+    public void testHeavyHitterEstimatedAccurately() {
+        CountMinSketch sketch = new CountMinSketch(4, 2048);
+        long hotKey = 123456789L;
+        for (long key = 0; key < 5000; key++) {
+            sketch.add(key, 1);
+            sketch.add(hotKey, 2);
+        }
+        int estimate = sketch.estimate(hotKey);
+        assertTrue(estimate >= 10000);
+        // Bounded by e / width of the total count (15000), i.e. about 20.
+        assertTrue(estimate <= 10000 + 20);
+
+        sketch.reset();
+        assertEquals(0, sketch.estimate(hotKey));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWidth() {
+        new CountMinSketch(4, 1000);
+    }
+}